@@ -0,0 +1,22 @@
+#!/bin/bash
+
+# Scientific Calculator - Benchmark Script (Unix/Mac)
+# Builds the calculator and the JMH benchmarks, then runs them and saves
+# the results as JSON under benchmarks/results/ for comparison between releases.
+#
+# Usage: benchmarks/run.sh [label] [JMH options...]
+#   label defaults to the current git commit (or "local" outside git)
+#   e.g. benchmarks/run.sh 1.0 "ScientificOperationsBenchmark.*" -f 1
+
+cd "$(dirname "$0")/.." || exit 1
+
+LABEL="${1:-$(git rev-parse --short HEAD 2>/dev/null || echo local)}"
+shift 2>/dev/null
+
+echo "→ Building calculator and benchmarks..."
+mvn -B -q install -DskipTests || exit 1
+mvn -B -q -f benchmarks/pom.xml package || exit 1
+
+mkdir -p benchmarks/results
+echo "→ Running benchmarks (results: benchmarks/results/$LABEL.json)..."
+java -jar benchmarks/target/benchmarks.jar -rf json -rff "benchmarks/results/$LABEL.json" "$@"
@@ -0,0 +1,56 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.Constants;
+import com.calculator.util.CalculationHistory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link CalculationHistory}, measured on a history that is
+ * already full so every insert also pays for evicting the oldest entry.
+ * Scores are average nanoseconds per call, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CalculationHistoryBenchmark {
+    
+    @Param({"" + Constants.DEFAULT_HISTORY_SIZE, "10000", "1000000"})
+    public int capacity;
+    
+    private CalculationHistory history;
+    
+    @Setup(Level.Trial)
+    public void fill() {
+        history = new CalculationHistory(capacity);
+        for (int i = 0; i < capacity; i++) {
+            history.addEntry("5 + 3", 8.0);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void addEntry(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            history.addEntry("5 + 3", in.a[i]);
+        }
+        bh.consume(history);
+    }
+}
@@ -0,0 +1,155 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.Calculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for every public method of {@link Calculator}.
+ * Scores are average nanoseconds per call, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CalculatorBenchmark {
+    
+    private final Calculator calculator = new Calculator();
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void add(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.add(in.a[i], in.b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void subtract(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.subtract(in.a[i], in.b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void multiply(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.multiply(in.a[i], in.b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void divide(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(calculator.divide(in.a[i], in.b[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void modulus(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(calculator.modulus(in.a[i], in.b[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void absolute(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.absolute(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void negate(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.negate(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void memoryStore(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            calculator.memoryStore(in.a[i]);
+        }
+        bh.consume(calculator.getMemory());
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void memoryAdd(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            calculator.memoryAdd(in.a[i]);
+        }
+        bh.consume(calculator.getMemory());
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void memorySubtract(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            calculator.memorySubtract(in.a[i]);
+        }
+        bh.consume(calculator.getMemory());
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void memoryClear(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            calculator.memoryClear();
+        }
+        bh.consume(calculator.getMemory());
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void memoryRecall(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.memoryRecall());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void getLastResult(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.getLastResult());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void getMemory(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(calculator.getMemory());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.ConcurrentCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks one {@link ConcurrentCalculator} shared by 64 threads.
+ * Scores are throughput in operations per microsecond across all threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@Threads(64)
+@State(Scope.Benchmark)
+public class ConcurrentCalculatorBenchmark {
+    
+    private final ConcurrentCalculator calculator = new ConcurrentCalculator();
+    
+    @Benchmark
+    public double add() {
+        return calculator.add(1.5, 2.5);
+    }
+    
+    @Benchmark
+    public void memoryAdd() {
+        calculator.memoryAdd(1.0);
+    }
+    
+    @Benchmark
+    public double memoryRecall() {
+        return calculator.memoryRecall();
+    }
+}
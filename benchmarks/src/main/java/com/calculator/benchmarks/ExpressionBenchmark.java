@@ -0,0 +1,87 @@
+package com.calculator.benchmarks;
+
+import com.calculator.expr.CompiledExpression;
+import com.calculator.expr.ExpressionCompiler;
+import com.calculator.expr.GeneratedExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of evaluating a formula: the stack-machine interpreter
+ * of {@link CompiledExpression}, the bytecode of {@link GeneratedExpression}
+ * and the same formula written by hand in Java.
+ * Scores are average nanoseconds per evaluation, over {@link Inputs#SIZE} points.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ExpressionBenchmark {
+    
+    private static final String FORMULA = "sqrt(x*x + y*y) * exp(-x/4) + sin(x)*cos(y) - 0.5*y^3";
+    
+    private CompiledExpression interpreted;
+    private GeneratedExpression generated;
+    private double[] stack;
+    private final double[] x = new double[Inputs.SIZE];
+    private final double[] y = new double[Inputs.SIZE];
+    private final double[] values = new double[2];
+    
+    @Setup(Level.Trial)
+    public void create() {
+        interpreted = ExpressionCompiler.compile(FORMULA, "x", "y");
+        generated = interpreted.generate();
+        stack = new double[interpreted.getStackSize()];
+        Random random = new Random(42);
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            x[i] = random.nextDouble() * 20 - 10;
+            y[i] = random.nextDouble() * 20 - 10;
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void interpreted(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            values[0] = x[i];
+            values[1] = y[i];
+            bh.consume(interpreted.evaluate(values, stack));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void generated(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            values[0] = x[i];
+            values[1] = y[i];
+            bh.consume(generated.eval(values));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void handWritten(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            double a = x[i];
+            double b = y[i];
+            bh.consume(Math.sqrt(a * a + b * b) * Math.exp(-a / 4) + Math.sin(a) * Math.cos(b) - 0.5 * Math.pow(b, 3));
+        }
+    }
+}
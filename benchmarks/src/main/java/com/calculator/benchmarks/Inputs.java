@@ -0,0 +1,80 @@
+package com.calculator.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+
+/**
+ * Shared benchmark inputs, generated from a fixed seed so every run and
+ * every release measures exactly the same values.
+ * 
+ * Ranges:
+ * - small:       moderate magnitudes in [-10, 10]
+ * - large:       magnitudes between 1e6 and 1e300
+ * - subnormal:   values below Double.MIN_NORMAL
+ * - outOfDomain: negative values, so checked operations take their error path
+ */
+@State(Scope.Benchmark)
+public class Inputs {
+    
+    /** Number of inputs consumed by one benchmark invocation. */
+    public static final int SIZE = 1024;
+    
+    @Param({"small", "large", "subnormal", "outOfDomain"})
+    public String range;
+    
+    public double[] a;
+    public double[] b;
+    public int[] n;
+    public int[] r;
+    
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        a = new double[SIZE];
+        b = new double[SIZE];
+        n = new int[SIZE];
+        r = new int[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            a[i] = next(random);
+            b[i] = next(random);
+            switch (range) {
+                case "small":
+                    n[i] = random.nextInt(21);
+                    break;
+                case "large":
+                    n[i] = 150 + random.nextInt(21);
+                    break;
+                case "subnormal":
+                    n[i] = random.nextInt(2);
+                    break;
+                case "outOfDomain":
+                    n[i] = random.nextBoolean() ? -1 - random.nextInt(10) : 171 + random.nextInt(100);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown range: " + range);
+            }
+            r[i] = n[i] > 0 ? random.nextInt(n[i] + 1) : 0;
+        }
+    }
+    
+    private double next(Random random) {
+        switch (range) {
+            case "small":
+                return random.nextDouble() * 20 - 10;
+            case "large":
+                double magnitude = Math.pow(10, 6 + random.nextDouble() * 294);
+                return random.nextBoolean() ? magnitude : -magnitude;
+            case "subnormal":
+                return Double.MIN_VALUE * (1 + random.nextInt(1 << 20));
+            case "outOfDomain":
+                return -1 - random.nextDouble() * 1000;
+            default:
+                throw new IllegalArgumentException("Unknown range: " + range);
+        }
+    }
+}
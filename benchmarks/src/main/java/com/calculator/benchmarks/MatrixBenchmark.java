@@ -0,0 +1,123 @@
+package com.calculator.benchmarks;
+
+import com.calculator.linalg.Matrix;
+import org.apache.commons.math3.linear.BlockRealMatrix;
+import org.apache.commons.math3.linear.CholeskyDecomposition;
+import org.apache.commons.math3.linear.LUDecomposition;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dense linear algebra of {@code com.calculator.linalg} against Apache
+ * Commons Math (its cache-blocked {@link BlockRealMatrix} and decompositions),
+ * on random n x n matrices. Scores are average milliseconds per operation;
+ * a multiplication is 2n^3 floating-point operations, so
+ * GFLOP/s = 2n^3 / (score * 1e6).
+ * 
+ * The large sizes take seconds per operation; select sizes with
+ * {@code -p size=64,256}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MatrixBenchmark {
+    
+    @Param({"64", "128", "256", "512", "1024", "2048", "4096"})
+    public int size;
+    
+    private Matrix a;
+    private Matrix b;
+    private Matrix spd;
+    private RealMatrix commonsA;
+    private RealMatrix commonsB;
+    private RealMatrix commonsSpd;
+    
+    @Setup(Level.Trial)
+    public void create() {
+        Random random = new Random(42);
+        a = random(size, random);
+        b = random(size, random);
+        // A * A^T + n * I is symmetric positive definite and well conditioned
+        spd = a.multiply(a.transpose()).add(Matrix.identity(size).scale(size));
+        commonsA = new BlockRealMatrix(a.toArray());
+        commonsB = new BlockRealMatrix(b.toArray());
+        commonsSpd = new BlockRealMatrix(spd.toArray());
+    }
+    
+    private static Matrix random(int n, Random random) {
+        Matrix matrix = new Matrix(n, n);
+        double[] data = matrix.getData();
+        for (int i = 0; i < data.length; i++) {
+            data[i] = random.nextDouble() * 2 - 1;
+        }
+        return matrix;
+    }
+    
+    @Benchmark
+    public Matrix multiply() {
+        return a.multiply(b);
+    }
+    
+    @Benchmark
+    public RealMatrix multiplyCommonsMath() {
+        return commonsA.multiply(commonsB);
+    }
+    
+    @Benchmark
+    public Object lu() {
+        return a.lu();
+    }
+    
+    @Benchmark
+    public Object luCommonsMath() {
+        return new LUDecomposition(commonsA).getSolver();
+    }
+    
+    @Benchmark
+    public Object qr() {
+        return a.qr();
+    }
+    
+    @Benchmark
+    public Object qrCommonsMath() {
+        return new QRDecomposition(commonsA).getSolver();
+    }
+    
+    @Benchmark
+    public Object cholesky() {
+        return spd.cholesky();
+    }
+    
+    @Benchmark
+    public Object choleskyCommonsMath() {
+        return new CholeskyDecomposition(commonsSpd).getSolver();
+    }
+    
+    @Benchmark
+    public Matrix inverse() {
+        return a.inverse();
+    }
+    
+    @Benchmark
+    public RealMatrix inverseCommonsMath() {
+        return new LUDecomposition(commonsA).getSolver().getInverse();
+    }
+}
@@ -0,0 +1,101 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.MemoizingScientificOperations;
+import com.calculator.core.ScientificOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link MemoizingScientificOperations} against the plain
+ * operations, on arguments drawn from a small set of distinct values.
+ * With {@code distinct} above the cache capacity most calls miss, which
+ * measures the cost of a lookup that does not pay off.
+ * Scores are average nanoseconds per call, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MemoizingScientificOperationsBenchmark {
+    
+    /** Number of distinct argument pairs cycled through. */
+    @Param({"16", "1024", "65536"})
+    public int distinct;
+    
+    private final ScientificOperations plain = new ScientificOperations();
+    private final MemoizingScientificOperations cached = new MemoizingScientificOperations(4096);
+    /** Pool of arguments, larger than the cache; each invocation takes the next SIZE of them. */
+    private static final int POOL = 1 << 16;
+    
+    private final double[] a = new double[POOL];
+    private final double[] b = new double[POOL];
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void generate() {
+        Random random = new Random(42);
+        double[] values = new double[distinct];
+        for (int i = 0; i < distinct; i++) {
+            values[i] = 1 + random.nextDouble() * 100;
+        }
+        for (int i = 0; i < POOL; i++) {
+            a[i] = values[random.nextInt(distinct)];
+            b[i] = values[random.nextInt(Math.min(distinct, 8))] / 10;
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void power(Blackhole bh) {
+        for (int i = advance(), end = i + Inputs.SIZE; i < end; i++) {
+            bh.consume(plain.power(a[i], b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void powerCached(Blackhole bh) {
+        for (int i = advance(), end = i + Inputs.SIZE; i < end; i++) {
+            bh.consume(cached.power(a[i], b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void logBase(Blackhole bh) {
+        for (int i = advance(), end = i + Inputs.SIZE; i < end; i++) {
+            bh.consume(plain.logBase(a[i], b[i] + 1));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void logBaseCached(Blackhole bh) {
+        for (int i = advance(), end = i + Inputs.SIZE; i < end; i++) {
+            bh.consume(cached.logBase(a[i], b[i] + 1));
+        }
+    }
+    
+    private int advance() {
+        int start = next;
+        next = (next + Inputs.SIZE) & (POOL - 1);
+        return start;
+    }
+}
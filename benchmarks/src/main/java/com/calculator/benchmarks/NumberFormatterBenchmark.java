@@ -0,0 +1,89 @@
+package com.calculator.benchmarks;
+
+import com.calculator.util.NumberFormatter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NumberFormatter}.
+ * Scores are average nanoseconds per call, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class NumberFormatterBenchmark {
+    
+    private final StringBuilder builder = new StringBuilder(NumberFormatter.MAX_LENGTH);
+    private final char[] chars = new char[NumberFormatter.MAX_LENGTH];
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void format(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberFormatter.format(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void formatDecimalPlaces(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberFormatter.format(in.a[i], 4));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void formatIntoBuilder(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            builder.setLength(0);
+            bh.consume(NumberFormatter.format(in.a[i], builder));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void formatIntoChars(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberFormatter.format(in.a[i], chars, 0));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void formatRoundTripIntoChars(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberFormatter.formatRoundTrip(in.a[i], chars, 0));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void doubleToString(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(Double.toString(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void isWholeNumber(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberFormatter.isWholeNumber(in.a[i]));
+        }
+    }
+}
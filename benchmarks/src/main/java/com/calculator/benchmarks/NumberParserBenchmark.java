@@ -0,0 +1,75 @@
+package com.calculator.benchmarks;
+
+import com.calculator.util.NumberParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for {@link NumberParser} against {@link Double#parseDouble}.
+ * The texts are the shortest representations of {@link Inputs#a}.
+ * Scores are average nanoseconds per number, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class NumberParserBenchmark {
+    
+    private String[] strings;
+    private byte[] bytes;
+    private int[] offsets;
+    
+    @Setup(Level.Trial)
+    public void encode(Inputs in) {
+        strings = new String[Inputs.SIZE];
+        offsets = new int[Inputs.SIZE + 1];
+        StringBuilder all = new StringBuilder();
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            strings[i] = Double.toString(in.a[i]);
+            offsets[i] = all.length();
+            all.append(strings[i]);
+        }
+        offsets[Inputs.SIZE] = all.length();
+        bytes = all.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void parseString(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberParser.parseDouble(strings[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void parseBytes(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(NumberParser.parseDouble(bytes, offsets[i], offsets[i + 1]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void doubleParseDouble(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(Double.parseDouble(strings[i]));
+        }
+    }
+}
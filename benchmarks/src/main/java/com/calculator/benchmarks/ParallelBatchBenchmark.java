@@ -0,0 +1,85 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.ErrorMask;
+import com.calculator.core.ParallelBatch;
+import com.calculator.core.ScientificOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential versus fork-join batch evaluation over {@link #SIZE} elements.
+ * Scores are average nanoseconds per element; compare the parallel score
+ * against the sequential one to see how close scaling is to the core count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParallelBatchBenchmark {
+    
+    static final int SIZE = 1 << 22;
+    
+    @Param({"1024", "4096", "65536"})
+    public int chunkSize;
+    
+    private final ScientificOperations ops = new ScientificOperations();
+    private final double[] in = new double[SIZE];
+    private final double[] out = new double[SIZE];
+    private final ErrorMask errors = new ErrorMask(SIZE);
+    private ParallelBatch batch;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            in[i] = random.nextDouble() * 200 - 100;
+        }
+        batch = new ParallelBatch(ForkJoinPool.commonPool(), chunkSize);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void sinSequential(Blackhole bh) {
+        ops.sin(in, out, 0, SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public void sinParallel(Blackhole bh) {
+        batch.apply(ops::sin, in, out);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int naturalLogSequential() {
+        errors.clear();
+        return ops.naturalLog(in, out, 0, SIZE, errors);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(SIZE)
+    public int naturalLogParallel() {
+        errors.clear();
+        return batch.apply(ops::naturalLog, in, out, errors);
+    }
+}
@@ -0,0 +1,124 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.Precision;
+import com.calculator.core.ScientificOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the precision tiers of {@link ScientificOperations} on the
+ * functions that have a fast variant, scalar and batch.
+ * Scores are average nanoseconds per element, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PrecisionBenchmark {
+    
+    @Param({"STRICT", "FAST"})
+    public Precision precision;
+    
+    private ScientificOperations ops;
+    private final double[] positive = new double[Inputs.SIZE];
+    private final double[] out = new double[Inputs.SIZE];
+    
+    @Setup(Level.Trial)
+    public void create(Inputs in) {
+        ops = new ScientificOperations(precision);
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            positive[i] = Math.abs(in.a[i]);
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void exp(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.exp(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void naturalLog(Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.naturalLog(positive[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void power(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.power(positive[i], in.b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sin(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.sin(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cos(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.cos(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void expBatch(Inputs in, Blackhole bh) {
+        ops.exp(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void naturalLogBatch(Blackhole bh) {
+        bh.consume(ops.naturalLog(positive, out, 0, Inputs.SIZE, null));
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void powerBatch(Inputs in, Blackhole bh) {
+        ops.power(positive, in.b, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sinBatch(Inputs in, Blackhole bh) {
+        ops.sin(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cosBatch(Inputs in, Blackhole bh) {
+        ops.cos(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+}
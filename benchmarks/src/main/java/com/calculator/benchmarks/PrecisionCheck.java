@@ -0,0 +1,210 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.Precision;
+import com.calculator.core.ScientificOperations;
+
+import java.util.Random;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Checks the error bounds documented on {@link Precision#FAST} against
+ * StrictMath, whose results are the same on every JVM. Each function is
+ * sampled with fixed seeds over its whole range and around the arguments
+ * that are hardest for a fast kernel: the ends of its table intervals,
+ * arguments near 1 for naturalLog and power, and angles next to multiples
+ * of pi/2 for sin and cos.
+ * 
+ * Prints the largest difference found per function and exits with status 1
+ * if any exceeds its bound:
+ * <pre>
+ *   java -cp benchmarks/target/benchmarks.jar com.calculator.benchmarks.PrecisionCheck [samples]
+ * </pre>
+ */
+public final class PrecisionCheck {
+    
+    private static final ScientificOperations FAST = new ScientificOperations(Precision.FAST);
+    
+    // Bounds in ulps, as documented on Precision.FAST
+    private static final long EXP_BOUND = 1;
+    private static final long LOG_BOUND = 1;
+    private static final long TRIG_BOUND = 2;
+    private static final long POWER_BOUND = 1;
+    
+    // Largest angle the fast sin and cos reduce themselves
+    private static final double MAX_ANGLE = 0x1p20;
+    
+    private PrecisionCheck() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+    
+    public static void main(String[] args) {
+        int samples = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        boolean ok = true;
+        ok &= check("exp", EXP_BOUND, FAST::exp, StrictMath::exp, samples, PrecisionCheck::expArgument);
+        ok &= check("naturalLog", LOG_BOUND, FAST::naturalLog, StrictMath::log, samples, PrecisionCheck::logArgument);
+        ok &= check("sin", TRIG_BOUND, FAST::sin, StrictMath::sin, samples, PrecisionCheck::angle);
+        ok &= check("cos", TRIG_BOUND, FAST::cos, StrictMath::cos, samples, PrecisionCheck::angle);
+        ok &= checkPower(samples);
+        System.exit(ok ? 0 : 1);
+    }
+    
+    // ==================== Checks ====================
+    
+    private static boolean check(String name, long bound, DoubleUnaryOperator fast, DoubleUnaryOperator strict,
+                                 int samples, Sampler sampler) {
+        Random random = new Random(name.hashCode());
+        Worst worst = new Worst();
+        for (int i = 0; i < samples; i++) {
+            double x = sampler.next(random, i);
+            worst.record(x, 0, fast.applyAsDouble(x), strict.applyAsDouble(x));
+        }
+        return worst.report(name, bound);
+    }
+    
+    private static boolean checkPower(int samples) {
+        Random random = new Random("power".hashCode());
+        DoubleBinaryOperator fast = FAST::power;
+        Worst worst = new Worst();
+        for (int i = 0; i < samples; i++) {
+            double x;
+            double y;
+            switch (i % 5) {
+                case 0:
+                    // Any positive base, with an exponent that keeps the result finite and normal
+                    x = Math.exp((random.nextDouble() - 0.5) * 200);
+                    y = (random.nextDouble() - 0.5) * 1400 / Math.max(1, Math.abs(Math.log(x)));
+                    break;
+                case 1:
+                    // Bases near 1 with large exponents, where log x must be accurate to many bits
+                    x = 1 + (random.nextDouble() - 0.5) * 0x1p-20;
+                    y = (random.nextDouble() - 0.5) * 0x1p28;
+                    break;
+                case 2:
+                    // Bases within a few percent of 1 with the largest exponents that keep the result
+                    // finite, where y multiplies the error of log x by up to 10^5. |x - 1| stays above
+                    // 2^-20 to keep |y| below 2^31, past which StrictMath uses a coarser log near 1
+                    double offset = 0x1p-20 + random.nextDouble() * (0.025 - 0x1p-20);
+                    x = 1 + (random.nextBoolean() ? offset : -offset);
+                    y = (random.nextDouble() - 0.5) * 1400 / Math.abs(Math.log(x));
+                    break;
+                case 3:
+                    // Integral exponents
+                    x = random.nextDouble() * 100;
+                    y = random.nextInt(61) - 30;
+                    break;
+                default:
+                    // Small bases and fractional exponents, as in roots
+                    x = random.nextDouble() * 1000;
+                    y = 1.0 / (1 + random.nextInt(9));
+                    break;
+            }
+            double strict = StrictMath.pow(x, y);
+            if (strict != 0 && !Double.isInfinite(strict)) {
+                worst.record(x, y, fast.applyAsDouble(x, y), strict);
+            }
+        }
+        return worst.report("power", POWER_BOUND);
+    }
+    
+    // ==================== Samplers ====================
+    
+    private interface Sampler {
+        double next(Random random, int i);
+    }
+    
+    private static double expArgument(Random random, int i) {
+        switch (i % 3) {
+            case 0:
+                // Whole range with normal results
+                return -708 + random.nextDouble() * (709.78 + 708);
+            case 1:
+                // Small arguments, where exp x is close to 1 + x
+                return (random.nextDouble() - 0.5) * Math.scalb(1.0, -random.nextInt(40));
+            default:
+                // Next to multiples of ln 2 / 64, the ends of the table intervals
+                return nudge(random, (random.nextInt(2 * 64 * 1000) - 64 * 1000) * (Math.log(2) / 64));
+        }
+    }
+    
+    private static double logArgument(Random random, int i) {
+        switch (i % 3) {
+            case 0:
+                // Every normal binade
+                return Math.scalb(1 + random.nextDouble(), random.nextInt(2046) - 1022);
+            case 1:
+                // Near 1, where the result is small and cancellation is worst
+                return 1 + (random.nextDouble() - 0.5) * Math.scalb(1.0, -random.nextInt(50));
+            default:
+                // Next to powers of two and table points
+                return nudge(random, Math.scalb(1 + random.nextInt(128) / 128.0, random.nextInt(200) - 100));
+        }
+    }
+    
+    private static double angle(Random random, int i) {
+        switch (i % 3) {
+            case 0:
+                // Whole reduced range
+                return (random.nextDouble() * 2 - 1) * MAX_ANGLE;
+            case 1:
+                // Small angles
+                return (random.nextDouble() - 0.5) * Math.scalb(1.0, -random.nextInt(30));
+            default:
+                // Next to multiples of pi/2, where sin or cos is near zero and reduction must be exact
+                int k = random.nextInt((int) (MAX_ANGLE / (Math.PI / 2)));
+                return nudge(random, (random.nextBoolean() ? k : -k) * (Math.PI / 2));
+        }
+    }
+    
+    /** Moves a value by a few ulps either way. */
+    private static double nudge(Random random, double x) {
+        for (int steps = random.nextInt(8); steps > 0; steps--) {
+            x = random.nextBoolean() ? Math.nextUp(x) : Math.nextDown(x);
+        }
+        return x;
+    }
+    
+    // ==================== Worst Case ====================
+    
+    private static final class Worst {
+        private long ulps = -1;
+        private double x;
+        private double y;
+        private double fast;
+        private double strict;
+        
+        void record(double x, double y, double fast, double strict) {
+            long distance = ulpDistance(fast, strict);
+            if (distance > ulps) {
+                this.ulps = distance;
+                this.x = x;
+                this.y = y;
+                this.fast = fast;
+                this.strict = strict;
+            }
+        }
+        
+        boolean report(String name, long bound) {
+            boolean ok = ulps <= bound;
+            System.out.printf("%-10s max %d ulp (bound %d) at x=%s%s: fast %s, strict %s%s%n",
+                name, ulps, bound, x, y == 0 ? "" : " y=" + y, fast, strict, ok ? "" : "  FAILED");
+            return ok;
+        }
+    }
+    
+    /**
+     * Number of doubles between two results, counting +0.0 and -0.0 as
+     * equal and NaN as infinitely far from anything but NaN.
+     */
+    private static long ulpDistance(double a, double b) {
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            return Double.isNaN(a) && Double.isNaN(b) ? 0 : Long.MAX_VALUE;
+        }
+        return Math.abs(ordered(a) - ordered(b));
+    }
+    
+    private static long ordered(double x) {
+        long bits = Double.doubleToLongBits(x + 0.0);
+        return bits < 0 ? Long.MIN_VALUE - bits : bits;
+    }
+}
@@ -0,0 +1,293 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.ErrorMask;
+import com.calculator.core.ScientificOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the batch (array and DoubleBuffer) methods of {@link ScientificOperations}.
+ * Scores are average nanoseconds per call, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ScientificBatchBenchmark {
+    
+    private final ScientificOperations ops = new ScientificOperations();
+    private final double[] out = new double[Inputs.SIZE];
+    private final ErrorMask errors = new ErrorMask(Inputs.SIZE);
+    private DoubleBuffer input;
+    private DoubleBuffer output;
+    
+    @Setup(Level.Trial)
+    public void allocateBuffers(Inputs in) {
+        input = ByteBuffer.allocateDirect(Inputs.SIZE * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        input.put(in.a).clear();
+        output = ByteBuffer.allocateDirect(Inputs.SIZE * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void square(Inputs in, Blackhole bh) {
+        ops.square(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cube(Inputs in, Blackhole bh) {
+        ops.cube(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cubeRoot(Inputs in, Blackhole bh) {
+        ops.cubeRoot(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void exp(Inputs in, Blackhole bh) {
+        ops.exp(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void exp10(Inputs in, Blackhole bh) {
+        ops.exp10(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sin(Inputs in, Blackhole bh) {
+        ops.sin(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cos(Inputs in, Blackhole bh) {
+        ops.cos(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tan(Inputs in, Blackhole bh) {
+        ops.tan(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sinDeg(Inputs in, Blackhole bh) {
+        ops.sinDeg(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cosDeg(Inputs in, Blackhole bh) {
+        ops.cosDeg(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tanDeg(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.tanDeg(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void atan(Inputs in, Blackhole bh) {
+        ops.atan(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sinh(Inputs in, Blackhole bh) {
+        ops.sinh(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cosh(Inputs in, Blackhole bh) {
+        ops.cosh(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tanh(Inputs in, Blackhole bh) {
+        ops.tanh(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void toRadians(Inputs in, Blackhole bh) {
+        ops.toRadians(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void toDegrees(Inputs in, Blackhole bh) {
+        ops.toDegrees(in.a, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void squareRoot(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.squareRoot(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void naturalLog(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.naturalLog(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void log10(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.log10(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void asin(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.asin(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void acos(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.acos(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void reciprocal(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.reciprocal(in.a, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void power(Inputs in, Blackhole bh) {
+        ops.power(in.a, in.b, out, 0, Inputs.SIZE);
+        bh.consume(out);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void nthRoot(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.nthRoot(in.a, in.b, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void logBase(Inputs in, Blackhole bh) {
+        errors.clear();
+        bh.consume(ops.logBase(in.a, in.b, out, 0, Inputs.SIZE, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sinBuffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        ops.sin(input, output);
+        bh.consume(output);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cosBuffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        ops.cos(input, output);
+        bh.consume(output);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tanBuffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        ops.tan(input, output);
+        bh.consume(output);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void expBuffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        ops.exp(input, output);
+        bh.consume(output);
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void squareRootBuffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        errors.clear();
+        bh.consume(ops.squareRoot(input, output, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void naturalLogBuffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        errors.clear();
+        bh.consume(ops.naturalLog(input, output, errors));
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void log10Buffer(Inputs in, Blackhole bh) {
+        input.clear();
+        output.clear();
+        errors.clear();
+        bh.consume(ops.log10(input, output, errors));
+    }
+}
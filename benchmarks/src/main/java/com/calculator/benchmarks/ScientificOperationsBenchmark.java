@@ -0,0 +1,355 @@
+package com.calculator.benchmarks;
+
+import com.calculator.core.ScientificOperations;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for every scalar public method of {@link ScientificOperations}.
+ * Scores are average nanoseconds per call, over {@link Inputs#SIZE} inputs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ScientificOperationsBenchmark {
+    
+    private final ScientificOperations ops = new ScientificOperations();
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void power(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.power(in.a[i], in.b[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void nthRoot(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.nthRoot(in.a[i], in.b[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void logBase(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.logBase(in.a[i], in.b[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void square(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.square(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cube(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.cube(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cubeRoot(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.cubeRoot(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void exp(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.exp(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void exp10(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.exp10(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sin(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.sin(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cos(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.cos(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tan(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.tan(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sinDeg(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.sinDeg(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cosDeg(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.cosDeg(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tanDeg(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.tanDeg(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void atan(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.atan(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void sinh(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.sinh(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void cosh(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.cosh(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void tanh(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.tanh(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void toRadians(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.toRadians(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void toDegrees(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.toDegrees(in.a[i]));
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void squareRoot(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.squareRoot(in.a[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void naturalLog(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.naturalLog(in.a[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void log10(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.log10(in.a[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void asin(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.asin(in.a[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void acos(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.acos(in.a[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void reciprocal(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.reciprocal(in.a[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void factorial(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.factorial(in.n[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void permutation(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.permutation(in.n[i], in.r[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void combination(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.combination(in.n[i], in.r[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void permutationExact(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.permutationExact(in.n[i], in.r[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void combinationExact(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            try {
+                bh.consume(ops.combinationExact(in.n[i], in.r[i]));
+            } catch (ArithmeticException e) {
+                bh.consume(e);
+            }
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void getPi(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.getPi());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void getE(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.getE());
+        }
+    }
+    
+    @Benchmark
+    @OperationsPerInvocation(Inputs.SIZE)
+    public void getGoldenRatio(Inputs in, Blackhole bh) {
+        for (int i = 0; i < Inputs.SIZE; i++) {
+            bh.consume(ops.getGoldenRatio());
+        }
+    }
+}
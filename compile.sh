@@ -27,7 +27,57 @@ javac -d "$OUT_DIR" \
     "$SRC_DIR/com/calculator/ui/ConsoleUI.java" \
     "$SRC_DIR/com/calculator/util/InputHandler.java" \
     "$SRC_DIR/com/calculator/util/CalculationHistory.java" \
-    "$SRC_DIR/com/calculator/util/NumberFormatter.java"
+    "$SRC_DIR/com/calculator/util/NumberFormatter.java" \
+    "$SRC_DIR/com/calculator/expr/ExpressionCompiler.java" \
+    "$SRC_DIR/com/calculator/expr/CompiledExpression.java" \
+    "$SRC_DIR/com/calculator/expr/ExpressionException.java" \
+    "$SRC_DIR/com/calculator/expr/Parser.java" \
+    "$SRC_DIR/com/calculator/expr/OpCodes.java" \
+    "$SRC_DIR/com/calculator/core/ErrorMask.java" \
+    "$SRC_DIR/com/calculator/core/ConcurrentCalculator.java" \
+    "$SRC_DIR/com/calculator/util/ExpressionDictionary.java" \
+    "$SRC_DIR/com/calculator/util/HistoryListener.java" \
+    "$SRC_DIR/com/calculator/util/HistoryJournal.java" \
+    "$SRC_DIR/com/calculator/core/Combinatorics.java" \
+    "$SRC_DIR/com/calculator/core/PreciseMath.java" \
+    "$SRC_DIR/com/calculator/core/BinarySplitting.java" \
+    "$SRC_DIR/com/calculator/core/PreciseScientificOperations.java" \
+    "$SRC_DIR/com/calculator/core/PreciseCalculator.java" \
+    "$SRC_DIR/com/calculator/ui/BatchProcessor.java" \
+    "$SRC_DIR/com/calculator/core/ParallelBatch.java" \
+    "$SRC_DIR/com/calculator/util/DecimalConverter.java" \
+    "$SRC_DIR/com/calculator/util/NumberParser.java" \
+    "$SRC_DIR/com/calculator/core/MemoizingScientificOperations.java" \
+    "$SRC_DIR/com/calculator/core/DegreeTrig.java" \
+    "$SRC_DIR/com/calculator/core/DoubleDouble.java" \
+    "$SRC_DIR/com/calculator/core/ApproximateMath.java" \
+    "$SRC_DIR/com/calculator/core/Precision.java" \
+    "$SRC_DIR/com/calculator/metrics/LatencyHistogram.java" \
+    "$SRC_DIR/com/calculator/metrics/OperationStats.java" \
+    "$SRC_DIR/com/calculator/metrics/OperationMetrics.java" \
+    "$SRC_DIR/com/calculator/metrics/InstrumentedCalculator.java" \
+    "$SRC_DIR/com/calculator/metrics/InstrumentedScientificOperations.java" \
+    "$SRC_DIR/com/calculator/metrics/MetricsExporter.java" \
+    "$SRC_DIR/com/calculator/metrics/MetricsEndpoint.java" \
+    "$SRC_DIR/com/calculator/core/DomainError.java" \
+    "$SRC_DIR/com/calculator/server/Connection.java" \
+    "$SRC_DIR/com/calculator/server/EventLoop.java" \
+    "$SRC_DIR/com/calculator/server/CalculatorServer.java" \
+    "$SRC_DIR/com/calculator/server/LoadGenerator.java" \
+    "$SRC_DIR/com/calculator/server/SessionServer.java" \
+    "$SRC_DIR/com/calculator/expr/GeneratedExpression.java" \
+    "$SRC_DIR/com/calculator/expr/BytecodeGenerator.java" \
+    "$SRC_DIR/com/calculator/numeric/Integral.java" \
+    "$SRC_DIR/com/calculator/numeric/Integrator.java" \
+    "$SRC_DIR/com/calculator/numeric/RootFinder.java" \
+    "$SRC_DIR/com/calculator/stats/QuantileSketch.java" \
+    "$SRC_DIR/com/calculator/stats/Summary.java" \
+    "$SRC_DIR/com/calculator/stats/HistoryStatistics.java" \
+    "$SRC_DIR/com/calculator/linalg/Matrix.java" \
+    "$SRC_DIR/com/calculator/linalg/MatrixKernels.java" \
+    "$SRC_DIR/com/calculator/linalg/LUDecomposition.java" \
+    "$SRC_DIR/com/calculator/linalg/QRDecomposition.java" \
+    "$SRC_DIR/com/calculator/linalg/CholeskyDecomposition.java"
 
 # Check if compilation was successful
 if [ $? -eq 0 ]; then
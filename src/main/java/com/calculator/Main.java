@@ -1,8 +1,14 @@
 package com.calculator;
 
 import com.calculator.core.Constants;
+import com.calculator.server.CalculatorServer;
+import com.calculator.server.LoadGenerator;
+import com.calculator.server.SessionServer;
+import com.calculator.ui.BatchProcessor;
 import com.calculator.ui.ConsoleUI;
 
+import java.util.Arrays;
+
 /**
  * Scientific Calculator Application
  * Entry point for the console-based scientific calculator.
@@ -11,7 +17,8 @@ import com.calculator.ui.ConsoleUI;
  * 
  * 1. PACKAGE ORGANIZATION:
  *    - com.calculator.core    → Business logic (Calculator, ScientificOperations)
- *    - com.calculator.ui      → User interface (ConsoleUI)
+ *    - com.calculator.expr    → Expression engine (ExpressionCompiler, CompiledExpression)
+ *    - com.calculator.ui      → User interface (ConsoleUI, BatchProcessor)
  *    - com.calculator.util    → Utilities (InputHandler, CalculationHistory)
  * 
  * 2. NAMING CONVENTIONS:
@@ -41,11 +48,30 @@ public class Main {
     
     /**
      * Application entry point.
-     * Displays welcome banner and starts the calculator.
+     * Displays welcome banner and starts the calculator, or with
+     * "--batch [input] [output]" streams calculations without the menu,
+     * "--server" answers them over TCP and "--load" generates load for
+     * a server. "--sessions" serves the interactive menus to many users
+     * over TCP.
      * 
-     * @param args Command line arguments (not used)
+     * @param args Command line arguments
      */
     public static void main(String[] args) {
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            int status = BatchProcessor.run(Arrays.copyOfRange(args, 1, args.length));
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+        if (args.length > 0 && ("--server".equals(args[0]) || "--load".equals(args[0])
+                || "--sessions".equals(args[0]))) {
+            String[] options = Arrays.copyOfRange(args, 1, args.length);
+            int status = "--server".equals(args[0]) ? CalculatorServer.run(options)
+                : "--load".equals(args[0]) ? LoadGenerator.run(options) : SessionServer.run(options);
+            System.exit(status);
+        }
+        
         // Display welcome banner
         printWelcomeBanner();
         
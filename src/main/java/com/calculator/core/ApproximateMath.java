@@ -0,0 +1,312 @@
+package com.calculator.core;
+
+/**
+ * Fast exp, log, pow, sin and cos behind {@link Precision#FAST}.
+ * 
+ * Each function reduces its argument with a few exact steps, then
+ * evaluates a short polynomial around a table entry, and skips the
+ * extra work java.lang.Math does to get the last bit right. Arguments
+ * outside the range a kernel handles (NaN, infinities, subnormals,
+ * results that overflow or underflow, huge angles, negative bases) go
+ * to java.lang.Math, so special cases behave exactly as in
+ * {@link Precision#STRICT}.
+ * 
+ * The error bounds are listed on {@link Precision#FAST}.
+ */
+final class ApproximateMath {
+    
+    private ApproximateMath() {
+        throw new UnsupportedOperationException("ApproximateMath class cannot be instantiated");
+    }
+    
+    // Adding and subtracting this rounds a double below 2^51 to a whole number,
+    // which can then be read from the low bits of the sum
+    private static final double SHIFT = 0x1.8p52;
+    
+    // ==================== Exponential Tables ====================
+    
+    // EXP2[j] = 2^(j / 128) rounded to double, EXP2_TAIL[j] = the rest
+    private static final double[] EXP2 = new double[128];
+    private static final double[] EXP2_TAIL = new double[128];
+    
+    // 2^(1/128) as an unevaluated sum of two doubles
+    private static final double EXP2_STEP = 1.0054299011128027;
+    private static final double EXP2_STEP_TAIL = 9.499186535455032e-17;
+    
+    // 128 / ln 2, and ln 2 / 128 = LN2_128_HIGH + LN2_128_LOW with 32 bits in the high part
+    private static final double INV_LN2_128 = 184.6649652337873;
+    private static final double LN2_128_HIGH = 0x1.62e42feep-8;
+    private static final double LN2_128_LOW = 0x1.a39ef35793c76p-40;
+    
+    // e^x neither overflows nor goes subnormal below this magnitude
+    private static final double EXP_LIMIT = 708;
+    
+    // ==================== Logarithm Tables ====================
+    
+    // For 96 <= j <= 192: INV[j] = 128 / j rounded to 24 bits, so that a 22-bit number times
+    // INV[j] is exact; LOG[j] = -ln(INV[j]) rounded to double and LOG_TAIL[j] = the rest
+    private static final double[] INV = new double[193];
+    private static final double[] LOG = new double[193];
+    private static final double[] LOG_TAIL = new double[193];
+    
+    // ln 2 = LN2_HIGH + LN2_LOW, with 32 bits in the high part
+    private static final double LN2_HIGH = 0x1.62e42feep-1;
+    private static final double LN2_LOW = 0x1.a39ef35793c76p-33;
+    
+    // ==================== Trigonometric Tables ====================
+    
+    // SIN64[k] = sin(k pi / 32) rounded to double, SIN64_TAIL[k] = the rest, for 0 <= k < 64
+    private static final double[] SIN64 = new double[64];
+    private static final double[] SIN64_TAIL = new double[64];
+    
+    // sin(pi / 32) and cos(pi / 32) as unevaluated sums of two doubles
+    private static final double SIN_STEP = 0.0980171403295606;
+    private static final double SIN_STEP_TAIL = -1.634582362244256e-18;
+    private static final double COS_STEP = 0.9951847266721969;
+    private static final double COS_STEP_TAIL = -4.248691367830441e-17;
+    
+    // 32 / pi, and pi / 32 = PIO32_1 + PIO32_2 + PIO32_3, the first two with 29 bits
+    // so that n PIO32_1 and n PIO32_2 are exact for n below 2^24
+    private static final double INV_PIO32 = 10.185916357881302;
+    private static final double PIO32_1 = 0x1.921fb54p-4;
+    private static final double PIO32_2 = 0x1.10b4611p-34;
+    private static final double PIO32_3 = 0x1.4c4c6628b80dcp-63;
+    
+    // Angles are reduced here below this magnitude
+    private static final double TRIG_LIMIT = 0x1p20;
+    
+    // Reduced angles smaller than this may have lost relative accuracy; they go to Math
+    private static final double TRIG_CANCELLATION = 0x1p-30;
+    
+    static {
+        double[] power = {1, 0};
+        double[] step = {EXP2_STEP, EXP2_STEP_TAIL};
+        for (int j = 0; j < EXP2.length; j++) {
+            EXP2[j] = power[0];
+            EXP2_TAIL[j] = power[1];
+            power = DoubleDouble.multiply(power, step);
+        }
+        // Rotate by pi/32 at a time over the first quadrant, then use symmetry
+        double[] sin = {0, 0};
+        double[] cos = {1, 0};
+        double[] sinStep = {SIN_STEP, SIN_STEP_TAIL};
+        double[] cosStep = {COS_STEP, COS_STEP_TAIL};
+        for (int k = 0; k <= 8; k++) {
+            SIN64[k] = sin[0];
+            SIN64_TAIL[k] = sin[1];
+            SIN64[16 - k] = cos[0];
+            SIN64_TAIL[16 - k] = cos[1];
+            double[] nextSin = DoubleDouble.add(DoubleDouble.multiply(sin, cosStep),
+                DoubleDouble.multiply(cos, sinStep));
+            cos = DoubleDouble.add(DoubleDouble.multiply(cos, cosStep),
+                DoubleDouble.negate(DoubleDouble.multiply(sin, sinStep)));
+            sin = nextSin;
+        }
+        for (int k = 17; k < 64; k++) {
+            int j = k < 32 ? 32 - k : k < 48 ? k - 32 : 64 - k;
+            SIN64[k] = k < 32 ? SIN64[j] : 0.0 - SIN64[j];
+            SIN64_TAIL[k] = k < 32 ? SIN64_TAIL[j] : 0.0 - SIN64_TAIL[j];
+        }
+        for (int j = 96; j <= 192; j++) {
+            // ln(j / 128) = 2 atanh(s) with s = (j - 128) / (j + 128), |s| <= 1/5
+            double[] s = DoubleDouble.quotient(new double[] {j - 128, 0}, new double[] {j + 128, 0});
+            double[] s2 = DoubleDouble.multiply(s, s);
+            double[] term = s;
+            double[] sum = s;
+            for (int k = 3; k < 50; k += 2) {
+                term = DoubleDouble.multiply(term, s2);
+                sum = DoubleDouble.add(sum, DoubleDouble.quotient(term, new double[] {k, 0}));
+            }
+            double[] log = {2 * sum[0], 2 * sum[1]};
+            // INV[j] = (128 / j)(1 + d) with d exact and below 2^-24, so -ln(INV[j]) = ln(j / 128) - ln(1 + d)
+            double inv = Double.longBitsToDouble((Double.doubleToRawLongBits(128.0 / j) + (1L << 28)) & -(1L << 29));
+            double d = inv * j / 128 - 1;
+            double[] dPower = {d, 0};
+            double[] log1p = dPower;
+            for (int k = 2; k <= 4; k++) {
+                dPower = DoubleDouble.multiply(dPower, new double[] {-d, 0});
+                log1p = DoubleDouble.add(log1p, DoubleDouble.quotient(dPower, new double[] {k, 0}));
+            }
+            log = DoubleDouble.add(log, DoubleDouble.negate(log1p));
+            INV[j] = inv;
+            LOG[j] = log[0];
+            LOG_TAIL[j] = log[1];
+        }
+    }
+    
+    // ==================== Exponential and Logarithm ====================
+    
+    /**
+     * e^x.
+     */
+    static double exp(double x) {
+        if (!(Math.abs(x) < EXP_LIMIT)) {
+            return Math.exp(x);
+        }
+        return expKernel(x, 0);
+    }
+    
+    /**
+     * e^(high + low), for |high| < EXP_LIMIT and |low| tiny next to high.
+     */
+    private static double expKernel(double high, double low) {
+        // x = (k / 128) ln 2 + r, |r| <= ln 2 / 256, so e^x = 2^(k >> 7) 2^((k & 127) / 128) e^r
+        double kd = high * INV_LN2_128 + SHIFT;
+        int k = (int) Double.doubleToRawLongBits(kd);
+        kd -= SHIFT;
+        double r = (high - kd * LN2_128_HIGH) - kd * LN2_128_LOW + low;
+        double p = r + r * r * (0.5 + r * (1.0 / 6 + r * (1.0 / 24 + r * (1.0 / 120))));
+        int j = k & 127;
+        double t = EXP2[j];
+        double scale = Double.longBitsToDouble((long) ((k >> 7) + 1023) << 52);
+        return (t + (EXP2_TAIL[j] + t * p)) * scale;
+    }
+    
+    /**
+     * Natural logarithm.
+     */
+    static double log(double x) {
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY)) {
+            return Math.log(x);
+        }
+        // x = 2^e m with m in [0.75, 1.5), and m INV[j] = 1 + r with |r| < 1/190
+        long bits = Double.doubleToRawLongBits(x);
+        long mantissa = bits & ((1L << 52) - 1);
+        int half = (int) (mantissa >>> 51);
+        int e = (int) (bits >>> 52) - 1023 + half;
+        long mBits = mantissa | (long) (1023 - half) << 52;
+        double m = Double.longBitsToDouble(mBits);
+        int j = (int) Double.doubleToRawLongBits(m * 128 + SHIFT);
+        // Split m so that its high part times INV[j] is exact
+        double mHigh = Double.longBitsToDouble(mBits & -(1L << 32));
+        double inv = INV[j];
+        double r = (mHigh * inv - 1) + (m - mHigh) * inv;
+        double q = r * r * (-0.5 + r * (1.0 / 3 + r * (-0.25 + r * (0.2 + r * (-1.0 / 6 + r * (1.0 / 7))))));
+        // Sum e LN2_HIGH + LOG[j] + r exactly, so that only the final addition rounds
+        double a = e * LN2_HIGH;
+        double s = a + LOG[j];
+        double v = s - a;
+        double error = (a - (s - v)) + (LOG[j] - v);
+        double high = s + r;
+        v = high - s;
+        error += (s - (high - v)) + (r - v);
+        return high + (error + (e * LN2_LOW + LOG_TAIL[j] + q));
+    }
+    
+    /**
+     * x^y, computed as e^(y ln x) with ln x carried in double-double.
+     */
+    static double pow(double x, double y) {
+        if (!(x >= Double.MIN_NORMAL && x < Double.POSITIVE_INFINITY && Math.abs(y) < Double.POSITIVE_INFINITY)) {
+            return Math.pow(x, y);
+        }
+        long bits = Double.doubleToRawLongBits(x);
+        long mantissa = bits & ((1L << 52) - 1);
+        int half = (int) (mantissa >>> 51);
+        int e = (int) (bits >>> 52) - 1023 + half;
+        long mBits = mantissa | (long) (1023 - half) << 52;
+        double m = Double.longBitsToDouble(mBits);
+        int j = (int) Double.doubleToRawLongBits(m * 128 + SHIFT);
+        double mHigh = Double.longBitsToDouble(mBits & -(1L << 32));
+        double inv = INV[j];
+        double rHigh = mHigh * inv - 1;
+        double rLow = (m - mHigh) * inv;
+        double r = rHigh + rLow;
+        double rError = rLow - (r - rHigh);
+        // y can scale the error of ln x up to e^708, so r^2 / 2 is carried exactly: r^2 = r2 + r2Low
+        double rSplit = r * DoubleDouble.SPLIT;
+        double rh = rSplit - (rSplit - r);
+        double rl = r - rh;
+        double r2 = r * r;
+        double r2Low = ((rh * rh - r2) + 2 * rh * rl) + rl * rl;
+        double square = -0.5 * r2;
+        // Three more terms than log needs past the square
+        double q = r2 * r * (1.0 / 3 + r * (-0.25 + r * (0.2 + r * (-1.0 / 6
+            + r * (1.0 / 7 + r * (-0.125 + r * (1.0 / 9 + r * -0.1)))))));
+        // ln x = (e LN2_HIGH + LOG[j] + r - r2 / 2) + the small terms, the first four summed exactly
+        double a = e * LN2_HIGH;
+        double s = a + LOG[j];
+        double v = s - a;
+        double error = (a - (s - v)) + (LOG[j] - v);
+        double t = s + r;
+        v = t - s;
+        error += (s - (t - v)) + (r - v);
+        double logHigh = t + square;
+        v = logHigh - t;
+        error += (t - (logHigh - v)) + (square - v);
+        // -(r + rError)^2 / 2 = square - r2Low / 2 - r rError, to first order in rError
+        double logLow = error + (e * LN2_LOW + LOG_TAIL[j] + rError + (q - 0.5 * r2Low - r * rError));
+        double logSum = logHigh + logLow;
+        logLow -= logSum - logHigh;
+        logHigh = logSum;
+        // y ln x = z + zLow, with y and ln x cut to 26 bits so that their product is exact
+        double yHigh = Double.longBitsToDouble(Double.doubleToRawLongBits(y) & -(1L << 27));
+        double lHigh = Double.longBitsToDouble(Double.doubleToRawLongBits(logHigh) & -(1L << 27));
+        double lLow = (logHigh - lHigh) + logLow;
+        double z = yHigh * lHigh;
+        double zLow = (y - yHigh) * lHigh + y * lLow;
+        if (!(Math.abs(z) < EXP_LIMIT)) {
+            return Math.pow(x, y);
+        }
+        return expKernel(z, zLow);
+    }
+    
+    // ==================== Trigonometric Functions ====================
+    
+    /**
+     * Sine of an angle in radians.
+     */
+    static double sin(double x) {
+        if (!(Math.abs(x) < TRIG_LIMIT)) {
+            return Math.sin(x);
+        }
+        // x = n pi/32 + y with |y| <= pi/64; the first two products are exact
+        double nd = x * INV_PIO32 + SHIFT;
+        int n = (int) Double.doubleToRawLongBits(nd);
+        nd -= SHIFT;
+        double y = ((x - nd * PIO32_1) - nd * PIO32_2) - nd * PIO32_3;
+        if (Math.abs(y) < TRIG_CANCELLATION) {
+            return Math.sin(x);
+        }
+        int k = n & 63;
+        int j = (n + 16) & 63;
+        double s = SIN64[k];
+        double c = SIN64[j];
+        double z = y * y;
+        // sin(a + y) = sin a + (cos a sin y + sin a (cos y - 1)), smallest terms first
+        return s + (c * y + (SIN64_TAIL[k] + s * cosMinus1(z) + c * y * sinTail(z)));
+    }
+    
+    /**
+     * Cosine of an angle in radians.
+     */
+    static double cos(double x) {
+        if (!(Math.abs(x) < TRIG_LIMIT)) {
+            return Math.cos(x);
+        }
+        double nd = x * INV_PIO32 + SHIFT;
+        int n = (int) Double.doubleToRawLongBits(nd);
+        nd -= SHIFT;
+        double y = ((x - nd * PIO32_1) - nd * PIO32_2) - nd * PIO32_3;
+        if (Math.abs(y) < TRIG_CANCELLATION) {
+            return Math.cos(x);
+        }
+        int k = n & 63;
+        int j = (n + 16) & 63;
+        double s = SIN64[k];
+        double c = SIN64[j];
+        double z = y * y;
+        // cos(a + y) = cos a + (-sin a sin y + cos a (cos y - 1)), smallest terms first
+        return c + (-s * y + (SIN64_TAIL[j] + c * cosMinus1(z) - s * y * sinTail(z)));
+    }
+    
+    /** (sin y - y) / y for |y| <= pi/64, given z = y^2. */
+    private static double sinTail(double z) {
+        return z * (-1.0 / 6 + z * (1.0 / 120 + z * (-1.0 / 5040 + z * (1.0 / 362880))));
+    }
+    
+    /** cos y - 1 for |y| <= pi/64, given z = y^2. */
+    private static double cosMinus1(double z) {
+        return z * (-0.5 + z * (1.0 / 24 + z * (-1.0 / 720 + z * (1.0 / 40320))));
+    }
+}
@@ -0,0 +1,137 @@
+package com.calculator.core;
+
+import java.math.BigInteger;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Exact summation of series whose consecutive terms have a rational ratio,
+ * by binary splitting, for the arbitrary-precision functions in
+ * {@link PreciseMath}.
+ * 
+ * A series is
+ * <pre>
+ *   S = sum(n = start .. end-1) a(n) * prod(i = start .. n) p(i) / (q(i) * 2^shift)
+ * </pre>
+ * with small integers p, q and a. Summing it term by term costs one
+ * full-precision division per term; binary splitting instead combines the
+ * two halves of the range as exact fractions, so the numbers stay small
+ * until the last few levels and the work is a few multiplications of the
+ * final size. The two halves of a large range are split on the common
+ * fork-join pool, as are the independent multiplications that combine
+ * them, so long series use all cores.
+ * 
+ * Powers of two in the ratio are kept as the shift rather than multiplied
+ * into q, which keeps the denominators much shorter for the exp, sin and
+ * cos series of {@code r / 2^k}.
+ */
+abstract class BinarySplitting {
+    
+    // Ranges with fewer terms are summed on one thread
+    private static final int FORK_TERMS = 64;
+    // Products with a smaller operand than this are not worth a task
+    private static final int FORK_BITS = 1 << 15;
+    
+    private final int shift;
+    
+    /**
+     * Creates a series.
+     * @param shift Power of two dividing every term ratio
+     */
+    BinarySplitting(int shift) {
+        this.shift = shift;
+    }
+    
+    /**
+     * Numerator of the ratio of term n to term n - 1.
+     */
+    abstract BigInteger p(long n);
+    
+    /**
+     * Denominator of the ratio of term n to term n - 1, without the power of two.
+     */
+    abstract BigInteger q(long n);
+    
+    /**
+     * Polynomial factor of term n; 1 unless overridden.
+     */
+    BigInteger a(long n) {
+        return BigInteger.ONE;
+    }
+    
+    /**
+     * Sums terms [start, end) exactly.
+     * @return {T, Q} with S = T / (Q * 2^(shift * (end - start)))
+     */
+    final BigInteger[] sum(long start, long end) {
+        BigInteger[] result = new Split(start, end, false).compute();
+        return new BigInteger[] {result[1], result[2]};
+    }
+    
+    /**
+     * Sums terms [start, end) as a fixed-point number, truncated.
+     * @param bits Fractional bits of the result
+     * @return floor(S * 2^bits)
+     */
+    final BigInteger sumFixed(long start, long end, int bits) {
+        BigInteger[] tq = sum(start, end);
+        long scale = bits - (long) shift * (end - start);
+        return scale >= 0
+            ? tq[0].shiftLeft((int) scale).divide(tq[1])
+            : tq[0].divide(tq[1].shiftLeft((int) -scale));
+    }
+    
+    /**
+     * Sums a range, returning {P, T, Q}; P is the product of the ratios
+     * and is only computed when a range to the right needs it.
+     */
+    private final class Split extends RecursiveTask<BigInteger[]> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final long start;
+        private final long end;
+        private final boolean needP;
+        
+        Split(long start, long end, boolean needP) {
+            this.start = start;
+            this.end = end;
+            this.needP = needP;
+        }
+        
+        @Override
+        protected BigInteger[] compute() {
+            if (end - start == 1) {
+                BigInteger p = p(start);
+                return new BigInteger[] {p, p.multiply(a(start)), q(start)};
+            }
+            long middle = (start + end) >>> 1;
+            Split left = new Split(start, middle, true);
+            Split right = new Split(middle, end, needP);
+            BigInteger[] l;
+            BigInteger[] r;
+            if (end - start >= FORK_TERMS) {
+                left.fork();
+                r = right.compute();
+                l = left.join();
+            } else {
+                l = left.compute();
+                r = right.compute();
+            }
+            // T = Tl * Qr * 2^(shift * right terms) + Pl * Tr, Q = Ql * Qr, P = Pl * Pr
+            long rightShift = (long) shift * (end - middle);
+            if (Math.min(l[0].bitLength(), r[1].bitLength()) < FORK_BITS) {
+                return new BigInteger[] {
+                    needP ? l[0].multiply(r[0]) : null,
+                    l[1].multiply(r[2]).shiftLeft((int) rightShift).add(l[0].multiply(r[1])),
+                    l[2].multiply(r[2])
+                };
+            }
+            ForkJoinTask<BigInteger> crossRight = ForkJoinTask.adapt(() -> l[0].multiply(r[1])).fork();
+            ForkJoinTask<BigInteger> denominator = ForkJoinTask.adapt(() -> l[2].multiply(r[2])).fork();
+            BigInteger p = needP ? l[0].multiply(r[0]) : null;
+            BigInteger t = l[1].multiply(r[2]).shiftLeft((int) rightShift).add(crossRight.join());
+            return new BigInteger[] {p, t, denominator.join()};
+        }
+    }
+}
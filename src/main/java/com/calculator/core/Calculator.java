@@ -3,6 +3,9 @@ package com.calculator.core;
 /**
  * Calculator class providing basic arithmetic operations.
  * Handles addition, subtraction, multiplication, division, and modulus.
+ * 
+ * Instances are not thread-safe. Use {@link ConcurrentCalculator} to share
+ * one calculator between threads.
  */
 public class Calculator {
     
@@ -23,8 +26,7 @@ public class Calculator {
      * @return Sum of a and b
      */
     public double add(double a, double b) {
-        lastResult = a + b;
-        return lastResult;
+        return record(a + b);
     }
     
     /**
@@ -34,8 +36,7 @@ public class Calculator {
      * @return Difference of a and b
      */
     public double subtract(double a, double b) {
-        lastResult = a - b;
-        return lastResult;
+        return record(a - b);
     }
     
     /**
@@ -45,8 +46,7 @@ public class Calculator {
      * @return Product of a and b
      */
     public double multiply(double a, double b) {
-        lastResult = a * b;
-        return lastResult;
+        return record(a * b);
     }
     
     /**
@@ -57,11 +57,24 @@ public class Calculator {
      * @throws ArithmeticException if divisor is zero
      */
     public double divide(double a, double b) {
+        return DomainError.check(divideOrNaN(a, b));
+    }
+    
+    /**
+     * Like {@link #divide(double, double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Dividend
+     * @param b Divisor
+     * @return Quotient of a divided by b, or the NaN of a DomainError
+     */
+    public double divideOrNaN(double a, double b) {
         if (b == 0) {
-            throw new ArithmeticException("Error: Division by zero is not allowed.");
+            return DomainError.DIVISION_BY_ZERO.toNaN();
         }
-        lastResult = a / b;
-        return lastResult;
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            return record(Double.NaN);
+        }
+        return record(a / b);
     }
     
     /**
@@ -72,11 +85,24 @@ public class Calculator {
      * @throws ArithmeticException if divisor is zero
      */
     public double modulus(double a, double b) {
+        return DomainError.check(modulusOrNaN(a, b));
+    }
+    
+    /**
+     * Like {@link #modulus(double, double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Dividend
+     * @param b Divisor
+     * @return Remainder of a divided by b, or the NaN of a DomainError
+     */
+    public double modulusOrNaN(double a, double b) {
         if (b == 0) {
-            throw new ArithmeticException("Error: Modulus by zero is not allowed.");
+            return DomainError.MODULUS_BY_ZERO.toNaN();
         }
-        lastResult = a % b;
-        return lastResult;
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            return record(Double.NaN);
+        }
+        return record(a % b);
     }
     
     /**
@@ -85,8 +111,7 @@ public class Calculator {
      * @return Absolute value of a
      */
     public double absolute(double a) {
-        lastResult = Math.abs(a);
-        return lastResult;
+        return record(Math.abs(a));
     }
     
     /**
@@ -95,8 +120,19 @@ public class Calculator {
      * @return Negated value of a
      */
     public double negate(double a) {
-        lastResult = -a;
-        return lastResult;
+        return record(-a);
+    }
+    
+    /**
+     * Records a result as the last result and returns it.
+     * Every arithmetic operation goes through here, so subclasses can
+     * change where the last result is kept.
+     * @param result Result to record
+     * @return The same result
+     */
+    protected double record(double result) {
+        lastResult = result;
+        return result;
     }
     
     // ==================== Memory Operations ====================
@@ -0,0 +1,202 @@
+package com.calculator.core;
+
+import java.math.BigInteger;
+
+/**
+ * Precomputed tables and exact algorithms behind the factorial,
+ * permutation and combination operations.
+ * 
+ * - Factorials up to {@link Constants#MAX_FACTORIAL_INPUT} are looked up
+ *   in a table built once with the same multiplication order the loop in
+ *   ScientificOperations used, so results are bit-for-bit unchanged.
+ * - C(n, r) for n up to 66 (the largest row whose entries all fit in a
+ *   long) comes from a precomputed Pascal triangle.
+ * - Larger arguments use multiplicative long arithmetic while the result
+ *   fits, and exact BigInteger arithmetic after that, instead of dividing
+ *   factorials.
+ */
+final class Combinatorics {
+    
+    private Combinatorics() {
+        throw new UnsupportedOperationException("Combinatorics class cannot be instantiated");
+    }
+    
+    /** Largest n for which every C(n, r) fits in a long. */
+    static final int MAX_PASCAL_ROW = 66;
+    
+    // FACTORIALS[n] = n! as a double, for 0 <= n <= 170
+    private static final double[] FACTORIALS = new double[Constants.MAX_FACTORIAL_INPUT + 1];
+    
+    // PASCAL[n][r] = C(n, r), for 0 <= r <= n <= MAX_PASCAL_ROW
+    private static final long[][] PASCAL = new long[MAX_PASCAL_ROW + 1][];
+    
+    static {
+        double product = 1;
+        FACTORIALS[0] = 1;
+        for (int i = 1; i < FACTORIALS.length; i++) {
+            if (i >= 2) {
+                product *= i;
+            }
+            FACTORIALS[i] = product;
+        }
+        
+        for (int n = 0; n <= MAX_PASCAL_ROW; n++) {
+            PASCAL[n] = new long[n + 1];
+            PASCAL[n][0] = 1;
+            PASCAL[n][n] = 1;
+            for (int r = 1; r < n; r++) {
+                PASCAL[n][r] = PASCAL[n - 1][r - 1] + PASCAL[n - 1][r];
+            }
+        }
+    }
+    
+    /**
+     * Looks up n! for 0 <= n <= 170.
+     */
+    static double factorial(int n) {
+        return FACTORIALS[n];
+    }
+    
+    /**
+     * Calculates P(n, r) as a double, exact whenever it is representable,
+     * or the NaN of {@link DomainError#PERMUTATION_TOO_LARGE}.
+     * Arguments must already be validated (0 <= r <= n).
+     */
+    static double permutation(int n, int r) {
+        // Exact while the product fits in a long (at most ~63 factors > 1)
+        long exact = 1;
+        for (long i = n - r + 1; i <= n && exact >= 0; i++) {
+            exact = multiply(exact, i);
+        }
+        if (exact >= 0) {
+            return exact;
+        }
+        // P(n, r) >= r! and >= (n - r + 1)^r, so reject hopeless inputs cheaply;
+        // the rest (all of n <= 170 among them) are rounded once from the exact product
+        if (r > Constants.MAX_FACTORIAL_INPUT
+                || r * (Math.log(n - r + 1.0) / Math.log(2)) > Double.MAX_EXPONENT + 1) {
+            return DomainError.PERMUTATION_TOO_LARGE.toNaN();
+        }
+        return toDouble(permutationExact(n, r), DomainError.PERMUTATION_TOO_LARGE);
+    }
+    
+    /**
+     * Calculates P(n, r) exactly.
+     */
+    static BigInteger permutationExact(int n, int r) {
+        return product(n - r + 1, n);
+    }
+    
+    /**
+     * Calculates C(n, r) as a double, exact whenever it is representable,
+     * or the NaN of {@link DomainError#COMBINATION_TOO_LARGE}.
+     * Arguments must already be validated (0 <= r <= n).
+     */
+    static double combination(int n, int r) {
+        r = Math.min(r, n - r);
+        if (n <= MAX_PASCAL_ROW) {
+            return PASCAL[n][r];
+        }
+        long exact = combinationLong(n, r);
+        if (exact >= 0) {
+            return exact;
+        }
+        if (log2CombinationLowerBound(n, r) > Double.MAX_EXPONENT + 1) {
+            return DomainError.COMBINATION_TOO_LARGE.toNaN();
+        }
+        return toDouble(combinationExact(n, r), DomainError.COMBINATION_TOO_LARGE);
+    }
+    
+    /**
+     * Calculates C(n, r) exactly.
+     */
+    static BigInteger combinationExact(int n, int r) {
+        r = Math.min(r, n - r);
+        if (n <= MAX_PASCAL_ROW) {
+            return BigInteger.valueOf(PASCAL[n][r]);
+        }
+        long exact = combinationLong(n, r);
+        if (exact >= 0) {
+            return BigInteger.valueOf(exact);
+        }
+        // C(n, r) = n! / (r! (n-r)!) = [(n-r+1) ... n] / r!
+        return product(n - r + 1, n).divide(product(2, r));
+    }
+    
+    // ==================== Helpers ====================
+    
+    /**
+     * Multiplicative C(n, r) in long arithmetic.
+     * @return C(n, r), or -1 if it does not fit in a long
+     */
+    private static long combinationLong(int n, int r) {
+        long result = 1;
+        for (int i = 1; i <= r; i++) {
+            // result * (n - r + i) / i is an integer; divide out the common
+            // factor first so the intermediate product stays small
+            long divisor = i;
+            long g = gcd(result, divisor);
+            result /= g;
+            divisor /= g;
+            result = multiply(result, (n - r + i) / divisor);
+            if (result < 0) {
+                return -1;
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Multiplies two non-negative longs.
+     * @return The product, or -1 if it overflows
+     */
+    private static long multiply(long a, long b) {
+        if (b != 0 && a > Long.MAX_VALUE / b) {
+            return -1;
+        }
+        return a * b;
+    }
+    
+    /**
+     * Product of all integers in [from, to], by balanced binary splitting so
+     * the big multiplications work on operands of similar size.
+     */
+    static BigInteger product(long from, long to) {
+        if (from > to) {
+            return BigInteger.ONE;
+        }
+        if (to - from < 16) {
+            BigInteger result = BigInteger.valueOf(from);
+            for (long i = from + 1; i <= to; i++) {
+                result = result.multiply(BigInteger.valueOf(i));
+            }
+            return result;
+        }
+        long middle = (from + to) >>> 1;
+        return product(from, middle).multiply(product(middle + 1, to));
+    }
+    
+    /**
+     * Lower bound on log2 C(n, r): n H(r/n) - log2(n + 1), with H the binary entropy.
+     * Lets hopeless inputs be rejected without any big-number work.
+     */
+    private static double log2CombinationLowerBound(int n, int r) {
+        double p = (double) r / n;
+        double entropy = -(p * Math.log(p) + (1 - p) * Math.log(1 - p)) / Math.log(2);
+        return n * entropy - Math.log(n + 1.0) / Math.log(2);
+    }
+    
+    private static double toDouble(BigInteger value, DomainError tooLarge) {
+        double result = value.doubleValue();
+        return Double.isInfinite(result) ? tooLarge.toNaN() : result;
+    }
+    
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
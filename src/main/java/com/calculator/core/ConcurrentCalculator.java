@@ -0,0 +1,81 @@
+package com.calculator.core;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Thread-safe Calculator that many threads can share without locking.
+ * 
+ * - The last result is kept per thread, so each thread sees the result of
+ *   its own most recent operation and arithmetic never writes shared state.
+ * - Memory is a {@link DoubleAdder}: memoryAdd and memorySubtract are atomic
+ *   and spread over striped cells, so concurrent updates do not contend on
+ *   one cache line.
+ * 
+ * memoryStore and memoryClear swap in a new adder atomically, so the memory
+ * always holds the value of exactly one store; concurrent stores never
+ * combine. An add or subtract running at the same moment as a store may
+ * land in the replaced adder and be lost.
+ */
+public class ConcurrentCalculator extends Calculator {
+    
+    private final AtomicReference<DoubleAdder> memory;
+    private final ThreadLocal<double[]> lastResult;
+    
+    public ConcurrentCalculator() {
+        this.memory = new AtomicReference<>(new DoubleAdder());
+        // One-element array per thread avoids boxing on every operation
+        this.lastResult = ThreadLocal.withInitial(() -> new double[1]);
+    }
+    
+    @Override
+    protected double record(double result) {
+        lastResult.get()[0] = result;
+        return result;
+    }
+    
+    // ==================== Memory Operations ====================
+    
+    @Override
+    public void memoryStore(double value) {
+        DoubleAdder stored = new DoubleAdder();
+        stored.add(value);
+        memory.set(stored);
+    }
+    
+    @Override
+    public double memoryRecall() {
+        return memory.get().sum();
+    }
+    
+    @Override
+    public void memoryAdd(double value) {
+        memory.get().add(value);
+    }
+    
+    @Override
+    public void memorySubtract(double value) {
+        memory.get().add(-value);
+    }
+    
+    @Override
+    public void memoryClear() {
+        memory.set(new DoubleAdder());
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the last result calculated by the calling thread.
+     * @return Last result of this thread, or 0 if it has not calculated anything
+     */
+    @Override
+    public double getLastResult() {
+        return lastResult.get()[0];
+    }
+    
+    @Override
+    public double getMemory() {
+        return memory.get().sum();
+    }
+}
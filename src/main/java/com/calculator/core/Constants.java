@@ -84,10 +84,69 @@ public final class Constants {
      */
     public static final int DEFAULT_HISTORY_SIZE = 50;
     
+    /**
+     * System property naming a file to persist history in (e.g. -Dcalculator.history.journal=history.journal).
+     * History is kept in memory only when it is not set.
+     */
+    public static final String HISTORY_JOURNAL_PROPERTY = "calculator.history.journal";
+    
+    /**
+     * Seconds between history journal checkpoints.
+     */
+    public static final int HISTORY_CHECKPOINT_SECONDS = 5;
+    
+    /**
+     * Default number of elements (or batch lines) evaluated by one parallel task
+     */
+    public static final int DEFAULT_BATCH_CHUNK_SIZE = 4096;
+    
+    /**
+     * Default number of results kept by MemoizingScientificOperations
+     */
+    public static final int DEFAULT_CACHE_CAPACITY = 4096;
+    
+    /**
+     * Default TCP port of the calculation server
+     */
+    public static final int DEFAULT_SERVER_PORT = 7007;
+    
+    /**
+     * Default TCP port of the interactive session server
+     */
+    public static final int DEFAULT_SESSION_PORT = 7008;
+    
+    /**
+     * Longest request line the calculation server accepts, in bytes, and longest
+     * line an interactive session reads, in characters
+     */
+    public static final int MAX_REQUEST_LINE = 1024;
+    
     /**
      * Tolerance for floating-point comparisons.
      * Used when comparing doubles for equality.
      */
     public static final double EPSILON = 1e-10;
+    
+    // ==================== Numerical Methods ====================
+    
+    /**
+     * Default absolute error tolerance of numerical integration and root finding
+     */
+    public static final double DEFAULT_ABSOLUTE_TOLERANCE = 1e-12;
+    
+    /**
+     * Default relative error tolerance of numerical integration and root finding
+     */
+    public static final double DEFAULT_RELATIVE_TOLERANCE = 1e-10;
+    
+    /**
+     * Default limit on the subintervals of one adaptive integration
+     */
+    public static final int DEFAULT_MAX_INTERVALS = 1 << 16;
+    
+    /**
+     * Default limit on the iterations of one root search
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100;
 }
 
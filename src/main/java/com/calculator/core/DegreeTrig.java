@@ -0,0 +1,209 @@
+package com.calculator.core;
+
+/**
+ * Degree-native sine, cosine and tangent behind the degree operations.
+ * 
+ * - The angle is reduced exactly modulo 360 (by subtracting a multiple of
+ *   360, or with integer arithmetic on the significand once the angle is a
+ *   whole number), then split exactly into a whole degree k and a
+ *   fraction d in [-0.5, 0.5]. Nothing is lost, so huge angles such as
+ *   1e22 degrees stay accurate, unlike after a conversion to radians.
+ * - sin(k) and cos(k) come from tables, sin(d) and cos(d) - 1 from short
+ *   Taylor polynomials, and the angle-sum formulas combine them. Sine and
+ *   cosine are within one ulp, tangent within two.
+ * - The tables are built once in double-double arithmetic and hold the
+ *   correctly rounded values, so whole degrees give the correctly rounded
+ *   result: sin(30) is exactly 0.5, sin(180) and cos(90) are exactly 0 and
+ *   tan(45) is exactly 1.
+ */
+final class DegreeTrig {
+    
+    private DegreeTrig() {
+        throw new UnsupportedOperationException("DegreeTrig class cannot be instantiated");
+    }
+    
+    // SIN[k] = sin(k degrees) rounded to double, SIN_TAIL[k] = the rest, for 0 <= k <= 450,
+    // so that cos(k degrees) is SIN[k + 90]
+    private static final double[] SIN = new double[451];
+    private static final double[] SIN_TAIL = new double[451];
+    
+    // TAN[k] = tan(k degrees) rounded to double (NaN at the poles), for 0 <= k <= 360
+    private static final double[] TAN = new double[361];
+    
+    // pi / 180 = RADIANS_HIGH + RADIANS_LOW, where RADIANS_HIGH has 27 significant bits
+    private static final double RADIANS_HIGH;
+    private static final double RADIANS_LOW;
+    
+    // Doubles at or above this are whole numbers
+    private static final double TWO_POW_52 = 0x1p52;
+    
+    // POW2_MOD_360[e] = 2^e mod 360, for the exponents of whole-number doubles
+    private static final int[] POW2_MOD_360 = new int[972];
+    
+    // pi / 180, sin(1 degree) and cos(1 degree) as unevaluated sums of two doubles (about 32 digits)
+    private static final double DEGREE = 0.017453292519943295;
+    private static final double DEGREE_TAIL = 2.9486522708701687e-19;
+    private static final double SIN_1 = 0.01745240643728351;
+    private static final double SIN_1_TAIL = 1.1662166393407661e-18;
+    private static final double COS_1 = 0.9998476951563913;
+    private static final double COS_1_TAIL = -3.0420500034710914e-17;
+    
+    static {
+        POW2_MOD_360[0] = 1;
+        for (int e = 1; e < POW2_MOD_360.length; e++) {
+            POW2_MOD_360[e] = POW2_MOD_360[e - 1] * 2 % 360;
+        }
+        RADIANS_HIGH = Double.longBitsToDouble(Double.doubleToRawLongBits(DEGREE) & -(1L << 26));
+        RADIANS_LOW = (DEGREE - RADIANS_HIGH) + DEGREE_TAIL;
+        
+        // Rotate by one degree at a time in double-double arithmetic; after 45 steps
+        // the error is still far below what rounding to double can notice
+        double[] sin = {0, 0};
+        double[] cos = {1, 0};
+        double[] sinOne = {SIN_1, SIN_1_TAIL};
+        double[] cosOne = {COS_1, COS_1_TAIL};
+        for (int k = 0; k <= 45; k++) {
+            SIN[k] = sin[0];
+            SIN_TAIL[k] = sin[1];
+            SIN[90 - k] = cos[0];
+            SIN_TAIL[90 - k] = cos[1];
+            TAN[k] = DoubleDouble.divide(sin, cos);
+            if (k > 0) {
+                TAN[90 - k] = DoubleDouble.divide(cos, sin);
+            }
+            double[] nextSin = DoubleDouble.add(DoubleDouble.multiply(sin, cosOne),
+                DoubleDouble.multiply(cos, sinOne));
+            cos = DoubleDouble.add(DoubleDouble.multiply(cos, cosOne),
+                DoubleDouble.negate(DoubleDouble.multiply(sin, sinOne)));
+            sin = nextSin;
+        }
+        // The other quadrants by symmetry; 0.0 - x keeps the zeros positive
+        for (int k = 91; k <= 450; k++) {
+            boolean mirror = (k / 90 & 1) != 0;
+            int j = mirror ? 90 - k % 90 : k % 90;
+            boolean negative = k > 180 && k < 360;
+            SIN[k] = negative ? 0.0 - SIN[j] : SIN[j];
+            SIN_TAIL[k] = negative ? 0.0 - SIN_TAIL[j] : SIN_TAIL[j];
+        }
+        TAN[90] = Double.NaN;
+        for (int k = 91; k <= 360; k++) {
+            TAN[k] = k % 180 == 90 ? Double.NaN : k < 180 ? 0.0 - TAN[180 - k] : TAN[k - 180];
+        }
+    }
+    
+    /**
+     * Sine of an angle in degrees.
+     */
+    static double sin(double degrees) {
+        double r = reduce(degrees);
+        if (r == 0 || Double.isNaN(r)) {
+            // Keeps the sign of zero; NaN for NaN and infinite angles
+            return r;
+        }
+        double a = Math.abs(r);
+        int k = (int) (a + 0.5);
+        double d = a - k;
+        double dHigh = d * DoubleDouble.SPLIT;
+        dHigh -= dHigh - d;
+        // d radians = high + low, with high exact and low carrying the rest
+        double high = dHigh * RADIANS_HIGH;
+        double low = (d - dHigh) * RADIANS_HIGH + d * RADIANS_LOW;
+        double delta = high + low;
+        double d2 = delta * delta;
+        double sinTail = low + delta * d2 * (-1.0 / 6 + d2 * (1.0 / 120 - d2 * (1.0 / 5040)));
+        double cosMinus1 = d2 * (-0.5 + d2 * (1.0 / 24 - d2 * (1.0 / 720)));
+        double sinK = SIN[k];
+        double cosK = SIN[k + 90];
+        // sin(k + d) = sin k + cos k sin d + sin k (cos d - 1), smallest terms first
+        double s = sinK + (cosK * high + (SIN_TAIL[k] + sinK * cosMinus1 + cosK * sinTail));
+        return r < 0 ? 0.0 - s : s;
+    }
+    
+    /**
+     * Cosine of an angle in degrees.
+     */
+    static double cos(double degrees) {
+        double a = Math.abs(reduce(degrees));
+        if (Double.isNaN(a)) {
+            return a;
+        }
+        int k = (int) (a + 0.5);
+        double d = a - k;
+        double dHigh = d * DoubleDouble.SPLIT;
+        dHigh -= dHigh - d;
+        double high = dHigh * RADIANS_HIGH;
+        double low = (d - dHigh) * RADIANS_HIGH + d * RADIANS_LOW;
+        double delta = high + low;
+        double d2 = delta * delta;
+        double sinTail = low + delta * d2 * (-1.0 / 6 + d2 * (1.0 / 120 - d2 * (1.0 / 5040)));
+        double cosMinus1 = d2 * (-0.5 + d2 * (1.0 / 24 - d2 * (1.0 / 720)));
+        double sinK = SIN[k];
+        double cosK = SIN[k + 90];
+        // cos(k + d) = cos k - sin k sin d + cos k (cos d - 1), smallest terms first
+        return cosK + (-sinK * high + (SIN_TAIL[k + 90] + cosK * cosMinus1 - sinK * sinTail));
+    }
+    
+    /**
+     * Tangent of an angle in degrees; NaN at the poles (odd multiples of 90).
+     */
+    static double tan(double degrees) {
+        double r = reduce(degrees);
+        if (r == 0 || Double.isNaN(r)) {
+            return r;
+        }
+        double a = Math.abs(r);
+        int k = (int) (a + 0.5);
+        double d = a - k;
+        double t;
+        if (d == 0) {
+            t = TAN[k];
+        } else {
+            double dHigh = d * DoubleDouble.SPLIT;
+            dHigh -= dHigh - d;
+            double high = dHigh * RADIANS_HIGH;
+            double low = (d - dHigh) * RADIANS_HIGH + d * RADIANS_LOW;
+            double delta = high + low;
+            double d2 = delta * delta;
+            double sinTail = low + delta * d2 * (-1.0 / 6 + d2 * (1.0 / 120 - d2 * (1.0 / 5040)));
+            double cosMinus1 = d2 * (-0.5 + d2 * (1.0 / 24 - d2 * (1.0 / 720)));
+            double sinK = SIN[k];
+            double cosK = SIN[k + 90];
+            double s = sinK + (cosK * high + (SIN_TAIL[k] + sinK * cosMinus1 + cosK * sinTail));
+            double c = cosK + (-sinK * high + (SIN_TAIL[k + 90] + cosK * cosMinus1 - sinK * sinTail));
+            t = s / c;
+        }
+        return r < 0 ? 0.0 - t : t;
+    }
+    
+    /**
+     * Tells whether the tangent of an angle in degrees is undefined.
+     */
+    static boolean isTangentPole(double degrees) {
+        double a = Math.abs(reduce(degrees));
+        return a == 90 || a == 270;
+    }
+    
+    /**
+     * Reduces an angle exactly to (-360, 360), keeping its sign. Faster than
+     * the remainder operator, which loops over the exponent difference.
+     */
+    private static double reduce(double degrees) {
+        double a = Math.abs(degrees);
+        if (a <= 180) {
+            return degrees;
+        }
+        if (a < TWO_POW_52) {
+            // 360 n is exact, and so is the subtraction since it is within a factor of two of the angle
+            return degrees - 360 * Math.rint(degrees * (1.0 / 360));
+        }
+        if (a == Double.POSITIVE_INFINITY || Double.isNaN(a)) {
+            return Double.NaN;
+        }
+        // a = m 2^e with whole m and e >= 0, so a mod 360 = (m mod 360)(2^e mod 360) mod 360
+        long bits = Double.doubleToRawLongBits(a);
+        long m = (bits & ((1L << 52) - 1)) | 1L << 52;
+        int e = (int) (bits >>> 52) - 1075;
+        double r = m % 360 * POW2_MOD_360[e] % 360;
+        return degrees < 0 ? -r : r;
+    }
+}
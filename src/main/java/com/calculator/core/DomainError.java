@@ -0,0 +1,172 @@
+package com.calculator.core;
+
+/**
+ * Reasons an operation can be undefined for its operands, for the
+ * non-throwing methods of {@link Calculator} and {@link ScientificOperations},
+ * and reasons a root search can fail, for the batch methods of
+ * {@link com.calculator.numeric.RootFinder}.
+ * 
+ * Each method that throws an ArithmeticException for a bad operand
+ * (divide, squareRoot, logBase, factorial, ...) has a twin ending in
+ * "OrNaN" that returns a NaN instead. The NaN carries the reason in its
+ * payload bits, so it costs no more than returning a number: no exception,
+ * no stack trace, no allocation. {@link #of(double)} decodes it, and
+ * {@link #collect} turns a batch of results into a status array.
+ * <pre>
+ *   double root = scientific.squareRootOrNaN(x);
+ *   DomainError error = DomainError.of(root);
+ *   if (error != null) {
+ *       System.out.println(error.getMessage());
+ *   }
+ * </pre>
+ * The throwing methods are wrappers that pass the result through
+ * {@link #check(double)}, so both give the same results and messages.
+ * 
+ * A NaN keeps its payload when it is returned, stored or copied, but not
+ * reliably through arithmetic: decode results before computing with them.
+ * Ordinary NaNs decode to null. A NaN operand, even one carrying an error,
+ * gives an ordinary NaN, so an error is only reported by the operation
+ * that caused it.
+ */
+public enum DomainError {
+    
+    DIVISION_BY_ZERO("Division by zero is not allowed."),
+    MODULUS_BY_ZERO("Modulus by zero is not allowed."),
+    NEGATIVE_SQUARE_ROOT("Cannot calculate square root of negative number."),
+    ZERO_ROOT_DEGREE("Root degree cannot be zero."),
+    EVEN_ROOT_OF_NEGATIVE("Cannot calculate even root of negative number."),
+    NON_POSITIVE_LOGARITHM("Logarithm undefined for non-positive numbers."),
+    LOGARITHM_BASE_ONE("Logarithm base cannot be 1."),
+    TANGENT_POLE("Tangent undefined for odd multiples of 90 degrees."),
+    ARC_SINE_RANGE("Arc sine input must be between -1 and 1."),
+    ARC_COSINE_RANGE("Arc cosine input must be between -1 and 1."),
+    NEGATIVE_FACTORIAL("Factorial undefined for negative numbers."),
+    FACTORIAL_TOO_LARGE("Factorial too large (maximum input is " + Constants.MAX_FACTORIAL_INPUT + ")."),
+    INVALID_PERMUTATION("Invalid permutation parameters."),
+    PERMUTATION_TOO_LARGE("Permutation too large."),
+    INVALID_COMBINATION("Invalid combination parameters."),
+    COMBINATION_TOO_LARGE("Combination too large."),
+    RECIPROCAL_OF_ZERO("Reciprocal of zero is undefined."),
+    ROOT_NOT_BRACKETED("No sign change found; the root is not bracketed."),
+    ZERO_DERIVATIVE("Derivative vanished; the iteration cannot continue."),
+    ROOT_NOT_CONVERGED("Root search did not converge."),
+    FUNCTION_NOT_A_NUMBER("Function returned NaN; the equation is undefined there.");
+    
+    // Bits of the positive quiet NaN that Java arithmetic produces; the code goes in the low bits
+    private static final long QUIET_NAN_BITS = 0x7ff8000000000000L;
+    
+    private static final DomainError[] VALUES = values();
+    
+    private final String message;
+    private final double nan;
+    
+    DomainError(String reason) {
+        this.message = "Error: " + reason;
+        this.nan = Double.longBitsToDouble(QUIET_NAN_BITS | (ordinal() + 1));
+    }
+    
+    /**
+     * Gets the compact code of this error, which fits in a byte.
+     * @return Code between 1 and the number of errors; 0 means no error
+     */
+    public int getCode() {
+        return ordinal() + 1;
+    }
+    
+    /**
+     * Gets the message the throwing methods use for this error.
+     * @return Message starting with "Error: "
+     */
+    public String getMessage() {
+        return message;
+    }
+    
+    /**
+     * Gets the NaN that the non-throwing methods return for this error.
+     * @return NaN carrying this error
+     */
+    public double toNaN() {
+        return nan;
+    }
+    
+    /**
+     * Creates the exception the throwing methods throw for this error.
+     * @return New exception with this error's message
+     */
+    public ArithmeticException toException() {
+        return new ArithmeticException(message);
+    }
+    
+    /**
+     * Decodes the result of a non-throwing method.
+     * @param result Result to decode
+     * @return Error carried by the result, or null if it is a number or an ordinary NaN
+     */
+    public static DomainError of(double result) {
+        if (result == result) {
+            return null;
+        }
+        long code = Double.doubleToRawLongBits(result) ^ QUIET_NAN_BITS;
+        return code > 0 && code <= VALUES.length ? VALUES[(int) code - 1] : null;
+    }
+    
+    /**
+     * Gets an error from its code.
+     * @param code Code from {@link #getCode()}, or 0
+     * @return Error with that code, or null for 0
+     * @throws IllegalArgumentException if no error has the code
+     */
+    public static DomainError fromCode(int code) {
+        if (code < 0 || code > VALUES.length) {
+            throw new IllegalArgumentException("Error: Unknown domain error code " + code + ".");
+        }
+        return code == 0 ? null : VALUES[code - 1];
+    }
+    
+    /**
+     * Returns a result unchanged, or throws the error it carries.
+     * @param result Result of a non-throwing method
+     * @return The same result
+     * @throws ArithmeticException if the result carries an error
+     */
+    public static double check(double result) {
+        if (result != result) {
+            DomainError error = of(result);
+            if (error != null) {
+                throw error.toException();
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Writes the error code of each result of a batch into a status array:
+     * 0 for a number or an ordinary NaN, {@link #getCode()} for an error.
+     * @param results Results of non-throwing methods
+     * @param status Destination for the codes, at the same indices
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @return Number of results that carry an error
+     * @throws IndexOutOfBoundsException if the range exceeds either array
+     */
+    public static int collect(double[] results, byte[] status, int off, int len) {
+        if (off < 0 || len < 0 || off + len > results.length || off + len > status.length) {
+            throw new IndexOutOfBoundsException("Error: Batch range [" + off + ", " + (off + len)
+                + ") is outside the arrays.");
+        }
+        int errors = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = results[i];
+            if (x != x) {
+                DomainError error = of(x);
+                if (error != null) {
+                    status[i] = (byte) error.getCode();
+                    errors++;
+                    continue;
+                }
+            }
+            status[i] = 0;
+        }
+        return errors;
+    }
+}
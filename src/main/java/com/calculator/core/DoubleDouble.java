@@ -0,0 +1,64 @@
+package com.calculator.core;
+
+/**
+ * Double-double arithmetic: a number is held as an unevaluated sum
+ * {high, low} of two doubles, which carries about 32 significant digits.
+ * 
+ * Used once, at class initialization, to build the tables of the fast
+ * kernels to full double precision without the cost of BigDecimal.
+ */
+final class DoubleDouble {
+    
+    // Multiplier that splits a double into two 26-bit halves (Dekker)
+    static final double SPLIT = (1 << 27) + 1;
+    
+    private DoubleDouble() {
+        throw new UnsupportedOperationException("DoubleDouble class cannot be instantiated");
+    }
+    
+    /** Exact product of two doubles as {high, low} (Dekker). */
+    static double[] twoProduct(double a, double b) {
+        double p = a * b;
+        double aSplit = a * SPLIT;
+        double aHigh = aSplit - (aSplit - a);
+        double aLow = a - aHigh;
+        double bSplit = b * SPLIT;
+        double bHigh = bSplit - (bSplit - b);
+        double bLow = b - bHigh;
+        double error = ((aHigh * bHigh - p) + aHigh * bLow + aLow * bHigh) + aLow * bLow;
+        return new double[] {p, error};
+    }
+    
+    static double[] multiply(double[] x, double[] y) {
+        double[] p = twoProduct(x[0], y[0]);
+        return normalize(p[0], p[1] + (x[0] * y[1] + x[1] * y[0]));
+    }
+    
+    static double[] add(double[] x, double[] y) {
+        // Knuth's two-sum of the high parts, then the low parts
+        double s = x[0] + y[0];
+        double v = s - x[0];
+        double error = (x[0] - (s - v)) + (y[0] - v);
+        return normalize(s, error + x[1] + y[1]);
+    }
+    
+    static double[] negate(double[] x) {
+        return new double[] {-x[0], -x[1]};
+    }
+    
+    static double[] quotient(double[] x, double[] y) {
+        double q = x[0] / y[0];
+        double[] r = add(x, negate(multiply(y, new double[] {q, 0})));
+        return normalize(q, r[0] / y[0]);
+    }
+    
+    /** x / y rounded to double. */
+    static double divide(double[] x, double[] y) {
+        return quotient(x, y)[0];
+    }
+    
+    private static double[] normalize(double high, double low) {
+        double s = high + low;
+        return new double[] {s, low - (s - high)};
+    }
+}
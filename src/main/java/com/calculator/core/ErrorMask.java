@@ -0,0 +1,117 @@
+package com.calculator.core;
+
+import java.util.Arrays;
+
+/**
+ * Compact bit set recording which elements of a batch were outside the
+ * domain of an operation.
+ * 
+ * Batch methods in {@link ScientificOperations} never throw for a bad
+ * element; they write NaN to its output slot and set its bit here instead.
+ * Bits are indexed by the element's position in the input array, so one
+ * mask can collect errors from several operations over the same batch.
+ */
+public final class ErrorMask {
+    
+    private long[] words;
+    
+    /**
+     * Creates a mask able to hold the given number of elements without resizing.
+     * @param capacity Expected batch size
+     */
+    public ErrorMask(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Error: Capacity cannot be negative.");
+        }
+        this.words = new long[(capacity + 63) >>> 6];
+    }
+    
+    /**
+     * Marks an element as invalid.
+     * @param index Element index
+     */
+    public void set(int index) {
+        int word = index >>> 6;
+        if (word >= words.length) {
+            words = Arrays.copyOf(words, Math.max(words.length * 2, word + 1));
+        }
+        words[word] |= 1L << index;
+    }
+    
+    /**
+     * Grows the mask so it can hold the given number of elements. Batches
+     * filled from several threads must be sized up front, since growing
+     * replaces the word array.
+     * @param capacity Number of elements
+     */
+    public void ensureCapacity(int capacity) {
+        int needed = (capacity + 63) >>> 6;
+        if (needed > words.length) {
+            words = Arrays.copyOf(words, needed);
+        }
+    }
+    
+    /**
+     * Checks whether an element was marked invalid.
+     * @param index Element index
+     * @return true if the element was outside the domain
+     */
+    public boolean isSet(int index) {
+        int word = index >>> 6;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+    
+    /**
+     * Counts the invalid elements.
+     * @return Number of set bits
+     */
+    public int count() {
+        int total = 0;
+        for (long word : words) {
+            total += Long.bitCount(word);
+        }
+        return total;
+    }
+    
+    /**
+     * Checks whether any element was marked invalid.
+     * @return true if no bits are set
+     */
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Finds the next invalid element at or after an index.
+     * @param from Index to start searching from
+     * @return Index of the next set bit, or -1 if there is none
+     */
+    public int nextSetBit(int from) {
+        int word = from >>> 6;
+        if (from < 0 || word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+    
+    /**
+     * Clears all bits so the mask can be reused for another batch.
+     */
+    public void clear() {
+        Arrays.fill(words, 0L);
+    }
+}
@@ -0,0 +1,349 @@
+package com.calculator.core;
+
+import java.util.Arrays;
+
+/**
+ * ScientificOperations that remembers the results of its expensive
+ * functions, for workloads that keep repeating the same arguments
+ * (a few hot bases in power, logBase or nthRoot, say).
+ * 
+ * Results live in a fixed-size table keyed on the operation and the raw
+ * bits of its arguments, so a cached result is bit-for-bit the one the
+ * function returns. The table is open-addressed with no boxed keys: each
+ * key hashes to a set of {@link #WAYS} slots, and when a set is full a
+ * CLOCK hand evicts the first slot that has not been hit since the hand
+ * last passed it. New entries start unreferenced, so a burst of one-off
+ * arguments cannot flush out the hot ones.
+ * 
+ * Functions with domain errors are cached through their non-throwing
+ * "OrNaN" forms, which the throwing ones wrap: an error (a logarithm of a
+ * negative number, say) is cached as the {@link DomainError} NaN that
+ * carries it, and the throwing form still throws it. Cheap operations such as square or squareRoot are not cached
+ * either, since a lookup would cost more than the operation.
+ * 
+ * Like {@link Calculator}, an instance is not thread-safe: give each
+ * thread its own.
+ */
+public class MemoizingScientificOperations extends ScientificOperations {
+    
+    /** Slots per set; a set spans two 64-byte cache lines. */
+    public static final int WAYS = 4;
+    
+    // Entry layout in the table: first argument, second argument, operation << 1 | referenced, result
+    private static final int STRIDE = 4;
+    private static final int SECOND = 1;
+    private static final int TAG = 2;
+    private static final int RESULT = 3;
+    
+    // Operation codes (0 marks an empty slot)
+    private static final int POWER = 1;
+    private static final int NTH_ROOT = 2;
+    private static final int LOG_BASE = 3;
+    private static final int CUBE_ROOT = 4;
+    private static final int NATURAL_LOG = 5;
+    private static final int LOG10 = 6;
+    private static final int EXP = 7;
+    private static final int EXP10 = 8;
+    private static final int SIN = 9;
+    private static final int COS = 10;
+    private static final int TAN = 11;
+    private static final int SIN_DEG = 12;
+    private static final int COS_DEG = 13;
+    private static final int TAN_DEG = 14;
+    private static final int ASIN = 15;
+    private static final int ACOS = 16;
+    private static final int ATAN = 17;
+    private static final int SINH = 18;
+    private static final int COSH = 19;
+    private static final int TANH = 20;
+    
+    private final long[] table;
+    private final byte[] hands;
+    private final int setMask;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Creates a cache holding {@link Constants#DEFAULT_CACHE_CAPACITY} results.
+     */
+    public MemoizingScientificOperations() {
+        this(Constants.DEFAULT_CACHE_CAPACITY);
+    }
+    
+    /**
+     * Creates a cache.
+     * @param capacity Maximum number of results, rounded up to a power of two of at least {@link #WAYS}
+     */
+    public MemoizingScientificOperations(int capacity) {
+        this(capacity, Precision.STRICT);
+    }
+    
+    /**
+     * Creates a cache in front of operations of the given precision.
+     * @param capacity Maximum number of results, rounded up to a power of two of at least {@link #WAYS}
+     * @param precision Precision tier of exp, naturalLog, power, sin and cos
+     */
+    public MemoizingScientificOperations(int capacity, Precision precision) {
+        super(precision);
+        if (capacity <= 0 || capacity > 1 << 26) {
+            throw new IllegalArgumentException("Error: Cache capacity must be between 1 and " + (1 << 26) + ".");
+        }
+        int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+        this.table = new long[slots * STRIDE];
+        this.hands = new byte[slots / WAYS];
+        this.setMask = slots / WAYS - 1;
+    }
+    
+    // ==================== Power and Root Operations ====================
+    
+    @Override
+    public double power(double base, double exponent) {
+        long a = Double.doubleToRawLongBits(base);
+        long b = Double.doubleToRawLongBits(exponent);
+        int slot = find(POWER, a, b);
+        return slot >= 0 ? result(slot) : store(POWER, a, b, super.power(base, exponent));
+    }
+    
+    @Override
+    public double cubeRoot(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(CUBE_ROOT, bits, 0);
+        return slot >= 0 ? result(slot) : store(CUBE_ROOT, bits, 0, super.cubeRoot(a));
+    }
+    
+    @Override
+    public double nthRootOrNaN(double a, double n) {
+        long x = Double.doubleToRawLongBits(a);
+        long y = Double.doubleToRawLongBits(n);
+        int slot = find(NTH_ROOT, x, y);
+        return slot >= 0 ? result(slot) : store(NTH_ROOT, x, y, super.nthRootOrNaN(a, n));
+    }
+    
+    // ==================== Logarithmic Operations ====================
+    
+    @Override
+    public double naturalLogOrNaN(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(NATURAL_LOG, bits, 0);
+        return slot >= 0 ? result(slot) : store(NATURAL_LOG, bits, 0, super.naturalLogOrNaN(a));
+    }
+    
+    @Override
+    public double log10OrNaN(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(LOG10, bits, 0);
+        return slot >= 0 ? result(slot) : store(LOG10, bits, 0, super.log10OrNaN(a));
+    }
+    
+    @Override
+    public double logBaseOrNaN(double a, double base) {
+        long x = Double.doubleToRawLongBits(a);
+        long y = Double.doubleToRawLongBits(base);
+        int slot = find(LOG_BASE, x, y);
+        return slot >= 0 ? result(slot) : store(LOG_BASE, x, y, super.logBaseOrNaN(a, base));
+    }
+    
+    // ==================== Exponential Operations ====================
+    
+    @Override
+    public double exp(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(EXP, bits, 0);
+        return slot >= 0 ? result(slot) : store(EXP, bits, 0, super.exp(a));
+    }
+    
+    @Override
+    public double exp10(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(EXP10, bits, 0);
+        return slot >= 0 ? result(slot) : store(EXP10, bits, 0, super.exp10(a));
+    }
+    
+    // ==================== Trigonometric Operations ====================
+    
+    @Override
+    public double sin(double radians) {
+        long bits = Double.doubleToRawLongBits(radians);
+        int slot = find(SIN, bits, 0);
+        return slot >= 0 ? result(slot) : store(SIN, bits, 0, super.sin(radians));
+    }
+    
+    @Override
+    public double cos(double radians) {
+        long bits = Double.doubleToRawLongBits(radians);
+        int slot = find(COS, bits, 0);
+        return slot >= 0 ? result(slot) : store(COS, bits, 0, super.cos(radians));
+    }
+    
+    @Override
+    public double tan(double radians) {
+        long bits = Double.doubleToRawLongBits(radians);
+        int slot = find(TAN, bits, 0);
+        return slot >= 0 ? result(slot) : store(TAN, bits, 0, super.tan(radians));
+    }
+    
+    @Override
+    public double sinDeg(double degrees) {
+        long bits = Double.doubleToRawLongBits(degrees);
+        int slot = find(SIN_DEG, bits, 0);
+        return slot >= 0 ? result(slot) : store(SIN_DEG, bits, 0, super.sinDeg(degrees));
+    }
+    
+    @Override
+    public double cosDeg(double degrees) {
+        long bits = Double.doubleToRawLongBits(degrees);
+        int slot = find(COS_DEG, bits, 0);
+        return slot >= 0 ? result(slot) : store(COS_DEG, bits, 0, super.cosDeg(degrees));
+    }
+    
+    @Override
+    public double tanDegOrNaN(double degrees) {
+        long bits = Double.doubleToRawLongBits(degrees);
+        int slot = find(TAN_DEG, bits, 0);
+        return slot >= 0 ? result(slot) : store(TAN_DEG, bits, 0, super.tanDegOrNaN(degrees));
+    }
+    
+    @Override
+    public double asinOrNaN(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int slot = find(ASIN, bits, 0);
+        return slot >= 0 ? result(slot) : store(ASIN, bits, 0, super.asinOrNaN(value));
+    }
+    
+    @Override
+    public double acosOrNaN(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int slot = find(ACOS, bits, 0);
+        return slot >= 0 ? result(slot) : store(ACOS, bits, 0, super.acosOrNaN(value));
+    }
+    
+    @Override
+    public double atan(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        int slot = find(ATAN, bits, 0);
+        return slot >= 0 ? result(slot) : store(ATAN, bits, 0, super.atan(value));
+    }
+    
+    // ==================== Hyperbolic Functions ====================
+    
+    @Override
+    public double sinh(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(SINH, bits, 0);
+        return slot >= 0 ? result(slot) : store(SINH, bits, 0, super.sinh(a));
+    }
+    
+    @Override
+    public double cosh(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(COSH, bits, 0);
+        return slot >= 0 ? result(slot) : store(COSH, bits, 0, super.cosh(a));
+    }
+    
+    @Override
+    public double tanh(double a) {
+        long bits = Double.doubleToRawLongBits(a);
+        int slot = find(TANH, bits, 0);
+        return slot >= 0 ? result(slot) : store(TANH, bits, 0, super.tanh(a));
+    }
+    
+    // ==================== Cache Table ====================
+    
+    /**
+     * Looks a key up in its set, marking the slot as referenced on a hit.
+     * @return Index of the entry in the table, or -1 on a miss
+     */
+    private int find(int operation, long a, long b) {
+        long tag = (long) operation << 1;
+        int start = set(operation, a, b) * WAYS * STRIDE;
+        for (int i = start, end = start + WAYS * STRIDE; i < end; i += STRIDE) {
+            if (table[i] == a && table[i + SECOND] == b && (table[i + TAG] & ~1L) == tag) {
+                table[i + TAG] = tag | 1;
+                hits++;
+                return i;
+            }
+        }
+        misses++;
+        return -1;
+    }
+    
+    private double result(int index) {
+        return Double.longBitsToDouble(table[index + RESULT]);
+    }
+    
+    /**
+     * Stores a result after a miss, evicting with the set's CLOCK hand:
+     * referenced slots lose their mark and are skipped, the first
+     * unreferenced (or empty) slot is replaced.
+     * @return The result, for chaining
+     */
+    private double store(int operation, long a, long b, double result) {
+        int set = set(operation, a, b);
+        int start = set * WAYS * STRIDE;
+        int hand = hands[set];
+        int i = start + hand * STRIDE;
+        while ((table[i + TAG] & 1) != 0) {
+            table[i + TAG] &= ~1L;
+            hand = (hand + 1) & (WAYS - 1);
+            i = start + hand * STRIDE;
+        }
+        table[i] = a;
+        table[i + SECOND] = b;
+        table[i + TAG] = (long) operation << 1;
+        table[i + RESULT] = Double.doubleToRawLongBits(result);
+        hands[set] = (byte) ((hand + 1) & (WAYS - 1));
+        return result;
+    }
+    
+    private int set(int operation, long a, long b) {
+        // Murmur3 finalizer over a mix of the key words
+        long h = a * 0x9E3779B97F4A7C15L + b * 0xC2B2AE3D27D4EB4FL + operation;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h & setMask;
+    }
+    
+    /**
+     * Removes every cached result. The hit and miss counts are kept.
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(hands, (byte) 0);
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the number of calls answered from the cache.
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return hits;
+    }
+    
+    /**
+     * Gets the number of cacheable calls that had to be calculated.
+     * @return Miss count
+     */
+    public long getMissCount() {
+        return misses;
+    }
+    
+    /**
+     * Gets the fraction of cacheable calls answered from the cache.
+     * @return Hit rate between 0 and 1 (0 before the first call)
+     */
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+    
+    /**
+     * Gets the maximum number of results held.
+     * @return Capacity in results
+     */
+    public int getCapacity() {
+        return table.length / STRIDE;
+    }
+}
@@ -0,0 +1,219 @@
+package com.calculator.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs batch operations on all cores by splitting the index range into
+ * chunks and evaluating them as fork-join tasks.
+ * 
+ * Every chunk writes only its own slice of the output array, so results
+ * are identical to a sequential run no matter how the chunks are
+ * scheduled. The chunk size is a multiple of 64 and whole-array batches
+ * start at index 0, so chunks never share a word of an {@link ErrorMask}
+ * and the mask can be filled concurrently without locking.
+ * 
+ * Typical use with the batch methods of {@link ScientificOperations}:
+ * <pre>
+ *   ParallelBatch batch = new ParallelBatch();
+ *   batch.apply(scientific::sin, in, out);
+ *   int rejected = batch.apply(scientific::naturalLog, in, out, errors);
+ * </pre>
+ */
+public class ParallelBatch {
+    
+    /** Smallest chunk worth the cost of forking a task. */
+    public static final int MIN_CHUNK_SIZE = 64;
+    
+    private final ForkJoinPool pool;
+    private final int chunkSize;
+    
+    /**
+     * Processes a range of elements. Implementations must only touch
+     * elements inside the range they are given.
+     */
+    public interface RangeTask {
+        /**
+         * @param off Index of the first element to process
+         * @param len Number of elements to process
+         */
+        void run(int off, int len);
+    }
+    
+    /** Shape of the unchecked unary batch methods, such as {@code sin}. */
+    public interface UnaryOperation {
+        void apply(double[] in, double[] out, int off, int len);
+    }
+    
+    /** Shape of the checked unary batch methods, such as {@code naturalLog}. */
+    public interface CheckedUnaryOperation {
+        int apply(double[] in, double[] out, int off, int len, ErrorMask errors);
+    }
+    
+    /** Shape of the checked binary batch methods, such as {@code logBase}. */
+    public interface CheckedBinaryOperation {
+        int apply(double[] a, double[] b, double[] out, int off, int len, ErrorMask errors);
+    }
+    
+    /**
+     * Creates a batch runner on the common fork-join pool with
+     * {@link Constants#DEFAULT_BATCH_CHUNK_SIZE} elements per chunk.
+     */
+    public ParallelBatch() {
+        this(ForkJoinPool.commonPool(), Constants.DEFAULT_BATCH_CHUNK_SIZE);
+    }
+    
+    /**
+     * Creates a batch runner.
+     * @param pool Pool that runs the chunks
+     * @param chunkSize Elements per chunk, rounded up to a multiple of {@link #MIN_CHUNK_SIZE}
+     */
+    public ParallelBatch(ForkJoinPool pool, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Error: Chunk size must be positive.");
+        }
+        this.pool = pool;
+        this.chunkSize = (int) Math.min(Integer.MAX_VALUE & -MIN_CHUNK_SIZE,
+            ((long) chunkSize + MIN_CHUNK_SIZE - 1) & -MIN_CHUNK_SIZE);
+    }
+    
+    // ==================== Batch Operations ====================
+    
+    /**
+     * Applies an unchecked operation to every element of in.
+     * @param operation Batch method, e.g. {@code scientific::sin}
+     * @param in Input numbers
+     * @param out Destination for the results (at least as long as in)
+     */
+    public void apply(UnaryOperation operation, double[] in, double[] out) {
+        requireLength(out.length, in.length);
+        forEachChunk(0, in.length, (off, len) -> operation.apply(in, out, off, len));
+    }
+    
+    /**
+     * Applies a checked operation to every element of in.
+     * @param operation Batch method, e.g. {@code scientific::naturalLog}
+     * @param in Input numbers
+     * @param out Destination for the results (at least as long as in)
+     * @param errors Receives the indices of rejected elements (may be null)
+     * @return Number of rejected elements
+     */
+    public int apply(CheckedUnaryOperation operation, double[] in, double[] out, ErrorMask errors) {
+        requireLength(out.length, in.length);
+        return sumOverChunks(in.length, errors, (off, len) -> operation.apply(in, out, off, len, errors));
+    }
+    
+    /**
+     * Applies a checked two-operand operation element by element.
+     * @param operation Batch method, e.g. {@code scientific::logBase}
+     * @param a First operands
+     * @param b Second operands (at least as long as a)
+     * @param out Destination for the results (at least as long as a)
+     * @param errors Receives the indices of rejected elements (may be null)
+     * @return Number of rejected elements
+     */
+    public int apply(CheckedBinaryOperation operation, double[] a, double[] b, double[] out,
+                     ErrorMask errors) {
+        requireLength(b.length, a.length);
+        requireLength(out.length, a.length);
+        return sumOverChunks(a.length, errors, (off, len) -> operation.apply(a, b, out, off, len, errors));
+    }
+    
+    /**
+     * Splits [off, off+len) into chunks and runs the task on each, in parallel.
+     * Returns once every chunk has finished; the first exception thrown by a
+     * chunk is rethrown to the caller.
+     * @param off Index of the first element
+     * @param len Number of elements
+     * @param task Work to run on each chunk
+     */
+    public void forEachChunk(int off, int len, RangeTask task) {
+        if (off < 0 || len < 0 || off + len < 0) {
+            throw new IndexOutOfBoundsException("Error: Batch range [" + off + ", " + (off + len)
+                + ") is out of bounds.");
+        }
+        if (len <= chunkSize) {
+            if (len > 0) {
+                task.run(off, len);
+            }
+            return;
+        }
+        pool.invoke(new ChunkAction(task, off, off + len, chunkSize));
+    }
+    
+    private int sumOverChunks(int length, ErrorMask errors, CountingTask task) {
+        if (errors != null) {
+            // Growing the mask while chunks write to it would lose bits
+            errors.ensureCapacity(length);
+        }
+        int[] counts = new int[(length + chunkSize - 1) / chunkSize];
+        forEachChunk(0, length, (off, len) -> counts[off / chunkSize] += task.run(off, len));
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+    
+    private interface CountingTask {
+        int run(int off, int len);
+    }
+    
+    private static void requireLength(int actual, int required) {
+        if (actual < required) {
+            throw new IndexOutOfBoundsException("Error: Batch needs " + required
+                + " elements but the array holds " + actual + ".");
+        }
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the number of elements processed by one task.
+     * @return Chunk size (a multiple of {@link #MIN_CHUNK_SIZE})
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * Gets the number of threads available to run chunks.
+     * @return Pool parallelism
+     */
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+    
+    /**
+     * Halves its range until it fits in one chunk. Split points are rounded
+     * to multiples of the chunk size, so chunks are the same for any pool.
+     */
+    private static final class ChunkAction extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final RangeTask task;
+        private final int from;
+        private final int to;
+        private final int chunkSize;
+        
+        ChunkAction(RangeTask task, int from, int to, int chunkSize) {
+            this.task = task;
+            this.from = from;
+            this.to = to;
+            this.chunkSize = chunkSize;
+        }
+        
+        @Override
+        protected void compute() {
+            int chunks = (int) (((long) to - from + chunkSize - 1) / chunkSize);
+            if (chunks <= 1) {
+                task.run(from, to - from);
+                return;
+            }
+            int middle = from + (chunks >>> 1) * chunkSize;
+            invokeAll(new ChunkAction(task, from, middle, chunkSize),
+                      new ChunkAction(task, middle, to, chunkSize));
+        }
+    }
+}
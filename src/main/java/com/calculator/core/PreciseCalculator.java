@@ -0,0 +1,187 @@
+package com.calculator.core;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Arbitrary-precision counterpart of {@link Calculator}, for calculations
+ * such as money amounts where binary doubles lose cents.
+ * 
+ * Results are rounded to the configured {@link MathContext}. With
+ * {@link MathContext#UNLIMITED}, addition, subtraction and multiplication
+ * are exact, and division throws if the quotient has no finite decimal
+ * expansion.
+ */
+public class PreciseCalculator {
+    
+    private final MathContext mathContext;
+    private BigDecimal memory;
+    private BigDecimal lastResult;
+    
+    /**
+     * Creates a calculator working to 34 significant digits (DECIMAL128).
+     */
+    public PreciseCalculator() {
+        this(MathContext.DECIMAL128);
+    }
+    
+    /**
+     * Creates a calculator working to the given precision.
+     * @param mathContext Precision and rounding of every result
+     */
+    public PreciseCalculator(MathContext mathContext) {
+        this.mathContext = mathContext;
+        this.memory = BigDecimal.ZERO;
+        this.lastResult = BigDecimal.ZERO;
+    }
+    
+    // ==================== Basic Arithmetic Operations ====================
+    
+    /**
+     * Adds two numbers.
+     * @param a First operand
+     * @param b Second operand
+     * @return Sum of a and b
+     */
+    public BigDecimal add(BigDecimal a, BigDecimal b) {
+        return record(a.add(b, mathContext));
+    }
+    
+    /**
+     * Subtracts second number from first.
+     * @param a First operand
+     * @param b Second operand
+     * @return Difference of a and b
+     */
+    public BigDecimal subtract(BigDecimal a, BigDecimal b) {
+        return record(a.subtract(b, mathContext));
+    }
+    
+    /**
+     * Multiplies two numbers.
+     * @param a First operand
+     * @param b Second operand
+     * @return Product of a and b
+     */
+    public BigDecimal multiply(BigDecimal a, BigDecimal b) {
+        return record(a.multiply(b, mathContext));
+    }
+    
+    /**
+     * Divides first number by second.
+     * @param a Dividend
+     * @param b Divisor
+     * @return Quotient of a divided by b
+     * @throws ArithmeticException if divisor is zero
+     */
+    public BigDecimal divide(BigDecimal a, BigDecimal b) {
+        if (b.signum() == 0) {
+            throw new ArithmeticException("Error: Division by zero is not allowed.");
+        }
+        return record(a.divide(b, mathContext));
+    }
+    
+    /**
+     * Calculates modulus (remainder) of division.
+     * @param a Dividend
+     * @param b Divisor
+     * @return Remainder of a divided by b, with the sign of a
+     * @throws ArithmeticException if divisor is zero
+     */
+    public BigDecimal modulus(BigDecimal a, BigDecimal b) {
+        if (b.signum() == 0) {
+            throw new ArithmeticException("Error: Modulus by zero is not allowed.");
+        }
+        return record(a.remainder(b, mathContext));
+    }
+    
+    /**
+     * Calculates the absolute value.
+     * @param a Input number
+     * @return Absolute value of a
+     */
+    public BigDecimal absolute(BigDecimal a) {
+        return record(a.abs(mathContext));
+    }
+    
+    /**
+     * Negates a number.
+     * @param a Input number
+     * @return Negated value of a
+     */
+    public BigDecimal negate(BigDecimal a) {
+        return record(a.negate(mathContext));
+    }
+    
+    private BigDecimal record(BigDecimal result) {
+        lastResult = result;
+        return result;
+    }
+    
+    // ==================== Memory Operations ====================
+    
+    /**
+     * Stores value in memory.
+     * @param value Value to store
+     */
+    public void memoryStore(BigDecimal value) {
+        this.memory = value;
+    }
+    
+    /**
+     * Recalls value from memory.
+     * @return Stored memory value
+     */
+    public BigDecimal memoryRecall() {
+        return this.memory;
+    }
+    
+    /**
+     * Adds value to memory.
+     * @param value Value to add to memory
+     */
+    public void memoryAdd(BigDecimal value) {
+        this.memory = this.memory.add(value, mathContext);
+    }
+    
+    /**
+     * Subtracts value from memory.
+     * @param value Value to subtract from memory
+     */
+    public void memorySubtract(BigDecimal value) {
+        this.memory = this.memory.subtract(value, mathContext);
+    }
+    
+    /**
+     * Clears memory.
+     */
+    public void memoryClear() {
+        this.memory = BigDecimal.ZERO;
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the last calculated result.
+     * @return Last result
+     */
+    public BigDecimal getLastResult() {
+        return lastResult;
+    }
+    
+    /**
+     * Gets current memory value.
+     * @return Memory value
+     */
+    public BigDecimal getMemory() {
+        return memory;
+    }
+    
+    /**
+     * Gets the precision and rounding used for every result.
+     * @return Math context
+     */
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+}
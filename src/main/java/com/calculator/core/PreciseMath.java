@@ -0,0 +1,641 @@
+package com.calculator.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+
+/**
+ * Arbitrary-precision algorithms behind {@link PreciseScientificOperations}.
+ * 
+ * Every function works at the requested precision plus guard digits and
+ * rounds once at the end:
+ * - sqrt and nthRoot: Newton iteration seeded from a double estimate,
+ *   doubling the working precision each step
+ * - exp, sin, cos: binary fixed point (an integer V standing for V / 2^bits),
+ *   so intermediate rounding is a shift rather than a decimal division.
+ *   The argument is reduced by multiples of ln 2 or pi / 2 and split into
+ *   chunks of 16, 32, 64, ... bits (the "bit-burst" method); each chunk's
+ *   series is summed by {@link BinarySplitting} and the chunks are combined
+ *   with exp(a + b) = exp(a) exp(b) or the angle-sum formulas. Chunks and
+ *   series halves run in parallel on the common fork-join pool.
+ * - ln: Newton's method on exp, doubling the working precision each step,
+ *   after reducing x by a power of two
+ * - pi: the Chudnovsky series, by binary splitting
+ * 
+ * pi, ln 2 and ln 10 are cached at the highest precision computed so far.
+ */
+final class PreciseMath {
+    
+    private PreciseMath() {
+        throw new UnsupportedOperationException("PreciseMath class cannot be instantiated");
+    }
+    
+    private static final int GUARD_DIGITS = 10;
+    private static final double LOG2_10 = Math.log(10) / Math.log(2);
+    private static final double LOG10_2 = Math.log10(2);
+    private static final BigDecimal TWO = BigDecimal.valueOf(2);
+    private static final BigDecimal HALF = new BigDecimal("0.5");
+    
+    // Bits in the first bit-burst chunk; each later chunk is twice as long
+    private static final int FIRST_CHUNK_BITS = 16;
+    // Below this many bits, chunks are evaluated on the calling thread
+    private static final int PARALLEL_BITS = 1 << 13;
+    // Newton steps for ln start from a double, good to about this many bits
+    private static final int DOUBLE_BITS = 48;
+    
+    // Chudnovsky series: 1 / pi = 12 sum (-1)^k (6k)! (A + Bk) / ((3k)! k!^3 C^(3k + 3/2))
+    private static final BigInteger CHUDNOVSKY_A = BigInteger.valueOf(13591409);
+    private static final BigInteger CHUDNOVSKY_B = BigInteger.valueOf(545140134);
+    private static final BigInteger CHUDNOVSKY_C3_OVER_24 = BigInteger.valueOf(640320).pow(3).divide(BigInteger.valueOf(24));
+    // Each Chudnovsky term adds about this many bits
+    private static final double CHUDNOVSKY_BITS_PER_TERM = 47.11;
+    
+    // Cached constants; each holder is immutable so a plain volatile read is enough
+    private static volatile Fixed cachedPi = new Fixed(BigInteger.ZERO, 0);
+    private static volatile Fixed cachedLn2 = new Fixed(BigInteger.ZERO, 0);
+    private static volatile BigDecimal cachedLn10 = BigDecimal.ZERO;
+    
+    // ==================== Roots ====================
+    
+    /**
+     * Square root of a non-negative number.
+     */
+    static BigDecimal sqrt(BigDecimal a, MathContext mc) {
+        if (a.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        int target = mc.getPrecision() + GUARD_DIGITS;
+        BigDecimal x = rootEstimate(a, 2);
+        
+        for (int precision = 16; ; precision = Math.min(precision * 2, target)) {
+            MathContext work = new MathContext(precision + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+            x = x.add(a.divide(x, work), work).multiply(HALF, work);
+            if (precision == target) {
+                break;
+            }
+        }
+        return x.round(mc);
+    }
+    
+    /**
+     * Real nth root for n >= 1; odd roots of negative numbers are negative.
+     */
+    static BigDecimal nthRoot(BigDecimal a, int n, MathContext mc) {
+        if (n == 1 || a.signum() == 0) {
+            return a.round(mc);
+        }
+        if (a.signum() < 0) {
+            return nthRoot(a.negate(), n, mc).negate();
+        }
+        if (n == 2) {
+            return sqrt(a, mc);
+        }
+        int target = mc.getPrecision() + GUARD_DIGITS;
+        BigDecimal x = rootEstimate(a, n);
+        BigDecimal degree = BigDecimal.valueOf(n);
+        BigDecimal degreeLessOne = BigDecimal.valueOf(n - 1L);
+        
+        for (int precision = 16; ; precision = Math.min(precision * 2, target)) {
+            MathContext work = new MathContext(precision + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+            // x = ((n - 1) x + a / x^(n-1)) / n
+            BigDecimal power = x.pow(n - 1, work);
+            x = degreeLessOne.multiply(x, work).add(a.divide(power, work), work).divide(degree, work);
+            if (precision == target) {
+                break;
+            }
+        }
+        return x.round(mc);
+    }
+    
+    // ==================== Exponential and Logarithm ====================
+    
+    /**
+     * e raised to a power.
+     */
+    static BigDecimal exp(BigDecimal x, MathContext mc) {
+        if (x.signum() == 0) {
+            return BigDecimal.ONE;
+        }
+        if (x.abs().compareTo(BigDecimal.valueOf(Integer.MAX_VALUE)) > 0) {
+            throw new ArithmeticException("Error: Exponent too large.");
+        }
+        // exp(x) = 2^n exp(r) with r = x - n ln 2 and |r| <= ln 2 / 2
+        int bits = bitsFor(mc.getPrecision());
+        long n = Math.round(x.signum() * Math.pow(2, log2(x.abs())) / Math.log(2));
+        int work = bits + 64 - Long.numberOfLeadingZeros(Math.abs(n));
+        BigInteger r = toFixed(x, work).subtract(ln2(work).multiply(BigInteger.valueOf(n)))
+            .shiftRight(work - bits);
+        return toDecimal(expFixed(r, bits), bits - n, mc);
+    }
+    
+    /**
+     * Natural logarithm of a positive number.
+     */
+    static BigDecimal ln(BigDecimal x, MathContext mc) {
+        if (x.compareTo(BigDecimal.ONE) == 0) {
+            return BigDecimal.ZERO;
+        }
+        // ln x = e ln 2 + ln m with m = x / 2^e in [1/sqrt 2, sqrt 2]
+        long e = Math.round(log2(x));
+        int bits = bitsFor(mc.getPrecision());
+        if (e == 0) {
+            // ln x is about x - 1 and its leading zero bits are lost to cancellation, so work with more
+            bits += (int) Math.max(0, -Math.floor(log2(x.subtract(BigDecimal.ONE).abs())));
+            return toDecimal(lnFixed(toFixed(x, bits), bits), bits, mc);
+        }
+        int work = bits + 64 - Long.numberOfLeadingZeros(Math.abs(e));
+        BigInteger result = ln2(work).multiply(BigInteger.valueOf(e)).add(lnFixed(toFixed(x, work - e), work));
+        return toDecimal(result, work, mc);
+    }
+    
+    /**
+     * Common (base 10) logarithm of a positive number.
+     */
+    static BigDecimal log10(BigDecimal x, MathContext mc) {
+        MathContext work = new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        // Exact for powers of ten
+        BigDecimal stripped = x.stripTrailingZeros();
+        if (stripped.unscaledValue().equals(BigInteger.ONE)) {
+            return BigDecimal.valueOf(-(long) stripped.scale());
+        }
+        return ln(x, work).divide(ln10(work), mc);
+    }
+    
+    /**
+     * exp(r) for |r| < 1, in fixed point: each bit-burst chunk is a short
+     * series, and the chunk results are multiplied together.
+     */
+    private static BigInteger expFixed(BigInteger r, int bits) {
+        BigInteger[] chunks = chunks(r, bits);
+        BigInteger[] factors = new BigInteger[chunks.length / 2];
+        forEachChunk(factors.length, bits, i -> {
+            BigInteger chunk = chunks[2 * i];
+            int chunkBits = chunks[2 * i + 1].intValue();
+            // exp(c / 2^b) - 1 = sum over n >= 1 of prod(c / (i 2^b))
+            long terms = termsFor(chunk, chunkBits, bits, 1);
+            BinarySplitting series = new BinarySplitting(chunkBits) {
+                @Override
+                BigInteger p(long n) {
+                    return chunk;
+                }
+                
+                @Override
+                BigInteger q(long n) {
+                    return BigInteger.valueOf(n);
+                }
+            };
+            factors[i] = BigInteger.ONE.shiftLeft(bits).add(series.sumFixed(1, terms + 1, bits));
+        });
+        return product(factors, 0, factors.length, bits);
+    }
+    
+    /**
+     * Product of fixed-point factors [from, to), as a balanced tree whose
+     * halves are multiplied in parallel at high precision.
+     */
+    private static BigInteger product(BigInteger[] factors, int from, int to, int bits) {
+        if (to - from == 0) {
+            return BigInteger.ONE.shiftLeft(bits);
+        }
+        if (to - from == 1) {
+            return factors[from];
+        }
+        int middle = (from + to) >>> 1;
+        if (bits < PARALLEL_BITS) {
+            return product(factors, from, middle, bits).multiply(product(factors, middle, to, bits)).shiftRight(bits);
+        }
+        ForkJoinTask<BigInteger> left = ForkJoinTask.adapt(() -> product(factors, from, middle, bits)).fork();
+        BigInteger right = product(factors, middle, to, bits);
+        return left.join().multiply(right).shiftRight(bits);
+    }
+    
+    /**
+     * ln m for m near 1, in fixed point, by Newton's method on exp:
+     * y = y + m exp(-y) - 1, doubling the precision each step.
+     */
+    private static BigInteger lnFixed(BigInteger m, int bits) {
+        int steps = 0;
+        for (int precision = bits; precision > DOUBLE_BITS; precision = precision / 2 + 8) {
+            steps++;
+        }
+        int[] schedule = new int[steps];
+        for (int i = steps - 1, precision = bits; i >= 0; i--, precision = precision / 2 + 8) {
+            schedule[i] = precision;
+        }
+        int drop = Math.max(0, bits - 60);
+        double estimate = Math.log(m.shiftRight(drop).doubleValue() / Math.pow(2, bits - drop));
+        BigInteger y = BigInteger.valueOf((long) (estimate * (1L << DOUBLE_BITS)));
+        int precision = DOUBLE_BITS;
+        for (int next : schedule) {
+            y = y.shiftLeft(next - precision);
+            precision = next;
+            BigInteger mAtPrecision = m.shiftRight(bits - precision);
+            BigInteger correction = mAtPrecision.multiply(expFixed(y.negate(), precision)).shiftRight(precision)
+                .subtract(BigInteger.ONE.shiftLeft(precision));
+            y = y.add(correction);
+        }
+        return y.shiftLeft(bits - precision);
+    }
+    
+    // ==================== Trigonometry ====================
+    
+    /**
+     * Sine of an angle in radians.
+     */
+    static BigDecimal sin(BigDecimal x, MathContext mc) {
+        return sinCos(x, mc)[0];
+    }
+    
+    /**
+     * Cosine of an angle in radians.
+     */
+    static BigDecimal cos(BigDecimal x, MathContext mc) {
+        return sinCos(x, mc)[1];
+    }
+    
+    /**
+     * Sine and cosine together, as {sin, cos}.
+     */
+    static BigDecimal[] sinCos(BigDecimal x, MathContext mc) {
+        int precision = mc.getPrecision();
+        if (x.signum() == 0) {
+            return new BigDecimal[] {BigDecimal.ZERO, BigDecimal.ONE};
+        }
+        long exponent = decimalExponent(x);
+        if (2 * exponent < -(precision + GUARD_DIGITS)) {
+            // x^2 is below the precision: sin x = x - x^3 / 6 and cos x = 1 - x^2 / 2 are exact enough
+            MathContext work = new MathContext(precision + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+            BigDecimal square = x.multiply(x, work);
+            return new BigDecimal[] {
+                x.subtract(x.multiply(square, work).divide(BigDecimal.valueOf(6), work)).round(mc),
+                BigDecimal.ONE.subtract(square.multiply(HALF)).round(mc)
+            };
+        }
+        // Small angles keep their leading zero bits as extra precision
+        int significant = bitsFor(precision);
+        int bits = significant + (int) Math.max(0, -Math.floor(log2(x.abs())));
+        // x = k pi / 2 + r with |r| <= pi / 4; reducing costs as many bits as x has before the point
+        int integerBits = (int) Math.max(0, Math.ceil(log2(x.abs()))) + 8;
+        BigInteger k;
+        BigInteger reduced;
+        int work;
+        while (true) {
+            work = bits + integerBits;
+            BigInteger halfPi = pi(work).shiftRight(1);
+            BigInteger fixed = toFixed(x, work);
+            k = roundedDivide(fixed, halfPi);
+            reduced = fixed.subtract(k.multiply(halfPi));
+            // Near a multiple of pi / 2, r has leading zero bits that the result does not get back,
+            // as with ln near 1: reduce again with that many more bits of pi
+            int needed = significant + work - reduced.abs().bitLength();
+            if (bits >= needed) {
+                break;
+            }
+            bits = needed;
+        }
+        BigInteger r = reduced.shiftRight(work - bits);
+        BigInteger[] sinCos = sinCosFixed(r, bits);
+        BigInteger sin = sinCos[0];
+        BigInteger cos = sinCos[1];
+        switch (k.intValue() & 3) {
+            case 1:
+                sinCos = new BigInteger[] {cos, sin.negate()};
+                break;
+            case 2:
+                sinCos = new BigInteger[] {sin.negate(), cos.negate()};
+                break;
+            case 3:
+                sinCos = new BigInteger[] {cos.negate(), sin};
+                break;
+            default:
+                break;
+        }
+        return new BigDecimal[] {toDecimal(sinCos[0], bits, mc), toDecimal(sinCos[1], bits, mc)};
+    }
+    
+    /**
+     * sin r and cos r for |r| < 1, in fixed point: each bit-burst chunk has
+     * a sine and a cosine series, and the chunks are combined with the
+     * angle-sum formulas.
+     */
+    private static BigInteger[] sinCosFixed(BigInteger r, int bits) {
+        BigInteger[] chunks = chunks(r, bits);
+        BigInteger[][] parts = new BigInteger[chunks.length / 2][];
+        forEachChunk(parts.length, bits, i -> {
+            BigInteger chunk = chunks[2 * i];
+            int chunkBits = chunks[2 * i + 1].intValue();
+            BigInteger minusSquare = chunk.multiply(chunk).negate();
+            long terms = termsFor(chunk, chunkBits, bits, 2);
+            // sin(c / 2^b) / (c / 2^b) - 1 and cos(c / 2^b) - 1, as sums over n >= 1
+            BinarySplitting sinSeries = new BinarySplitting(2 * chunkBits) {
+                @Override
+                BigInteger p(long n) {
+                    return minusSquare;
+                }
+                
+                @Override
+                BigInteger q(long n) {
+                    return BigInteger.valueOf(2 * n).multiply(BigInteger.valueOf(2 * n + 1));
+                }
+            };
+            BinarySplitting cosSeries = new BinarySplitting(2 * chunkBits) {
+                @Override
+                BigInteger p(long n) {
+                    return minusSquare;
+                }
+                
+                @Override
+                BigInteger q(long n) {
+                    return BigInteger.valueOf(2 * n - 1).multiply(BigInteger.valueOf(2 * n));
+                }
+            };
+            BigInteger one = BigInteger.ONE.shiftLeft(bits);
+            BigInteger angle = chunk.shiftLeft(bits - chunkBits);
+            BigInteger sin = angle.multiply(one.add(sinSeries.sumFixed(1, terms + 1, bits))).shiftRight(bits);
+            BigInteger cos = one.add(cosSeries.sumFixed(1, terms + 1, bits));
+            parts[i] = new BigInteger[] {sin, cos};
+        });
+        BigInteger sin = BigInteger.ZERO;
+        BigInteger cos = BigInteger.ONE.shiftLeft(bits);
+        for (BigInteger[] part : parts) {
+            // (cos + i sin)(c + i s) with three multiplications
+            BigInteger k1 = part[1].multiply(cos.add(sin));
+            BigInteger k2 = cos.multiply(part[0].subtract(part[1]));
+            BigInteger k3 = sin.multiply(part[1].add(part[0]));
+            cos = k1.subtract(k3).shiftRight(bits);
+            sin = k1.add(k2).shiftRight(bits);
+        }
+        return new BigInteger[] {sin, cos};
+    }
+    
+
+    // ==================== Constants ====================
+    
+    /**
+     * Pi.
+     */
+    static BigDecimal pi(MathContext mc) {
+        int bits = bitsFor(mc.getPrecision());
+        return toDecimal(pi(bits), bits, mc);
+    }
+    
+    /**
+     * Pi in fixed point, by the Chudnovsky series.
+     */
+    private static BigInteger pi(int bits) {
+        Fixed cached = cachedPi;
+        if (cached.bits >= bits) {
+            return cached.at(bits);
+        }
+        int work = bits + 32;
+        long terms = (long) (work / CHUDNOVSKY_BITS_PER_TERM) + 2;
+        BinarySplitting series = new BinarySplitting(0) {
+            @Override
+            BigInteger p(long k) {
+                if (k == 0) {
+                    return BigInteger.ONE;
+                }
+                return BigInteger.valueOf(6 * k - 5).multiply(BigInteger.valueOf(2 * k - 1))
+                    .multiply(BigInteger.valueOf(6 * k - 1)).negate();
+            }
+            
+            @Override
+            BigInteger q(long k) {
+                if (k == 0) {
+                    return BigInteger.ONE;
+                }
+                return BigInteger.valueOf(k).pow(3).multiply(CHUDNOVSKY_C3_OVER_24);
+            }
+            
+            @Override
+            BigInteger a(long k) {
+                return CHUDNOVSKY_A.add(CHUDNOVSKY_B.multiply(BigInteger.valueOf(k)));
+            }
+        };
+        BigInteger[] tq = series.sum(0, terms);
+        // pi = 426880 sqrt(10005) Q / T
+        BigInteger root = isqrt(BigInteger.valueOf(10005).shiftLeft(2 * work));
+        BigInteger pi = root.multiply(BigInteger.valueOf(426880)).multiply(tq[1]).divide(tq[0]);
+        cachedPi = new Fixed(pi, work);
+        return pi.shiftRight(work - bits);
+    }
+    
+    /**
+     * ln 2 in fixed point, by Newton's method on exp.
+     */
+    private static BigInteger ln2(int bits) {
+        Fixed cached = cachedLn2;
+        if (cached.bits >= bits) {
+            return cached.at(bits);
+        }
+        int work = bits + 32;
+        BigInteger ln2 = lnFixed(BigInteger.ONE.shiftLeft(work + 1), work);
+        cachedLn2 = new Fixed(ln2, work);
+        return ln2.shiftRight(work - bits);
+    }
+    
+    private static BigDecimal ln10(MathContext mc) {
+        BigDecimal cached = cachedLn10;
+        if (cached.precision() >= mc.getPrecision()) {
+            return cached.round(mc);
+        }
+        MathContext work = new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+        BigDecimal ln10 = ln(BigDecimal.TEN, work);
+        cachedLn10 = ln10;
+        return ln10.round(mc);
+    }
+    
+    // ==================== Helpers ====================
+    
+    /**
+     * Fractional bits that carry a precision in decimal digits plus the guard digits.
+     */
+    private static int bitsFor(int digits) {
+        return (int) Math.ceil((digits + GUARD_DIGITS) * LOG2_10);
+    }
+    
+    /**
+     * Converts to fixed point with the given number of fractional bits, truncating.
+     * @return floor(x 2^bits) (towards zero)
+     */
+    private static BigInteger toFixed(BigDecimal x, long bits) {
+        BigInteger numerator = x.unscaledValue();
+        BigInteger denominator = BigInteger.ONE;
+        if (x.scale() > 0) {
+            denominator = BigInteger.TEN.pow(x.scale());
+        } else {
+            numerator = numerator.multiply(BigInteger.TEN.pow(-x.scale()));
+        }
+        if (bits >= 0) {
+            numerator = numerator.shiftLeft((int) bits);
+        } else {
+            denominator = denominator.shiftLeft((int) -bits);
+        }
+        return denominator.equals(BigInteger.ONE) ? numerator : numerator.divide(denominator);
+    }
+    
+    /**
+     * Converts v / 2^bits to a decimal rounded to the context, keeping a few
+     * more digits than needed until the final rounding.
+     */
+    private static BigDecimal toDecimal(BigInteger v, long bits, MathContext mc) {
+        if (v.signum() == 0) {
+            return BigDecimal.ZERO;
+        }
+        long exponent = (long) Math.floor((v.bitLength() - 1 - bits) * LOG10_2);
+        long scale = mc.getPrecision() + 3 - exponent;
+        BigInteger numerator = v;
+        BigInteger denominator = BigInteger.ONE;
+        if (scale >= 0) {
+            numerator = numerator.multiply(BigInteger.TEN.pow((int) scale));
+        } else {
+            denominator = BigInteger.TEN.pow((int) -scale);
+        }
+        if (bits >= 0) {
+            numerator = numerator.shiftRight((int) bits);
+        } else {
+            numerator = numerator.shiftLeft((int) -bits);
+        }
+        if (!denominator.equals(BigInteger.ONE)) {
+            numerator = numerator.divide(denominator);
+        }
+        return new BigDecimal(numerator, (int) scale).round(mc);
+    }
+    
+    /**
+     * Splits a fixed-point |r| < 1 into bit-burst chunks: chunk j holds the
+     * fraction bits (b_j, b_(j+1)] with b_1 = 16 and b_(j+1) = 2 b_j, and
+     * stands for c_j / 2^b_(j+1). Zero chunks are left out.
+     * @return Pairs {c_j, b_(j+1)}, flattened
+     */
+    private static BigInteger[] chunks(BigInteger r, int bits) {
+        BigInteger[] chunks = new BigInteger[2 * (34 - Integer.numberOfLeadingZeros(bits / FIRST_CHUNK_BITS + 1))];
+        int count = 0;
+        BigInteger taken = BigInteger.ZERO;
+        int low = 0;
+        for (int high = Math.min(FIRST_CHUNK_BITS, bits); low < bits; low = high, high = Math.min(2 * high, bits)) {
+            // Truncating |r| keeps the sign out of the bit pattern
+            BigInteger prefix = r.abs().shiftRight(bits - high);
+            BigInteger chunk = prefix.subtract(taken.shiftLeft(high - low));
+            taken = prefix;
+            if (chunk.signum() != 0) {
+                chunks[count++] = r.signum() < 0 ? chunk.negate() : chunk;
+                chunks[count++] = BigInteger.valueOf(high);
+            }
+        }
+        return Arrays.copyOf(chunks, count);
+    }
+    
+    /**
+     * Number of series terms for a chunk c / 2^b to reach the given bits:
+     * the smallest N with N step (b - bitLength(c)) + log2((step N)!) past them,
+     * where step is 1 for exp and 2 for sin and cos.
+     */
+    private static long termsFor(BigInteger chunk, int chunkBits, int bits, int step) {
+        double smallness = chunkBits - chunk.bitLength();
+        double log2Factorial = 0;
+        long n = 0;
+        while (n * step * smallness + log2Factorial < bits + 2) {
+            n++;
+            for (int i = 1; i <= step; i++) {
+                log2Factorial += Math.log(step * (n - 1) + i) / Math.log(2);
+            }
+        }
+        return Math.max(n, 1);
+    }
+    
+    /**
+     * Runs a task for each of count chunks, in parallel when the precision is high enough.
+     */
+    private static void forEachChunk(int count, int bits, IntConsumer task) {
+        if (bits < PARALLEL_BITS || count < 2) {
+            for (int i = 0; i < count; i++) {
+                task.accept(i);
+            }
+            return;
+        }
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[count];
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            tasks[i] = ForkJoinTask.adapt(() -> task.accept(index));
+        }
+        ForkJoinTask.invokeAll(tasks);
+    }
+    
+    /**
+     * Rounds a / b to the nearest integer.
+     */
+    private static BigInteger roundedDivide(BigInteger a, BigInteger b) {
+        return a.shiftLeft(1).add(b).divide(b.shiftLeft(1)).subtract(a.signum() < 0 ? BigInteger.ONE : BigInteger.ZERO);
+    }
+    
+    /**
+     * Integer square root, floor(sqrt(n)), by Newton's method from a
+     * half-precision root.
+     */
+    private static BigInteger isqrt(BigInteger n) {
+        if (n.bitLength() <= 52) {
+            return BigInteger.valueOf((long) Math.sqrt(n.doubleValue()));
+        }
+        int half = n.bitLength() / 4;
+        BigInteger x = isqrt(n.shiftRight(2 * half)).shiftLeft(half);
+        x = x.add(n.divide(x)).shiftRight(1);
+        while (x.multiply(x).compareTo(n) > 0) {
+            x = x.subtract(BigInteger.ONE);
+        }
+        while (x.add(BigInteger.ONE).pow(2).compareTo(n) <= 0) {
+            x = x.add(BigInteger.ONE);
+        }
+        return x;
+    }
+    
+    /**
+     * Approximate base-2 logarithm of a positive number of any magnitude.
+     */
+    private static double log2(BigDecimal a) {
+        // From the top bits of the unscaled value; doubleValue would go through a string
+        BigInteger unscaled = a.unscaledValue().abs();
+        int drop = Math.max(0, unscaled.bitLength() - 62);
+        return Math.log(unscaled.shiftRight(drop).doubleValue()) / Math.log(2) + drop - a.scale() * LOG2_10;
+    }
+    
+    /**
+     * Double-precision estimate of the nth root of a positive number of any
+     * magnitude, computed from its decimal logarithm.
+     */
+    private static BigDecimal rootEstimate(BigDecimal a, int n) {
+        long exponent = decimalExponent(a);
+        double mantissa = a.movePointLeft((int) exponent).doubleValue();
+        double log10Root = (exponent + Math.log10(mantissa)) / n;
+        double integerPart = Math.floor(log10Root);
+        return new BigDecimal(Math.pow(10, log10Root - integerPart)).movePointRight((int) integerPart);
+    }
+    
+    /**
+     * floor(log10 |a|) for a non-zero number.
+     */
+    private static long decimalExponent(BigDecimal a) {
+        return (long) a.precision() - a.scale() - 1;
+    }
+    
+    /**
+     * A cached fixed-point constant and its number of fractional bits.
+     */
+    private static final class Fixed {
+        final BigInteger value;
+        final int bits;
+        
+        Fixed(BigInteger value, int bits) {
+            this.value = value;
+            this.bits = bits;
+        }
+        
+        BigInteger at(int fewerBits) {
+            return value.shiftRight(bits - fewerBits);
+        }
+    }
+}
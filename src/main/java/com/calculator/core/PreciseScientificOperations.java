@@ -0,0 +1,316 @@
+package com.calculator.core;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+
+/**
+ * Arbitrary-precision counterpart of {@link ScientificOperations}.
+ * 
+ * Every result is rounded to the configured {@link MathContext}, so the
+ * same code can produce 34 digits (DECIMAL128) or 10,000 digits just by
+ * changing the context. Inputs are validated exactly like the double
+ * versions and invalid inputs throw {@link ArithmeticException} with the
+ * same messages. See PreciseMath for the algorithms used.
+ */
+public class PreciseScientificOperations {
+    
+    private final MathContext mathContext;
+    
+    /**
+     * Creates an instance working to 34 significant digits (DECIMAL128).
+     */
+    public PreciseScientificOperations() {
+        this(MathContext.DECIMAL128);
+    }
+    
+    /**
+     * Creates an instance working to the given precision.
+     * @param mathContext Precision and rounding of every result (precision must be positive)
+     */
+    public PreciseScientificOperations(MathContext mathContext) {
+        if (mathContext.getPrecision() <= 0) {
+            throw new IllegalArgumentException("Error: Precision must be positive for scientific operations.");
+        }
+        this.mathContext = mathContext;
+    }
+    
+    // ==================== Power and Root Operations ====================
+    
+    /**
+     * Raises base to the power of exponent.
+     * Integral exponents are computed by repeated squaring; others as exp(y ln x),
+     * which for a negative base and a very large integral exponent is taken of
+     * |x| with the sign of x^y.
+     * @param base The base number
+     * @param exponent The exponent
+     * @return base raised to the power of exponent
+     * @throws ArithmeticException if the result is undefined or not real
+     */
+    public BigDecimal power(BigDecimal base, BigDecimal exponent) {
+        boolean integral = isIntegral(exponent);
+        if (integral && exponent.abs().compareTo(BigDecimal.valueOf(999999999)) <= 0) {
+            if (base.signum() == 0 && exponent.signum() < 0) {
+                throw new ArithmeticException("Error: Division by zero is not allowed.");
+            }
+            return base.pow(exponent.intValueExact(), mathContext);
+        }
+        if (base.signum() < 0) {
+            if (!integral) {
+                throw new ArithmeticException("Error: Fractional power of a negative number is not real.");
+            }
+            // Too large to square out: |x|^y, negated for odd y
+            BigDecimal magnitude = power(base.negate(), exponent);
+            return exponent.toBigIntegerExact().testBit(0) ? magnitude.negate() : magnitude;
+        }
+        if (base.signum() == 0) {
+            if (exponent.signum() < 0) {
+                throw new ArithmeticException("Error: Division by zero is not allowed.");
+            }
+            return BigDecimal.ZERO;
+        }
+        MathContext work = guarded(exponent);
+        return PreciseMath.exp(exponent.multiply(PreciseMath.ln(base, work), work), mathContext);
+    }
+    
+    /**
+     * Calculates the square of a number.
+     * @param a Input number
+     * @return Square of a
+     */
+    public BigDecimal square(BigDecimal a) {
+        return a.multiply(a, mathContext);
+    }
+    
+    /**
+     * Calculates the cube of a number.
+     * @param a Input number
+     * @return Cube of a
+     */
+    public BigDecimal cube(BigDecimal a) {
+        return a.pow(3, mathContext);
+    }
+    
+    /**
+     * Calculates the square root of a number.
+     * @param a Input number (must be non-negative)
+     * @return Square root of a
+     * @throws ArithmeticException if input is negative
+     */
+    public BigDecimal squareRoot(BigDecimal a) {
+        if (a.signum() < 0) {
+            throw new ArithmeticException("Error: Cannot calculate square root of negative number.");
+        }
+        return PreciseMath.sqrt(a, mathContext);
+    }
+    
+    /**
+     * Calculates the cube root of a number.
+     * @param a Input number
+     * @return Cube root of a
+     */
+    public BigDecimal cubeRoot(BigDecimal a) {
+        return PreciseMath.nthRoot(a, 3, mathContext);
+    }
+    
+    /**
+     * Calculates the nth root of a number.
+     * @param a Input number
+     * @param n Root degree (non-zero; negative degrees give the reciprocal root)
+     * @return nth root of a
+     * @throws ArithmeticException if the root is undefined
+     */
+    public BigDecimal nthRoot(BigDecimal a, int n) {
+        if (n == 0) {
+            throw new ArithmeticException("Error: Root degree cannot be zero.");
+        }
+        if (a.signum() < 0 && n % 2 == 0) {
+            throw new ArithmeticException("Error: Cannot calculate even root of negative number.");
+        }
+        if (n < 0) {
+            if (a.signum() == 0) {
+                throw new ArithmeticException("Error: Division by zero is not allowed.");
+            }
+            MathContext work = guarded(BigDecimal.ONE);
+            return BigDecimal.ONE.divide(PreciseMath.nthRoot(a, -n, work), mathContext);
+        }
+        return PreciseMath.nthRoot(a, n, mathContext);
+    }
+    
+    /**
+     * Calculates the reciprocal (1/x).
+     * @param a Input number
+     * @return Reciprocal of a
+     * @throws ArithmeticException if a is zero
+     */
+    public BigDecimal reciprocal(BigDecimal a) {
+        if (a.signum() == 0) {
+            throw new ArithmeticException("Error: Reciprocal of zero is undefined.");
+        }
+        return BigDecimal.ONE.divide(a, mathContext);
+    }
+    
+    // ==================== Logarithmic Operations ====================
+    
+    /**
+     * Calculates natural logarithm (base e).
+     * @param a Input number (must be positive)
+     * @return Natural logarithm of a
+     * @throws ArithmeticException if input is non-positive
+     */
+    public BigDecimal naturalLog(BigDecimal a) {
+        if (a.signum() <= 0) {
+            throw new ArithmeticException("Error: Logarithm undefined for non-positive numbers.");
+        }
+        return PreciseMath.ln(a, mathContext);
+    }
+    
+    /**
+     * Calculates common logarithm (base 10).
+     * @param a Input number (must be positive)
+     * @return Log base 10 of a
+     * @throws ArithmeticException if input is non-positive
+     */
+    public BigDecimal log10(BigDecimal a) {
+        if (a.signum() <= 0) {
+            throw new ArithmeticException("Error: Logarithm undefined for non-positive numbers.");
+        }
+        return PreciseMath.log10(a, mathContext);
+    }
+    
+    /**
+     * Calculates logarithm with custom base.
+     * @param a Input number (must be positive)
+     * @param base Logarithm base (must be positive and not 1)
+     * @return Log base 'base' of a
+     * @throws ArithmeticException if inputs are invalid
+     */
+    public BigDecimal logBase(BigDecimal a, BigDecimal base) {
+        if (a.signum() <= 0 || base.signum() <= 0) {
+            throw new ArithmeticException("Error: Logarithm undefined for non-positive numbers.");
+        }
+        if (base.compareTo(BigDecimal.ONE) == 0) {
+            throw new ArithmeticException("Error: Logarithm base cannot be 1.");
+        }
+        MathContext work = guarded(BigDecimal.ONE);
+        return PreciseMath.ln(a, work).divide(PreciseMath.ln(base, work), mathContext);
+    }
+    
+    // ==================== Exponential Operations ====================
+    
+    /**
+     * Calculates e raised to the power of a.
+     * @param a Exponent
+     * @return e^a
+     */
+    public BigDecimal exp(BigDecimal a) {
+        return PreciseMath.exp(a, mathContext);
+    }
+    
+    /**
+     * Calculates 10 raised to the power of a.
+     * @param a Exponent
+     * @return 10^a
+     */
+    public BigDecimal exp10(BigDecimal a) {
+        return power(BigDecimal.TEN, a);
+    }
+    
+    // ==================== Trigonometric Operations (Radians) ====================
+    
+    /**
+     * Calculates sine of angle in radians.
+     * @param radians Angle in radians
+     * @return Sine of the angle
+     */
+    public BigDecimal sin(BigDecimal radians) {
+        return PreciseMath.sin(radians, mathContext);
+    }
+    
+    /**
+     * Calculates cosine of angle in radians.
+     * @param radians Angle in radians
+     * @return Cosine of the angle
+     */
+    public BigDecimal cos(BigDecimal radians) {
+        return PreciseMath.cos(radians, mathContext);
+    }
+    
+    /**
+     * Calculates tangent of angle in radians.
+     * @param radians Angle in radians
+     * @return Tangent of the angle
+     */
+    public BigDecimal tan(BigDecimal radians) {
+        BigDecimal[] sinCos = PreciseMath.sinCos(radians, guarded(BigDecimal.ONE));
+        return sinCos[0].divide(sinCos[1], mathContext);
+    }
+    
+    // ==================== Special Functions ====================
+    
+    /**
+     * Calculates factorial of a non-negative integer, by binary splitting.
+     * Unlike {@link ScientificOperations#factorial(int)} there is no upper
+     * limit; the exact value is rounded to the configured precision.
+     * @param n Non-negative integer
+     * @return Factorial of n
+     * @throws ArithmeticException if n is negative
+     */
+    public BigDecimal factorial(int n) {
+        return new BigDecimal(factorialExact(n)).round(mathContext);
+    }
+    
+    /**
+     * Calculates the exact factorial of a non-negative integer.
+     * @param n Non-negative integer
+     * @return Exact factorial of n
+     * @throws ArithmeticException if n is negative
+     */
+    public BigInteger factorialExact(int n) {
+        if (n < 0) {
+            throw new ArithmeticException("Error: Factorial undefined for negative numbers.");
+        }
+        return Combinatorics.product(2, n);
+    }
+    
+    // ==================== Constants ====================
+    
+    /**
+     * Returns Pi to the configured precision.
+     * @return Pi (π)
+     */
+    public BigDecimal getPi() {
+        return PreciseMath.pi(mathContext);
+    }
+    
+    /**
+     * Returns Euler's number to the configured precision.
+     * @return e (Euler's number)
+     */
+    public BigDecimal getE() {
+        return PreciseMath.exp(BigDecimal.ONE, mathContext);
+    }
+    
+    /**
+     * Gets the precision and rounding used for every result.
+     * @return Math context
+     */
+    public MathContext getMathContext() {
+        return mathContext;
+    }
+    
+    // ==================== Helpers ====================
+    
+    /**
+     * Working context for intermediate results, with extra digits for the
+     * magnitude of a value the intermediate will be multiplied by.
+     */
+    private MathContext guarded(BigDecimal scale) {
+        int magnitude = Math.max(0, scale.precision() - scale.scale());
+        return new MathContext(mathContext.getPrecision() + 10 + magnitude, mathContext.getRoundingMode());
+    }
+    
+    private static boolean isIntegral(BigDecimal value) {
+        return value.signum() == 0 || value.scale() <= 0 || value.stripTrailingZeros().scale() <= 0;
+    }
+}
@@ -0,0 +1,35 @@
+package com.calculator.core;
+
+/**
+ * Precision tier of a {@link ScientificOperations}, chosen when it is
+ * created. Callers pick the tier per call site by holding one instance
+ * of each, and per batch by calling the batch methods of the instance
+ * they want.
+ */
+public enum Precision {
+    
+    /**
+     * The functions of java.lang.Math: within 1 ulp of the exact result
+     * and usually correctly rounded. The default.
+     */
+    STRICT,
+    
+    /**
+     * Faster exp, naturalLog, power, sin and cos, from small tables and
+     * short polynomials, for uses such as plotting or Monte Carlo that do
+     * not need the last bit. Maximum differences from StrictMath, checked
+     * by PrecisionCheck in the benchmarks module on millions of arguments,
+     * near-worst cases included:
+     * 
+     * - exp: 1 ulp
+     * - naturalLog: 1 ulp
+     * - power: 1 ulp
+     * - sin, cos: 2 ulps
+     * 
+     * Special cases (NaN, infinities, zeros, subnormals, overflow,
+     * negative bases of power, angles of 2^20 radians or more) are
+     * handled exactly as in {@link #STRICT}, and the domain errors are
+     * the same. Every other operation is the same in both tiers.
+     */
+    FAST
+}
@@ -1,5 +1,9 @@
 package com.calculator.core;
 
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.DoubleBuffer;
+
 /**
  * ScientificOperations class providing advanced mathematical functions.
  * Includes trigonometric, logarithmic, exponential, and other scientific operations.
@@ -10,9 +14,33 @@ package com.calculator.core;
  * - Comprehensive Javadoc documentation
  * - Input validation with descriptive error messages
  * - Use of Java's Math library for accuracy
+ * 
+ * The {@link Precision} given at construction selects the implementation
+ * of exp, naturalLog, power, sin and cos, in the scalar and batch methods
+ * alike; {@link Precision#FAST} trades up to 2 ulps (1 for exp, naturalLog and power) for speed.
  */
 public class ScientificOperations {
     
+    private final Precision precision;
+    
+    /**
+     * Creates scientific operations with {@link Precision#STRICT} precision.
+     */
+    public ScientificOperations() {
+        this(Precision.STRICT);
+    }
+    
+    /**
+     * Creates scientific operations.
+     * @param precision Precision tier of exp, naturalLog, power, sin and cos
+     */
+    public ScientificOperations(Precision precision) {
+        if (precision == null) {
+            throw new IllegalArgumentException("Error: Precision cannot be null.");
+        }
+        this.precision = precision;
+    }
+    
     // ==================== Power and Root Operations ====================
     
     /**
@@ -22,7 +50,7 @@ public class ScientificOperations {
      * @return base raised to the power of exponent
      */
     public double power(double base, double exponent) {
-        return Math.pow(base, exponent);
+        return precision == Precision.FAST ? ApproximateMath.pow(base, exponent) : Math.pow(base, exponent);
     }
     
     /**
@@ -50,8 +78,21 @@ public class ScientificOperations {
      * @throws ArithmeticException if input is negative
      */
     public double squareRoot(double a) {
+        return DomainError.check(squareRootOrNaN(a));
+    }
+    
+    /**
+     * Like {@link #squareRoot(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Input number (must be non-negative)
+     * @return Square root of a, or the NaN of a DomainError
+     */
+    public double squareRootOrNaN(double a) {
         if (a < 0) {
-            throw new ArithmeticException("Error: Cannot calculate square root of negative number.");
+            return DomainError.NEGATIVE_SQUARE_ROOT.toNaN();
+        }
+        if (Double.isNaN(a)) {
+            return Double.NaN;
         }
         return Math.sqrt(a);
     }
@@ -72,11 +113,25 @@ public class ScientificOperations {
      * @return nth root of a
      */
     public double nthRoot(double a, double n) {
+        return DomainError.check(nthRootOrNaN(a, n));
+    }
+    
+    /**
+     * Like {@link #nthRoot(double, double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Input number
+     * @param n Root degree
+     * @return nth root of a, or the NaN of a DomainError
+     */
+    public double nthRootOrNaN(double a, double n) {
         if (n == 0) {
-            throw new ArithmeticException("Error: Root degree cannot be zero.");
+            return DomainError.ZERO_ROOT_DEGREE.toNaN();
         }
         if (a < 0 && n % 2 == 0) {
-            throw new ArithmeticException("Error: Cannot calculate even root of negative number.");
+            return DomainError.EVEN_ROOT_OF_NEGATIVE.toNaN();
+        }
+        if (Double.isNaN(a) || Double.isNaN(n)) {
+            return Double.NaN;
         }
         return Math.pow(a, 1.0 / n);
     }
@@ -90,10 +145,23 @@ public class ScientificOperations {
      * @throws ArithmeticException if input is non-positive
      */
     public double naturalLog(double a) {
+        return DomainError.check(naturalLogOrNaN(a));
+    }
+    
+    /**
+     * Like {@link #naturalLog(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Input number (must be positive)
+     * @return Natural logarithm of a, or the NaN of a DomainError
+     */
+    public double naturalLogOrNaN(double a) {
         if (a <= 0) {
-            throw new ArithmeticException("Error: Logarithm undefined for non-positive numbers.");
+            return DomainError.NON_POSITIVE_LOGARITHM.toNaN();
+        }
+        if (Double.isNaN(a)) {
+            return Double.NaN;
         }
-        return Math.log(a);
+        return precision == Precision.FAST ? ApproximateMath.log(a) : Math.log(a);
     }
     
     /**
@@ -103,8 +171,21 @@ public class ScientificOperations {
      * @throws ArithmeticException if input is non-positive
      */
     public double log10(double a) {
+        return DomainError.check(log10OrNaN(a));
+    }
+    
+    /**
+     * Like {@link #log10(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Input number (must be positive)
+     * @return Log base 10 of a, or the NaN of a DomainError
+     */
+    public double log10OrNaN(double a) {
         if (a <= 0) {
-            throw new ArithmeticException("Error: Logarithm undefined for non-positive numbers.");
+            return DomainError.NON_POSITIVE_LOGARITHM.toNaN();
+        }
+        if (Double.isNaN(a)) {
+            return Double.NaN;
         }
         return Math.log10(a);
     }
@@ -117,11 +198,25 @@ public class ScientificOperations {
      * @throws ArithmeticException if inputs are invalid
      */
     public double logBase(double a, double base) {
+        return DomainError.check(logBaseOrNaN(a, base));
+    }
+    
+    /**
+     * Like {@link #logBase(double, double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Input number (must be positive)
+     * @param base Logarithm base (must be positive and not 1)
+     * @return Log base 'base' of a, or the NaN of a DomainError
+     */
+    public double logBaseOrNaN(double a, double base) {
         if (a <= 0 || base <= 0) {
-            throw new ArithmeticException("Error: Logarithm undefined for non-positive numbers.");
+            return DomainError.NON_POSITIVE_LOGARITHM.toNaN();
         }
         if (base == 1) {
-            throw new ArithmeticException("Error: Logarithm base cannot be 1.");
+            return DomainError.LOGARITHM_BASE_ONE.toNaN();
+        }
+        if (Double.isNaN(a) || Double.isNaN(base)) {
+            return Double.NaN;
         }
         return Math.log(a) / Math.log(base);
     }
@@ -134,7 +229,7 @@ public class ScientificOperations {
      * @return e^a
      */
     public double exp(double a) {
-        return Math.exp(a);
+        return precision == Precision.FAST ? ApproximateMath.exp(a) : Math.exp(a);
     }
     
     /**
@@ -154,7 +249,7 @@ public class ScientificOperations {
      * @return Sine of the angle
      */
     public double sin(double radians) {
-        return Math.sin(radians);
+        return precision == Precision.FAST ? ApproximateMath.sin(radians) : Math.sin(radians);
     }
     
     /**
@@ -163,7 +258,7 @@ public class ScientificOperations {
      * @return Cosine of the angle
      */
     public double cos(double radians) {
-        return Math.cos(radians);
+        return precision == Precision.FAST ? ApproximateMath.cos(radians) : Math.cos(radians);
     }
     
     /**
@@ -179,29 +274,48 @@ public class ScientificOperations {
     
     /**
      * Calculates sine of angle in degrees.
+     * The angle is reduced exactly, so sinDeg(180) is 0 and sinDeg(30) is 0.5.
      * @param degrees Angle in degrees
      * @return Sine of the angle
      */
     public double sinDeg(double degrees) {
-        return Math.sin(Math.toRadians(degrees));
+        return DegreeTrig.sin(degrees);
     }
     
     /**
      * Calculates cosine of angle in degrees.
+     * The angle is reduced exactly, so cosDeg(90) is 0 and cosDeg(60) is 0.5.
      * @param degrees Angle in degrees
      * @return Cosine of the angle
      */
     public double cosDeg(double degrees) {
-        return Math.cos(Math.toRadians(degrees));
+        return DegreeTrig.cos(degrees);
     }
     
     /**
      * Calculates tangent of angle in degrees.
      * @param degrees Angle in degrees
      * @return Tangent of the angle
+     * @throws ArithmeticException if the angle is an odd multiple of 90 degrees
      */
     public double tanDeg(double degrees) {
-        return Math.tan(Math.toRadians(degrees));
+        return DomainError.check(tanDegOrNaN(degrees));
+    }
+    
+    /**
+     * Like {@link #tanDeg(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param degrees Angle in degrees
+     * @return Tangent of the angle, or the NaN of a DomainError
+     */
+    public double tanDegOrNaN(double degrees) {
+        if (DegreeTrig.isTangentPole(degrees)) {
+            return DomainError.TANGENT_POLE.toNaN();
+        }
+        if (Double.isNaN(degrees)) {
+            return Double.NaN;
+        }
+        return DegreeTrig.tan(degrees);
     }
     
     // ==================== Inverse Trigonometric Operations ====================
@@ -213,8 +327,21 @@ public class ScientificOperations {
      * @throws ArithmeticException if value is out of range
      */
     public double asin(double value) {
+        return DomainError.check(asinOrNaN(value));
+    }
+    
+    /**
+     * Like {@link #asin(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param value Input value (must be between -1 and 1)
+     * @return Arc sine in radians, or the NaN of a DomainError
+     */
+    public double asinOrNaN(double value) {
         if (value < -1 || value > 1) {
-            throw new ArithmeticException("Error: Arc sine input must be between -1 and 1.");
+            return DomainError.ARC_SINE_RANGE.toNaN();
+        }
+        if (Double.isNaN(value)) {
+            return Double.NaN;
         }
         return Math.asin(value);
     }
@@ -226,8 +353,21 @@ public class ScientificOperations {
      * @throws ArithmeticException if value is out of range
      */
     public double acos(double value) {
+        return DomainError.check(acosOrNaN(value));
+    }
+    
+    /**
+     * Like {@link #acos(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param value Input value (must be between -1 and 1)
+     * @return Arc cosine in radians, or the NaN of a DomainError
+     */
+    public double acosOrNaN(double value) {
         if (value < -1 || value > 1) {
-            throw new ArithmeticException("Error: Arc cosine input must be between -1 and 1.");
+            return DomainError.ARC_COSINE_RANGE.toNaN();
+        }
+        if (Double.isNaN(value)) {
+            return Double.NaN;
         }
         return Math.acos(value);
     }
@@ -284,48 +424,110 @@ public class ScientificOperations {
      * @throws ArithmeticException if n is negative or too large
      */
     public double factorial(int n) {
+        return DomainError.check(factorialOrNaN(n));
+    }
+    
+    /**
+     * Like {@link #factorial(int)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param n Non-negative integer (0 to 170)
+     * @return Factorial of n, or the NaN of a DomainError
+     */
+    public double factorialOrNaN(int n) {
         // Validate input - factorial is only defined for non-negative integers
         if (n < 0) {
-            throw new ArithmeticException("Error: Factorial undefined for negative numbers.");
+            return DomainError.NEGATIVE_FACTORIAL.toNaN();
         }
         // Prevent overflow - 171! exceeds Double.MAX_VALUE
         if (n > Constants.MAX_FACTORIAL_INPUT) {
-            throw new ArithmeticException("Error: Factorial too large (maximum input is " 
-                + Constants.MAX_FACTORIAL_INPUT + ").");
+            return DomainError.FACTORIAL_TOO_LARGE.toNaN();
         }
         
-        // Calculate factorial using iterative approach (more efficient than recursion)
-        double result = 1;
-        for (int i = 2; i <= n; i++) {
-            result *= i;
-        }
-        return result;
+        // Look up the precomputed value instead of multiplying on every call
+        return Combinatorics.factorial(n);
     }
     
     /**
      * Calculates permutation P(n, r).
+     * The result is exact whenever it fits in a long, and n is not limited
+     * to the factorial range as long as the result fits in a double.
      * @param n Total items
      * @param r Items to arrange
      * @return Number of permutations
+     * @throws ArithmeticException if parameters are invalid or the result is too large
      */
     public double permutation(int n, int r) {
+        return DomainError.check(permutationOrNaN(n, r));
+    }
+    
+    /**
+     * Like {@link #permutation(int, int)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param n Total items
+     * @param r Items to arrange
+     * @return Number of permutations, or the NaN of a DomainError
+     */
+    public double permutationOrNaN(int n, int r) {
+        if (n < 0 || r < 0 || r > n) {
+            return DomainError.INVALID_PERMUTATION.toNaN();
+        }
+        return Combinatorics.permutation(n, r);
+    }
+    
+    /**
+     * Calculates permutation P(n, r) exactly.
+     * @param n Total items
+     * @param r Items to arrange
+     * @return Exact number of permutations
+     * @throws ArithmeticException if parameters are invalid
+     */
+    public BigInteger permutationExact(int n, int r) {
         if (n < 0 || r < 0 || r > n) {
             throw new ArithmeticException("Error: Invalid permutation parameters.");
         }
-        return factorial(n) / factorial(n - r);
+        return Combinatorics.permutationExact(n, r);
     }
     
     /**
      * Calculates combination C(n, r).
+     * Uses a precomputed Pascal triangle for n up to 66 and exact
+     * multiplicative arithmetic above that, so the result is the correctly
+     * rounded value of C(n, r) rather than a ratio of rounded factorials.
      * @param n Total items
      * @param r Items to choose
      * @return Number of combinations
+     * @throws ArithmeticException if parameters are invalid or the result is too large
      */
     public double combination(int n, int r) {
+        return DomainError.check(combinationOrNaN(n, r));
+    }
+    
+    /**
+     * Like {@link #combination(int, int)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param n Total items
+     * @param r Items to choose
+     * @return Number of combinations, or the NaN of a DomainError
+     */
+    public double combinationOrNaN(int n, int r) {
+        if (n < 0 || r < 0 || r > n) {
+            return DomainError.INVALID_COMBINATION.toNaN();
+        }
+        return Combinatorics.combination(n, r);
+    }
+    
+    /**
+     * Calculates combination C(n, r) exactly.
+     * @param n Total items
+     * @param r Items to choose
+     * @return Exact number of combinations
+     * @throws ArithmeticException if parameters are invalid
+     */
+    public BigInteger combinationExact(int n, int r) {
         if (n < 0 || r < 0 || r > n) {
             throw new ArithmeticException("Error: Invalid combination parameters.");
         }
-        return factorial(n) / (factorial(r) * factorial(n - r));
+        return Combinatorics.combinationExact(n, r);
     }
     
     /**
@@ -335,8 +537,21 @@ public class ScientificOperations {
      * @throws ArithmeticException if a is zero
      */
     public double reciprocal(double a) {
+        return DomainError.check(reciprocalOrNaN(a));
+    }
+    
+    /**
+     * Like {@link #reciprocal(double)}, but returns a NaN carrying the
+     * {@link DomainError} instead of throwing.
+     * @param a Input number
+     * @return Reciprocal of a, or the NaN of a DomainError
+     */
+    public double reciprocalOrNaN(double a) {
         if (a == 0) {
-            throw new ArithmeticException("Error: Reciprocal of zero is undefined.");
+            return DomainError.RECIPROCAL_OF_ZERO.toNaN();
+        }
+        if (Double.isNaN(a)) {
+            return Double.NaN;
         }
         return 1.0 / a;
     }
@@ -392,5 +607,704 @@ public class ScientificOperations {
     public double getGoldenRatio() {
         return Constants.GOLDEN_RATIO;
     }
+    
+    /**
+     * Gets the precision tier chosen at construction.
+     * @return Precision of exp, naturalLog, power, sin and cos
+     */
+    public Precision getPrecision() {
+        return precision;
+    }
+    
+    // ==================== Batch Operations ====================
+    
+    /*
+     * Bulk variants of the scalar operations above. Each processes the
+     * elements in[off .. off+len) into the same positions of out; in and out
+     * may be the same array. Operations with a restricted domain never throw
+     * for a bad element: they write NaN to its slot, record its index in the
+     * optional ErrorMask and return the number of rejected elements.
+     */
+    
+    /**
+     * Calculates the square of each number in a batch.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void square(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = x * x;
+        }
+    }
+    
+    /**
+     * Calculates the cube of each number in a batch.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void cube(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = x * x * x;
+        }
+    }
+    
+    /**
+     * Calculates the cube root of each number in a batch.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void cubeRoot(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.cbrt(x);
+        }
+    }
+    
+    /**
+     * Calculates e raised to each exponent in a batch.
+     * @param in Exponents
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void exp(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        boolean fast = precision == Precision.FAST;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = fast ? ApproximateMath.exp(x) : Math.exp(x);
+        }
+    }
+    
+    /**
+     * Calculates 10 raised to each exponent in a batch.
+     * @param in Exponents
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void exp10(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.pow(10, x);
+        }
+    }
+    
+    /**
+     * Calculates the sine of each angle in a batch.
+     * @param in Angles in radians
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void sin(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        boolean fast = precision == Precision.FAST;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = fast ? ApproximateMath.sin(x) : Math.sin(x);
+        }
+    }
+    
+    /**
+     * Calculates the cosine of each angle in a batch.
+     * @param in Angles in radians
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void cos(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        boolean fast = precision == Precision.FAST;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = fast ? ApproximateMath.cos(x) : Math.cos(x);
+        }
+    }
+    
+    /**
+     * Calculates the tangent of each angle in a batch.
+     * @param in Angles in radians
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void tan(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.tan(x);
+        }
+    }
+    
+    /**
+     * Calculates the sine of each angle in a batch.
+     * @param in Angles in degrees
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void sinDeg(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = DegreeTrig.sin(x);
+        }
+    }
+    
+    /**
+     * Calculates the cosine of each angle in a batch.
+     * @param in Angles in degrees
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void cosDeg(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = DegreeTrig.cos(x);
+        }
+    }
+    
+    /**
+     * Calculates the arc tangent of each value in a batch.
+     * @param in Input values
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void atan(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.atan(x);
+        }
+    }
+    
+    /**
+     * Calculates the hyperbolic sine of each value in a batch.
+     * @param in Input values
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void sinh(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.sinh(x);
+        }
+    }
+    
+    /**
+     * Calculates the hyperbolic cosine of each value in a batch.
+     * @param in Input values
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void cosh(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.cosh(x);
+        }
+    }
+    
+    /**
+     * Calculates the hyperbolic tangent of each value in a batch.
+     * @param in Input values
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void tanh(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.tanh(x);
+        }
+    }
+    
+    /**
+     * Converts each angle from degrees to radians in a batch.
+     * @param in Angles in degrees
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void toRadians(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.toRadians(x);
+        }
+    }
+    
+    /**
+     * Converts each angle from radians to degrees in a batch.
+     * @param in Angles in radians
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void toDegrees(double[] in, double[] out, int off, int len) {
+        checkBatch(in.length, out.length, off, len);
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            out[i] = Math.toDegrees(x);
+        }
+    }
+    
+    /**
+     * Calculates the square root of each number in a batch.
+     * Elements that are negative produce NaN and are recorded in the mask.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int squareRoot(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            if (x < 0) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = Math.sqrt(x);
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the natural logarithm of each number in a batch.
+     * Elements that are non-positive produce NaN and are recorded in the mask.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int naturalLog(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        boolean fast = precision == Precision.FAST;
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            if (x <= 0) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = fast ? ApproximateMath.log(x) : Math.log(x);
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the common logarithm of each number in a batch.
+     * Elements that are non-positive produce NaN and are recorded in the mask.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int log10(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            if (x <= 0) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = Math.log10(x);
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the arc sine of each value in a batch.
+     * Elements that are outside [-1, 1] produce NaN and are recorded in the mask.
+     * @param in Input values
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int asin(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            if (x < -1 || x > 1) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = Math.asin(x);
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the arc cosine of each value in a batch.
+     * Elements that are outside [-1, 1] produce NaN and are recorded in the mask.
+     * @param in Input values
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int acos(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            if (x < -1 || x > 1) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = Math.acos(x);
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the tangent of each angle in a batch.
+     * Odd multiples of 90 degrees, where the tangent is undefined, produce the
+     * NaN of {@link DomainError#TANGENT_POLE} and are recorded in the mask.
+     * @param in Angles in degrees
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int tanDeg(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            double t = DegreeTrig.tan(x);
+            // The table holds NaN at the poles, so only a NaN needs the pole test
+            if (Double.isNaN(t) && DegreeTrig.isTangentPole(x)) {
+                invalid += reject(out, i, errors, DomainError.TANGENT_POLE.toNaN());
+            } else {
+                out[i] = t;
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the reciprocal of each number in a batch.
+     * Elements that are zero produce NaN and are recorded in the mask.
+     * @param in Input numbers
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int reciprocal(double[] in, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            if (x == 0) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = 1.0 / x;
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Raises each base to the matching exponent in a batch.
+     * @param base Base numbers
+     * @param exponent Exponents
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     */
+    public void power(double[] base, double[] exponent, double[] out, int off, int len) {
+        checkBatch(base.length, out.length, off, len);
+        checkBatch(exponent.length, out.length, off, len);
+        boolean fast = precision == Precision.FAST;
+        for (int i = off, end = off + len; i < end; i++) {
+            out[i] = fast ? ApproximateMath.pow(base[i], exponent[i]) : Math.pow(base[i], exponent[i]);
+        }
+    }
+    
+    /**
+     * Calculates the nth root of each number in a batch.
+     * A zero degree, or an even root of a negative number, produces NaN
+     * and is recorded in the mask.
+     * @param in Input numbers
+     * @param n Root degrees
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int nthRoot(double[] in, double[] n, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        checkBatch(n.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            double degree = n[i];
+            if (degree == 0 || (x < 0 && degree % 2 == 0)) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = Math.pow(x, 1.0 / degree);
+            }
+        }
+        return invalid;
+    }
+    
+    /**
+     * Calculates the logarithm of each number in its matching base in a batch.
+     * Non-positive inputs or bases, and a base of 1, produce NaN and are
+     * recorded in the mask.
+     * @param in Input numbers
+     * @param base Logarithm bases
+     * @param out Destination for the results
+     * @param off Index of the first element to process
+     * @param len Number of elements to process
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int logBase(double[] in, double[] base, double[] out, int off, int len, ErrorMask errors) {
+        checkBatch(in.length, out.length, off, len);
+        checkBatch(base.length, out.length, off, len);
+        int invalid = 0;
+        for (int i = off, end = off + len; i < end; i++) {
+            double x = in[i];
+            double b = base[i];
+            if (x <= 0 || b <= 0 || b == 1) {
+                invalid += reject(out, i, errors);
+            } else {
+                out[i] = Math.log(x) / Math.log(b);
+            }
+        }
+        return invalid;
+    }
+    
+    // ==================== Batch Operations (DoubleBuffer) ====================
+    
+    /*
+     * Buffer variants process in.remaining() elements from the current
+     * positions of in and out using absolute get/put, then advance both
+     * positions. Error mask bits are relative to the starting position of in.
+     */
+    
+    /**
+     * Calculates the sine of each angle remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     */
+    public void sin(DoubleBuffer in, DoubleBuffer out) {
+        int len = checkBuffers(in, out);
+        boolean fast = precision == Precision.FAST;
+        int src = in.position();
+        int dst = out.position();
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            out.put(dst + i, fast ? ApproximateMath.sin(x) : Math.sin(x));
+        }
+        advance(in, out, len);
+    }
+    
+    /**
+     * Calculates the cosine of each angle remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     */
+    public void cos(DoubleBuffer in, DoubleBuffer out) {
+        int len = checkBuffers(in, out);
+        boolean fast = precision == Precision.FAST;
+        int src = in.position();
+        int dst = out.position();
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            out.put(dst + i, fast ? ApproximateMath.cos(x) : Math.cos(x));
+        }
+        advance(in, out, len);
+    }
+    
+    /**
+     * Calculates the tangent of each angle remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     */
+    public void tan(DoubleBuffer in, DoubleBuffer out) {
+        int len = checkBuffers(in, out);
+        int src = in.position();
+        int dst = out.position();
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            out.put(dst + i, Math.tan(x));
+        }
+        advance(in, out, len);
+    }
+    
+    /**
+     * Calculates e raised to each exponent remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     */
+    public void exp(DoubleBuffer in, DoubleBuffer out) {
+        int len = checkBuffers(in, out);
+        boolean fast = precision == Precision.FAST;
+        int src = in.position();
+        int dst = out.position();
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            out.put(dst + i, fast ? ApproximateMath.exp(x) : Math.exp(x));
+        }
+        advance(in, out, len);
+    }
+    
+    /**
+     * Calculates the square root of each number remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int squareRoot(DoubleBuffer in, DoubleBuffer out, ErrorMask errors) {
+        int len = checkBuffers(in, out);
+        int src = in.position();
+        int dst = out.position();
+        int invalid = 0;
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            if (x < 0) {
+                out.put(dst + i, Double.NaN);
+                invalid++;
+                if (errors != null) {
+                    errors.set(i);
+                }
+            } else {
+                out.put(dst + i, Math.sqrt(x));
+            }
+        }
+        advance(in, out, len);
+        return invalid;
+    }
+    
+    /**
+     * Calculates the natural logarithm of each number remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int naturalLog(DoubleBuffer in, DoubleBuffer out, ErrorMask errors) {
+        int len = checkBuffers(in, out);
+        boolean fast = precision == Precision.FAST;
+        int src = in.position();
+        int dst = out.position();
+        int invalid = 0;
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            if (x <= 0) {
+                out.put(dst + i, Double.NaN);
+                invalid++;
+                if (errors != null) {
+                    errors.set(i);
+                }
+            } else {
+                out.put(dst + i, fast ? ApproximateMath.log(x) : Math.log(x));
+            }
+        }
+        advance(in, out, len);
+        return invalid;
+    }
+    
+    /**
+     * Calculates the common logarithm of each number remaining in a buffer.
+     * @param in Source buffer
+     * @param out Destination buffer
+     * @param errors Mask receiving the indices of invalid elements (may be null)
+     * @return Number of invalid elements
+     */
+    public int log10(DoubleBuffer in, DoubleBuffer out, ErrorMask errors) {
+        int len = checkBuffers(in, out);
+        int src = in.position();
+        int dst = out.position();
+        int invalid = 0;
+        for (int i = 0; i < len; i++) {
+            double x = in.get(src + i);
+            if (x <= 0) {
+                out.put(dst + i, Double.NaN);
+                invalid++;
+                if (errors != null) {
+                    errors.set(i);
+                }
+            } else {
+                out.put(dst + i, Math.log10(x));
+            }
+        }
+        advance(in, out, len);
+        return invalid;
+    }
+    
+    // ==================== Batch Helpers ====================
+    
+    private static void checkBatch(int inLength, int outLength, int off, int len) {
+        if (off < 0 || len < 0 || off + len < 0 || off + len > inLength || off + len > outLength) {
+            throw new IndexOutOfBoundsException("Error: Batch range [" + off + ", " + (off + len)
+                + ") is out of bounds.");
+        }
+    }
+    
+    private static int checkBuffers(DoubleBuffer in, DoubleBuffer out) {
+        int len = in.remaining();
+        if (out.remaining() < len) {
+            throw new BufferOverflowException();
+        }
+        return len;
+    }
+    
+    private static void advance(DoubleBuffer in, DoubleBuffer out, int len) {
+        in.position(in.position() + len);
+        out.position(out.position() + len);
+    }
+    
+    private static int reject(double[] out, int index, ErrorMask errors) {
+        return reject(out, index, errors, Double.NaN);
+    }
+    
+    private static int reject(double[] out, int index, ErrorMask errors, double nan) {
+        out[index] = nan;
+        if (errors != null) {
+            errors.set(index);
+        }
+        return 1;
+    }
 }
-
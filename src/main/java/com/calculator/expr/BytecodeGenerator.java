@@ -0,0 +1,433 @@
+package com.calculator.expr;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Translates a compiled expression program into the class file of a
+ * {@link GeneratedExpression} subclass and defines it.
+ * 
+ * The program is already in postfix order, so it maps one instruction to
+ * a few bytecodes: the JVM operand stack takes the place of the scratch
+ * stack, constants become constant-pool entries and variables become array
+ * loads. The generated code has no branches, so it needs no stack map
+ * frames and the class file format of Java 8 is enough.
+ */
+final class BytecodeGenerator {
+    
+    private BytecodeGenerator() {
+        throw new UnsupportedOperationException("BytecodeGenerator class cannot be instantiated");
+    }
+    
+    private static final String CLASS_NAME = "com/calculator/expr/GeneratedFormula";
+    private static final String SUPER_NAME = "com/calculator/expr/GeneratedExpression";
+    private static final String MATH = "java/lang/Math";
+    private static final String UNARY = "(D)D";
+    private static final String BINARY = "(DD)D";
+    
+    // Largest method body the class file format allows
+    private static final int MAX_CODE_LENGTH = 65535;
+    
+    // Class file constants
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+    private static final int JAVA_8_VERSION = 52;
+    
+    // Bytecodes used by the generated methods
+    private static final int ICONST_0 = 0x03;
+    private static final int DCONST_0 = 0x0e;
+    private static final int DCONST_1 = 0x0f;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int LDC2_W = 0x14;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int DALOAD = 0x31;
+    private static final int DADD = 0x63;
+    private static final int DSUB = 0x67;
+    private static final int DMUL = 0x6b;
+    private static final int DDIV = 0x6f;
+    private static final int DREM = 0x73;
+    private static final int DNEG = 0x77;
+    private static final int DRETURN = 0xaf;
+    private static final int RETURN = 0xb1;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    
+    // MethodHandles.Lookup.defineHiddenClass, on Java 15 and later
+    private static final Method DEFINE_HIDDEN_CLASS;
+    private static final Object NO_CLASS_OPTIONS;
+    
+    static {
+        Method define = null;
+        Object options = null;
+        try {
+            Class<?> option = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            options = Array.newInstance(option, 0);
+            define = MethodHandles.Lookup.class.getMethod("defineHiddenClass",
+                byte[].class, boolean.class, options.getClass());
+        } catch (ReflectiveOperationException e) {
+            // Older JVM: each class gets a class loader of its own instead
+        }
+        DEFINE_HIDDEN_CLASS = define;
+        NO_CLASS_OPTIONS = options;
+    }
+    
+    /**
+     * Generates and instantiates the class for an expression program.
+     * @param source Source text of the expression
+     * @param variables Declared variable names
+     * @param code Program, as produced by the parser
+     * @param constants Constant pool of the program
+     * @return Instance of the new class
+     * @throws ExpressionException if the expression is too large for one method
+     */
+    static GeneratedExpression generate(String source, String[] variables, int[] code, double[] constants) {
+        byte[] bytes = new ClassWriter().write(variables.length, code, constants);
+        try {
+            Class<?> type = define(bytes);
+            return (GeneratedExpression) type.getConstructor(String.class, String[].class)
+                .newInstance(source, variables);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Error: Generated expression class failed to load.", e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Error: Generated expression class failed to load.", e);
+        }
+    }
+    
+    private static Class<?> define(byte[] bytes) throws ReflectiveOperationException {
+        if (DEFINE_HIDDEN_CLASS != null) {
+            // Not strongly linked to this class loader, so it can be unloaded on its own
+            Object lookup = DEFINE_HIDDEN_CLASS.invoke(MethodHandles.lookup(), bytes, true, NO_CLASS_OPTIONS);
+            return ((MethodHandles.Lookup) lookup).lookupClass();
+        }
+        return new GeneratedClassLoader().define(bytes);
+    }
+    
+    /**
+     * Class loader holding a single generated class, so that the class is
+     * unloaded together with the loader once neither is referenced.
+     */
+    private static final class GeneratedClassLoader extends ClassLoader {
+        
+        GeneratedClassLoader() {
+            super(GeneratedExpression.class.getClassLoader());
+        }
+        
+        Class<?> define(byte[] bytes) {
+            return defineClass(CLASS_NAME.replace('/', '.'), bytes, 0, bytes.length);
+        }
+    }
+    
+    /**
+     * Builds one class file: the constant pool, a constructor passing its
+     * arguments to {@link GeneratedExpression}, and eval.
+     */
+    private static final class ClassWriter {
+        
+        private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+        private final DataOutputStream pool = new DataOutputStream(poolBytes);
+        private final Map<String, Integer> entries = new HashMap<>();
+        private int poolCount = 1;
+        
+        private final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+        private int stack;
+        private int maxStack;
+        
+        byte[] write(int variableCount, int[] code, double[] constants) {
+            int thisClass = classEntry(CLASS_NAME);
+            int superClass = classEntry(SUPER_NAME);
+            int codeName = utf8("Code");
+            
+            // GeneratedFormula(String source, String[] variables) { super(source, variables); }
+            int initName = utf8("<init>");
+            int initType = utf8("(Ljava/lang/String;[Ljava/lang/String;)V");
+            byte[] init = {
+                (byte) ALOAD_0, (byte) ALOAD_1, (byte) ALOAD_2, (byte) INVOKESPECIAL, 0, 0, (byte) RETURN
+            };
+            int superInit = methodEntry(SUPER_NAME, "<init>", "(Ljava/lang/String;[Ljava/lang/String;)V");
+            init[4] = (byte) (superInit >>> 8);
+            init[5] = (byte) superInit;
+            
+            int evalName = utf8("eval");
+            int evalType = utf8("([D)D");
+            byte[] eval = evalBody(variableCount, code, constants);
+            if (eval.length > MAX_CODE_LENGTH || poolCount > 0xffff) {
+                throw new ExpressionException("Expression too large to generate bytecode for", 0);
+            }
+            
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(poolBytes.size() + eval.length + 128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            try {
+                out.writeInt(0xcafebabe);
+                out.writeShort(0);
+                out.writeShort(JAVA_8_VERSION);
+                out.writeShort(poolCount);
+                poolBytes.writeTo(out);
+                out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+                out.writeShort(thisClass);
+                out.writeShort(superClass);
+                out.writeShort(0); // Interfaces
+                out.writeShort(0); // Fields
+                out.writeShort(2); // Methods
+                writeMethod(out, initName, initType, codeName, init, 3, 3);
+                writeMethod(out, evalName, evalType, codeName, eval, maxStack, 2);
+                out.writeShort(0); // Attributes
+            } catch (IOException e) {
+                // ByteArrayOutputStream does not throw
+                throw new UncheckedIOException(e);
+            }
+            return bytes.toByteArray();
+        }
+        
+        private static void writeMethod(DataOutputStream out, int name, int type, int codeName,
+                byte[] body, int maxStack, int maxLocals) throws IOException {
+            out.writeShort(ACC_PUBLIC);
+            out.writeShort(name);
+            out.writeShort(type);
+            out.writeShort(1); // Attributes: Code
+            out.writeShort(codeName);
+            out.writeInt(12 + body.length);
+            out.writeShort(maxStack);
+            out.writeShort(maxLocals);
+            out.writeInt(body.length);
+            out.write(body);
+            out.writeShort(0); // Exception table
+            out.writeShort(0); // Code attributes
+        }
+        
+        // ==================== Method Body ====================
+        
+        private byte[] evalBody(int variableCount, int[] code, double[] constants) {
+            emit(ALOAD_1, 1);
+            pushInt(variableCount);
+            invokeStatic(SUPER_NAME, "checkArity", "([DI)V", -2);
+            
+            // Non-zero only right after a non-zero constant: a divisor that cannot be zero
+            double previousConstant = 0;
+            for (int pc = 0; pc < code.length; pc++) {
+                double constant = 0;
+                switch (code[pc]) {
+                    case OpCodes.CONST:
+                        constant = constants[code[++pc]];
+                        pushDouble(constant);
+                        break;
+                    case OpCodes.VAR:
+                        emit(ALOAD_1, 1);
+                        pushInt(code[++pc]);
+                        emit(DALOAD, 0);
+                        break;
+                    case OpCodes.ADD:
+                        emit(DADD, -2);
+                        break;
+                    case OpCodes.SUB:
+                        emit(DSUB, -2);
+                        break;
+                    case OpCodes.MUL:
+                        emit(DMUL, -2);
+                        break;
+                    case OpCodes.NEG:
+                        emit(DNEG, 0);
+                        break;
+                    case OpCodes.DIV:
+                        if (previousConstant != 0) {
+                            emit(DDIV, -2);
+                        } else {
+                            invokeStatic(SUPER_NAME, "divide", BINARY, -2);
+                        }
+                        break;
+                    case OpCodes.MOD:
+                        if (previousConstant != 0) {
+                            emit(DREM, -2);
+                        } else {
+                            invokeStatic(SUPER_NAME, "modulus", BINARY, -2);
+                        }
+                        break;
+                    case OpCodes.POW:
+                        invokeStatic(MATH, "pow", BINARY, -2);
+                        break;
+                    case OpCodes.ROOT:
+                        invokeStatic(SUPER_NAME, "nthRoot", BINARY, -2);
+                        break;
+                    case OpCodes.LOG_BASE:
+                        invokeStatic(SUPER_NAME, "logBase", BINARY, -2);
+                        break;
+                    default:
+                        unary(code[pc]);
+                        break;
+                }
+                previousConstant = constant;
+            }
+            emit(DRETURN, -2);
+            return codeBytes.toByteArray();
+        }
+        
+        private void unary(int op) {
+            switch (op) {
+                case OpCodes.FACT:    invokeStatic(SUPER_NAME, "factorial", UNARY, 0); break;
+                case OpCodes.SQRT:    invokeStatic(SUPER_NAME, "squareRoot", UNARY, 0); break;
+                case OpCodes.LN:      invokeStatic(SUPER_NAME, "naturalLog", UNARY, 0); break;
+                case OpCodes.LOG10:   invokeStatic(SUPER_NAME, "log10", UNARY, 0); break;
+                case OpCodes.ASIN:    invokeStatic(SUPER_NAME, "asin", UNARY, 0); break;
+                case OpCodes.ACOS:    invokeStatic(SUPER_NAME, "acos", UNARY, 0); break;
+                case OpCodes.SIN_DEG: invokeStatic(SUPER_NAME, "sinDeg", UNARY, 0); break;
+                case OpCodes.COS_DEG: invokeStatic(SUPER_NAME, "cosDeg", UNARY, 0); break;
+                case OpCodes.TAN_DEG: invokeStatic(SUPER_NAME, "tanDeg", UNARY, 0); break;
+                case OpCodes.CBRT:    invokeStatic(MATH, "cbrt", UNARY, 0); break;
+                case OpCodes.ABS:     invokeStatic(MATH, "abs", UNARY, 0); break;
+                case OpCodes.EXP:     invokeStatic(MATH, "exp", UNARY, 0); break;
+                case OpCodes.SIN:     invokeStatic(MATH, "sin", UNARY, 0); break;
+                case OpCodes.COS:     invokeStatic(MATH, "cos", UNARY, 0); break;
+                case OpCodes.TAN:     invokeStatic(MATH, "tan", UNARY, 0); break;
+                case OpCodes.ATAN:    invokeStatic(MATH, "atan", UNARY, 0); break;
+                case OpCodes.SINH:    invokeStatic(MATH, "sinh", UNARY, 0); break;
+                case OpCodes.COSH:    invokeStatic(MATH, "cosh", UNARY, 0); break;
+                case OpCodes.TANH:    invokeStatic(MATH, "tanh", UNARY, 0); break;
+                default:
+                    // Unreachable for programs produced by the parser
+                    throw new IllegalStateException("Unknown instruction " + op + ".");
+            }
+        }
+        
+        private void pushDouble(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (bits == 0L) {
+                emit(DCONST_0, 2);
+            } else if (bits == Double.doubleToRawLongBits(1.0)) {
+                emit(DCONST_1, 2);
+            } else {
+                emitWithIndex(LDC2_W, doubleEntry(value), 2);
+            }
+        }
+        
+        private void pushInt(int value) {
+            if (value >= 0 && value <= 5) {
+                emit(ICONST_0 + value, 1);
+            } else if (value <= Byte.MAX_VALUE) {
+                emit(BIPUSH, 1);
+                codeBytes.write(value);
+            } else if (value <= Short.MAX_VALUE) {
+                emitWithIndex(SIPUSH, value, 1);
+            } else {
+                emitWithIndex(LDC_W, intEntry(value), 1);
+            }
+        }
+        
+        private void invokeStatic(String owner, String name, String descriptor, int stackChange) {
+            emitWithIndex(INVOKESTATIC, methodEntry(owner, name, descriptor), stackChange);
+        }
+        
+        private void emitWithIndex(int opcode, int index, int stackChange) {
+            emit(opcode, stackChange);
+            codeBytes.write(index >>> 8);
+            codeBytes.write(index);
+        }
+        
+        private void emit(int opcode, int stackChange) {
+            codeBytes.write(opcode);
+            // Stack sizes are in slots; a double takes two
+            stack += stackChange;
+            maxStack = Math.max(maxStack, stack);
+        }
+        
+        // ==================== Constant Pool ====================
+        
+        private int utf8(String value) {
+            Integer index = entries.get("U" + value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                pool.writeByte(1);
+                pool.writeUTF(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return add("U" + value, 1);
+        }
+        
+        private int classEntry(String name) {
+            Integer index = entries.get("C" + name);
+            if (index != null) {
+                return index;
+            }
+            int nameIndex = utf8(name);
+            writeEntry(7, nameIndex);
+            return add("C" + name, 1);
+        }
+        
+        private int methodEntry(String owner, String name, String descriptor) {
+            String key = "M" + owner + '.' + name + descriptor;
+            Integer index = entries.get(key);
+            if (index != null) {
+                return index;
+            }
+            int ownerIndex = classEntry(owner);
+            int nameIndex = utf8(name);
+            int typeIndex = utf8(descriptor);
+            writeEntry(12, nameIndex, typeIndex);
+            int nameAndType = add("N" + key, 1);
+            writeEntry(10, ownerIndex, nameAndType);
+            return add(key, 1);
+        }
+        
+        private int doubleEntry(double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            Integer index = entries.get("D" + bits);
+            if (index != null) {
+                return index;
+            }
+            try {
+                pool.writeByte(6);
+                pool.writeLong(bits);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            // Doubles take two constant pool slots
+            return add("D" + bits, 2);
+        }
+        
+        private int intEntry(int value) {
+            Integer index = entries.get("I" + value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                pool.writeByte(3);
+                pool.writeInt(value);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return add("I" + value, 1);
+        }
+        
+        private void writeEntry(int tag, int... indices) {
+            try {
+                pool.writeByte(tag);
+                for (int index : indices) {
+                    pool.writeShort(index);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        
+        private int add(String key, int slots) {
+            int index = poolCount;
+            entries.put(key, index);
+            poolCount += slots;
+            return index;
+        }
+    }
+}
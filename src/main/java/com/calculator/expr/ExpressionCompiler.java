@@ -0,0 +1,43 @@
+package com.calculator.expr;
+
+/**
+ * Entry point for compiling infix expressions such as
+ * {@code sin(x)^2 + log10(y)/3!} into reusable {@link CompiledExpression}s.
+ * 
+ * Supported syntax:
+ * <ul>
+ *   <li>Operators: {@code + - * / % ^}, unary minus and postfix factorial {@code !}</li>
+ *   <li>Functions: sqrt, cbrt, abs, ln, log, log10, exp, sin, cos, tan,
+ *       asin, acos, atan, sinh, cosh, tanh, sind, cosd, tand,
+ *       pow(x, y), root(x, n) and log(x, base)</li>
+ *   <li>Constants: pi, e, phi (declared variables take precedence)</li>
+ * </ul>
+ */
+public final class ExpressionCompiler {
+    
+    // Private constructor prevents instantiation (utility class)
+    private ExpressionCompiler() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+    
+    /**
+     * Compiles an expression.
+     * 
+     * @param expression Infix expression to compile
+     * @param variables Names of the variables the expression may reference;
+     *                  their order defines the binding order at evaluation time
+     * @return Compiled expression ready for repeated evaluation
+     * @throws ExpressionException if the expression is malformed
+     */
+    public static CompiledExpression compile(String expression, String... variables) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Error: Expression cannot be null.");
+        }
+        for (String variable : variables) {
+            if (variable == null || variable.isEmpty()) {
+                throw new IllegalArgumentException("Error: Variable names cannot be empty.");
+            }
+        }
+        return new Parser(expression, variables.clone()).parse();
+    }
+}
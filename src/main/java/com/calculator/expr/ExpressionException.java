@@ -0,0 +1,30 @@
+package com.calculator.expr;
+
+/**
+ * Thrown when an expression cannot be parsed or compiled.
+ * Carries the zero-based character position where the problem was found.
+ */
+public class ExpressionException extends IllegalArgumentException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final int position;
+    
+    /**
+     * Creates an exception for a syntax error.
+     * @param message Description of the problem
+     * @param position Character position in the source expression
+     */
+    public ExpressionException(String message, int position) {
+        super("Error: " + message + " (at position " + position + ").");
+        this.position = position;
+    }
+    
+    /**
+     * Gets the character position of the error.
+     * @return Zero-based position in the source expression
+     */
+    public int getPosition() {
+        return position;
+    }
+}
@@ -0,0 +1,218 @@
+package com.calculator.expr;
+
+import com.calculator.core.ScientificOperations;
+
+/**
+ * A compiled expression translated into JVM bytecode: a class of its own
+ * whose {@link #eval(double[])} is the formula written out as straight-line
+ * code, with no loop, no switch and no scratch stack. Created by
+ * {@link CompiledExpression#generate()}.
+ * 
+ * Operations that cannot fail (arithmetic, pow, exp, sin, cos, tan, atan,
+ * the hyperbolic functions, cbrt and abs) compile to the bytecode
+ * instruction or the java.lang.Math call itself, which the JIT compiler
+ * treats as an intrinsic. The others call the small static methods below,
+ * which the JIT compiler inlines, so results and error messages are the
+ * same as {@link CompiledExpression#evaluate(double[], double[])}.
+ * 
+ * Each generated class is defined on its own (as a hidden class on Java 15
+ * and later, in a class loader of its own before that), so it is unloaded
+ * once its instance is no longer referenced. Instances are immutable and
+ * may be shared between threads.
+ */
+public abstract class GeneratedExpression {
+    
+    private static final ScientificOperations SCIENTIFIC = new ScientificOperations();
+    
+    private final String source;
+    private final String[] variables;
+    
+    /**
+     * Creates a generated expression.
+     * @param source Source text the expression was compiled from
+     * @param variables Declared variable names, in binding order
+     */
+    protected GeneratedExpression(String source, String[] variables) {
+        this.source = source;
+        this.variables = variables;
+    }
+    
+    /**
+     * Evaluates the expression. Allocates nothing.
+     * 
+     * @param values Variable values, in the order the variables were declared
+     * @return Result of the expression
+     * @throws ArithmeticException if an operation is outside its domain
+     * @throws IllegalArgumentException if fewer values than variables are supplied
+     */
+    public abstract double eval(double[] values);
+    
+    /**
+     * Gets the declared variable names, in binding order.
+     * @return Copy of the variable names
+     */
+    public String[] getVariables() {
+        return variables.clone();
+    }
+    
+    /**
+     * Gets the source text the expression was compiled from.
+     * @return Original expression
+     */
+    public String getSource() {
+        return source;
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+    
+    // ==================== Runtime Support ====================
+    
+    /**
+     * Checks that enough variable values were supplied.
+     * @param values Variable values
+     * @param count Number of declared variables
+     * @throws IllegalArgumentException if there are fewer values than variables
+     */
+    protected static void checkArity(double[] values, int count) {
+        if (values.length < count) {
+            throw new IllegalArgumentException("Error: Expected " + count
+                + " variable value(s) but got " + values.length + ".");
+        }
+    }
+    
+    /**
+     * Divides, rejecting a zero divisor.
+     * @param a Dividend
+     * @param b Divisor
+     * @return Quotient
+     * @throws ArithmeticException if b is zero
+     */
+    protected static double divide(double a, double b) {
+        if (b == 0) {
+            throw new ArithmeticException("Error: Division by zero is not allowed.");
+        }
+        return a / b;
+    }
+    
+    /**
+     * Takes the remainder, rejecting a zero divisor.
+     * @param a Dividend
+     * @param b Divisor
+     * @return Remainder
+     * @throws ArithmeticException if b is zero
+     */
+    protected static double modulus(double a, double b) {
+        if (b == 0) {
+            throw new ArithmeticException("Error: Modulus by zero is not allowed.");
+        }
+        return a % b;
+    }
+    
+    /**
+     * Computes the factorial of a whole number.
+     * @param a Non-negative integer value
+     * @return a!
+     * @throws ArithmeticException if a is not a non-negative integer or is too large
+     */
+    protected static double factorial(double a) {
+        if (a != Math.floor(a) || Double.isInfinite(a)) {
+            throw new ArithmeticException("Error: Factorial requires a non-negative integer.");
+        }
+        return SCIENTIFIC.factorial(a > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) a);
+    }
+    
+    /**
+     * See {@link ScientificOperations#nthRoot(double, double)}.
+     * @param a Radicand
+     * @param n Root degree
+     * @return n-th root of a
+     */
+    protected static double nthRoot(double a, double n) {
+        return SCIENTIFIC.nthRoot(a, n);
+    }
+    
+    /**
+     * See {@link ScientificOperations#logBase(double, double)}.
+     * @param a Value
+     * @param base Logarithm base
+     * @return Logarithm of a in the base
+     */
+    protected static double logBase(double a, double base) {
+        return SCIENTIFIC.logBase(a, base);
+    }
+    
+    /**
+     * See {@link ScientificOperations#squareRoot(double)}.
+     * @param a Value
+     * @return Square root
+     */
+    protected static double squareRoot(double a) {
+        return SCIENTIFIC.squareRoot(a);
+    }
+    
+    /**
+     * See {@link ScientificOperations#naturalLog(double)}.
+     * @param a Value
+     * @return Natural logarithm
+     */
+    protected static double naturalLog(double a) {
+        return SCIENTIFIC.naturalLog(a);
+    }
+    
+    /**
+     * See {@link ScientificOperations#log10(double)}.
+     * @param a Value
+     * @return Base-10 logarithm
+     */
+    protected static double log10(double a) {
+        return SCIENTIFIC.log10(a);
+    }
+    
+    /**
+     * See {@link ScientificOperations#asin(double)}.
+     * @param a Value between -1 and 1
+     * @return Arc sine in radians
+     */
+    protected static double asin(double a) {
+        return SCIENTIFIC.asin(a);
+    }
+    
+    /**
+     * See {@link ScientificOperations#acos(double)}.
+     * @param a Value between -1 and 1
+     * @return Arc cosine in radians
+     */
+    protected static double acos(double a) {
+        return SCIENTIFIC.acos(a);
+    }
+    
+    /**
+     * See {@link ScientificOperations#sinDeg(double)}.
+     * @param degrees Angle in degrees
+     * @return Sine
+     */
+    protected static double sinDeg(double degrees) {
+        return SCIENTIFIC.sinDeg(degrees);
+    }
+    
+    /**
+     * See {@link ScientificOperations#cosDeg(double)}.
+     * @param degrees Angle in degrees
+     * @return Cosine
+     */
+    protected static double cosDeg(double degrees) {
+        return SCIENTIFIC.cosDeg(degrees);
+    }
+    
+    /**
+     * See {@link ScientificOperations#tanDeg(double)}.
+     * @param degrees Angle in degrees
+     * @return Tangent
+     */
+    protected static double tanDeg(double degrees) {
+        return SCIENTIFIC.tanDeg(degrees);
+    }
+}
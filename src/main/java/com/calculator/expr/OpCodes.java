@@ -0,0 +1,81 @@
+package com.calculator.expr;
+
+/**
+ * Instruction set of a compiled expression program.
+ * 
+ * A program is a flat int array evaluated by a simple stack machine.
+ * CONST and VAR are followed by one operand (an index into the constant
+ * pool or the variable array); every other instruction has no operands.
+ */
+final class OpCodes {
+    
+    private OpCodes() {
+        throw new UnsupportedOperationException("OpCodes class cannot be instantiated");
+    }
+    
+    // ==================== Operands ====================
+    
+    static final int CONST = 0;
+    static final int VAR = 1;
+    
+    // ==================== Binary Operators ====================
+    
+    static final int ADD = 2;
+    static final int SUB = 3;
+    static final int MUL = 4;
+    static final int DIV = 5;
+    static final int MOD = 6;
+    static final int POW = 7;
+    
+    // ==================== Unary Operators ====================
+    
+    static final int NEG = 8;
+    static final int FACT = 9;
+    
+    // ==================== Functions ====================
+    
+    static final int SQRT = 10;
+    static final int CBRT = 11;
+    static final int ABS = 12;
+    static final int LN = 13;
+    static final int LOG10 = 14;
+    static final int EXP = 15;
+    static final int SIN = 16;
+    static final int COS = 17;
+    static final int TAN = 18;
+    static final int ASIN = 19;
+    static final int ACOS = 20;
+    static final int ATAN = 21;
+    static final int SINH = 22;
+    static final int COSH = 23;
+    static final int TANH = 24;
+    static final int SIN_DEG = 25;
+    static final int COS_DEG = 26;
+    static final int TAN_DEG = 27;
+    static final int ROOT = 28;
+    static final int LOG_BASE = 29;
+    
+    /**
+     * Returns the number of stack values an instruction consumes.
+     * @param op Instruction code
+     * @return Number of popped values
+     */
+    static int arity(int op) {
+        switch (op) {
+            case CONST:
+            case VAR:
+                return 0;
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+            case MOD:
+            case POW:
+            case ROOT:
+            case LOG_BASE:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package com.calculator.expr;
+
+import com.calculator.core.Constants;
+import com.calculator.util.NumberParser;
+
+import java.util.Arrays;
+
+/**
+ * Recursive-descent parser that translates an infix expression straight
+ * into a postfix stack-machine program.
+ * 
+ * Grammar (lowest to highest precedence):
+ * <pre>
+ *   expression := term (('+' | '-') term)*
+ *   term       := unary (('*' | '/' | '%') unary)*
+ *   unary      := ('-' | '+') unary | power
+ *   power      := postfix ('^' unary)?
+ *   postfix    := primary '!'*
+ *   primary    := number | name | name '(' arguments ')' | '(' expression ')'
+ * </pre>
+ * Exponentiation is right-associative and binds tighter than unary minus,
+ * so {@code -2^2} is {@code -4}.
+ * 
+ * Every nested rule passes through {@code unary}, so counting its depth
+ * bounds the recursion: deeper input is rejected with an
+ * {@link ExpressionException} instead of overflowing the thread stack.
+ */
+final class Parser {
+    
+    // Deepest nesting of parentheses, arguments, signs and exponents accepted
+    static final int MAX_NESTING = 1000;
+    
+    private final String source;
+    private final String[] variables;
+    private int pos;
+    private int nesting;
+    
+    // Program being emitted
+    private int[] code = new int[16];
+    private int codeLength;
+    private double[] constants = new double[8];
+    private int constantCount;
+    
+    // Stack depth tracking for sizing the evaluation stack
+    private int depth;
+    private int maxDepth;
+    
+    Parser(String source, String[] variables) {
+        this.source = source;
+        this.variables = variables;
+    }
+    
+    /**
+     * Parses the whole source into a compiled expression.
+     * @return Compiled expression
+     * @throws ExpressionException if the source is not a valid expression
+     */
+    CompiledExpression parse() {
+        skipWhitespace();
+        if (pos >= source.length()) {
+            throw new ExpressionException("Empty expression", pos);
+        }
+        parseExpression();
+        skipWhitespace();
+        if (pos < source.length()) {
+            throw new ExpressionException("Unexpected character '" + source.charAt(pos) + "'", pos);
+        }
+        return new CompiledExpression(source, variables,
+            Arrays.copyOf(code, codeLength),
+            Arrays.copyOf(constants, constantCount),
+            maxDepth);
+    }
+    
+    // ==================== Grammar Rules ====================
+    
+    private void parseExpression() {
+        parseTerm();
+        while (true) {
+            if (accept('+')) {
+                parseTerm();
+                emit(OpCodes.ADD);
+            } else if (accept('-')) {
+                parseTerm();
+                emit(OpCodes.SUB);
+            } else {
+                return;
+            }
+        }
+    }
+    
+    private void parseTerm() {
+        parseUnary();
+        while (true) {
+            if (accept('*')) {
+                parseUnary();
+                emit(OpCodes.MUL);
+            } else if (accept('/')) {
+                parseUnary();
+                emit(OpCodes.DIV);
+            } else if (accept('%')) {
+                parseUnary();
+                emit(OpCodes.MOD);
+            } else {
+                return;
+            }
+        }
+    }
+    
+    private void parseUnary() {
+        if (++nesting > MAX_NESTING) {
+            throw new ExpressionException("Expression is nested more than " + MAX_NESTING + " levels deep", pos);
+        }
+        if (accept('-')) {
+            parseUnary();
+            emit(OpCodes.NEG);
+        } else if (accept('+')) {
+            parseUnary();
+        } else {
+            parsePower();
+        }
+        nesting--;
+    }
+    
+    private void parsePower() {
+        parsePostfix();
+        if (accept('^')) {
+            parseUnary();
+            emit(OpCodes.POW);
+        }
+    }
+    
+    private void parsePostfix() {
+        parsePrimary();
+        while (accept('!')) {
+            emit(OpCodes.FACT);
+        }
+    }
+    
+    private void parsePrimary() {
+        skipWhitespace();
+        if (pos >= source.length()) {
+            throw new ExpressionException("Unexpected end of expression", pos);
+        }
+        char c = source.charAt(pos);
+        if (c == '(') {
+            pos++;
+            parseExpression();
+            expect(')');
+        } else if (isDigit(c) || c == '.') {
+            emitConstant(parseNumber());
+        } else if (Character.isLetter(c) || c == '_') {
+            parseName();
+        } else {
+            throw new ExpressionException("Unexpected character '" + c + "'", pos);
+        }
+    }
+    
+    private void parseName() {
+        int start = pos;
+        while (pos < source.length()
+                && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+            pos++;
+        }
+        String name = source.substring(start, pos);
+        
+        if (accept('(')) {
+            int argumentCount = 0;
+            skipWhitespace();
+            if (!accept(')')) {
+                do {
+                    parseExpression();
+                    argumentCount++;
+                } while (accept(','));
+                expect(')');
+            }
+            emitFunction(name, argumentCount, start);
+            return;
+        }
+        
+        for (int i = 0; i < variables.length; i++) {
+            if (variables[i].equals(name)) {
+                emit(OpCodes.VAR, i);
+                return;
+            }
+        }
+        switch (name) {
+            case "pi":
+                emitConstant(Constants.PI);
+                break;
+            case "e":
+                emitConstant(Constants.E);
+                break;
+            case "phi":
+                emitConstant(Constants.GOLDEN_RATIO);
+                break;
+            default:
+                throw new ExpressionException("Unknown variable '" + name + "'", start);
+        }
+    }
+    
+    private double parseNumber() {
+        int start = pos;
+        while (pos < source.length() && isDigit(source.charAt(pos))) {
+            pos++;
+        }
+        if (pos < source.length() && source.charAt(pos) == '.') {
+            pos++;
+            while (pos < source.length() && isDigit(source.charAt(pos))) {
+                pos++;
+            }
+        }
+        if (pos < source.length() && (source.charAt(pos) == 'e' || source.charAt(pos) == 'E')) {
+            int mark = pos;
+            pos++;
+            if (pos < source.length() && (source.charAt(pos) == '+' || source.charAt(pos) == '-')) {
+                pos++;
+            }
+            if (pos < source.length() && isDigit(source.charAt(pos))) {
+                while (pos < source.length() && isDigit(source.charAt(pos))) {
+                    pos++;
+                }
+            } else {
+                pos = mark; // Not an exponent - leave 'e' for the caller
+            }
+        }
+        try {
+            return NumberParser.parseDouble(source, start, pos);
+        } catch (NumberFormatException e) {
+            throw new ExpressionException("Malformed number", start);
+        }
+    }
+    
+    // ==================== Code Emission ====================
+    
+    private void emitFunction(String name, int argumentCount, int position) {
+        int op;
+        int expected = 1;
+        switch (name) {
+            case "sqrt":  op = OpCodes.SQRT; break;
+            case "cbrt":  op = OpCodes.CBRT; break;
+            case "abs":   op = OpCodes.ABS; break;
+            case "ln":    op = OpCodes.LN; break;
+            case "exp":   op = OpCodes.EXP; break;
+            case "sin":   op = OpCodes.SIN; break;
+            case "cos":   op = OpCodes.COS; break;
+            case "tan":   op = OpCodes.TAN; break;
+            case "asin":  op = OpCodes.ASIN; break;
+            case "acos":  op = OpCodes.ACOS; break;
+            case "atan":  op = OpCodes.ATAN; break;
+            case "sinh":  op = OpCodes.SINH; break;
+            case "cosh":  op = OpCodes.COSH; break;
+            case "tanh":  op = OpCodes.TANH; break;
+            case "sind":  op = OpCodes.SIN_DEG; break;
+            case "cosd":  op = OpCodes.COS_DEG; break;
+            case "tand":  op = OpCodes.TAN_DEG; break;
+            case "log10": op = OpCodes.LOG10; break;
+            case "log":
+                // log(x) is base 10, log(x, base) is a custom base
+                if (argumentCount != 1 && argumentCount != 2) {
+                    throw new ExpressionException("Function 'log' expects 1 or 2 argument(s) but got "
+                        + argumentCount, position);
+                }
+                op = argumentCount == 2 ? OpCodes.LOG_BASE : OpCodes.LOG10;
+                expected = argumentCount;
+                break;
+            case "pow":
+                op = OpCodes.POW;
+                expected = 2;
+                break;
+            case "root":
+                op = OpCodes.ROOT;
+                expected = 2;
+                break;
+            default:
+                throw new ExpressionException("Unknown function '" + name + "'", position);
+        }
+        if (argumentCount != expected) {
+            throw new ExpressionException("Function '" + name + "' expects " + expected
+                + " argument(s) but got " + argumentCount, position);
+        }
+        emit(op);
+    }
+    
+    private void emitConstant(double value) {
+        if (constantCount == constants.length) {
+            constants = Arrays.copyOf(constants, constantCount * 2);
+        }
+        constants[constantCount] = value;
+        emit(OpCodes.CONST, constantCount++);
+    }
+    
+    private void emit(int op) {
+        ensureCapacity(1);
+        code[codeLength++] = op;
+        depth -= OpCodes.arity(op) - 1;
+    }
+    
+    private void emit(int op, int operand) {
+        ensureCapacity(2);
+        code[codeLength++] = op;
+        code[codeLength++] = operand;
+        depth++;
+        maxDepth = Math.max(maxDepth, depth);
+    }
+    
+    private void ensureCapacity(int extra) {
+        if (codeLength + extra > code.length) {
+            code = Arrays.copyOf(code, Math.max(code.length * 2, codeLength + extra));
+        }
+    }
+    
+    // ==================== Lexing Helpers ====================
+    
+    private boolean accept(char expected) {
+        skipWhitespace();
+        if (pos < source.length() && source.charAt(pos) == expected) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+    
+    private void expect(char expected) {
+        if (!accept(expected)) {
+            throw new ExpressionException("Expected '" + expected + "'", pos);
+        }
+    }
+    
+    private void skipWhitespace() {
+        while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+            pos++;
+        }
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,184 @@
+package com.calculator.linalg;
+
+/**
+ * Cholesky decomposition of a symmetric positive definite matrix:
+ * A = L * L^T with L lower triangular. Half the work of an LU
+ * decomposition and needs no pivoting; the usual way to solve systems
+ * with covariance and normal-equation matrices.
+ * 
+ * The factorization goes by blocks of {@link LUDecomposition#BLOCK}
+ * columns (as LAPACK's potrf, left-looking): each block column is first
+ * updated with one matrix product against the columns already factored,
+ * which is where nearly all the work is and which runs through the
+ * parallel multiplication kernel; then its diagonal block is factored and
+ * the rows below it are solved against that.
+ * 
+ * Only the lower triangle of A is read; it is not checked for symmetry.
+ */
+public final class CholeskyDecomposition {
+    
+    private final int size;
+    // L on and below the diagonal, zeros above
+    private final double[] l;
+    
+    /**
+     * Decomposes a symmetric positive definite matrix.
+     * @param matrix Matrix to decompose; left unchanged
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws ArithmeticException if the matrix is not positive definite
+     */
+    public CholeskyDecomposition(Matrix matrix) {
+        matrix.requireSquare();
+        int n = matrix.getRows();
+        double[] a = matrix.getData().clone();
+        int block = LUDecomposition.BLOCK;
+        for (int k0 = 0; k0 < n; k0 += block) {
+            int k1 = Math.min(k0 + block, n);
+            // A[k0.., k0..k1] -= L[k0.., 0..k0] * L[k0..k1, 0..k0]^T
+            MatrixKernels.multiplyAddTransposed(n - k0, k1 - k0, k0, -1,
+                a, k0 * n, n, a, k0 * n, n, a, k0 * n + k0, n);
+            for (int j = k0; j < k1; j++) {
+                int rowJ = j * n;
+                double diagonal = a[rowJ + j] - dot(a, rowJ + k0, rowJ + k0, j - k0);
+                if (!(diagonal > 0)) {
+                    throw new ArithmeticException("Error: Matrix is not positive definite.");
+                }
+                double pivot = Math.sqrt(diagonal);
+                a[rowJ + j] = pivot;
+                for (int i = j + 1; i < n; i++) {
+                    int rowI = i * n;
+                    a[rowI + j] = (a[rowI + j] - dot(a, rowI + k0, rowJ + k0, j - k0)) / pivot;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                a[i * n + j] = 0;
+            }
+        }
+        this.size = n;
+        this.l = a;
+    }
+    
+    /**
+     * Sum of products of two runs of elements, with four partial sums so
+     * consecutive additions do not wait on each other.
+     */
+    private static double dot(double[] a, int x, int y, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + 4 <= length; i += 4) {
+            s0 += a[x + i] * a[y + i];
+            s1 += a[x + i + 1] * a[y + i + 1];
+            s2 += a[x + i + 2] * a[y + i + 2];
+            s3 += a[x + i + 3] * a[y + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[x + i] * a[y + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+    
+    // ==================== Results ====================
+    
+    /**
+     * Solves A * x = b by forward substitution with L and back
+     * substitution with L^T.
+     * @param b Right-hand side, one element per row of A
+     * @return Solution x
+     * @throws IllegalArgumentException if b has the wrong length
+     */
+    public double[] solve(double[] b) {
+        if (b.length != size) {
+            throw new IllegalArgumentException("Error: Right-hand side has " + b.length
+                + " elements but the matrix has " + size + " rows.");
+        }
+        double[] x = b.clone();
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            double sum = x[i];
+            for (int p = 0; p < i; p++) {
+                sum -= l[row + p] * x[p];
+            }
+            x[i] = sum / l[row + i];
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            double value = x[i] / l[i * size + i];
+            x[i] = value;
+            int row = i * size;
+            for (int p = 0; p < i; p++) {
+                x[p] -= l[row + p] * value;
+            }
+        }
+        return x;
+    }
+    
+    /**
+     * Solves A * X = B for every column of B at once.
+     * @param b Right-hand sides, one per column
+     * @return Solution X
+     * @throws IllegalArgumentException if B has the wrong row count
+     */
+    public Matrix solve(Matrix b) {
+        if (b.getRows() != size) {
+            throw new IllegalArgumentException("Error: Right-hand side has " + b.getRows()
+                + " rows but the matrix has " + size + ".");
+        }
+        int m = b.getColumns();
+        double[] x = b.getData().clone();
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            int target = i * m;
+            for (int p = 0; p < i; p++) {
+                double factor = l[row + p];
+                int source = p * m;
+                for (int c = 0; c < m; c++) {
+                    x[target + c] -= factor * x[source + c];
+                }
+            }
+            double inverse = 1 / l[row + i];
+            for (int c = 0; c < m; c++) {
+                x[target + c] *= inverse;
+            }
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            int row = i * size;
+            int source = i * m;
+            double inverse = 1 / l[row + i];
+            for (int c = 0; c < m; c++) {
+                x[source + c] *= inverse;
+            }
+            for (int p = 0; p < i; p++) {
+                double factor = l[row + p];
+                int target = p * m;
+                for (int c = 0; c < m; c++) {
+                    x[target + c] -= factor * x[source + c];
+                }
+            }
+        }
+        return new Matrix(size, m, x);
+    }
+    
+    /**
+     * Computes the determinant: the square of the product of the diagonal of L.
+     * @return Determinant (positive)
+     */
+    public double getDeterminant() {
+        double product = 1;
+        for (int i = 0; i < size; i++) {
+            product *= l[i * size + i];
+        }
+        return product * product;
+    }
+    
+    /**
+     * Gets the lower triangular factor.
+     * @return L
+     */
+    public Matrix getL() {
+        return new Matrix(size, size, l.clone());
+    }
+}
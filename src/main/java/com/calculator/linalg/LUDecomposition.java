@@ -0,0 +1,296 @@
+package com.calculator.linalg;
+
+/**
+ * LU decomposition with partial pivoting: P * A = L * U, where P permutes
+ * rows, L is unit lower triangular and U upper triangular. Used for
+ * determinants, inverses and square linear systems.
+ * 
+ * The factorization is blocked (as LAPACK's getrf): a panel of
+ * {@link #BLOCK} columns is factored element by element, and the rest of
+ * the matrix is updated with one matrix product per panel, which is where
+ * nearly all the work is and which runs through the parallel multiplication
+ * kernel of {@link Matrix}. Solving likewise handles blocks of rows at a
+ * time.
+ * 
+ * A singular matrix still decomposes (with a zero on the diagonal of U);
+ * its determinant is 0 and solving with it throws.
+ */
+public final class LUDecomposition {
+    
+    // Columns per panel: large enough for the trailing product to dominate,
+    // small enough for the panel to stay in cache
+    static final int BLOCK = 64;
+    
+    private final int size;
+    // L below the diagonal (unit diagonal implied) and U on and above it
+    private final double[] lu;
+    // Row i of L * U is row permutation[i] of A
+    private final int[] permutation;
+    private final boolean evenPermutation;
+    private final boolean singular;
+    
+    /**
+     * Decomposes a square matrix.
+     * @param matrix Matrix to decompose; left unchanged
+     * @throws IllegalArgumentException if the matrix is not square
+     */
+    public LUDecomposition(Matrix matrix) {
+        matrix.requireSquare();
+        int n = matrix.getRows();
+        double[] a = matrix.getData().clone();
+        int[] perm = new int[n];
+        for (int i = 0; i < n; i++) {
+            perm[i] = i;
+        }
+        boolean even = true;
+        boolean zeroPivot = false;
+        for (int k0 = 0; k0 < n; k0 += BLOCK) {
+            int k1 = Math.min(k0 + BLOCK, n);
+            // Panel: columns k0..k1, all rows from k0 down, with row swaps applied to whole rows
+            for (int j = k0; j < k1; j++) {
+                int pivot = j;
+                double largest = Math.abs(a[j * n + j]);
+                for (int i = j + 1; i < n; i++) {
+                    double magnitude = Math.abs(a[i * n + j]);
+                    if (magnitude > largest) {
+                        largest = magnitude;
+                        pivot = i;
+                    }
+                }
+                if (pivot != j) {
+                    swapRows(a, n, pivot, j);
+                    int row = perm[pivot];
+                    perm[pivot] = perm[j];
+                    perm[j] = row;
+                    even = !even;
+                }
+                double diagonal = a[j * n + j];
+                if (diagonal == 0) {
+                    zeroPivot = true; // The column is zero below too; nothing to eliminate
+                    continue;
+                }
+                for (int i = j + 1; i < n; i++) {
+                    int row = i * n;
+                    double factor = a[row + j] / diagonal;
+                    a[row + j] = factor;
+                    int pivotRow = j * n;
+                    for (int c = j + 1; c < k1; c++) {
+                        a[row + c] -= factor * a[pivotRow + c];
+                    }
+                }
+            }
+            if (k1 == n) {
+                break;
+            }
+            // U12 = L11^-1 * A12, row by row
+            for (int i = k0 + 1; i < k1; i++) {
+                int row = i * n;
+                for (int p = k0; p < i; p++) {
+                    double factor = a[row + p];
+                    int source = p * n;
+                    for (int c = k1; c < n; c++) {
+                        a[row + c] -= factor * a[source + c];
+                    }
+                }
+            }
+            // A22 -= L21 * U12
+            int rest = n - k1;
+            MatrixKernels.multiplyAdd(rest, rest, k1 - k0, -1,
+                a, k1 * n + k0, n, a, k0 * n + k1, n, a, k1 * n + k1, n);
+        }
+        this.size = n;
+        this.lu = a;
+        this.permutation = perm;
+        this.evenPermutation = even;
+        this.singular = zeroPivot;
+    }
+    
+    private static void swapRows(double[] a, int n, int first, int second) {
+        int x = first * n;
+        int y = second * n;
+        for (int c = 0; c < n; c++) {
+            double t = a[x + c];
+            a[x + c] = a[y + c];
+            a[y + c] = t;
+        }
+    }
+    
+    // ==================== Results ====================
+    
+    /**
+     * Computes the determinant: the product of the diagonal of U, negated
+     * for an odd permutation.
+     * @return Determinant (0 if singular)
+     */
+    public double getDeterminant() {
+        double determinant = evenPermutation ? 1 : -1;
+        for (int i = 0; i < size; i++) {
+            determinant *= lu[i * size + i];
+        }
+        return determinant;
+    }
+    
+    /**
+     * Solves A * x = b.
+     * @param b Right-hand side, one element per row of A
+     * @return Solution x
+     * @throws IllegalArgumentException if b has the wrong length
+     * @throws ArithmeticException if A is singular
+     */
+    public double[] solve(double[] b) {
+        if (b.length != size) {
+            throw new IllegalArgumentException("Error: Right-hand side has " + b.length
+                + " elements but the matrix has " + size + " rows.");
+        }
+        requireNonsingular();
+        double[] x = new double[size];
+        for (int i = 0; i < size; i++) {
+            int row = i * size;
+            double sum = b[permutation[i]];
+            for (int p = 0; p < i; p++) {
+                sum -= lu[row + p] * x[p];
+            }
+            x[i] = sum;
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            int row = i * size;
+            double sum = x[i];
+            for (int p = i + 1; p < size; p++) {
+                sum -= lu[row + p] * x[p];
+            }
+            x[i] = sum / lu[row + i];
+        }
+        return x;
+    }
+    
+    /**
+     * Solves A * X = B for every column of B at once.
+     * @param b Right-hand sides, one per column
+     * @return Solution X
+     * @throws IllegalArgumentException if B has the wrong row count
+     * @throws ArithmeticException if A is singular
+     */
+    public Matrix solve(Matrix b) {
+        if (b.getRows() != size) {
+            throw new IllegalArgumentException("Error: Right-hand side has " + b.getRows()
+                + " rows but the matrix has " + size + ".");
+        }
+        requireNonsingular();
+        int m = b.getColumns();
+        double[] source = b.getData();
+        double[] x = new double[size * m];
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(source, permutation[i] * m, x, i * m, m);
+        }
+        solveInPlace(x, m);
+        return new Matrix(size, m, x);
+    }
+    
+    /**
+     * Computes the inverse of A.
+     * @return A^-1
+     * @throws ArithmeticException if A is singular
+     */
+    public Matrix inverse() {
+        requireNonsingular();
+        double[] x = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            x[i * size + permutation[i]] = 1;
+        }
+        solveInPlace(x, size);
+        return new Matrix(size, size, x);
+    }
+    
+    /**
+     * Replaces the permuted right-hand sides in x (size x m) by the solution:
+     * forward substitution with L, then back substitution with U, a block of
+     * rows at a time, with the part of each step that involves earlier
+     * blocks done as one matrix product.
+     */
+    private void solveInPlace(double[] x, int m) {
+        int n = size;
+        for (int i0 = 0; i0 < n; i0 += BLOCK) {
+            int i1 = Math.min(i0 + BLOCK, n);
+            MatrixKernels.multiplyAdd(i1 - i0, m, i0, -1, lu, i0 * n, n, x, 0, m, x, i0 * m, m);
+            for (int i = i0 + 1; i < i1; i++) {
+                for (int p = i0; p < i; p++) {
+                    subtractRow(x, m, i, p, lu[i * n + p]);
+                }
+            }
+        }
+        int last = (n - 1) / BLOCK * BLOCK;
+        for (int i0 = last; i0 >= 0; i0 -= BLOCK) {
+            int i1 = Math.min(i0 + BLOCK, n);
+            MatrixKernels.multiplyAdd(i1 - i0, m, n - i1, -1, lu, i0 * n + i1, n, x, i1 * m, m, x, i0 * m, m);
+            for (int i = i1 - 1; i >= i0; i--) {
+                for (int p = i + 1; p < i1; p++) {
+                    subtractRow(x, m, i, p, lu[i * n + p]);
+                }
+                double inverse = 1 / lu[i * n + i];
+                int row = i * m;
+                for (int c = 0; c < m; c++) {
+                    x[row + c] *= inverse;
+                }
+            }
+        }
+    }
+    
+    private static void subtractRow(double[] x, int m, int target, int source, double factor) {
+        int to = target * m;
+        int from = source * m;
+        for (int c = 0; c < m; c++) {
+            x[to + c] -= factor * x[from + c];
+        }
+    }
+    
+    private void requireNonsingular() {
+        if (singular) {
+            throw new ArithmeticException("Error: Matrix is singular.");
+        }
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the unit lower triangular factor.
+     * @return L
+     */
+    public Matrix getL() {
+        Matrix l = new Matrix(size, size);
+        double[] data = l.getData();
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(lu, i * size, data, i * size, i);
+            data[i * size + i] = 1;
+        }
+        return l;
+    }
+    
+    /**
+     * Gets the upper triangular factor.
+     * @return U
+     */
+    public Matrix getU() {
+        Matrix u = new Matrix(size, size);
+        double[] data = u.getData();
+        for (int i = 0; i < size; i++) {
+            System.arraycopy(lu, i * size + i, data, i * size + i, size - i);
+        }
+        return u;
+    }
+    
+    /**
+     * Gets the row permutation: row i of L * U is row {@code getPivot()[i]} of A.
+     * @return Copy of the permutation
+     */
+    public int[] getPivot() {
+        return permutation.clone();
+    }
+    
+    /**
+     * Tells whether the matrix is singular (has a zero pivot).
+     * @return true if singular
+     */
+    public boolean isSingular() {
+        return singular;
+    }
+}
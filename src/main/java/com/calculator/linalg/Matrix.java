@@ -0,0 +1,403 @@
+package com.calculator.linalg;
+
+import java.util.Arrays;
+
+/**
+ * Dense matrix of doubles, stored row by row in one array: element (i, j)
+ * of an r x c matrix is {@code getData()[i * c + j]}.
+ * <pre>
+ *   Matrix a = Matrix.of(new double[][] {{4, 3}, {6, 3}});
+ *   Matrix product = a.multiply(a.transpose());
+ *   double det = a.determinant();                     // -6
+ *   double[] x = a.solve(new double[] {10, 12});      // {1, 2}
+ * </pre>
+ * 
+ * Multiplication is blocked for the CPU caches and splits large products
+ * into row blocks computed in parallel on the common fork-join pool. The
+ * decompositions ({@link LUDecomposition}, {@link QRDecomposition},
+ * {@link CholeskyDecomposition}) do most of their work through the same
+ * kernel or in parallel column blocks.
+ * 
+ * Arithmetic methods return new matrices and leave their operands alone;
+ * {@link #set} and the array from {@link #getData()} modify the matrix in
+ * place. Not thread-safe while being modified.
+ */
+public final class Matrix {
+    
+    // Tile edge of the blocked transpose: two 32 x 32 tiles fit in the L1 cache
+    private static final int TRANSPOSE_BLOCK = 32;
+    
+    private final int rows;
+    private final int columns;
+    private final double[] data;
+    
+    /**
+     * Creates a matrix of zeros.
+     * @param rows Number of rows
+     * @param columns Number of columns
+     * @throws IllegalArgumentException if a dimension is negative or the size exceeds an array
+     */
+    public Matrix(int rows, int columns) {
+        this(rows, columns, new double[checkedSize(rows, columns)]);
+    }
+    
+    /**
+     * Creates a matrix over an existing row-major array, without copying it.
+     * @param rows Number of rows
+     * @param columns Number of columns
+     * @param data Elements, row by row; later changes to the array show in the matrix
+     * @throws IllegalArgumentException if the array length is not rows * columns
+     */
+    public Matrix(int rows, int columns, double[] data) {
+        if (data.length != checkedSize(rows, columns)) {
+            throw new IllegalArgumentException("Error: A " + rows + "x" + columns
+                + " matrix needs " + (long) rows * columns + " elements, not " + data.length + ".");
+        }
+        this.rows = rows;
+        this.columns = columns;
+        this.data = data;
+    }
+    
+    /**
+     * Creates a matrix from rows of values.
+     * @param values Rows, all of the same length; copied
+     * @return Matrix of the values
+     * @throws IllegalArgumentException if the rows differ in length
+     */
+    public static Matrix of(double[][] values) {
+        int columns = values.length == 0 ? 0 : values[0].length;
+        Matrix matrix = new Matrix(values.length, columns);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].length != columns) {
+                throw new IllegalArgumentException("Error: All rows of a matrix must have the same length.");
+            }
+            System.arraycopy(values[i], 0, matrix.data, i * columns, columns);
+        }
+        return matrix;
+    }
+    
+    /**
+     * Creates an identity matrix.
+     * @param size Number of rows and columns
+     * @return Identity matrix
+     */
+    public static Matrix identity(int size) {
+        Matrix identity = new Matrix(size, size);
+        for (int i = 0; i < size; i++) {
+            identity.data[i * size + i] = 1;
+        }
+        return identity;
+    }
+    
+    private static int checkedSize(int rows, int columns) {
+        if (rows < 0 || columns < 0) {
+            throw new IllegalArgumentException("Error: Matrix dimensions cannot be negative.");
+        }
+        long size = (long) rows * columns;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Error: A " + rows + "x" + columns + " matrix is too large.");
+        }
+        return (int) size;
+    }
+    
+    // ==================== Elements ====================
+    
+    /**
+     * Gets an element.
+     * @param row Row index
+     * @param column Column index
+     * @return Element (row, column)
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    public double get(int row, int column) {
+        return data[indexOf(row, column)];
+    }
+    
+    /**
+     * Sets an element.
+     * @param row Row index
+     * @param column Column index
+     * @param value New value
+     * @throws IndexOutOfBoundsException if an index is out of range
+     */
+    public void set(int row, int column, double value) {
+        data[indexOf(row, column)] = value;
+    }
+    
+    private int indexOf(int row, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            throw new IndexOutOfBoundsException("Error: Element (" + row + ", " + column
+                + ") is outside a " + rows + "x" + columns + " matrix.");
+        }
+        return row * columns + column;
+    }
+    
+    /**
+     * Gets one row.
+     * @param row Row index
+     * @return Copy of the row
+     */
+    public double[] getRow(int row) {
+        indexOf(row, 0);
+        return Arrays.copyOfRange(data, row * columns, (row + 1) * columns);
+    }
+    
+    /**
+     * Creates an independent copy of this matrix.
+     * @return Copy
+     */
+    public Matrix copy() {
+        return new Matrix(rows, columns, data.clone());
+    }
+    
+    /**
+     * Copies the elements into rows of values.
+     * @return New array of rows
+     */
+    public double[][] toArray() {
+        double[][] values = new double[rows][];
+        for (int i = 0; i < rows; i++) {
+            values[i] = Arrays.copyOfRange(data, i * columns, (i + 1) * columns);
+        }
+        return values;
+    }
+    
+    // ==================== Arithmetic ====================
+    
+    /**
+     * Adds a matrix of the same shape.
+     * @param other Matrix to add
+     * @return this + other
+     * @throws IllegalArgumentException if the shapes differ
+     */
+    public Matrix add(Matrix other) {
+        requireSameShape(other, "add");
+        Matrix sum = new Matrix(rows, columns);
+        for (int i = 0; i < data.length; i++) {
+            sum.data[i] = data[i] + other.data[i];
+        }
+        return sum;
+    }
+    
+    /**
+     * Subtracts a matrix of the same shape.
+     * @param other Matrix to subtract
+     * @return this - other
+     * @throws IllegalArgumentException if the shapes differ
+     */
+    public Matrix subtract(Matrix other) {
+        requireSameShape(other, "subtract");
+        Matrix difference = new Matrix(rows, columns);
+        for (int i = 0; i < data.length; i++) {
+            difference.data[i] = data[i] - other.data[i];
+        }
+        return difference;
+    }
+    
+    /**
+     * Multiplies every element by a number.
+     * @param factor Scale factor
+     * @return factor * this
+     */
+    public Matrix scale(double factor) {
+        Matrix scaled = new Matrix(rows, columns);
+        for (int i = 0; i < data.length; i++) {
+            scaled.data[i] = factor * data[i];
+        }
+        return scaled;
+    }
+    
+    /**
+     * Multiplies by another matrix.
+     * @param other Right-hand factor, with as many rows as this has columns
+     * @return this * other
+     * @throws IllegalArgumentException if the inner dimensions differ
+     */
+    public Matrix multiply(Matrix other) {
+        if (columns != other.rows) {
+            throw new IllegalArgumentException("Error: Cannot multiply a " + shape() + " matrix by a "
+                + other.shape() + " matrix.");
+        }
+        Matrix product = new Matrix(rows, other.columns);
+        MatrixKernels.multiplyAdd(rows, other.columns, columns, 1,
+            data, 0, columns, other.data, 0, other.columns, product.data, 0, other.columns);
+        return product;
+    }
+    
+    /**
+     * Multiplies by a column vector.
+     * @param vector Vector with one element per column
+     * @return this * vector
+     * @throws IllegalArgumentException if the vector length differs from the column count
+     */
+    public double[] multiply(double[] vector) {
+        if (vector.length != columns) {
+            throw new IllegalArgumentException("Error: Cannot multiply a " + shape()
+                + " matrix by a vector of length " + vector.length + ".");
+        }
+        double[] product = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            int row = i * columns;
+            double sum = 0;
+            for (int j = 0; j < columns; j++) {
+                sum += data[row + j] * vector[j];
+            }
+            product[i] = sum;
+        }
+        return product;
+    }
+    
+    /**
+     * Transposes the matrix, tile by tile so both arrays are read and
+     * written a cache line at a time.
+     * @return Transpose
+     */
+    public Matrix transpose() {
+        Matrix transpose = new Matrix(columns, rows);
+        double[] target = transpose.data;
+        for (int i0 = 0; i0 < rows; i0 += TRANSPOSE_BLOCK) {
+            int i1 = Math.min(i0 + TRANSPOSE_BLOCK, rows);
+            for (int j0 = 0; j0 < columns; j0 += TRANSPOSE_BLOCK) {
+                int j1 = Math.min(j0 + TRANSPOSE_BLOCK, columns);
+                for (int i = i0; i < i1; i++) {
+                    for (int j = j0; j < j1; j++) {
+                        target[j * rows + i] = data[i * columns + j];
+                    }
+                }
+            }
+        }
+        return transpose;
+    }
+    
+    // ==================== Linear Algebra ====================
+    
+    /**
+     * Computes the determinant through an LU decomposition.
+     * @return Determinant
+     * @throws IllegalArgumentException if the matrix is not square
+     */
+    public double determinant() {
+        return lu().getDeterminant();
+    }
+    
+    /**
+     * Computes the inverse through an LU decomposition.
+     * @return Inverse
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public Matrix inverse() {
+        return lu().inverse();
+    }
+    
+    /**
+     * Solves this * x = b through an LU decomposition.
+     * @param b Right-hand side, one element per row
+     * @return Solution x
+     * @throws IllegalArgumentException if the matrix is not square or b has the wrong length
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public double[] solve(double[] b) {
+        return lu().solve(b);
+    }
+    
+    /**
+     * Solves this * X = B through an LU decomposition.
+     * @param b Right-hand sides, one per column
+     * @return Solution X
+     * @throws IllegalArgumentException if the matrix is not square or B has the wrong row count
+     * @throws ArithmeticException if the matrix is singular
+     */
+    public Matrix solve(Matrix b) {
+        return lu().solve(b);
+    }
+    
+    /**
+     * Decomposes into P * this = L * U.
+     * @return LU decomposition
+     * @throws IllegalArgumentException if the matrix is not square
+     */
+    public LUDecomposition lu() {
+        return new LUDecomposition(this);
+    }
+    
+    /**
+     * Decomposes into this = Q * R.
+     * @return QR decomposition
+     * @throws IllegalArgumentException if the matrix has fewer rows than columns
+     */
+    public QRDecomposition qr() {
+        return new QRDecomposition(this);
+    }
+    
+    /**
+     * Decomposes into this = L * L^T.
+     * @return Cholesky decomposition
+     * @throws IllegalArgumentException if the matrix is not square
+     * @throws ArithmeticException if the matrix is not symmetric positive definite
+     */
+    public CholeskyDecomposition cholesky() {
+        return new CholeskyDecomposition(this);
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the number of rows.
+     * @return Row count
+     */
+    public int getRows() {
+        return rows;
+    }
+    
+    /**
+     * Gets the number of columns.
+     * @return Column count
+     */
+    public int getColumns() {
+        return columns;
+    }
+    
+    /**
+     * Gets the backing array, row by row. Changes to it change the matrix.
+     * @return Elements, not a copy
+     */
+    public double[] getData() {
+        return data;
+    }
+    
+    /**
+     * Tells whether the matrix is square.
+     * @return true if it has as many rows as columns
+     */
+    public boolean isSquare() {
+        return rows == columns;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            text.append(i == 0 ? "[" : " ").append(Arrays.toString(getRow(i)));
+            text.append(i == rows - 1 ? "]" : "\n");
+        }
+        return rows == 0 ? "[]" : text.toString();
+    }
+    
+    String shape() {
+        return rows + "x" + columns;
+    }
+    
+    private void requireSameShape(Matrix other, String operation) {
+        if (rows != other.rows || columns != other.columns) {
+            throw new IllegalArgumentException("Error: Cannot " + operation + " a " + other.shape()
+                + " matrix and a " + shape() + " matrix.");
+        }
+    }
+    
+    void requireSquare() {
+        if (rows != columns) {
+            throw new IllegalArgumentException("Error: Matrix must be square, not " + shape() + ".");
+        }
+    }
+}
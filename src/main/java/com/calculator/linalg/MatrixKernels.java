@@ -0,0 +1,224 @@
+package com.calculator.linalg;
+
+import com.calculator.core.ParallelBatch;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Dense kernels on row-major arrays, shared by {@link Matrix} and the
+ * decompositions. A matrix operand is an array, the offset of its first
+ * element and its row stride, so a kernel can work on a block of a larger
+ * matrix in place, as BLAS routines do.
+ */
+final class MatrixKernels {
+    
+    // Rows of C per task
+    static final int ROW_BLOCK = ParallelBatch.MIN_CHUNK_SIZE;
+    // Rows and columns of the block of B packed at a time: 256 KB, which
+    // stays in the L2 cache while every row of the task's rows uses it
+    private static final int DEPTH_BLOCK = 128;
+    private static final int COLUMN_BLOCK = 256;
+    
+    // Below this many multiply-adds, forking costs more than it saves
+    private static final long PARALLEL_THRESHOLD = 1L << 18;
+    
+    private static final ParallelBatch BATCH = new ParallelBatch(ForkJoinPool.commonPool(), ROW_BLOCK);
+    
+    private MatrixKernels() {
+        throw new UnsupportedOperationException("Utility class cannot be instantiated");
+    }
+    
+    /**
+     * C += alpha * A * B, where A is m x k, B is k x n and C is m x n.
+     * Row blocks of C are computed in parallel on the common fork-join pool.
+     * C must not overlap A or B, except that rows of C may lie in the
+     * same array as rows of A and B that this call does not write.
+     */
+    static void multiplyAdd(int m, int n, int k, double alpha,
+                            double[] a, int aOff, int lda,
+                            double[] b, int bOff, int ldb,
+                            double[] c, int cOff, int ldc) {
+        multiplyAdd(m, n, k, alpha, a, aOff, lda, b, bOff, ldb, 1, c, cOff, ldc);
+    }
+    
+    /**
+     * C += alpha * A * B^T, where A is m x k, B is n x k and C is m x n.
+     * Same rules as {@link #multiplyAdd}.
+     */
+    static void multiplyAddTransposed(int m, int n, int k, double alpha,
+                                      double[] a, int aOff, int lda,
+                                      double[] b, int bOff, int ldb,
+                                      double[] c, int cOff, int ldc) {
+        multiplyAdd(m, n, k, alpha, a, aOff, lda, b, bOff, 1, ldb, c, cOff, ldc);
+    }
+    
+    /**
+     * C += alpha * A * B, where element (p, j) of B is b[bOff + p * bRowStride + j * bColumnStride].
+     */
+    private static void multiplyAdd(int m, int n, int k, double alpha,
+                                    double[] a, int aOff, int lda,
+                                    double[] b, int bOff, int bRowStride, int bColumnStride,
+                                    double[] c, int cOff, int ldc) {
+        if (m == 0 || n == 0 || k == 0) {
+            return;
+        }
+        if ((long) m * n * k < PARALLEL_THRESHOLD) {
+            multiplyAddRows(0, m, n, k, alpha, a, aOff, lda, b, bOff, bRowStride, bColumnStride, c, cOff, ldc);
+            return;
+        }
+        BATCH.forEachChunk(0, m, (off, len) -> multiplyAddRows(off, off + len, n, k, alpha,
+            a, aOff, lda, b, bOff, bRowStride, bColumnStride, c, cOff, ldc));
+    }
+    
+    /**
+     * C += alpha * A * B for rows [rowStart, rowEnd) of C.
+     * 
+     * B is taken in blocks of DEPTH_BLOCK x COLUMN_BLOCK, copied into a
+     * buffer four columns at a time so the inner loop reads it sequentially;
+     * A is copied four rows at a time likewise. Each step of the inner loop
+     * then loads four elements of A and four of B and does sixteen
+     * multiply-adds into locals that the JIT compiler keeps in registers,
+     * instead of loading and storing C for every multiply-add.
+     */
+    private static void multiplyAddRows(int rowStart, int rowEnd, int n, int k, double alpha,
+                                        double[] a, int aOff, int lda,
+                                        double[] b, int bOff, int bRowStride, int bColumnStride,
+                                        double[] c, int cOff, int ldc) {
+        double[] packedA = new double[4 * Math.min(DEPTH_BLOCK, k)];
+        double[] packedB = new double[Math.min(DEPTH_BLOCK, k) * ((Math.min(COLUMN_BLOCK, n) + 3) & ~3)];
+        for (int p0 = 0; p0 < k; p0 += DEPTH_BLOCK) {
+            int depth = Math.min(DEPTH_BLOCK, k - p0);
+            for (int j0 = 0; j0 < n; j0 += COLUMN_BLOCK) {
+                int width = Math.min(COLUMN_BLOCK, n - j0);
+                int quads = width >>> 2;
+                int bBlock = bOff + p0 * bRowStride + j0 * bColumnStride;
+                packB(b, bBlock, bRowStride, bColumnStride, depth, quads, packedB);
+                int i = rowStart;
+                for (; i + 4 <= rowEnd; i += 4) {
+                    packA(a, aOff + i * lda + p0, lda, depth, alpha, packedA);
+                    int cRow = cOff + i * ldc + j0;
+                    for (int q = 0; q < quads; q++) {
+                        multiplyAdd4x4(packedA, packedB, q * 4 * depth, depth, c, cRow + 4 * q, ldc);
+                    }
+                    for (int r = 0; r < 4; r++) {
+                        multiplyAddTail(a, aOff + (i + r) * lda + p0, alpha, depth, b, bBlock,
+                            bRowStride, bColumnStride, 4 * quads, width, c, cRow + r * ldc);
+                    }
+                }
+                for (; i < rowEnd; i++) {
+                    multiplyAddTail(a, aOff + i * lda + p0, alpha, depth, b, bBlock,
+                        bRowStride, bColumnStride, 0, width, c, cOff + i * ldc + j0);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Copies four rows of A, times alpha, so that element (r, p) is at 4p + r.
+     */
+    private static void packA(double[] a, int off, int lda, int depth, double alpha, double[] packed) {
+        for (int r = 0; r < 4; r++) {
+            int row = off + r * lda;
+            for (int p = 0; p < depth; p++) {
+                packed[4 * p + r] = alpha * a[row + p];
+            }
+        }
+    }
+    
+    /**
+     * Copies whole groups of four columns of B, so that element (p, 4q + s)
+     * is at 4 * (q * depth + p) + s.
+     */
+    private static void packB(double[] b, int off, int rowStride, int columnStride, int depth, int quads,
+                              double[] packed) {
+        for (int p = 0; p < depth; p++) {
+            int row = off + p * rowStride;
+            for (int q = 0; q < quads; q++) {
+                int to = 4 * (q * depth + p);
+                int from = row + 4 * q * columnStride;
+                packed[to] = b[from];
+                packed[to + 1] = b[from + columnStride];
+                packed[to + 2] = b[from + 2 * columnStride];
+                packed[to + 3] = b[from + 3 * columnStride];
+            }
+        }
+    }
+    
+    /**
+     * Adds the product of four packed rows of A and four packed columns of
+     * B to a 4 x 4 block of C.
+     */
+    private static void multiplyAdd4x4(double[] packedA, double[] packedB, int bOff, int depth,
+                                       double[] c, int cOff, int ldc) {
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+        for (int p = 0; p < depth; p++) {
+            int ap = 4 * p;
+            int bp = bOff + 4 * p;
+            double a0 = packedA[ap];
+            double a1 = packedA[ap + 1];
+            double a2 = packedA[ap + 2];
+            double a3 = packedA[ap + 3];
+            double b0 = packedB[bp];
+            double b1 = packedB[bp + 1];
+            double b2 = packedB[bp + 2];
+            double b3 = packedB[bp + 3];
+            c00 += a0 * b0;
+            c01 += a0 * b1;
+            c02 += a0 * b2;
+            c03 += a0 * b3;
+            c10 += a1 * b0;
+            c11 += a1 * b1;
+            c12 += a1 * b2;
+            c13 += a1 * b3;
+            c20 += a2 * b0;
+            c21 += a2 * b1;
+            c22 += a2 * b2;
+            c23 += a2 * b3;
+            c30 += a3 * b0;
+            c31 += a3 * b1;
+            c32 += a3 * b2;
+            c33 += a3 * b3;
+        }
+        int c0 = cOff;
+        int c1 = c0 + ldc;
+        int c2 = c1 + ldc;
+        int c3 = c2 + ldc;
+        c[c0] += c00;
+        c[c0 + 1] += c01;
+        c[c0 + 2] += c02;
+        c[c0 + 3] += c03;
+        c[c1] += c10;
+        c[c1 + 1] += c11;
+        c[c1 + 2] += c12;
+        c[c1 + 3] += c13;
+        c[c2] += c20;
+        c[c2 + 1] += c21;
+        c[c2 + 2] += c22;
+        c[c2 + 3] += c23;
+        c[c3] += c30;
+        c[c3 + 1] += c31;
+        c[c3 + 2] += c32;
+        c[c3 + 3] += c33;
+    }
+    
+    /**
+     * Adds alpha times a row of A times columns [from, to) of B to a row of
+     * C, one column at a time: the columns and rows left over from the
+     * 4 x 4 blocks.
+     */
+    private static void multiplyAddTail(double[] a, int aOff, double alpha, int depth,
+                                        double[] b, int bOff, int rowStride, int columnStride, int from, int to,
+                                        double[] c, int cOff) {
+        for (int j = from; j < to; j++) {
+            int column = bOff + j * columnStride;
+            double sum = 0;
+            for (int p = 0; p < depth; p++) {
+                sum += a[aOff + p] * b[column + p * rowStride];
+            }
+            c[cOff + j] += alpha * sum;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.calculator.linalg;
+
+import com.calculator.core.ParallelBatch;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * QR decomposition by Householder reflections: A = Q * R for an m x n
+ * matrix with m &gt;= n, where Q (m x n) has orthonormal columns and R
+ * (n x n) is upper triangular. Solves least-squares problems, finding the
+ * x that minimizes |A * x - b|, without squaring the condition number as
+ * the normal equations do.
+ * 
+ * The matrix is kept transposed, so that each column of A is a row of the
+ * array: a reflection then updates every column to its right with a dot
+ * product and a multiple-add over the same contiguous run, which stays in
+ * cache between the two. The columns are split into blocks updated in
+ * parallel on the common fork-join pool.
+ */
+public final class QRDecomposition {
+    
+    // Columns updated by one task
+    private static final ParallelBatch COLUMNS = new ParallelBatch(ForkJoinPool.commonPool(),
+        ParallelBatch.MIN_CHUNK_SIZE);
+    // Below this many elements to update, one thread is faster
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    
+    private final int rows;
+    private final int columns;
+    // A transposed (row j is column j of A): R on and above the diagonal of
+    // A, the reflection vectors below it (their leading 1 implied), as
+    // LAPACK's geqrf stores them
+    private final double[] qrt;
+    private final double[] tau;
+    
+    /**
+     * Decomposes a matrix with at least as many rows as columns.
+     * @param matrix Matrix to decompose; left unchanged
+     * @throws IllegalArgumentException if the matrix has fewer rows than columns
+     */
+    public QRDecomposition(Matrix matrix) {
+        int m = matrix.getRows();
+        int n = matrix.getColumns();
+        if (m < n) {
+            throw new IllegalArgumentException("Error: QR decomposition needs at least as many rows as columns, not "
+                + matrix.shape() + ".");
+        }
+        double[] a = matrix.transpose().getData();
+        double[] t = new double[n];
+        for (int k = 0; k < n; k++) {
+            t[k] = reflect(a, m, k);
+            int width = n - k - 1;
+            if (t[k] == 0 || width == 0) {
+                continue;
+            }
+            int column = k;
+            double factor = t[k];
+            double[] v = Arrays.copyOfRange(a, k * m + k, (k + 1) * m);
+            v[0] = 1;
+            if ((long) (m - k) * width < PARALLEL_THRESHOLD) {
+                reflectColumns(a, m, column, v, factor, column + 1, n);
+            } else {
+                COLUMNS.forEachChunk(column + 1, width,
+                    (off, len) -> reflectColumns(a, m, column, v, factor, off, off + len));
+            }
+        }
+        this.rows = m;
+        this.columns = n;
+        this.qrt = a;
+        this.tau = t;
+    }
+    
+    /**
+     * Computes the reflection that zeroes column k below the diagonal,
+     * storing R[k, k] on the diagonal and the vector below it.
+     * @return tau of the reflection I - tau * v * v^T, 0 if the column is already zero
+     */
+    private static double reflect(double[] a, int m, int k) {
+        int column = k * m;
+        // Scaled sum of squares, so large or tiny columns do not overflow or underflow
+        double scale = 0;
+        for (int i = k + 1; i < m; i++) {
+            scale = Math.max(scale, Math.abs(a[column + i]));
+        }
+        if (scale == 0) {
+            return 0;
+        }
+        double alpha = a[column + k];
+        scale = Math.max(scale, Math.abs(alpha));
+        double sum = 0;
+        for (int i = k; i < m; i++) {
+            double x = a[column + i] / scale;
+            sum += x * x;
+        }
+        double beta = -Math.copySign(scale * Math.sqrt(sum), alpha);
+        double inverse = 1 / (alpha - beta);
+        for (int i = k + 1; i < m; i++) {
+            a[column + i] *= inverse;
+        }
+        a[column + k] = beta;
+        return (beta - alpha) / beta;
+    }
+    
+    /**
+     * Applies reflection k to columns [from, to) of the transposed matrix.
+     * The vector is read from its own array (v[i - k] is element i), which
+     * lets the JIT compiler see that updating a column cannot change it;
+     * the dot product keeps four partial sums, as in CholeskyDecomposition.
+     */
+    private static void reflectColumns(double[] a, int m, int k, double[] v, double factor, int from, int to) {
+        int length = m - k;
+        for (int j = from; j < to; j++) {
+            int column = j * m + k;
+            double w0 = 0;
+            double w1 = 0;
+            double w2 = 0;
+            double w3 = 0;
+            int i = 0;
+            for (; i + 4 <= length; i += 4) {
+                w0 += v[i] * a[column + i];
+                w1 += v[i + 1] * a[column + i + 1];
+                w2 += v[i + 2] * a[column + i + 2];
+                w3 += v[i + 3] * a[column + i + 3];
+            }
+            for (; i < length; i++) {
+                w0 += v[i] * a[column + i];
+            }
+            double w = ((w0 + w1) + (w2 + w3)) * factor;
+            for (i = 0; i < length; i++) {
+                a[column + i] -= w * v[i];
+            }
+        }
+    }
+    
+    /**
+     * Applies reflection k to every column of x (row-major, rows of A by
+     * count columns), row by row: w = v^T * x, then x -= tau * v * w^T.
+     */
+    private void reflectRows(int k, double[] x, int count) {
+        int v = k * rows;
+        double[] w = new double[count];
+        System.arraycopy(x, k * count, w, 0, count);
+        for (int i = k + 1; i < rows; i++) {
+            double vi = qrt[v + i];
+            int row = i * count;
+            for (int j = 0; j < count; j++) {
+                w[j] += vi * x[row + j];
+            }
+        }
+        double factor = tau[k];
+        for (int j = 0; j < count; j++) {
+            w[j] *= factor;
+        }
+        int top = k * count;
+        for (int j = 0; j < count; j++) {
+            x[top + j] -= w[j];
+        }
+        for (int i = k + 1; i < rows; i++) {
+            double vi = qrt[v + i];
+            int row = i * count;
+            for (int j = 0; j < count; j++) {
+                x[row + j] -= vi * w[j];
+            }
+        }
+    }
+    
+    // ==================== Results ====================
+    
+    /**
+     * Finds the least-squares solution of A * x = b (the exact one if A is square).
+     * @param b Right-hand side, one element per row of A
+     * @return x minimizing |A * x - b|
+     * @throws IllegalArgumentException if b has the wrong length
+     * @throws ArithmeticException if A does not have full column rank
+     */
+    public double[] solve(double[] b) {
+        if (b.length != rows) {
+            throw new IllegalArgumentException("Error: Right-hand side has " + b.length
+                + " elements but the matrix has " + rows + " rows.");
+        }
+        return solve(new Matrix(rows, 1, b.clone())).getData();
+    }
+    
+    /**
+     * Finds the least-squares solution of A * X = B for every column of B.
+     * @param b Right-hand sides, one per column
+     * @return X minimizing the residual of each column
+     * @throws IllegalArgumentException if B has the wrong row count
+     * @throws ArithmeticException if A does not have full column rank
+     */
+    public Matrix solve(Matrix b) {
+        if (b.getRows() != rows) {
+            throw new IllegalArgumentException("Error: Right-hand side has " + b.getRows()
+                + " rows but the matrix has " + rows + ".");
+        }
+        if (!isFullRank()) {
+            throw new ArithmeticException("Error: Matrix is rank deficient.");
+        }
+        int m = b.getColumns();
+        double[] y = b.getData().clone();
+        // y = Q^T * b
+        for (int k = 0; k < columns; k++) {
+            if (tau[k] != 0) {
+                reflectRows(k, y, m);
+            }
+        }
+        // Solve R * x = (Q^T * b)[0..n)
+        double[] x = new double[columns * m];
+        System.arraycopy(y, 0, x, 0, columns * m);
+        for (int i = columns - 1; i >= 0; i--) {
+            int target = i * m;
+            for (int p = i + 1; p < columns; p++) {
+                double factor = qrt[p * rows + i];
+                int source = p * m;
+                for (int c = 0; c < m; c++) {
+                    x[target + c] -= factor * x[source + c];
+                }
+            }
+            double inverse = 1 / qrt[i * rows + i];
+            for (int c = 0; c < m; c++) {
+                x[target + c] *= inverse;
+            }
+        }
+        return new Matrix(columns, m, x);
+    }
+    
+    /**
+     * Tells whether the columns of A are linearly independent (no zero on the diagonal of R).
+     * @return true if A has full column rank
+     */
+    public boolean isFullRank() {
+        for (int i = 0; i < columns; i++) {
+            if (qrt[i * rows + i] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the upper triangular factor.
+     * @return R (n x n)
+     */
+    public Matrix getR() {
+        Matrix r = new Matrix(columns, columns);
+        double[] data = r.getData();
+        for (int j = 0; j < columns; j++) {
+            for (int i = 0; i <= j; i++) {
+                data[i * columns + j] = qrt[j * rows + i];
+            }
+        }
+        return r;
+    }
+    
+    /**
+     * Gets the factor with orthonormal columns, by applying the reflections
+     * to the first n columns of the identity.
+     * @return Q (m x n)
+     */
+    public Matrix getQ() {
+        double[] q = new double[rows * columns];
+        for (int i = 0; i < columns; i++) {
+            q[i * columns + i] = 1;
+        }
+        for (int k = columns - 1; k >= 0; k--) {
+            if (tau[k] != 0) {
+                reflectRows(k, q, columns);
+            }
+        }
+        return new Matrix(rows, columns, q);
+    }
+}
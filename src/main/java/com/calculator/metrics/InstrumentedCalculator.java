@@ -0,0 +1,112 @@
+package com.calculator.metrics;
+
+import com.calculator.core.Calculator;
+
+/**
+ * Calculator that counts the calls, domain errors and latency of each
+ * arithmetic operation in an {@link OperationMetrics} registry.
+ * 
+ * Operations are recorded under their method names ("add", "divide",
+ * ...) and domain errors under their reason. divide and modulus are
+ * recorded in their "OrNaN" forms, which the throwing forms wrap, so a
+ * call is counted once whichever form is used. Memory operations are not
+ * recorded.
+ * 
+ * The registry may be shared between threads; each instance, like
+ * {@link Calculator}, belongs to one.
+ */
+public class InstrumentedCalculator extends Calculator {
+    
+    private final OperationStats addStats;
+    private final OperationStats subtractStats;
+    private final OperationStats multiplyStats;
+    private final OperationStats divideStats;
+    private final OperationStats modulusStats;
+    private final OperationStats absoluteStats;
+    private final OperationStats negateStats;
+    
+    /**
+     * Creates an instrumented calculator.
+     * @param metrics Registry to record into
+     */
+    public InstrumentedCalculator(OperationMetrics metrics) {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Error: Metrics registry cannot be null.");
+        }
+        this.addStats = metrics.operation("add");
+        this.subtractStats = metrics.operation("subtract");
+        this.multiplyStats = metrics.operation("multiply");
+        this.divideStats = metrics.operation("divide");
+        this.modulusStats = metrics.operation("modulus");
+        this.absoluteStats = metrics.operation("absolute");
+        this.negateStats = metrics.operation("negate");
+    }
+    
+    // ==================== Basic Arithmetic Operations ====================
+    
+    @Override
+    public double add(double a, double b) {
+        long start = System.nanoTime();
+        try {
+            return super.add(a, b);
+        } finally {
+            addStats.record(start);
+        }
+    }
+    
+    @Override
+    public double subtract(double a, double b) {
+        long start = System.nanoTime();
+        try {
+            return super.subtract(a, b);
+        } finally {
+            subtractStats.record(start);
+        }
+    }
+    
+    @Override
+    public double multiply(double a, double b) {
+        long start = System.nanoTime();
+        try {
+            return super.multiply(a, b);
+        } finally {
+            multiplyStats.record(start);
+        }
+    }
+    
+    @Override
+    public double divideOrNaN(double a, double b) {
+        long start = System.nanoTime();
+        double result = super.divideOrNaN(a, b);
+        divideStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double modulusOrNaN(double a, double b) {
+        long start = System.nanoTime();
+        double result = super.modulusOrNaN(a, b);
+        modulusStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double absolute(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.absolute(a);
+        } finally {
+            absoluteStats.record(start);
+        }
+    }
+    
+    @Override
+    public double negate(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.negate(a);
+        } finally {
+            negateStats.record(start);
+        }
+    }
+}
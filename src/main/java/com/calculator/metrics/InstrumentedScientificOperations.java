@@ -0,0 +1,411 @@
+package com.calculator.metrics;
+
+import com.calculator.core.Precision;
+import com.calculator.core.ScientificOperations;
+
+import java.math.BigInteger;
+
+/**
+ * ScientificOperations that counts the calls, domain errors and latency
+ * of each scalar operation in an {@link OperationMetrics} registry.
+ * 
+ * Operations are recorded under their method names ("squareRoot",
+ * "logBase", ...) and domain errors under their reason. Operations with
+ * domain errors are recorded in their "OrNaN" forms, which the throwing
+ * forms wrap, so a call is counted once whichever form is used. Each
+ * call costs two System.nanoTime() reads and a few uncontended counter
+ * increments.
+ * The batch methods are not instrumented: time the batch as a whole.
+ * 
+ * The registry may be shared between threads; each instance, like
+ * {@link ScientificOperations}, belongs to one.
+ */
+public class InstrumentedScientificOperations extends ScientificOperations {
+    
+    private final OperationStats powerStats;
+    private final OperationStats squareStats;
+    private final OperationStats cubeStats;
+    private final OperationStats squareRootStats;
+    private final OperationStats cubeRootStats;
+    private final OperationStats nthRootStats;
+    private final OperationStats naturalLogStats;
+    private final OperationStats log10Stats;
+    private final OperationStats logBaseStats;
+    private final OperationStats expStats;
+    private final OperationStats exp10Stats;
+    private final OperationStats sinStats;
+    private final OperationStats cosStats;
+    private final OperationStats tanStats;
+    private final OperationStats sinDegStats;
+    private final OperationStats cosDegStats;
+    private final OperationStats tanDegStats;
+    private final OperationStats asinStats;
+    private final OperationStats acosStats;
+    private final OperationStats atanStats;
+    private final OperationStats sinhStats;
+    private final OperationStats coshStats;
+    private final OperationStats tanhStats;
+    private final OperationStats factorialStats;
+    private final OperationStats permutationStats;
+    private final OperationStats permutationExactStats;
+    private final OperationStats combinationStats;
+    private final OperationStats combinationExactStats;
+    private final OperationStats reciprocalStats;
+    private final OperationStats toRadiansStats;
+    private final OperationStats toDegreesStats;
+    
+    /**
+     * Creates instrumented operations with {@link Precision#STRICT} precision.
+     * @param metrics Registry to record into
+     */
+    public InstrumentedScientificOperations(OperationMetrics metrics) {
+        this(metrics, Precision.STRICT);
+    }
+    
+    /**
+     * Creates instrumented operations.
+     * @param metrics Registry to record into
+     * @param precision Precision tier of exp, naturalLog, power, sin and cos
+     */
+    public InstrumentedScientificOperations(OperationMetrics metrics, Precision precision) {
+        super(precision);
+        if (metrics == null) {
+            throw new IllegalArgumentException("Error: Metrics registry cannot be null.");
+        }
+        this.powerStats = metrics.operation("power");
+        this.squareStats = metrics.operation("square");
+        this.cubeStats = metrics.operation("cube");
+        this.squareRootStats = metrics.operation("squareRoot");
+        this.cubeRootStats = metrics.operation("cubeRoot");
+        this.nthRootStats = metrics.operation("nthRoot");
+        this.naturalLogStats = metrics.operation("naturalLog");
+        this.log10Stats = metrics.operation("log10");
+        this.logBaseStats = metrics.operation("logBase");
+        this.expStats = metrics.operation("exp");
+        this.exp10Stats = metrics.operation("exp10");
+        this.sinStats = metrics.operation("sin");
+        this.cosStats = metrics.operation("cos");
+        this.tanStats = metrics.operation("tan");
+        this.sinDegStats = metrics.operation("sinDeg");
+        this.cosDegStats = metrics.operation("cosDeg");
+        this.tanDegStats = metrics.operation("tanDeg");
+        this.asinStats = metrics.operation("asin");
+        this.acosStats = metrics.operation("acos");
+        this.atanStats = metrics.operation("atan");
+        this.sinhStats = metrics.operation("sinh");
+        this.coshStats = metrics.operation("cosh");
+        this.tanhStats = metrics.operation("tanh");
+        this.factorialStats = metrics.operation("factorial");
+        this.permutationStats = metrics.operation("permutation");
+        this.permutationExactStats = metrics.operation("permutationExact");
+        this.combinationStats = metrics.operation("combination");
+        this.combinationExactStats = metrics.operation("combinationExact");
+        this.reciprocalStats = metrics.operation("reciprocal");
+        this.toRadiansStats = metrics.operation("toRadians");
+        this.toDegreesStats = metrics.operation("toDegrees");
+    }
+    
+    // ==================== Power and Root Operations ====================
+    
+    @Override
+    public double power(double base, double exponent) {
+        long start = System.nanoTime();
+        try {
+            return super.power(base, exponent);
+        } finally {
+            powerStats.record(start);
+        }
+    }
+    
+    @Override
+    public double square(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.square(a);
+        } finally {
+            squareStats.record(start);
+        }
+    }
+    
+    @Override
+    public double cube(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.cube(a);
+        } finally {
+            cubeStats.record(start);
+        }
+    }
+    
+    @Override
+    public double squareRootOrNaN(double a) {
+        long start = System.nanoTime();
+        double result = super.squareRootOrNaN(a);
+        squareRootStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double cubeRoot(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.cubeRoot(a);
+        } finally {
+            cubeRootStats.record(start);
+        }
+    }
+    
+    @Override
+    public double nthRootOrNaN(double a, double n) {
+        long start = System.nanoTime();
+        double result = super.nthRootOrNaN(a, n);
+        nthRootStats.record(start, result);
+        return result;
+    }
+    
+    // ==================== Logarithmic and Exponential Operations ====================
+    
+    @Override
+    public double naturalLogOrNaN(double a) {
+        long start = System.nanoTime();
+        double result = super.naturalLogOrNaN(a);
+        naturalLogStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double log10OrNaN(double a) {
+        long start = System.nanoTime();
+        double result = super.log10OrNaN(a);
+        log10Stats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double logBaseOrNaN(double a, double base) {
+        long start = System.nanoTime();
+        double result = super.logBaseOrNaN(a, base);
+        logBaseStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double exp(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.exp(a);
+        } finally {
+            expStats.record(start);
+        }
+    }
+    
+    @Override
+    public double exp10(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.exp10(a);
+        } finally {
+            exp10Stats.record(start);
+        }
+    }
+    
+    // ==================== Trigonometric Operations ====================
+    
+    @Override
+    public double sin(double radians) {
+        long start = System.nanoTime();
+        try {
+            return super.sin(radians);
+        } finally {
+            sinStats.record(start);
+        }
+    }
+    
+    @Override
+    public double cos(double radians) {
+        long start = System.nanoTime();
+        try {
+            return super.cos(radians);
+        } finally {
+            cosStats.record(start);
+        }
+    }
+    
+    @Override
+    public double tan(double radians) {
+        long start = System.nanoTime();
+        try {
+            return super.tan(radians);
+        } finally {
+            tanStats.record(start);
+        }
+    }
+    
+    @Override
+    public double sinDeg(double degrees) {
+        long start = System.nanoTime();
+        try {
+            return super.sinDeg(degrees);
+        } finally {
+            sinDegStats.record(start);
+        }
+    }
+    
+    @Override
+    public double cosDeg(double degrees) {
+        long start = System.nanoTime();
+        try {
+            return super.cosDeg(degrees);
+        } finally {
+            cosDegStats.record(start);
+        }
+    }
+    
+    @Override
+    public double tanDegOrNaN(double degrees) {
+        long start = System.nanoTime();
+        double result = super.tanDegOrNaN(degrees);
+        tanDegStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double asinOrNaN(double value) {
+        long start = System.nanoTime();
+        double result = super.asinOrNaN(value);
+        asinStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double acosOrNaN(double value) {
+        long start = System.nanoTime();
+        double result = super.acosOrNaN(value);
+        acosStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double atan(double value) {
+        long start = System.nanoTime();
+        try {
+            return super.atan(value);
+        } finally {
+            atanStats.record(start);
+        }
+    }
+    
+    // ==================== Hyperbolic Operations ====================
+    
+    @Override
+    public double sinh(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.sinh(a);
+        } finally {
+            sinhStats.record(start);
+        }
+    }
+    
+    @Override
+    public double cosh(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.cosh(a);
+        } finally {
+            coshStats.record(start);
+        }
+    }
+    
+    @Override
+    public double tanh(double a) {
+        long start = System.nanoTime();
+        try {
+            return super.tanh(a);
+        } finally {
+            tanhStats.record(start);
+        }
+    }
+    
+    // ==================== Special Functions ====================
+    
+    @Override
+    public double factorialOrNaN(int n) {
+        long start = System.nanoTime();
+        double result = super.factorialOrNaN(n);
+        factorialStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public double permutationOrNaN(int n, int r) {
+        long start = System.nanoTime();
+        double result = super.permutationOrNaN(n, r);
+        permutationStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public BigInteger permutationExact(int n, int r) {
+        long start = System.nanoTime();
+        try {
+            return super.permutationExact(n, r);
+        } catch (ArithmeticException e) {
+            permutationExactStats.recordError(e);
+            throw e;
+        } finally {
+            permutationExactStats.record(start);
+        }
+    }
+    
+    @Override
+    public double combinationOrNaN(int n, int r) {
+        long start = System.nanoTime();
+        double result = super.combinationOrNaN(n, r);
+        combinationStats.record(start, result);
+        return result;
+    }
+    
+    @Override
+    public BigInteger combinationExact(int n, int r) {
+        long start = System.nanoTime();
+        try {
+            return super.combinationExact(n, r);
+        } catch (ArithmeticException e) {
+            combinationExactStats.recordError(e);
+            throw e;
+        } finally {
+            combinationExactStats.record(start);
+        }
+    }
+    
+    @Override
+    public double reciprocalOrNaN(double a) {
+        long start = System.nanoTime();
+        double result = super.reciprocalOrNaN(a);
+        reciprocalStats.record(start, result);
+        return result;
+    }
+    
+    // ==================== Conversion Functions ====================
+    
+    @Override
+    public double toRadians(double degrees) {
+        long start = System.nanoTime();
+        try {
+            return super.toRadians(degrees);
+        } finally {
+            toRadiansStats.record(start);
+        }
+    }
+    
+    @Override
+    public double toDegrees(double radians) {
+        long start = System.nanoTime();
+        try {
+            return super.toDegrees(radians);
+        } finally {
+            toDegreesStats.record(start);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.calculator.metrics;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in nanoseconds, laid out like HdrHistogram.
+ * 
+ * Buckets are log-linear: each power of two is split into 64 equal
+ * sub-buckets, so a recorded value is known to within 1 part in 64
+ * (about 1.6%) whatever its magnitude, from 1 ns up to {@link #MAX_VALUE}.
+ * Recording is a leading-zero count, a shift and an increment, with no
+ * locks and no allocation once the bucket has been used.
+ * 
+ * Each bucket is a {@link LongAdder}, created the first time a value
+ * lands in it, so threads recording the same latency do not contend on
+ * one counter and untouched buckets cost only an array slot.
+ * 
+ * Reads (counts, percentiles) may run while other threads record; they
+ * then see some of the concurrent values and not others, as with
+ * {@link LongAdder#sum()}.
+ */
+public final class LatencyHistogram {
+    
+    /** Largest value kept apart from the rest (about 68 seconds); larger values are counted as this. */
+    public static final long MAX_VALUE = (1L << 36) - 1;
+    
+    // Values below 2 * SUB_BUCKETS fall in buckets of width 1
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final long LINEAR_MASK = (2L << SUB_BUCKET_BITS) - 1;
+    private static final int BUCKETS = indexOf(MAX_VALUE) + 1;
+    
+    private final AtomicReferenceArray<LongAdder> buckets = new AtomicReferenceArray<>(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    
+    /**
+     * Records one value.
+     * @param nanos Latency in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        int index = indexOf(value);
+        LongAdder bucket = buckets.get(index);
+        if (bucket == null) {
+            buckets.compareAndSet(index, null, new LongAdder());
+            bucket = buckets.get(index);
+        }
+        bucket.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+    
+    /**
+     * Gets the number of recorded values.
+     * @return Value count
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                count += bucket.sum();
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Gets the sum of the recorded values.
+     * @return Total in nanoseconds
+     */
+    public long getTotalNanos() {
+        return total.sum();
+    }
+    
+    /**
+     * Gets the largest recorded value.
+     * @return Maximum in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getMaxNanos() {
+        return max.get();
+    }
+    
+    /**
+     * Gets the value that the given percentage of recorded values do not exceed.
+     * As in HdrHistogram, the answer is the upper end of the bucket holding
+     * that value, so it is never below the exact percentile.
+     * 
+     * @param percentile Percentage between 0 and 100
+     * @return Value in nanoseconds, or 0 if nothing was recorded
+     * @throws IllegalArgumentException if the percentage is out of range
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Error: Percentile must be between 0 and 100.");
+        }
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                counts[i] = bucket.sum();
+                count += counts[i];
+            }
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(highestInBucket(i), getMaxNanos());
+            }
+        }
+        return getMaxNanos();
+    }
+    
+    /**
+     * Clears all recorded values. Values recorded at the same time may survive.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            LongAdder bucket = buckets.get(i);
+            if (bucket != null) {
+                bucket.reset();
+            }
+        }
+        total.reset();
+        max.reset();
+    }
+    
+    private static int indexOf(long value) {
+        // shift is 0 below 128, where every value has its own bucket
+        int shift = 63 - Long.numberOfLeadingZeros(value | LINEAR_MASK) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+    
+    private static long highestInBucket(int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        long lowest = (long) (index - (shift << SUB_BUCKET_BITS)) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
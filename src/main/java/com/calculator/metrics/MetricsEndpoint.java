@@ -0,0 +1,86 @@
+package com.calculator.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HTTP endpoint on the loopback interface that serves a metrics registry
+ * for scraping: Prometheus text at /metrics and JSON at /metrics.json.
+ * 
+ * It listens on 127.0.0.1 only, so the numbers are not exposed beyond
+ * the machine, and answers on a single background thread; every request
+ * writes a fresh snapshot.
+ */
+public class MetricsEndpoint implements AutoCloseable {
+    
+    private static final String PROMETHEUS_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    
+    private final HttpServer server;
+    
+    /**
+     * Starts serving.
+     * @param metrics Registry to serve
+     * @param port Port to listen on, or 0 for any free port
+     * @throws IOException if the port cannot be bound
+     */
+    public MetricsEndpoint(OperationMetrics metrics, int port) throws IOException {
+        if (metrics == null) {
+            throw new IllegalArgumentException("Error: Metrics registry cannot be null.");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> respond(exchange, metrics));
+        server.start();
+    }
+    
+    private static void respond(HttpExchange exchange, OperationMetrics metrics) throws IOException {
+        try {
+            String path = exchange.getRequestURI().getPath();
+            boolean json = path.equals("/metrics.json");
+            if (!json && !path.equals("/metrics")) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", json ? JSON_TYPE : PROMETHEUS_TYPE);
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody();
+                 Writer out = new OutputStreamWriter(body, StandardCharsets.UTF_8)) {
+                if (json) {
+                    MetricsExporter.writeJson(metrics, out);
+                } else {
+                    MetricsExporter.writePrometheus(metrics, out);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Gets the port the endpoint listens on.
+     * @return Port number
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    /**
+     * Stops serving at once.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,184 @@
+package com.calculator.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the contents of an {@link OperationMetrics} registry as JSON or
+ * in the Prometheus text exposition format.
+ * 
+ * Latencies are summarized by their count, sum, maximum and the 50th,
+ * 90th, 99th and 99.9th percentiles; JSON gives them in nanoseconds and
+ * Prometheus in seconds, as its conventions ask. Only operations that
+ * have been called are written.
+ */
+public final class MetricsExporter {
+    
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] QUANTILES = {"0.5", "0.9", "0.99", "0.999"};
+    private static final String[] JSON_PERCENTILES = {"p50", "p90", "p99", "p999"};
+    
+    private MetricsExporter() {
+        throw new UnsupportedOperationException("MetricsExporter class cannot be instantiated");
+    }
+    
+    /**
+     * Writes the metrics as one JSON object:
+     * <pre>
+     *   {"operations": {"divide": {"calls": 3, "errors": {"Division by zero is not allowed.": 1},
+     *     "latencyNanos": {"count": 3, "sum": 210, "max": 95, "p50": 61, ...}}}}
+     * </pre>
+     * @param metrics Registry to write
+     * @param out Destination
+     * @throws IOException if writing fails
+     */
+    public static void writeJson(OperationMetrics metrics, Appendable out) throws IOException {
+        out.append("{\"operations\": {");
+        List<OperationStats> operations = metrics.getOperations();
+        for (int i = 0; i < operations.size(); i++) {
+            OperationStats stats = operations.get(i);
+            LatencyHistogram latency = stats.getLatency();
+            out.append(i == 0 ? "\n  " : ",\n  ");
+            appendJsonString(out, stats.getName());
+            out.append(": {\"calls\": ").append(Long.toString(stats.getCallCount()));
+            out.append(", \"errors\": {");
+            boolean first = true;
+            for (Map.Entry<String, Long> error : stats.getErrorCounts().entrySet()) {
+                out.append(first ? "" : ", ");
+                appendJsonString(out, error.getKey());
+                out.append(": ").append(error.getValue().toString());
+                first = false;
+            }
+            out.append("}, \"latencyNanos\": {\"count\": ").append(Long.toString(latency.getCount()));
+            out.append(", \"sum\": ").append(Long.toString(latency.getTotalNanos()));
+            out.append(", \"max\": ").append(Long.toString(latency.getMaxNanos()));
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                out.append(", \"").append(JSON_PERCENTILES[p]).append("\": ")
+                    .append(Long.toString(latency.getValueAtPercentile(PERCENTILES[p])));
+            }
+            out.append("}}");
+        }
+        out.append(operations.isEmpty() ? "}}\n" : "\n}}\n");
+    }
+    
+    /**
+     * Writes the metrics in the Prometheus text format (version 0.0.4):
+     * the counters calculator_operations_total and
+     * calculator_operation_errors_total, the summary
+     * calculator_operation_latency_seconds and the gauge
+     * calculator_operation_latency_max_seconds, labelled by operation
+     * (and by reason for errors).
+     * 
+     * @param metrics Registry to write
+     * @param out Destination
+     * @throws IOException if writing fails
+     */
+    public static void writePrometheus(OperationMetrics metrics, Appendable out) throws IOException {
+        List<OperationStats> operations = metrics.getOperations();
+        out.append("# HELP calculator_operations_total Calls per operation, failed ones included.\n");
+        out.append("# TYPE calculator_operations_total counter\n");
+        for (OperationStats stats : operations) {
+            appendSample(out, "calculator_operations_total", stats.getName(), null, null);
+            out.append(Long.toString(stats.getCallCount())).append('\n');
+        }
+        out.append("# HELP calculator_operation_errors_total Domain errors per operation and reason.\n");
+        out.append("# TYPE calculator_operation_errors_total counter\n");
+        for (OperationStats stats : operations) {
+            for (Map.Entry<String, Long> error : stats.getErrorCounts().entrySet()) {
+                appendSample(out, "calculator_operation_errors_total", stats.getName(), "reason", error.getKey());
+                out.append(error.getValue().toString()).append('\n');
+            }
+        }
+        out.append("# HELP calculator_operation_latency_seconds Latency per operation.\n");
+        out.append("# TYPE calculator_operation_latency_seconds summary\n");
+        for (OperationStats stats : operations) {
+            LatencyHistogram latency = stats.getLatency();
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                appendSample(out, "calculator_operation_latency_seconds", stats.getName(), "quantile", QUANTILES[p]);
+                out.append(seconds(latency.getValueAtPercentile(PERCENTILES[p]))).append('\n');
+            }
+            appendSample(out, "calculator_operation_latency_seconds_sum", stats.getName(), null, null);
+            out.append(seconds(latency.getTotalNanos())).append('\n');
+            appendSample(out, "calculator_operation_latency_seconds_count", stats.getName(), null, null);
+            out.append(Long.toString(latency.getCount())).append('\n');
+        }
+        out.append("# HELP calculator_operation_latency_max_seconds Slowest call per operation.\n");
+        out.append("# TYPE calculator_operation_latency_max_seconds gauge\n");
+        for (OperationStats stats : operations) {
+            appendSample(out, "calculator_operation_latency_max_seconds", stats.getName(), null, null);
+            out.append(seconds(stats.getLatency().getMaxNanos())).append('\n');
+        }
+    }
+    
+    /**
+     * Writes the metrics to a file: JSON if its name ends in ".json",
+     * Prometheus text otherwise (".prom" for the node exporter's textfile
+     * collector, say). The file is written beside the target and then
+     * moved over it, so a reader never sees half a snapshot.
+     * 
+     * @param metrics Registry to write
+     * @param file Destination file
+     * @throws IOException if writing or moving fails
+     */
+    public static void export(OperationMetrics metrics, Path file) throws IOException {
+        Path absolute = file.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            if (absolute.getFileName().toString().endsWith(".json")) {
+                writeJson(metrics, out);
+            } else {
+                writePrometheus(metrics, out);
+            }
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    private static void appendSample(Appendable out, String name, String operation,
+            String label, String value) throws IOException {
+        out.append(name).append("{operation=\"");
+        appendLabelValue(out, operation);
+        if (label != null) {
+            out.append("\",").append(label).append("=\"");
+            appendLabelValue(out, value);
+        }
+        out.append("\"} ");
+    }
+    
+    private static void appendLabelValue(Appendable out, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+    }
+    
+    private static void appendJsonString(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == '"') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
+    }
+    
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
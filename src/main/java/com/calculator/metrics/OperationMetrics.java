@@ -0,0 +1,60 @@
+package com.calculator.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Registry of the {@link OperationStats} of every instrumented operation.
+ * 
+ * One registry is usually shared by all the instrumented calculators of
+ * a process, across threads; {@link MetricsExporter} writes it out as
+ * JSON or Prometheus text.
+ */
+public class OperationMetrics {
+    
+    private final ConcurrentMap<String, OperationStats> operations = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the statistics of an operation, creating them on first use.
+     * Look them up once and keep them: the lookup is a hash map access.
+     * 
+     * @param name Operation name, such as "divide"
+     * @return Statistics of the operation
+     * @throws IllegalArgumentException if the name is null or empty
+     */
+    public OperationStats operation(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Error: Operation name cannot be empty.");
+        }
+        OperationStats stats = operations.get(name);
+        return stats != null ? stats : operations.computeIfAbsent(name, OperationStats::new);
+    }
+    
+    /**
+     * Gets the statistics of every operation that has been called.
+     * @return Operations sorted by name
+     */
+    public List<OperationStats> getOperations() {
+        List<OperationStats> called = new ArrayList<>();
+        for (OperationStats stats : operations.values()) {
+            if (stats.getCallCount() > 0) {
+                called.add(stats);
+            }
+        }
+        Collections.sort(called, Comparator.comparing(OperationStats::getName));
+        return called;
+    }
+    
+    /**
+     * Clears the counts of every operation.
+     */
+    public void reset() {
+        for (OperationStats stats : operations.values()) {
+            stats.reset();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.calculator.metrics;
+
+import com.calculator.core.DomainError;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls, domain errors and latencies of one operation.
+ * 
+ * Instrumented classes look their statistics up once, when they are
+ * created, and then record into them directly:
+ * <pre>
+ *   long start = System.nanoTime();
+ *   double result = super.divideOrNaN(a, b);
+ *   divideStats.record(start, result);
+ *   return result;
+ * </pre>
+ * Methods that report errors by throwing record them with
+ * {@link #recordError(ArithmeticException)} instead.
+ * All counters are {@link LongAdder}s, so any number of threads can
+ * record into the same statistics without contending.
+ */
+public final class OperationStats {
+    
+    private final String name;
+    private final LongAdder calls = new LongAdder();
+    private final ConcurrentMap<String, LongAdder> errors = new ConcurrentHashMap<>();
+    private final LatencyHistogram latency = new LatencyHistogram();
+    
+    OperationStats(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Records one finished call, whether it returned or threw.
+     * @param startNanos Value of System.nanoTime() when the call started
+     */
+    public void record(long startNanos) {
+        latency.record(System.nanoTime() - startNanos);
+        calls.increment();
+    }
+    
+    /**
+     * Records one finished call of a non-throwing ("OrNaN") method, and
+     * the domain error its result carries, if any.
+     * @param startNanos Value of System.nanoTime() when the call started
+     * @param result Result of the call
+     */
+    public void record(long startNanos, double result) {
+        record(startNanos);
+        if (result != result) {
+            DomainError error = DomainError.of(result);
+            if (error != null) {
+                count(reasonOf(error.getMessage()));
+            }
+        }
+    }
+    
+    /**
+     * Records a domain error under its reason: the exception message
+     * without the "Error: " prefix.
+     * @param e Exception the operation threw
+     */
+    public void recordError(ArithmeticException e) {
+        String message = e.getMessage();
+        count(message == null ? "unknown" : reasonOf(message));
+    }
+    
+    private void count(String reason) {
+        LongAdder count = errors.get(reason);
+        if (count == null) {
+            count = errors.computeIfAbsent(reason, key -> new LongAdder());
+        }
+        count.increment();
+    }
+    
+    private static String reasonOf(String message) {
+        return message.startsWith("Error: ") ? message.substring("Error: ".length()) : message;
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the operation name.
+     * @return Name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    /**
+     * Gets the number of finished calls, failed ones included.
+     * @return Call count
+     */
+    public long getCallCount() {
+        return calls.sum();
+    }
+    
+    /**
+     * Gets the number of domain errors.
+     * @return Error count over all reasons
+     */
+    public long getErrorCount() {
+        long sum = 0;
+        for (LongAdder count : errors.values()) {
+            sum += count.sum();
+        }
+        return sum;
+    }
+    
+    /**
+     * Gets the domain errors by reason.
+     * @return Copy of the counts, sorted by reason
+     */
+    public Map<String, Long> getErrorCounts() {
+        Map<String, Long> counts = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : errors.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+        return counts;
+    }
+    
+    /**
+     * Gets the latency histogram.
+     * @return Histogram of call latencies
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    /**
+     * Clears all counts.
+     */
+    public void reset() {
+        calls.reset();
+        errors.clear();
+        latency.reset();
+    }
+}
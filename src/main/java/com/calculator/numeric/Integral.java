@@ -0,0 +1,61 @@
+package com.calculator.numeric;
+
+/**
+ * Result of a numerical integration: the value, an estimate of its
+ * absolute error, and the work it took.
+ * 
+ * An integration that ran out of subintervals or levels before meeting its
+ * tolerance still returns its best value, with {@link #isConverged()}
+ * false; the error estimate then says how far off it may be.
+ */
+public final class Integral {
+    
+    private final double value;
+    private final double errorEstimate;
+    private final long evaluations;
+    private final boolean converged;
+    
+    Integral(double value, double errorEstimate, long evaluations, boolean converged) {
+        this.value = value;
+        this.errorEstimate = errorEstimate;
+        this.evaluations = evaluations;
+        this.converged = converged;
+    }
+    
+    /**
+     * Gets the value of the integral.
+     * @return Approximate integral
+     */
+    public double getValue() {
+        return value;
+    }
+    
+    /**
+     * Gets the estimated absolute error of the value.
+     * @return Error estimate (non-negative)
+     */
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+    
+    /**
+     * Gets the number of times the integrand was evaluated.
+     * @return Evaluation count
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+    
+    /**
+     * Tells whether the tolerance was met.
+     * @return true if the error estimate is within the tolerance
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+    
+    @Override
+    public String toString() {
+        return value + " ± " + errorEstimate + (converged ? "" : " (not converged)");
+    }
+}
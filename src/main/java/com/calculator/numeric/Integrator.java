@@ -0,0 +1,501 @@
+package com.calculator.numeric;
+
+import com.calculator.core.Constants;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Numerical integration of functions such as the methods of
+ * {@link com.calculator.core.ScientificOperations}, a lambda or a
+ * generated expression.
+ * <pre>
+ *   Integrator integrator = new Integrator();
+ *   Integral area = integrator.integrate(scientific::sin, 0, Math.PI);            // 2
+ *   Integral gauss = integrator.integrate(x -&gt; Math.exp(-x * x), 0, Double.POSITIVE_INFINITY);
+ *   Integral singular = integrator.integrateTanhSinh(x -&gt; 1 / Math.sqrt(x), 0, 1);  // 2
+ * </pre>
+ * 
+ * {@link #integrate} is adaptive Gauss-Kronrod (7-point Gauss, 15-point
+ * Kronrod), the method of QUADPACK: an interval whose two estimates
+ * disagree by more than its share of the tolerance is halved, and the
+ * halves are refined independently as fork-join tasks, so rough integrands
+ * use all cores. Each interval's share is proportional to its width, so
+ * the results are the same for any pool as long as the integration stays
+ * within maxIntervals. Once that budget runs out, which intervals got split
+ * depends on scheduling, and the value of the unconverged result can differ
+ * from run to run. It suits smooth integrands and ones with kinks, peaks or
+ * mild endpoint singularities.
+ * 
+ * {@link #integrateTanhSinh} is the tanh-sinh (double exponential) rule.
+ * It samples densely near the endpoints, where it measures distances from
+ * the endpoint itself so nothing is lost to rounding, and converges fast
+ * even when the integrand has an integrable singularity at an endpoint
+ * (1/sqrt(x), ln(x), x^-0.9 at 0). It runs on the calling thread.
+ * 
+ * Both accept infinite bounds, which they map onto a finite interval.
+ * The integrand must be finite inside the interval; domain errors it
+ * throws (such as those of naturalLog) reach the caller unchanged.
+ * 
+ * The pool's workers call the integrand of {@link #integrate} concurrently,
+ * so it must be thread-safe. The methods of ScientificOperations and
+ * generated expressions are; a lambda that updates shared state is not, and
+ * should be integrated on a pool of one thread or by integrateTanhSinh.
+ */
+public class Integrator {
+    
+    // Nodes of the 15-point Kronrod rule on [0, 1], largest first; the odd ones are the 7-point Gauss nodes
+    private static final double[] KRONROD_NODES = {
+        0.991455371120812639206854697526329, 0.949107912342758524526189684047851,
+        0.864864423359769072789712788640926, 0.741531185599394439863864773280788,
+        0.586087235467691130294144845693013, 0.405845151377397166906606412076961,
+        0.207784955007898467600689403773245, 0.0
+    };
+    private static final double[] KRONROD_WEIGHTS = {
+        0.022935322010529224963732008058970, 0.063092092629978553290700663189204,
+        0.104790010322250183839876322541518, 0.140653259715525918745189590510238,
+        0.169004726639267902826583426598550, 0.190350578064785409913256402421014,
+        0.204432940075298892414161999234649, 0.209482141084727828012999174891714
+    };
+    private static final double[] GAUSS_WEIGHTS = {
+        0.129484966168869693270611432679082, 0.279705391489276667901467771423780,
+        0.381830050505118944950369775488975, 0.417959183673469387755102040816327
+    };
+    
+    private static final double EPSILON = Math.ulp(1.0);
+    private static final int GAUSS_KRONROD_POINTS = 15;
+    
+    // Intervals 2^MAX_DEPTH times narrower than the whole are not split further
+    private static final int MAX_DEPTH = 100;
+    private static final int MAX_PASSES = 3;
+    
+    private static final double HALF_PI = Math.PI / 2;
+    
+    // Finest tanh-sinh step is 2^-MAX_LEVEL; levels before MIN_LEVEL are too coarse to judge convergence
+    private static final int MAX_LEVEL = 12;
+    private static final int MIN_LEVEL = 3;
+    
+    private final ForkJoinPool pool;
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final int maxIntervals;
+    
+    /**
+     * Creates an integrator on the common fork-join pool with the tolerances
+     * {@link Constants#DEFAULT_ABSOLUTE_TOLERANCE} and
+     * {@link Constants#DEFAULT_RELATIVE_TOLERANCE}.
+     */
+    public Integrator() {
+        this(Constants.DEFAULT_ABSOLUTE_TOLERANCE, Constants.DEFAULT_RELATIVE_TOLERANCE);
+    }
+    
+    /**
+     * Creates an integrator on the common fork-join pool. An integration
+     * converges when its error estimate is at most the larger of the
+     * absolute tolerance and the relative tolerance times the integral.
+     * @param absoluteTolerance Acceptable absolute error
+     * @param relativeTolerance Acceptable error relative to the integral
+     */
+    public Integrator(double absoluteTolerance, double relativeTolerance) {
+        this(ForkJoinPool.commonPool(), absoluteTolerance, relativeTolerance, Constants.DEFAULT_MAX_INTERVALS);
+    }
+    
+    /**
+     * Creates an integrator.
+     * @param pool Pool that refines the subintervals of {@link #integrate}
+     * @param absoluteTolerance Acceptable absolute error
+     * @param relativeTolerance Acceptable error relative to the integral
+     * @param maxIntervals Most subintervals one adaptive integration may split into
+     * @throws IllegalArgumentException if a tolerance is negative or both are zero,
+     *                                  or maxIntervals is not positive
+     */
+    public Integrator(ForkJoinPool pool, double absoluteTolerance, double relativeTolerance, int maxIntervals) {
+        if (!(absoluteTolerance >= 0) || !(relativeTolerance >= 0)
+                || absoluteTolerance == 0 && relativeTolerance == 0) {
+            throw new IllegalArgumentException("Error: Tolerances must be non-negative and not both zero.");
+        }
+        if (maxIntervals < 1) {
+            throw new IllegalArgumentException("Error: Integration needs at least one interval.");
+        }
+        this.pool = pool;
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.maxIntervals = maxIntervals;
+    }
+    
+    // ==================== Integration ====================
+    
+    /**
+     * Integrates f from a to b by adaptive Gauss-Kronrod quadrature.
+     * @param f Integrand
+     * @param a Lower bound (may be negative infinity)
+     * @param b Upper bound (may be positive infinity)
+     * @return Integral, with its error estimate
+     * @throws ArithmeticException if f is not finite somewhere inside the interval
+     * @throws IllegalArgumentException if a bound is NaN
+     */
+    public Integral integrate(DoubleUnaryOperator f, double a, double b) {
+        checkBounds(a, b);
+        if (a == b) {
+            return new Integral(0, 0, 0, true);
+        }
+        if (a > b) {
+            return negate(integrate(f, b, a));
+        }
+        DoubleUnaryOperator checked = x -> {
+            double y = f.applyAsDouble(x);
+            if (Double.isNaN(y) || Double.isInfinite(y)) {
+                throw new ArithmeticException("Error: Integrand is not finite at " + x + ".");
+            }
+            return y;
+        };
+        Interval interval = Interval.of(checked, a, b);
+        double[] whole = gaussKronrod(interval.g, interval.from, interval.to);
+        long evaluations = GAUSS_KRONROD_POINTS;
+        double tolerance = Math.max(absoluteTolerance, relativeTolerance * Math.abs(whole[0]));
+        for (int pass = 1; ; pass++) {
+            Adaptive run = new Adaptive(interval, tolerance, maxIntervals);
+            Integral result = pool.invoke(run.new Segment(interval.from, interval.to, 0, whole));
+            evaluations += result.getEvaluations();
+            boolean converged = result.isConverged() && isConverged(result.getErrorEstimate(), result.getValue());
+            // The first estimate set the tolerance; if it was far off, refine again with the better one
+            double target = Math.max(absoluteTolerance, relativeTolerance * Math.abs(result.getValue()));
+            if (converged || !result.isConverged() || target >= tolerance || pass == MAX_PASSES) {
+                return new Integral(result.getValue(), result.getErrorEstimate(), evaluations, converged);
+            }
+            tolerance = target;
+        }
+    }
+    
+    /**
+     * Integrates f from a to b by the tanh-sinh rule, for integrands with
+     * singularities at the endpoints. Values that overflow very close to an
+     * endpoint are left out, as their weight is negligible there.
+     * 
+     * The rule cannot sample closer to an endpoint than the spacing of
+     * doubles there. At 0 that is no limit, but near 1 it leaves out about
+     * 1e-8 of the integral of 1/sqrt(1 - x); move a singularity to 0 (by
+     * integrating 1/sqrt(u) for u = 1 - x) to get it to full precision.
+     * @param f Integrand
+     * @param a Lower bound (may be negative infinity)
+     * @param b Upper bound (may be positive infinity)
+     * @return Integral, with its error estimate
+     * @throws ArithmeticException if f is not finite away from the endpoints
+     * @throws IllegalArgumentException if a bound is NaN
+     */
+    public Integral integrateTanhSinh(DoubleUnaryOperator f, double a, double b) {
+        checkBounds(a, b);
+        if (a == b) {
+            return new Integral(0, 0, 0, true);
+        }
+        if (a > b) {
+            return negate(integrateTanhSinh(f, b, a));
+        }
+        return new TanhSinh(Interval.of(f, a, b)).integrate();
+    }
+    
+    private static void checkBounds(double a, double b) {
+        if (Double.isNaN(a) || Double.isNaN(b)) {
+            throw new IllegalArgumentException("Error: Integration bounds must be numbers.");
+        }
+    }
+    
+    private static Integral negate(Integral integral) {
+        return new Integral(-integral.getValue(), integral.getErrorEstimate(),
+            integral.getEvaluations(), integral.isConverged());
+    }
+    
+    private boolean isConverged(double error, double value) {
+        return error <= Math.max(absoluteTolerance, relativeTolerance * Math.abs(value));
+    }
+    
+    // ==================== Gauss-Kronrod ====================
+    
+    /**
+     * Applies the 15-point Kronrod rule and its embedded 7-point Gauss rule,
+     * estimating the error as QUADPACK does.
+     * @return Kronrod estimate, error estimate and integral of |g|
+     */
+    private static double[] gaussKronrod(DoubleUnaryOperator g, double lo, double hi) {
+        double center = 0.5 * (lo + hi);
+        double half = 0.5 * (hi - lo);
+        double[] left = new double[7];
+        double[] right = new double[7];
+        
+        double middle = g.applyAsDouble(center);
+        double kronrod = middle * KRONROD_WEIGHTS[7];
+        double gauss = middle * GAUSS_WEIGHTS[3];
+        double absolute = Math.abs(kronrod);
+        for (int j = 0; j < 7; j++) {
+            double dx = half * KRONROD_NODES[j];
+            left[j] = g.applyAsDouble(center - dx);
+            right[j] = g.applyAsDouble(center + dx);
+            double sum = left[j] + right[j];
+            kronrod += KRONROD_WEIGHTS[j] * sum;
+            absolute += KRONROD_WEIGHTS[j] * (Math.abs(left[j]) + Math.abs(right[j]));
+            if ((j & 1) == 1) {
+                gauss += GAUSS_WEIGHTS[j >>> 1] * sum;
+            }
+        }
+        
+        // Spread of g about its mean, which bounds how far the rules can disagree
+        double mean = 0.5 * kronrod;
+        double spread = KRONROD_WEIGHTS[7] * Math.abs(middle - mean);
+        for (int j = 0; j < 7; j++) {
+            spread += KRONROD_WEIGHTS[j] * (Math.abs(left[j] - mean) + Math.abs(right[j] - mean));
+        }
+        
+        double scale = Math.abs(half);
+        double error = Math.abs((kronrod - gauss) * half);
+        spread *= scale;
+        absolute *= scale;
+        if (spread != 0 && error != 0) {
+            error = spread * Math.min(1, Math.pow(200 * error / spread, 1.5));
+        }
+        if (absolute > Double.MIN_NORMAL / (50 * EPSILON)) {
+            error = Math.max(50 * EPSILON * absolute, error);
+        }
+        return new double[] {kronrod * half, error, absolute};
+    }
+    
+    /**
+     * State shared by the subintervals of one adaptive integration.
+     */
+    private static final class Adaptive {
+        
+        private final DoubleUnaryOperator g;
+        private final double width;
+        private final double tolerance;
+        private final int maxIntervals;
+        private final AtomicInteger intervals = new AtomicInteger(1);
+        
+        Adaptive(Interval interval, double tolerance, int maxIntervals) {
+            this.g = interval.g;
+            this.width = interval.to - interval.from;
+            this.tolerance = tolerance;
+            this.maxIntervals = maxIntervals;
+        }
+        
+        /**
+         * One subinterval, with its estimate already computed. Accepts the
+         * estimate if it is within the interval's share of the tolerance,
+         * otherwise estimates both halves and refines them in parallel.
+         * The result is marked not converged only if the interval budget
+         * ran out.
+         */
+        final class Segment extends RecursiveTask<Integral> {
+            
+            private static final long serialVersionUID = 1L;
+            
+            private final double lo;
+            private final double hi;
+            private final int depth;
+            private final double[] estimate;
+            
+            Segment(double lo, double hi, int depth, double[] estimate) {
+                this.lo = lo;
+                this.hi = hi;
+                this.depth = depth;
+                this.estimate = estimate;
+            }
+            
+            @Override
+            protected Integral compute() {
+                double value = estimate[0];
+                double error = estimate[1];
+                if (error <= tolerance * ((hi - lo) / width)) {
+                    return new Integral(value, error, 0, true);
+                }
+                double mid = 0.5 * (lo + hi);
+                if (error <= 50 * EPSILON * estimate[2] || depth == MAX_DEPTH || mid <= lo || mid >= hi) {
+                    // Splitting cannot help (an endpoint singularity may never meet its share
+                    // of the tolerance); the total error decides
+                    return new Integral(value, error, 0, true);
+                }
+                if (intervals.incrementAndGet() > maxIntervals) {
+                    return new Integral(value, error, 0, false);
+                }
+                Segment left = new Segment(lo, mid, depth + 1, gaussKronrod(g, lo, mid));
+                Segment right = new Segment(mid, hi, depth + 1, gaussKronrod(g, mid, hi));
+                left.fork();
+                Integral r = right.compute();
+                Integral l = left.join();
+                return new Integral(l.getValue() + r.getValue(), l.getErrorEstimate() + r.getErrorEstimate(),
+                    l.getEvaluations() + r.getEvaluations() + 2 * GAUSS_KRONROD_POINTS,
+                    l.isConverged() && r.isConverged());
+            }
+        }
+    }
+    
+    // ==================== Tanh-Sinh ====================
+    
+    /**
+     * One tanh-sinh integration. The substitution x = c + h tanh(pi/2 sinh t)
+     * turns the integral into one over the whole line whose integrand decays
+     * double exponentially, so the trapezoidal rule with step 2^-level
+     * converges fast; each level adds the points halfway between the
+     * previous ones. Near the endpoints the distance 1 - tanh(u) is computed
+     * as 2q / (1 + q) with q = exp(-2u), which keeps full precision.
+     */
+    private final class TanhSinh {
+        
+        private final DoubleUnaryOperator g;
+        private final double lo;
+        private final double hi;
+        private final double half;
+        private long evaluations;
+        
+        TanhSinh(Interval interval) {
+            this.g = interval.g;
+            this.lo = interval.from;
+            this.hi = interval.to;
+            this.half = 0.5 * (interval.to - interval.from);
+        }
+        
+        Integral integrate() {
+            double center = lo + half;
+            double sum = HALF_PI * sample(center, 0) + sum(1, 1);
+            double value = half * sum;
+            double error = Double.POSITIVE_INFINITY;
+            for (int level = 1; level <= MAX_LEVEL; level++) {
+                double step = Math.scalb(1.0, -level);
+                sum += sum(step, 2 * step);
+                double previous = value;
+                value = half * step * sum;
+                error = Math.abs(value - previous);
+                if (level >= MIN_LEVEL && isConverged(error, value)) {
+                    return new Integral(value, error, evaluations, true);
+                }
+            }
+            return new Integral(value, error, evaluations, false);
+        }
+        
+        /**
+         * Sums weight times integrand at t = first, first + stride, ... on
+         * both sides of the center, until the points reach the endpoints.
+         */
+        private double sum(double first, double stride) {
+            double sum = 0;
+            boolean below = true;
+            boolean above = true;
+            for (double t = first; below || above; t += stride) {
+                double u = HALF_PI * Math.sinh(t);
+                double q = Math.exp(-2 * u);
+                double weight = HALF_PI * Math.cosh(t) * 4 * q / ((1 + q) * (1 + q));
+                double distance = half * (2 * q / (1 + q));
+                if (weight == 0) {
+                    break;
+                }
+                if (below) {
+                    double x = lo + distance;
+                    below = x > lo && x < hi;
+                    if (below) {
+                        double y = sample(x, t);
+                        below = !Double.isNaN(y);
+                        sum += below ? weight * y : 0;
+                    }
+                }
+                if (above) {
+                    double x = hi - distance;
+                    above = x > lo && x < hi;
+                    if (above) {
+                        double y = sample(x, t);
+                        above = !Double.isNaN(y);
+                        sum += above ? weight * y : 0;
+                    }
+                }
+            }
+            return sum;
+        }
+        
+        /**
+         * Evaluates the integrand. A value that is not finite close to an
+         * endpoint (t of 1 or more) ends that side, returned as NaN.
+         */
+        private double sample(double x, double t) {
+            evaluations++;
+            double y = g.applyAsDouble(x);
+            if (Double.isNaN(y) || Double.isInfinite(y)) {
+                if (t < 1) {
+                    throw new ArithmeticException("Error: Integrand is not finite at " + x + ".");
+                }
+                return Double.NaN;
+            }
+            return y;
+        }
+    }
+    
+    // ==================== Infinite Bounds ====================
+    
+    /**
+     * A finite interval and the integrand on it, with infinite bounds
+     * mapped away: [a, inf) by x = a + t/(1-t), (-inf, b] by
+     * x = b - t/(1-t), both on [0, 1), and the whole line by x = t/(1-t^2)
+     * on (-1, 1). Neither rule evaluates the integrand at the ends of the
+     * interval, where the maps are singular.
+     */
+    private static final class Interval {
+        
+        final DoubleUnaryOperator g;
+        final double from;
+        final double to;
+        
+        private Interval(DoubleUnaryOperator g, double from, double to) {
+            this.g = g;
+            this.from = from;
+            this.to = to;
+        }
+        
+        static Interval of(DoubleUnaryOperator f, double a, double b) {
+            boolean lowerInfinite = Double.isInfinite(a);
+            boolean upperInfinite = Double.isInfinite(b);
+            if (lowerInfinite && upperInfinite) {
+                return new Interval(t -> {
+                    double s = 1 / (1 - t * t);
+                    return f.applyAsDouble(t * s) * (1 + t * t) * s * s;
+                }, -1, 1);
+            }
+            if (upperInfinite) {
+                return new Interval(t -> {
+                    double s = 1 / (1 - t);
+                    return f.applyAsDouble(a + t * s) * s * s;
+                }, 0, 1);
+            }
+            if (lowerInfinite) {
+                return new Interval(t -> {
+                    double s = 1 / (1 - t);
+                    return f.applyAsDouble(b - t * s) * s * s;
+                }, 0, 1);
+            }
+            return new Interval(f, a, b);
+        }
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the absolute error tolerance.
+     * @return Acceptable absolute error
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+    
+    /**
+     * Gets the relative error tolerance.
+     * @return Acceptable error relative to the integral
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+    
+    /**
+     * Gets the limit on the subintervals of one adaptive integration.
+     * @return Most subintervals
+     */
+    public int getMaxIntervals() {
+        return maxIntervals;
+    }
+}
@@ -0,0 +1,487 @@
+package com.calculator.numeric;
+
+import com.calculator.core.Constants;
+import com.calculator.core.DomainError;
+import com.calculator.core.ErrorMask;
+import com.calculator.core.ParallelBatch;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Solves equations f(x) = 0 for functions built from
+ * {@link com.calculator.core.ScientificOperations}, lambdas or generated
+ * expressions.
+ * <pre>
+ *   RootFinder finder = new RootFinder();
+ *   double x = finder.solve(x -&gt; scientific.exp(x) - 3 * x, 0, 1);    // 0.619...
+ *   double r = finder.newton(x -&gt; x * x - 2, x -&gt; 2 * x, 1);           // sqrt(2)
+ * </pre>
+ * 
+ * Methods:
+ * - {@link #brent}: Brent's method on an interval where f changes sign.
+ *   Combines bisection with secant and inverse quadratic steps, so it
+ *   always converges and is usually as fast as the secant method.
+ * - {@link #solve}: Brent's method after widening the interval until f
+ *   changes sign, for when only a rough range of the root is known.
+ * - {@link #newton}: Newton's method from a guess, given the derivative.
+ *   Quadratic convergence near a simple root, but no guarantee from afar.
+ * - {@link #halley}: Halley's method, given two derivatives. Cubic
+ *   convergence, for when the second derivative comes cheap.
+ * 
+ * The iteration stops when the root is known to within the larger of the
+ * absolute tolerance and the relative tolerance times the root.
+ * 
+ * The batch methods solve one equation per index, such as inverting a
+ * pricing formula for thousands of quotes, in parallel chunks. The
+ * function receives the index of its equation along with x, so one
+ * function object serves the whole batch, and the iterations keep their
+ * state in local variables: nothing is allocated per iteration or per
+ * equation. An equation that fails gets a NaN carrying its
+ * {@link DomainError} (decode it with {@link DomainError#of(double)}) and
+ * its bit in the error mask; the others are unaffected. A NaN returned by
+ * the function ends its equation: one of the coded NaNs of the "OrNaN"
+ * methods becomes the result as it is, and an ordinary NaN (from sqrt or
+ * log outside their domain, say) becomes
+ * {@link DomainError#FUNCTION_NOT_A_NUMBER}.
+ * 
+ * The single-equation methods throw the same errors as
+ * ArithmeticExceptions, and let exceptions thrown by the function through.
+ */
+public class RootFinder {
+    
+    /**
+     * A family of functions, one per equation of a batch.
+     */
+    public interface IndexedFunction {
+        /**
+         * @param index Index of the equation
+         * @param x Point to evaluate at
+         * @return Value of the index-th function at x
+         */
+        double applyAsDouble(int index, double x);
+    }
+    
+    private static final double EPSILON = Math.ulp(1.0);
+    
+    // Bracket search: each step moves the bound with the smaller |f| by this much of the width
+    private static final double GROWTH = 1.6;
+    private static final int MAX_EXPANSIONS = 50;
+    
+    private final ParallelBatch batch;
+    private final double absoluteTolerance;
+    private final double relativeTolerance;
+    private final int maxIterations;
+    
+    /**
+     * Creates a root finder on the common fork-join pool with the tolerances
+     * {@link Constants#DEFAULT_ABSOLUTE_TOLERANCE} and
+     * {@link Constants#DEFAULT_RELATIVE_TOLERANCE}.
+     */
+    public RootFinder() {
+        this(Constants.DEFAULT_ABSOLUTE_TOLERANCE, Constants.DEFAULT_RELATIVE_TOLERANCE);
+    }
+    
+    /**
+     * Creates a root finder on the common fork-join pool.
+     * @param absoluteTolerance Acceptable absolute error of a root
+     * @param relativeTolerance Acceptable error relative to the root
+     */
+    public RootFinder(double absoluteTolerance, double relativeTolerance) {
+        // Solving an equation costs dozens of evaluations, so small chunks already pay for a task
+        this(new ParallelBatch(ForkJoinPool.commonPool(), ParallelBatch.MIN_CHUNK_SIZE),
+            absoluteTolerance, relativeTolerance, Constants.DEFAULT_MAX_ITERATIONS);
+    }
+    
+    /**
+     * Creates a root finder.
+     * @param batch Runs the chunks of the batch methods
+     * @param absoluteTolerance Acceptable absolute error of a root
+     * @param relativeTolerance Acceptable error relative to the root
+     * @param maxIterations Most iterations one equation may take
+     * @throws IllegalArgumentException if a tolerance is negative or both are zero,
+     *                                  or maxIterations is not positive
+     */
+    public RootFinder(ParallelBatch batch, double absoluteTolerance, double relativeTolerance, int maxIterations) {
+        if (!(absoluteTolerance >= 0) || !(relativeTolerance >= 0)
+                || absoluteTolerance == 0 && relativeTolerance == 0) {
+            throw new IllegalArgumentException("Error: Tolerances must be non-negative and not both zero.");
+        }
+        if (maxIterations < 1) {
+            throw new IllegalArgumentException("Error: A root search needs at least one iteration.");
+        }
+        this.batch = batch;
+        this.absoluteTolerance = absoluteTolerance;
+        this.relativeTolerance = relativeTolerance;
+        this.maxIterations = maxIterations;
+    }
+    
+    // ==================== Single Equations ====================
+    
+    /**
+     * Finds a root of f between a and b by Brent's method.
+     * @param f Function
+     * @param a One end of the interval
+     * @param b Other end; f(a) and f(b) must differ in sign (or one be 0)
+     * @return Root
+     * @throws ArithmeticException if f does not change sign, f returns NaN or the search does not converge
+     */
+    public double brent(DoubleUnaryOperator f, double a, double b) {
+        IndexedFunction g = (index, x) -> f.applyAsDouble(x);
+        return DomainError.check(brent(g, 0, a, b, f.applyAsDouble(a), f.applyAsDouble(b)));
+    }
+    
+    /**
+     * Finds a root of f near [a, b]: widens the interval geometrically
+     * until f changes sign, then applies Brent's method.
+     * @param f Function
+     * @param a One end of the starting interval
+     * @param b Other end, different from a
+     * @return Root
+     * @throws ArithmeticException if no sign change is found, f returns NaN or the search does not converge
+     */
+    public double solve(DoubleUnaryOperator f, double a, double b) {
+        return DomainError.check(solve((index, x) -> f.applyAsDouble(x), 0, a, b));
+    }
+    
+    /**
+     * Finds a root of f by Newton's method.
+     * @param f Function
+     * @param derivative Derivative of f
+     * @param guess Starting point
+     * @return Root
+     * @throws ArithmeticException if the derivative vanishes, f returns NaN or the iteration does not converge
+     */
+    public double newton(DoubleUnaryOperator f, DoubleUnaryOperator derivative, double guess) {
+        return DomainError.check(newton((index, x) -> f.applyAsDouble(x),
+            (index, x) -> derivative.applyAsDouble(x), 0, guess));
+    }
+    
+    /**
+     * Finds a root of f by Halley's method.
+     * @param f Function
+     * @param derivative First derivative of f
+     * @param secondDerivative Second derivative of f
+     * @param guess Starting point
+     * @return Root
+     * @throws ArithmeticException if the step is undefined, f returns NaN or the iteration does not converge
+     */
+    public double halley(DoubleUnaryOperator f, DoubleUnaryOperator derivative,
+                         DoubleUnaryOperator secondDerivative, double guess) {
+        return DomainError.check(halley((index, x) -> f.applyAsDouble(x), (index, x) -> derivative.applyAsDouble(x),
+            (index, x) -> secondDerivative.applyAsDouble(x), 0, guess));
+    }
+    
+    // ==================== Batches ====================
+    
+    /**
+     * Solves f_i(x) = 0 for every i, widening [lower[i], upper[i]] until
+     * f_i changes sign and then applying Brent's method.
+     * @param f Functions, by equation index
+     * @param lower One end of each starting interval
+     * @param upper Other end of each starting interval
+     * @param roots Destination for the roots (at least as long as lower)
+     * @param errors Receives the indices of the equations that failed (may be null)
+     * @return Number of equations that failed
+     */
+    public int solve(IndexedFunction f, double[] lower, double[] upper, double[] roots, ErrorMask errors) {
+        requireLength(upper.length, lower.length);
+        requireLength(roots.length, lower.length);
+        return solveAll(lower.length, roots, errors, index -> solve(f, index, lower[index], upper[index]));
+    }
+    
+    /**
+     * Solves f_i(x) = 0 for every i by Newton's method.
+     * @param f Functions, by equation index
+     * @param derivative Derivatives of the functions, by equation index
+     * @param guesses Starting point of each equation
+     * @param roots Destination for the roots (at least as long as guesses)
+     * @param errors Receives the indices of the equations that failed (may be null)
+     * @return Number of equations that failed
+     */
+    public int newton(IndexedFunction f, IndexedFunction derivative, double[] guesses, double[] roots,
+                      ErrorMask errors) {
+        requireLength(roots.length, guesses.length);
+        return solveAll(guesses.length, roots, errors, index -> newton(f, derivative, index, guesses[index]));
+    }
+    
+    /**
+     * Solves f_i(x) = 0 for every i by Halley's method.
+     * @param f Functions, by equation index
+     * @param derivative First derivatives of the functions, by equation index
+     * @param secondDerivative Second derivatives of the functions, by equation index
+     * @param guesses Starting point of each equation
+     * @param roots Destination for the roots (at least as long as guesses)
+     * @param errors Receives the indices of the equations that failed (may be null)
+     * @return Number of equations that failed
+     */
+    public int halley(IndexedFunction f, IndexedFunction derivative, IndexedFunction secondDerivative,
+                      double[] guesses, double[] roots, ErrorMask errors) {
+        requireLength(roots.length, guesses.length);
+        return solveAll(guesses.length, roots, errors,
+            index -> halley(f, derivative, secondDerivative, index, guesses[index]));
+    }
+    
+    private int solveAll(int count, double[] roots, ErrorMask errors, Equation equation) {
+        if (errors != null) {
+            // Growing the mask while chunks write to it would lose bits
+            errors.ensureCapacity(count);
+        }
+        int chunkSize = batch.getChunkSize();
+        int[] failures = new int[(count + chunkSize - 1) / chunkSize];
+        batch.forEachChunk(0, count, (off, len) -> {
+            int failed = 0;
+            for (int i = off, end = off + len; i < end; i++) {
+                double root = equation.solve(i);
+                roots[i] = root;
+                if (root != root) {
+                    failed++;
+                    if (errors != null) {
+                        errors.set(i);
+                    }
+                }
+            }
+            failures[off / chunkSize] = failed;
+        });
+        int total = 0;
+        for (int failed : failures) {
+            total += failed;
+        }
+        return total;
+    }
+    
+    private interface Equation {
+        double solve(int index);
+    }
+    
+    private static void requireLength(int actual, int required) {
+        if (actual < required) {
+            throw new IndexOutOfBoundsException("Error: Batch needs " + required
+                + " elements but the array holds " + actual + ".");
+        }
+    }
+    
+    // ==================== Methods ====================
+    
+    private double tolerance(double x) {
+        return Math.max(absoluteTolerance, relativeTolerance * Math.abs(x));
+    }
+    
+    /**
+     * Result for a NaN the function returned: its own error if it carries
+     * one, otherwise FUNCTION_NOT_A_NUMBER.
+     */
+    private static double undefined(double nan) {
+        return DomainError.of(nan) != null ? nan : DomainError.FUNCTION_NOT_A_NUMBER.toNaN();
+    }
+    
+    /**
+     * Widens [a, b] until f changes sign, moving the end where |f| is
+     * smaller (the one likelier to be near the root), then runs Brent.
+     */
+    private double solve(IndexedFunction f, int index, double a, double b) {
+        if (!(a != b)) {
+            // Equal or NaN bounds give no width to grow
+            return DomainError.ROOT_NOT_BRACKETED.toNaN();
+        }
+        double fa = f.applyAsDouble(index, a);
+        double fb = f.applyAsDouble(index, b);
+        for (int expansion = 0; fa != fa || fb != fb || (fa > 0) == (fb > 0) && fa != 0 && fb != 0; expansion++) {
+            if (fa != fa) {
+                return undefined(fa);
+            }
+            if (fb != fb) {
+                return undefined(fb);
+            }
+            if (expansion == MAX_EXPANSIONS) {
+                return DomainError.ROOT_NOT_BRACKETED.toNaN();
+            }
+            if (Math.abs(fa) < Math.abs(fb)) {
+                a += GROWTH * (a - b);
+                fa = f.applyAsDouble(index, a);
+            } else {
+                b += GROWTH * (b - a);
+                fb = f.applyAsDouble(index, b);
+            }
+            if (Double.isInfinite(a) || Double.isInfinite(b)) {
+                return DomainError.ROOT_NOT_BRACKETED.toNaN();
+            }
+        }
+        return brent(f, index, a, b, fa, fb);
+    }
+    
+    /**
+     * Brent's method (the zeroin algorithm). b is the best estimate so
+     * far, a the previous one and c the other end of the bracket; each step
+     * tries inverse quadratic interpolation (or the secant through a and b)
+     * and falls back to bisection when the step would not shrink the
+     * bracket fast enough.
+     */
+    private double brent(IndexedFunction f, int index, double a, double b, double fa, double fb) {
+        if (fa != fa) {
+            return undefined(fa);
+        }
+        if (fb != fb) {
+            return undefined(fb);
+        }
+        if (fa == 0) {
+            return a;
+        }
+        if (fb == 0) {
+            return b;
+        }
+        if ((fa > 0) == (fb > 0)) {
+            return DomainError.ROOT_NOT_BRACKETED.toNaN();
+        }
+        double c = a;
+        double fc = fa;
+        double d = b - a;
+        double e = d;
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            if ((fb > 0) == (fc > 0)) {
+                c = a;
+                fc = fa;
+                d = b - a;
+                e = d;
+            }
+            if (Math.abs(fc) < Math.abs(fb)) {
+                a = b;
+                b = c;
+                c = a;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            double tol = 2 * EPSILON * Math.abs(b) + 0.5 * tolerance(b);
+            double m = 0.5 * (c - b);
+            if (Math.abs(m) <= tol || fb == 0) {
+                return b;
+            }
+            if (Math.abs(e) >= tol && Math.abs(fa) > Math.abs(fb)) {
+                double s = fb / fa;
+                double p;
+                double q;
+                if (a == c) {
+                    p = 2 * m * s;
+                    q = 1 - s;
+                } else {
+                    double t = fa / fc;
+                    double r = fb / fc;
+                    p = s * (2 * m * t * (t - r) - (b - a) * (r - 1));
+                    q = (t - 1) * (r - 1) * (s - 1);
+                }
+                if (p > 0) {
+                    q = -q;
+                } else {
+                    p = -p;
+                }
+                if (2 * p < Math.min(3 * m * q - Math.abs(tol * q), Math.abs(e * q))) {
+                    e = d;
+                    d = p / q;
+                } else {
+                    d = m;
+                    e = m;
+                }
+            } else {
+                d = m;
+                e = m;
+            }
+            a = b;
+            fa = fb;
+            b += Math.abs(d) > tol ? d : (m > 0 ? tol : -tol);
+            fb = f.applyAsDouble(index, b);
+            if (fb != fb) {
+                return undefined(fb);
+            }
+        }
+        return DomainError.ROOT_NOT_CONVERGED.toNaN();
+    }
+    
+    private double newton(IndexedFunction f, IndexedFunction derivative, int index, double x) {
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double fx = f.applyAsDouble(index, x);
+            if (fx != fx) {
+                return undefined(fx);
+            }
+            if (fx == 0) {
+                return x;
+            }
+            double slope = derivative.applyAsDouble(index, x);
+            if (slope != slope) {
+                return undefined(slope);
+            }
+            if (slope == 0) {
+                return DomainError.ZERO_DERIVATIVE.toNaN();
+            }
+            double step = fx / slope;
+            x -= step;
+            if (Double.isInfinite(x) || x != x) {
+                return DomainError.ROOT_NOT_CONVERGED.toNaN();
+            }
+            if (Math.abs(step) <= tolerance(x)) {
+                return x;
+            }
+        }
+        return DomainError.ROOT_NOT_CONVERGED.toNaN();
+    }
+    
+    private double halley(IndexedFunction f, IndexedFunction derivative, IndexedFunction secondDerivative,
+                          int index, double x) {
+        for (int iteration = 0; iteration < maxIterations; iteration++) {
+            double fx = f.applyAsDouble(index, x);
+            if (fx != fx) {
+                return undefined(fx);
+            }
+            if (fx == 0) {
+                return x;
+            }
+            double slope = derivative.applyAsDouble(index, x);
+            if (slope != slope) {
+                return undefined(slope);
+            }
+            double curvature = secondDerivative.applyAsDouble(index, x);
+            if (curvature != curvature) {
+                return undefined(curvature);
+            }
+            double denominator = 2 * slope * slope - fx * curvature;
+            if (denominator == 0) {
+                return DomainError.ZERO_DERIVATIVE.toNaN();
+            }
+            double step = 2 * fx * slope / denominator;
+            x -= step;
+            if (Double.isInfinite(x) || x != x) {
+                return DomainError.ROOT_NOT_CONVERGED.toNaN();
+            }
+            if (Math.abs(step) <= tolerance(x)) {
+                return x;
+            }
+        }
+        return DomainError.ROOT_NOT_CONVERGED.toNaN();
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the absolute tolerance of a root.
+     * @return Acceptable absolute error
+     */
+    public double getAbsoluteTolerance() {
+        return absoluteTolerance;
+    }
+    
+    /**
+     * Gets the relative tolerance of a root.
+     * @return Acceptable error relative to the root
+     */
+    public double getRelativeTolerance() {
+        return relativeTolerance;
+    }
+    
+    /**
+     * Gets the limit on the iterations of one equation.
+     * @return Most iterations
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+}
@@ -0,0 +1,194 @@
+package com.calculator.server;
+
+import com.calculator.core.Constants;
+import com.calculator.core.Precision;
+import com.calculator.ui.BatchProcessor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TCP server that answers calculation requests, so that local services
+ * can share one calculator process instead of embedding their own.
+ * 
+ * The protocol is the line format of {@link BatchProcessor}: a client
+ * sends lines such as "sqrt 2", "pow,2,0.5" or "sin(1)^2 + 1", and gets
+ * one line back for each, in order: the result in round-trip form or an
+ * "Error: ..." message. Requests may be pipelined: a client can send any
+ * number of lines without waiting, and each batch that arrives in one
+ * read is answered with one write. Lines longer than
+ * {@link Constants#MAX_REQUEST_LINE} bytes close the connection.
+ * 
+ * One acceptor thread hands connections out to a few selector threads
+ * ({@link EventLoop}), each with its own calculator. A connection costs
+ * no buffers while idle, so tens of thousands of clients fit in a small
+ * heap; the limit is usually the open-file limit of the process.
+ */
+public class CalculatorServer implements Closeable {
+    
+    private static final int ACCEPT_BACKLOG = 4096;
+    
+    private final ServerSocketChannel serverChannel;
+    private final EventLoop[] loops;
+    private final Thread[] threads;
+    private final Thread acceptor;
+    private final LongAdder requests = new LongAdder();
+    
+    /**
+     * Starts a server.
+     * @param address Address to listen on (port 0 picks a free port)
+     * @param threads Number of selector threads
+     * @param cacheCapacity Results kept by each thread's cache, or 0 for no cache
+     * @param precision Precision tier of exp, ln, pow, sin and cos
+     * @throws IOException if the address cannot be bound
+     */
+    public CalculatorServer(InetSocketAddress address, int threads, int cacheCapacity, Precision precision)
+            throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Error: A server needs at least one thread.");
+        }
+        this.serverChannel = ServerSocketChannel.open();
+        this.loops = new EventLoop[threads];
+        this.threads = new Thread[threads];
+        try {
+            serverChannel.socket().setReuseAddress(true);
+            serverChannel.bind(address, ACCEPT_BACKLOG);
+            for (int i = 0; i < threads; i++) {
+                loops[i] = new EventLoop(new BatchProcessor(cacheCapacity, precision), requests);
+            }
+        } catch (IOException e) {
+            serverChannel.close();
+            throw e;
+        }
+        for (int i = 0; i < threads; i++) {
+            this.threads[i] = new Thread(loops[i], "calculator-server-" + i);
+            this.threads[i].start();
+        }
+        this.acceptor = new Thread(this::accept, "calculator-server-acceptor");
+        acceptor.start();
+    }
+    
+    private void accept() {
+        int next = 0;
+        while (serverChannel.isOpen()) {
+            try {
+                SocketChannel channel = serverChannel.accept();
+                loops[next].add(channel);
+                next = next + 1 == loops.length ? 0 : next + 1;
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                // Out of file descriptors, say: keep serving the clients already connected
+                System.err.println("Error: " + e.getMessage());
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gets the port the server listens on.
+     * @return Port number
+     */
+    public int getPort() {
+        return serverChannel.socket().getLocalPort();
+    }
+    
+    /**
+     * Gets the number of request lines answered so far.
+     * @return Request count
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+    
+    /**
+     * Stops accepting, closes every connection and waits for the threads to end.
+     */
+    @Override
+    public void close() throws IOException {
+        serverChannel.close();
+        for (EventLoop loop : loops) {
+            loop.stop();
+        }
+        try {
+            acceptor.join();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Runs the server from the command line until the process is stopped.
+     * "--port N" sets the port (default {@link Constants#DEFAULT_SERVER_PORT}),
+     * "--bind ADDRESS" the interface (default the loopback interface, so
+     * only local clients can connect), "--threads N" the number of selector
+     * threads (default one per core), and "--cache N" and "--fast" work as
+     * in batch mode.
+     * 
+     * @param args Flags
+     * @return Process exit status (0 after a clean shutdown, 1 on bad arguments or a bind failure)
+     */
+    public static int run(String[] args) {
+        int port = Constants.DEFAULT_SERVER_PORT;
+        String bind = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int cacheCapacity = 0;
+        Precision precision = Precision.STRICT;
+        for (int next = 0; next < args.length; next++) {
+            boolean hasValue = next + 1 < args.length;
+            if ("--port".equals(args[next]) && hasValue && args[next + 1].matches("[0-9]{1,5}")
+                    && Integer.parseInt(args[next + 1]) <= 65535) {
+                port = Integer.parseInt(args[++next]);
+            } else if ("--bind".equals(args[next]) && hasValue) {
+                bind = args[++next];
+            } else if ("--threads".equals(args[next]) && hasValue && args[next + 1].matches("[1-9][0-9]{0,3}")) {
+                threads = Integer.parseInt(args[++next]);
+            } else if ("--cache".equals(args[next]) && hasValue && args[next + 1].matches("[1-9][0-9]{0,7}")) {
+                cacheCapacity = Integer.parseInt(args[++next]);
+            } else if ("--fast".equals(args[next])) {
+                precision = Precision.FAST;
+            } else {
+                System.err.println("Error: Unknown or incomplete option " + args[next] + ".");
+                return 1;
+            }
+        }
+        CalculatorServer server;
+        try {
+            InetAddress address = bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind);
+            server = new CalculatorServer(new InetSocketAddress(address, port), threads, cacheCapacity, precision);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Exiting anyway
+            }
+            stopped.countDown();
+        }));
+        System.err.println("Listening on port " + server.getPort() + " with " + threads + " threads.");
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+}
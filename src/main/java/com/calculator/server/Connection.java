@@ -0,0 +1,56 @@
+package com.calculator.server;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+/**
+ * State of one client connection of an {@link EventLoop}.
+ * 
+ * Reading and writing go through buffers shared by the whole loop, so an
+ * idle connection holds no buffers at all. A connection keeps bytes of
+ * its own only while it has an unfinished request line (carry) or
+ * responses the socket has not yet accepted (pending).
+ */
+final class Connection {
+    
+    final SocketChannel channel;
+    
+    // Input received but not yet answered: a partial line, or whole lines held back while output is pending
+    private byte[] carry;
+    private int carryLength;
+    
+    // Output the socket would not take; reading is paused until it drains
+    ByteBuffer pending;
+    
+    Connection(SocketChannel channel) {
+        this.channel = channel;
+    }
+    
+    /**
+     * Keeps unanswered input until the next read.
+     */
+    void keep(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            carry = null;
+        } else {
+            if (carry == null || carry.length < length) {
+                carry = new byte[Math.max(length, 64)];
+            }
+            System.arraycopy(bytes, offset, carry, 0, length);
+        }
+        carryLength = length;
+    }
+    
+    /**
+     * Moves the kept input to the front of a buffer.
+     */
+    void restore(ByteBuffer buffer) {
+        if (carryLength > 0) {
+            buffer.put(carry, 0, carryLength);
+        }
+    }
+    
+    int getCarryLength() {
+        return carryLength;
+    }
+}
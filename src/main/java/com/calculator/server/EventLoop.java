@@ -0,0 +1,235 @@
+package com.calculator.server;
+
+import com.calculator.core.Constants;
+import com.calculator.ui.BatchProcessor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One selector thread of a {@link CalculatorServer}, serving its share of
+ * the connections with its own {@link BatchProcessor}.
+ * 
+ * Every complete line of a read is answered before the next read, and
+ * all the answers go out in one write, so pipelined requests cost one
+ * system call per batch rather than per line. When a client does not
+ * read its answers, the loop stops reading from it until they drain.
+ */
+final class EventLoop implements Runnable {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    // Room kept free in the output buffer before answering a line; an error message may quote the line
+    private static final int RESPONSE_RESERVE = Constants.MAX_REQUEST_LINE + 256;
+    
+    private static final byte[] LINE_TOO_LONG =
+        ("Error: Request line longer than " + Constants.MAX_REQUEST_LINE + " bytes.\n")
+            .getBytes(StandardCharsets.US_ASCII);
+    
+    private final Selector selector;
+    private final BatchProcessor processor;
+    private final LongAdder requests;
+    private final Queue<SocketChannel> accepted = new ConcurrentLinkedQueue<>();
+    private final ByteBuffer in = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ByteBuffer out = ByteBuffer.allocate(BUFFER_SIZE);
+    private volatile boolean running = true;
+    
+    EventLoop(BatchProcessor processor, LongAdder requests) throws IOException {
+        this.selector = Selector.open();
+        this.processor = processor;
+        this.requests = requests;
+    }
+    
+    /**
+     * Hands a newly accepted connection to this loop. Called from the acceptor thread.
+     */
+    void add(SocketChannel channel) {
+        accepted.add(channel);
+        selector.wakeup();
+    }
+    
+    /**
+     * Asks the loop to close its connections and return.
+     */
+    void stop() {
+        running = false;
+        selector.wakeup();
+    }
+    
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select();
+                registerAccepted();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handle(key);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+    }
+    
+    private void registerAccepted() {
+        SocketChannel channel;
+        while ((channel = accepted.poll()) != null) {
+            try {
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+            } catch (IOException e) {
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                    // Already unusable
+                }
+            }
+        }
+    }
+    
+    private void handle(SelectionKey key) {
+        Connection connection = (Connection) key.attachment();
+        try {
+            if (key.isWritable()) {
+                drain(key, connection);
+            } else if (key.isReadable()) {
+                read(key, connection);
+            }
+        } catch (IOException | RuntimeException e) {
+            // A broken client must not take the loop down with it
+            close(key);
+        }
+    }
+    
+    private void read(SelectionKey key, Connection connection) throws IOException {
+        in.clear();
+        connection.restore(in);
+        if (connection.channel.read(in) < 0) {
+            close(key);
+            return;
+        }
+        in.flip();
+        serve(key, connection);
+    }
+    
+    /**
+     * Resumes a connection whose output had backed up: sends the rest of
+     * it, then answers the lines that were held back meanwhile.
+     */
+    private void drain(SelectionKey key, Connection connection) throws IOException {
+        connection.channel.write(connection.pending);
+        if (connection.pending.hasRemaining()) {
+            return;
+        }
+        connection.pending = null;
+        key.interestOps(SelectionKey.OP_READ);
+        if (connection.getCarryLength() > 0) {
+            in.clear();
+            connection.restore(in);
+            in.flip();
+            serve(key, connection);
+        }
+    }
+    
+    /**
+     * Answers every complete line between the position and the limit of
+     * the input buffer and keeps the rest for the next read.
+     */
+    private void serve(SelectionKey key, Connection connection) throws IOException {
+        byte[] bytes = in.array();
+        int pos = in.position();
+        int limit = in.limit();
+        out.clear();
+        int lines = 0;
+        for (int newline; (newline = indexOf(bytes, pos, limit, (byte) '\n')) >= 0; pos = newline + 1) {
+            if (out.remaining() < RESPONSE_RESERVE && !flush(key, connection)) {
+                break;
+            }
+            int end = newline > pos && bytes[newline - 1] == '\r' ? newline - 1 : newline;
+            String response = processor.formatLine(new String(bytes, pos, end - pos, StandardCharsets.ISO_8859_1));
+            for (int i = 0, n = Math.min(response.length(), RESPONSE_RESERVE - 1); i < n; i++) {
+                char c = response.charAt(i);
+                out.put(c < 256 ? (byte) c : (byte) '?');
+            }
+            out.put((byte) '\n');
+            lines++;
+        }
+        requests.add(lines);
+        int rest = limit - pos;
+        if (rest > Constants.MAX_REQUEST_LINE && connection.pending == null) {
+            // No line ends in sight: refuse rather than buffer without bound
+            if (out.remaining() < LINE_TOO_LONG.length) {
+                flush(key, connection);
+            }
+            out.put(LINE_TOO_LONG);
+            out.flip();
+            connection.channel.write(out);
+            close(key);
+            return;
+        }
+        connection.keep(bytes, pos, rest);
+        flush(key, connection);
+    }
+    
+    /**
+     * Writes the output buffer and clears it; whatever the socket does not
+     * take is kept on the connection, and reading stops until it drains.
+     * @return true if everything was written
+     */
+    private boolean flush(SelectionKey key, Connection connection) throws IOException {
+        if (connection.pending != null) {
+            return false;
+        }
+        out.flip();
+        if (out.hasRemaining()) {
+            connection.channel.write(out);
+        }
+        if (out.hasRemaining()) {
+            ByteBuffer pending = ByteBuffer.allocate(out.remaining());
+            pending.put(out).flip();
+            connection.pending = pending;
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+        out.clear();
+        return connection.pending == null;
+    }
+    
+    private static int indexOf(byte[] bytes, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static void close(SelectionKey key) {
+        key.cancel();
+        try {
+            key.channel().close();
+        } catch (IOException e) {
+            // Closing anyway
+        }
+    }
+}
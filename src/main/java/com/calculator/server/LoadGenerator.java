@@ -0,0 +1,245 @@
+package com.calculator.server;
+
+import com.calculator.core.Constants;
+import com.calculator.metrics.LatencyHistogram;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load generator for a {@link CalculatorServer}: opens many connections
+ * from one selector thread, keeps a fixed number of requests in flight on
+ * each, and reports throughput and response-time percentiles.
+ * 
+ * Requests cycle through a mix of operation records and expressions,
+ * including one that fails (a division by zero), so the error path is
+ * exercised too. The response time of a request is measured from the
+ * write that sent it to the read that brought its answer back.
+ */
+public class LoadGenerator {
+    
+    private static final String[] REQUESTS = {
+        "sqrt 2", "pow 2 0.5", "sin 1", "ln 10", "log 1024 2", "fact 20", "div 1 0", "2 * (3 + 4) / 5"
+    };
+    
+    private static final byte[][] REQUEST_BYTES = new byte[REQUESTS.length][];
+    
+    static {
+        for (int i = 0; i < REQUESTS.length; i++) {
+            REQUEST_BYTES[i] = (REQUESTS[i] + "\n").getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+    
+    private final InetSocketAddress address;
+    private final int clients;
+    private final int pipeline;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final ByteBuffer in = ByteBuffer.allocate(1 << 16);
+    private final ByteBuffer out = ByteBuffer.allocate(1 << 16);
+    private long responses;
+    private boolean sending;
+    
+    /**
+     * Creates a load generator.
+     * @param address Address of the server
+     * @param clients Number of connections
+     * @param pipeline Requests kept in flight on each connection
+     */
+    public LoadGenerator(InetSocketAddress address, int clients, int pipeline) {
+        if (clients < 1 || pipeline < 1 || pipeline > 4096) {
+            throw new IllegalArgumentException("Error: Need at least one client and a pipeline of 1 to 4096.");
+        }
+        this.address = address;
+        this.clients = clients;
+        this.pipeline = pipeline;
+    }
+    
+    /** Per-connection state: send times of the requests in flight, oldest first. */
+    private static final class Client {
+        final SocketChannel channel;
+        final long[] sent;
+        int oldest;
+        int inFlight;
+        int next;
+        ByteBuffer pending;
+        
+        Client(SocketChannel channel, int pipeline, int first) {
+            this.channel = channel;
+            this.sent = new long[pipeline];
+            this.next = first;
+        }
+    }
+    
+    /**
+     * Connects every client, sends requests for the given time, then waits
+     * for the answers still in flight and closes the connections.
+     * 
+     * @param seconds How long to keep sending
+     * @return Number of answers received
+     * @throws IOException if a connection cannot be made or fails
+     */
+    public long generate(int seconds) throws IOException {
+        try (Selector selector = Selector.open()) {
+            for (int i = 0; i < clients; i++) {
+                SocketChannel channel = SocketChannel.open(address);
+                channel.configureBlocking(false);
+                channel.socket().setTcpNoDelay(true);
+                channel.register(selector, SelectionKey.OP_READ, new Client(channel, pipeline, i % REQUESTS.length));
+            }
+            sending = true;
+            for (SelectionKey key : selector.keys()) {
+                send(key, (Client) key.attachment());
+            }
+            long stop = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+            long deadline = stop + TimeUnit.SECONDS.toNanos(5);
+            long open = clients;
+            while (open > 0 && System.nanoTime() < deadline) {
+                if (sending && System.nanoTime() >= stop) {
+                    sending = false;
+                    for (SelectionKey key : selector.keys()) {
+                        if (((Client) key.attachment()).inFlight == 0) {
+                            key.cancel();
+                            key.channel().close();
+                            open--;
+                        }
+                    }
+                }
+                selector.select(100);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    Client client = (Client) key.attachment();
+                    if (key.isWritable()) {
+                        client.channel.write(client.pending);
+                        if (!client.pending.hasRemaining()) {
+                            client.pending = null;
+                            key.interestOps(SelectionKey.OP_READ);
+                        }
+                    } else if (key.isReadable()) {
+                        receive(key, client);
+                        if (client.inFlight == 0 && !sending) {
+                            key.cancel();
+                            client.channel.close();
+                            open--;
+                        }
+                    }
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+        }
+        return responses;
+    }
+    
+    private void receive(SelectionKey key, Client client) throws IOException {
+        in.clear();
+        if (client.channel.read(in) < 0) {
+            throw new IOException("Server closed a connection.");
+        }
+        long now = System.nanoTime();
+        byte[] bytes = in.array();
+        for (int i = 0, end = in.position(); i < end; i++) {
+            if (bytes[i] == '\n') {
+                latency.record(now - client.sent[client.oldest]);
+                client.oldest = client.oldest + 1 == pipeline ? 0 : client.oldest + 1;
+                client.inFlight--;
+                responses++;
+            }
+        }
+        send(key, client);
+    }
+    
+    /**
+     * Tops the client's requests in flight back up to the pipeline depth,
+     * in one write.
+     */
+    private void send(SelectionKey key, Client client) throws IOException {
+        if (!sending || client.pending != null) {
+            return;
+        }
+        out.clear();
+        long now = System.nanoTime();
+        while (client.inFlight < pipeline) {
+            out.put(REQUEST_BYTES[client.next]);
+            client.next = client.next + 1 == REQUESTS.length ? 0 : client.next + 1;
+            client.sent[(client.oldest + client.inFlight) % pipeline] = now;
+            client.inFlight++;
+        }
+        out.flip();
+        client.channel.write(out);
+        if (out.hasRemaining()) {
+            client.pending = ByteBuffer.allocate(out.remaining());
+            client.pending.put(out).flip();
+            key.interestOps(SelectionKey.OP_WRITE);
+        }
+    }
+    
+    /**
+     * Gets the response times recorded so far.
+     * @return Histogram of response times in nanoseconds
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+    
+    /**
+     * Runs the load generator from the command line and prints a report.
+     * "--host H" and "--port N" locate the server (default this machine on
+     * {@link Constants#DEFAULT_SERVER_PORT}), "--clients N" sets the number
+     * of connections (default 100), "--pipeline N" the requests in flight
+     * on each (default 16) and "--seconds N" the duration (default 10).
+     * 
+     * @param args Flags
+     * @return Process exit status (0 on success, 1 on bad arguments or a connection failure)
+     */
+    public static int run(String[] args) {
+        String host = null;
+        int port = Constants.DEFAULT_SERVER_PORT;
+        int clients = 100;
+        int pipeline = 16;
+        int seconds = 10;
+        for (int next = 0; next < args.length; next++) {
+            boolean hasNumber = next + 1 < args.length && args[next + 1].matches("[1-9][0-9]{0,5}");
+            if ("--host".equals(args[next]) && next + 1 < args.length) {
+                host = args[++next];
+            } else if ("--port".equals(args[next]) && hasNumber && Integer.parseInt(args[next + 1]) <= 65535) {
+                port = Integer.parseInt(args[++next]);
+            } else if ("--clients".equals(args[next]) && hasNumber) {
+                clients = Integer.parseInt(args[++next]);
+            } else if ("--pipeline".equals(args[next]) && hasNumber && Integer.parseInt(args[next + 1]) <= 4096) {
+                pipeline = Integer.parseInt(args[++next]);
+            } else if ("--seconds".equals(args[next]) && hasNumber) {
+                seconds = Integer.parseInt(args[++next]);
+            } else {
+                System.err.println("Error: Unknown or incomplete option " + args[next] + ".");
+                return 1;
+            }
+        }
+        try {
+            InetAddress address = host == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+            LoadGenerator generator = new LoadGenerator(new InetSocketAddress(address, port), clients, pipeline);
+            long responses = generator.generate(seconds);
+            LatencyHistogram latency = generator.getLatency();
+            System.out.println(clients + " clients, " + pipeline + " requests in flight each, " + seconds + " s");
+            System.out.println(responses + " responses, " + responses / seconds + " per second");
+            System.out.printf("Response time (us): p50 %.1f, p90 %.1f, p99 %.1f, p99.9 %.1f, max %.1f%n",
+                latency.getValueAtPercentile(50) / 1e3, latency.getValueAtPercentile(90) / 1e3,
+                latency.getValueAtPercentile(99) / 1e3, latency.getValueAtPercentile(99.9) / 1e3,
+                latency.getMaxNanos() / 1e3);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        return 0;
+    }
+}
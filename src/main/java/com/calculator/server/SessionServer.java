@@ -0,0 +1,270 @@
+package com.calculator.server;
+
+import com.calculator.core.Constants;
+import com.calculator.ui.ConsoleUI;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server of interactive calculator sessions: every TCP connection (from
+ * telnet or nc, or an SSH front end forwarding to it) gets its own
+ * {@link ConsoleUI}, with its own memory, history and menus.
+ * 
+ * A session blocks on its client's input like the console does, so each
+ * runs on a thread of its own. On Java 21 and later that is a virtual
+ * thread, and an idle session costs about the size of its calculator
+ * state; on older JVMs it is a platform thread with a small stack. Lines
+ * are sent with CR LF endings, as network terminals expect.
+ */
+public class SessionServer implements Closeable {
+    
+    /** Stack size of platform session threads; the menus never nest deeply. */
+    private static final long SESSION_STACK_SIZE = 256 * 1024;
+    
+    private static final int OUTPUT_BUFFER_SIZE = 2048;
+    
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions;
+    private final Semaphore permits;
+    private final Set<Socket> open = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final Thread acceptor;
+    
+    /**
+     * Starts a session server.
+     * @param address Address to listen on (port 0 picks a free port)
+     * @param maxSessions Sessions allowed at once; further clients are turned away
+     * @throws IOException if the address cannot be bound
+     */
+    public SessionServer(InetSocketAddress address, int maxSessions) throws IOException {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("Error: A server needs room for at least one session.");
+        }
+        this.serverSocket = new ServerSocket();
+        try {
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(address, Math.min(maxSessions, 4096));
+        } catch (IOException e) {
+            serverSocket.close();
+            throw e;
+        }
+        this.sessions = newSessionExecutor();
+        this.permits = new Semaphore(maxSessions);
+        this.acceptor = new Thread(this::accept, "calculator-session-acceptor");
+        acceptor.start();
+    }
+    
+    private static ExecutorService newSessionExecutor() {
+        try {
+            // Java 21 and later; looked up reflectively so the code still builds for Java 8
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(null, task, "calculator-session-" + count.incrementAndGet(),
+                    SESSION_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            Socket socket;
+            try {
+                socket = serverSocket.accept();
+            } catch (SocketException e) {
+                // Closed by close()
+                return;
+            } catch (IOException e) {
+                System.err.println("Error: " + e.getMessage());
+                continue;
+            }
+            if (!permits.tryAcquire()) {
+                refuse(socket);
+                continue;
+            }
+            open.add(socket);
+            sessions.execute(() -> serve(socket));
+        }
+    }
+    
+    private void serve(Socket socket) {
+        try {
+            socket.setTcpNoDelay(true);
+            OutputStream stream = new CrlfOutputStream(
+                new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_SIZE));
+            PrintStream out = new PrintStream(stream, false, "UTF-8");
+            new ConsoleUI(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), out).start();
+        } catch (IOException | UncheckedIOException e) {
+            // The client went away; nothing to tell it
+        } finally {
+            open.remove(socket);
+            closeQuietly(socket);
+            permits.release();
+        }
+    }
+    
+    private static void refuse(Socket socket) {
+        try {
+            socket.getOutputStream().write("Error: Too many sessions, try again later.\r\n"
+                .getBytes(StandardCharsets.US_ASCII));
+        } catch (IOException e) {
+            // Closing anyway
+        }
+        closeQuietly(socket);
+    }
+    
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // Nothing left to release
+        }
+    }
+    
+    /**
+     * Gets the port the server listens on.
+     * @return Port number
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+    
+    /**
+     * Gets the number of sessions running.
+     * @return Session count
+     */
+    public int getSessionCount() {
+        return open.size();
+    }
+    
+    /**
+     * Stops accepting and ends every session by closing its connection.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        try {
+            acceptor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (Socket socket : open) {
+            closeQuietly(socket);
+        }
+        sessions.shutdown();
+    }
+    
+    /**
+     * Turns every line feed not preceded by a carriage return into CR LF.
+     */
+    private static final class CrlfOutputStream extends FilterOutputStream {
+        
+        private int previous;
+        
+        CrlfOutputStream(OutputStream out) {
+            super(out);
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n' && previous != '\r') {
+                out.write('\r');
+            }
+            out.write(b);
+            previous = b;
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            int start = off;
+            for (int i = off, end = off + len; i < end; i++) {
+                if (b[i] == '\n' && (i > off ? b[i - 1] : previous) != '\r') {
+                    out.write(b, start, i - start);
+                    out.write('\r');
+                    start = i;
+                }
+            }
+            out.write(b, start, off + len - start);
+            if (len > 0) {
+                previous = b[off + len - 1];
+            }
+        }
+    }
+    
+    /**
+     * Runs the session server from the command line until the process is
+     * stopped. "--port N" sets the port (default
+     * {@link Constants#DEFAULT_SESSION_PORT}), "--bind ADDRESS" the
+     * interface (default the loopback interface) and "--max-sessions N" the
+     * number of sessions allowed at once (default 10000).
+     * 
+     * @param args Flags
+     * @return Process exit status (0 after a clean shutdown, 1 on bad arguments or a bind failure)
+     */
+    public static int run(String[] args) {
+        int port = Constants.DEFAULT_SESSION_PORT;
+        String bind = null;
+        int maxSessions = 10000;
+        for (int next = 0; next < args.length; next++) {
+            boolean hasValue = next + 1 < args.length;
+            if ("--port".equals(args[next]) && hasValue && args[next + 1].matches("[0-9]{1,5}")
+                    && Integer.parseInt(args[next + 1]) <= 65535) {
+                port = Integer.parseInt(args[++next]);
+            } else if ("--bind".equals(args[next]) && hasValue) {
+                bind = args[++next];
+            } else if ("--max-sessions".equals(args[next]) && hasValue && args[next + 1].matches("[1-9][0-9]{0,6}")) {
+                maxSessions = Integer.parseInt(args[++next]);
+            } else {
+                System.err.println("Error: Unknown or incomplete option " + args[next] + ".");
+                return 1;
+            }
+        }
+        SessionServer server;
+        try {
+            InetAddress address = bind == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bind);
+            server = new SessionServer(new InetSocketAddress(address, port), maxSessions);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.close();
+            } catch (IOException e) {
+                // Exiting anyway
+            }
+            stopped.countDown();
+        }));
+        System.err.println("Sessions on port " + server.getPort() + ", at most " + maxSessions + " at once.");
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,133 @@
+package com.calculator.stats;
+
+import com.calculator.util.CalculationHistory;
+import com.calculator.util.HistoryListener;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps a {@link Summary} of the results added to a
+ * {@link CalculationHistory}, updated as each entry is added.
+ * <pre>
+ *   HistoryStatistics statistics = HistoryStatistics.attach(history);
+ *   ...
+ *   Summary summary = statistics.getSummary();
+ * </pre>
+ * 
+ * The summary covers every result added since attaching, including
+ * entries the history has since evicted to make room; clearing the
+ * history resets it.
+ * 
+ * Threads adding entries concurrently update separate stripes, one
+ * summary each, chosen by thread, so they seldom wait on the same lock;
+ * {@link #getSummary()} merges the stripes. A stripe is created the first
+ * time a thread lands on it, so a history filled by one thread costs one
+ * summary however many stripes there are.
+ */
+public class HistoryStatistics implements HistoryListener {
+    
+    private final AtomicReferenceArray<Summary> stripes;
+    private final int mask;
+    
+    /**
+     * Creates statistics with one stripe per available processor.
+     */
+    public HistoryStatistics() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Creates statistics with the given number of stripes, rounded up to a
+     * power of two.
+     * @param stripes Number of threads expected to add entries at once
+     * @throws IllegalArgumentException if stripes is not positive
+     */
+    public HistoryStatistics(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Error: Statistics need at least one stripe.");
+        }
+        int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+    }
+    
+    /**
+     * Creates statistics over the results already in a history and follows
+     * the results added to it from now on, with a single summary, for a
+     * history that one thread at a time adds to (such as the calculator's
+     * session history). Entries added while attaching may be counted twice.
+     * @param history History to follow
+     * @return Statistics of the history
+     */
+    public static HistoryStatistics attach(CalculationHistory history) {
+        return attach(history, new HistoryStatistics(1));
+    }
+    
+    /**
+     * Like {@link #attach(CalculationHistory)}, but with one stripe per
+     * available processor, for a history that many threads add to at once.
+     * @param history History to follow
+     * @return Statistics of the history
+     */
+    public static HistoryStatistics attachStriped(CalculationHistory history) {
+        return attach(history, new HistoryStatistics());
+    }
+    
+    private static HistoryStatistics attach(CalculationHistory history, HistoryStatistics statistics) {
+        history.addListener(statistics);
+        Summary stripe = statistics.stripe(0);
+        synchronized (stripe) {
+            stripe.addAll(history.getResults());
+        }
+        return statistics;
+    }
+    
+    @Override
+    public void entryAdded(String expression, double result, long timestamp) {
+        Summary stripe = stripe((int) Thread.currentThread().getId() & mask);
+        synchronized (stripe) {
+            stripe.add(result);
+        }
+    }
+    
+    @Override
+    public void historyCleared() {
+        for (int i = 0; i < stripes.length(); i++) {
+            Summary stripe = stripes.get(i);
+            if (stripe != null) {
+                synchronized (stripe) {
+                    stripe.reset();
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gets the summary of the results so far.
+     * @return Snapshot, unaffected by later entries
+     */
+    public Summary getSummary() {
+        Summary total = new Summary();
+        for (int i = 0; i < stripes.length(); i++) {
+            Summary stripe = stripes.get(i);
+            if (stripe != null) {
+                synchronized (stripe) {
+                    total.merge(stripe);
+                }
+            }
+        }
+        return total;
+    }
+    
+    /**
+     * Gets a stripe, creating it on first use.
+     */
+    private Summary stripe(int index) {
+        Summary stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new Summary());
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+}
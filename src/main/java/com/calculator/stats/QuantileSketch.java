@@ -0,0 +1,202 @@
+package com.calculator.stats;
+
+import java.util.Arrays;
+
+/**
+ * Mergeable sketch of the distribution of a stream of doubles, laid out
+ * like {@link com.calculator.metrics.LatencyHistogram} but over the whole
+ * double range, negative values and fractions included.
+ * 
+ * A value's bucket is its sign, its binary exponent and the top 7 bits of
+ * its mantissa: each power of two is split into 128 equal sub-buckets, so
+ * a percentile is known to within 1 part in 256 (about 0.4%) of its
+ * magnitude, however many values were added. Buckets of one exponent are
+ * allocated the first time a value lands in them, and the index of those
+ * rows the first time a non-zero value is added, so memory is bounded
+ * (at most 4 MB, a few KB for values spanning a few decades, and nothing
+ * for an empty sketch) and independent of the number of values.
+ * 
+ * Merging adds the bucket counts, so sketches filled on separate threads
+ * combine into exactly the sketch one thread would have built. Not
+ * thread-safe: give each thread its own sketch and merge them.
+ */
+public final class QuantileSketch {
+    
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_MASK = SUB_BUCKETS - 1;
+    // Shifting the raw bits by this leaves sign, exponent and top mantissa bits
+    private static final int KEY_SHIFT = 52 - SUB_BUCKET_BITS;
+    private static final int EXPONENTS = 1 << 11;
+    
+    // Row per sign and exponent: positive values in rows 0..2047, negative
+    // ones in 2048..4095 (the sign bit lands on top of the row index); null
+    // until a non-zero value is added
+    private long[][] rows;
+    private long zeros;
+    private long count;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    
+    /**
+     * Adds one value. NaN is ignored.
+     * @param value Value to add
+     */
+    public void add(double value) {
+        if (value != value) {
+            return;
+        }
+        count++;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        if (value == 0) {
+            zeros++;
+            return;
+        }
+        if (rows == null) {
+            rows = new long[2 * EXPONENTS][];
+        }
+        int key = (int) (Double.doubleToRawLongBits(value) >>> KEY_SHIFT);
+        long[] row = rows[key >>> SUB_BUCKET_BITS];
+        if (row == null) {
+            row = new long[SUB_BUCKETS];
+            rows[key >>> SUB_BUCKET_BITS] = row;
+        }
+        row[key & SUB_BUCKET_MASK]++;
+    }
+    
+    /**
+     * Adds the values of another sketch to this one.
+     * @param other Sketch to merge in; left unchanged
+     */
+    public void merge(QuantileSketch other) {
+        if (other.rows != null) {
+            if (rows == null) {
+                rows = new long[2 * EXPONENTS][];
+            }
+            for (int i = 0; i < rows.length; i++) {
+                long[] source = other.rows[i];
+                if (source == null) {
+                    continue;
+                }
+                long[] row = rows[i];
+                if (row == null) {
+                    rows[i] = source.clone();
+                    continue;
+                }
+                for (int j = 0; j < SUB_BUCKETS; j++) {
+                    row[j] += source[j];
+                }
+            }
+        }
+        zeros += other.zeros;
+        count += other.count;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+    
+    /**
+     * Gets the number of values added.
+     * @return Value count, NaNs excluded
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the value that the given percentage of added values do not exceed.
+     * The answer is the middle of the bucket holding that value, kept within
+     * the smallest and largest value added; those two are exact.
+     * 
+     * @param percentile Percentage between 0 and 100
+     * @return Approximate value, or NaN if nothing was added
+     * @throws IllegalArgumentException if the percentage is out of range
+     */
+    public double getValueAtPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) {
+            throw new IllegalArgumentException("Error: Percentile must be between 0 and 100.");
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        if (rank == 1) {
+            return min;
+        }
+        if (rank >= count) {
+            return max;
+        }
+        long seen = 0;
+        if (rows == null) {
+            return 0; // Only zeros were added
+        }
+        // Most negative first: largest exponent and mantissa of the negative rows
+        for (int i = 2 * EXPONENTS - 1; i >= EXPONENTS; i--) {
+            long[] row = rows[i];
+            if (row == null) {
+                continue;
+            }
+            for (int j = SUB_BUCKETS - 1; j >= 0; j--) {
+                seen += row[j];
+                if (seen >= rank) {
+                    return clamp(-middleOfBucket(i, j));
+                }
+            }
+        }
+        seen += zeros;
+        if (seen >= rank) {
+            return 0;
+        }
+        for (int i = 0; i < EXPONENTS; i++) {
+            long[] row = rows[i];
+            if (row == null) {
+                continue;
+            }
+            for (int j = 0; j < SUB_BUCKETS; j++) {
+                seen += row[j];
+                if (seen >= rank) {
+                    return clamp(middleOfBucket(i, j));
+                }
+            }
+        }
+        return max;
+    }
+    
+    /**
+     * Clears all values, keeping the buckets allocated so far.
+     */
+    public void reset() {
+        if (rows != null) {
+            for (long[] row : rows) {
+                if (row != null) {
+                    Arrays.fill(row, 0);
+                }
+            }
+        }
+        zeros = 0;
+        count = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+    
+    private double clamp(double value) {
+        return Math.min(Math.max(value, min), max);
+    }
+    
+    /**
+     * Gets the magnitude in the middle of a bucket.
+     */
+    private static double middleOfBucket(int row, int subBucket) {
+        long key = (long) (row & (EXPONENTS - 1)) << SUB_BUCKET_BITS | subBucket;
+        double lowest = Double.longBitsToDouble(key << KEY_SHIFT);
+        if (Double.isInfinite(lowest)) {
+            return lowest; // The only value with the largest exponent that is not NaN
+        }
+        double next = Double.longBitsToDouble((key + 1) << KEY_SHIFT);
+        return lowest + (next - lowest) / 2;
+    }
+}
@@ -0,0 +1,282 @@
+package com.calculator.stats;
+
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+
+/**
+ * One-pass summary of a stream of doubles: count, mean, variance, minimum,
+ * maximum and percentiles, in memory that does not grow with the stream.
+ * <pre>
+ *   Summary summary = new Summary();
+ *   summary.add(2.5);
+ *   summary.addAll(results);
+ *   double p99 = summary.getValueAtPercentile(99);
+ * 
+ *   Summary large = Summary.of(values);              // on all cores
+ *   Summary streamed = Summary.of(stream.parallel());
+ * </pre>
+ * 
+ * The mean and variance are kept by Welford's method, which does not lose
+ * precision the way summing squares does when the values are large and
+ * close together. Percentiles come from a {@link QuantileSketch}.
+ * 
+ * Summaries merge (Chan et al.'s pairwise update for the moments, bucket
+ * counts for the sketch), so a long stream can be split among threads,
+ * each with a summary of its own, and the parts combined: {@link #of}
+ * does this on the common fork-join pool. NaN values are ignored; an
+ * infinite value makes the mean and variance infinite or NaN but still
+ * counts towards the minimum, maximum and percentiles.
+ * 
+ * Not thread-safe: give each thread its own summary and merge them.
+ */
+public final class Summary {
+    
+    // Values summarized two-pass as a block and then merged, by addAll
+    private static final int BLOCK_SIZE = 1024;
+    
+    private long count;
+    private double mean;
+    private double squaredDeviations;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+    private final QuantileSketch sketch = new QuantileSketch();
+    
+    /**
+     * Summarizes an array on the common fork-join pool.
+     * @param values Values to summarize
+     * @return Summary of the values
+     */
+    public static Summary of(double[] values) {
+        int blocks = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        return IntStream.range(0, blocks).parallel().collect(Summary::new, (summary, block) -> {
+            int off = block * BLOCK_SIZE;
+            summary.addAll(values, off, Math.min(BLOCK_SIZE, values.length - off));
+        }, Summary::merge);
+    }
+    
+    /**
+     * Summarizes a stream, in parallel if the stream is parallel. One
+     * summary is kept per thread, so memory does not grow with the stream.
+     * @param values Values to summarize
+     * @return Summary of the values
+     */
+    public static Summary of(DoubleStream values) {
+        return values.collect(Summary::new, Summary::add, Summary::merge);
+    }
+    
+    /**
+     * Adds one value. NaN is ignored.
+     * @param value Value to add
+     */
+    public void add(double value) {
+        if (value != value) {
+            return;
+        }
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        squaredDeviations += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        sketch.add(value);
+    }
+    
+    /**
+     * Adds every value of an array. NaNs are ignored.
+     * @param values Values to add
+     */
+    public void addAll(double[] values) {
+        addAll(values, 0, values.length);
+    }
+    
+    /**
+     * Adds a range of an array. NaNs are ignored. Each block of the range is
+     * summarized on its own, with the mean taken first and the deviations
+     * from it second, and merged in: as accurate as adding one at a time,
+     * with one division per block instead of per value.
+     * @param values Values to add
+     * @param off Index of the first value
+     * @param len Number of values
+     */
+    public void addAll(double[] values, int off, int len) {
+        if (off < 0 || len < 0 || off + len < 0 || off + len > values.length) {
+            throw new IndexOutOfBoundsException("Error: Range [" + off + ", " + (off + len)
+                + ") is out of bounds.");
+        }
+        for (int start = off, end = off + len; start < end; start += BLOCK_SIZE) {
+            int blockEnd = Math.min(start + BLOCK_SIZE, end);
+            int n = 0;
+            double sum = 0;
+            for (int i = start; i < blockEnd; i++) {
+                double value = values[i];
+                if (value == value) {
+                    sum += value;
+                    n++;
+                }
+            }
+            if (n == 0) {
+                continue;
+            }
+            double blockMean = sum / n;
+            double blockDeviations = 0;
+            for (int i = start; i < blockEnd; i++) {
+                double value = values[i];
+                if (value == value) {
+                    double delta = value - blockMean;
+                    blockDeviations += delta * delta;
+                    if (value < min) {
+                        min = value;
+                    }
+                    if (value > max) {
+                        max = value;
+                    }
+                    sketch.add(value);
+                }
+            }
+            combine(n, blockMean, blockDeviations);
+        }
+    }
+    
+    /**
+     * Adds the values of another summary to this one.
+     * @param other Summary to merge in; left unchanged
+     */
+    public void merge(Summary other) {
+        combine(other.count, other.mean, other.squaredDeviations);
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+    
+    /**
+     * Merges the moments of a group of values into these.
+     */
+    private void combine(long otherCount, double otherMean, double otherDeviations) {
+        if (otherCount == 0) {
+            return;
+        }
+        long total = count + otherCount;
+        double delta = otherMean - mean;
+        double weight = (double) otherCount / total;
+        mean += delta * weight;
+        squaredDeviations += otherDeviations + delta * delta * count * weight;
+        count = total;
+    }
+    
+    /**
+     * Creates an independent copy of this summary.
+     * @return Copy
+     */
+    public Summary copy() {
+        Summary copy = new Summary();
+        copy.merge(this);
+        return copy;
+    }
+    
+    /**
+     * Clears all values.
+     */
+    public void reset() {
+        count = 0;
+        mean = 0;
+        squaredDeviations = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+        sketch.reset();
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the number of values added.
+     * @return Value count, NaNs excluded
+     */
+    public long getCount() {
+        return count;
+    }
+    
+    /**
+     * Gets the sum of the values.
+     * @return Sum, or 0 if nothing was added
+     */
+    public double getSum() {
+        return mean * count;
+    }
+    
+    /**
+     * Gets the arithmetic mean.
+     * @return Mean, or NaN if nothing was added
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+    
+    /**
+     * Gets the sample variance (divided by count - 1).
+     * @return Variance, or NaN if fewer than two values were added
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : squaredDeviations / (count - 1);
+    }
+    
+    /**
+     * Gets the population variance (divided by count).
+     * @return Variance, or NaN if nothing was added
+     */
+    public double getPopulationVariance() {
+        return count == 0 ? Double.NaN : squaredDeviations / count;
+    }
+    
+    /**
+     * Gets the sample standard deviation.
+     * @return Square root of {@link #getVariance()}
+     */
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+    
+    /**
+     * Gets the smallest value.
+     * @return Minimum, or NaN if nothing was added
+     */
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+    
+    /**
+     * Gets the largest value.
+     * @return Maximum, or NaN if nothing was added
+     */
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+    
+    /**
+     * Gets the value that the given percentage of values do not exceed, to
+     * within about 0.4% (see {@link QuantileSketch}).
+     * @param percentile Percentage between 0 and 100
+     * @return Approximate value, or NaN if nothing was added
+     * @throws IllegalArgumentException if the percentage is out of range
+     */
+    public double getValueAtPercentile(double percentile) {
+        return sketch.getValueAtPercentile(percentile);
+    }
+    
+    /**
+     * Gets the median, to within about 0.4%.
+     * @return Approximate median, or NaN if nothing was added
+     */
+    public double getMedian() {
+        return sketch.getValueAtPercentile(50);
+    }
+    
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + getMean() + ", stddev=" + getStandardDeviation()
+            + ", min=" + getMin() + ", median=" + getMedian() + ", max=" + getMax();
+    }
+}
@@ -0,0 +1,593 @@
+package com.calculator.ui;
+
+import com.calculator.core.Calculator;
+import com.calculator.core.Constants;
+import com.calculator.core.DomainError;
+import com.calculator.core.ErrorMask;
+import com.calculator.core.MemoizingScientificOperations;
+import com.calculator.core.ParallelBatch;
+import com.calculator.core.Precision;
+import com.calculator.core.ScientificOperations;
+import com.calculator.expr.ExpressionCompiler;
+import com.calculator.metrics.MetricsExporter;
+import com.calculator.metrics.OperationMetrics;
+import com.calculator.metrics.OperationStats;
+import com.calculator.util.NumberFormatter;
+import com.calculator.util.NumberParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Non-interactive front end that streams calculations from a reader to a writer.
+ * 
+ * Every input line produces exactly one output line, so results can be
+ * pasted next to their inputs. A line is either an operation record or an
+ * infix expression:
+ * <pre>
+ *   sqrt 2            operation name followed by operands
+ *   pow,2,0.5         commas work as separators too
+ *   sin(x)^2 + 1      anything else is compiled as an expression
+ * </pre>
+ * Results are written with {@link NumberFormatter#formatRoundTrip} (the
+ * layout of Double.toString) so they parse back to the same value. An
+ * invalid line writes its "Error: ..." message and processing continues.
+ * Blank lines are copied through.
+ * 
+ * Only one line is held in memory at a time, so input of any length can
+ * be piped through at the speed of the underlying streams.
+ */
+public class BatchProcessor {
+    
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    // Operation codes for records
+    private static final int ADD = 0;
+    private static final int SUBTRACT = 1;
+    private static final int MULTIPLY = 2;
+    private static final int DIVIDE = 3;
+    private static final int MODULUS = 4;
+    private static final int POWER = 5;
+    private static final int ROOT = 6;
+    private static final int LOG_BASE = 7;
+    private static final int PERMUTATION = 8;
+    private static final int COMBINATION = 9;
+    private static final int SQRT = 10;
+    private static final int CBRT = 11;
+    private static final int SQUARE = 12;
+    private static final int CUBE = 13;
+    private static final int ABS = 14;
+    private static final int NEGATE = 15;
+    private static final int RECIPROCAL = 16;
+    private static final int LN = 17;
+    private static final int LOG10 = 18;
+    private static final int EXP = 19;
+    private static final int EXP10 = 20;
+    private static final int SIN = 21;
+    private static final int COS = 22;
+    private static final int TAN = 23;
+    private static final int SIN_DEG = 24;
+    private static final int COS_DEG = 25;
+    private static final int TAN_DEG = 26;
+    private static final int ASIN = 27;
+    private static final int ACOS = 28;
+    private static final int ATAN = 29;
+    private static final int SINH = 30;
+    private static final int COSH = 31;
+    private static final int TANH = 32;
+    private static final int FACTORIAL = 33;
+    
+    /** Codes below this take two operands, the rest take one. */
+    private static final int FIRST_UNARY = SQRT;
+    
+    // Names the operations are recorded under in metrics, by code: the method names of the core classes
+    private static final String[] METHOD_NAMES = {
+        "add", "subtract", "multiply", "divide", "modulus", "power", "nthRoot", "logBase",
+        "permutation", "combination", "squareRoot", "cubeRoot", "square", "cube", "absolute",
+        "negate", "reciprocal", "naturalLog", "log10", "exp", "exp10", "sin", "cos", "tan",
+        "sinDeg", "cosDeg", "tanDeg", "asin", "acos", "atan", "sinh", "cosh", "tanh", "factorial"
+    };
+    
+    private static final Map<String, Integer> OPERATIONS = new HashMap<>();
+    
+    static {
+        OPERATIONS.put("add", ADD);
+        OPERATIONS.put("sub", SUBTRACT);
+        OPERATIONS.put("subtract", SUBTRACT);
+        OPERATIONS.put("mul", MULTIPLY);
+        OPERATIONS.put("multiply", MULTIPLY);
+        OPERATIONS.put("div", DIVIDE);
+        OPERATIONS.put("divide", DIVIDE);
+        OPERATIONS.put("mod", MODULUS);
+        OPERATIONS.put("pow", POWER);
+        OPERATIONS.put("root", ROOT);
+        OPERATIONS.put("log", LOG_BASE);
+        OPERATIONS.put("npr", PERMUTATION);
+        OPERATIONS.put("ncr", COMBINATION);
+        OPERATIONS.put("sqrt", SQRT);
+        OPERATIONS.put("cbrt", CBRT);
+        OPERATIONS.put("square", SQUARE);
+        OPERATIONS.put("cube", CUBE);
+        OPERATIONS.put("abs", ABS);
+        OPERATIONS.put("neg", NEGATE);
+        OPERATIONS.put("recip", RECIPROCAL);
+        OPERATIONS.put("ln", LN);
+        OPERATIONS.put("log10", LOG10);
+        OPERATIONS.put("exp", EXP);
+        OPERATIONS.put("exp10", EXP10);
+        OPERATIONS.put("sin", SIN);
+        OPERATIONS.put("cos", COS);
+        OPERATIONS.put("tan", TAN);
+        OPERATIONS.put("sind", SIN_DEG);
+        OPERATIONS.put("cosd", COS_DEG);
+        OPERATIONS.put("tand", TAN_DEG);
+        OPERATIONS.put("asin", ASIN);
+        OPERATIONS.put("acos", ACOS);
+        OPERATIONS.put("atan", ATAN);
+        OPERATIONS.put("sinh", SINH);
+        OPERATIONS.put("cosh", COSH);
+        OPERATIONS.put("tanh", TANH);
+        OPERATIONS.put("fact", FACTORIAL);
+    }
+    
+    private final Calculator calculator;
+    private final ScientificOperations scientific;
+    private final int cacheCapacity;
+    private final Precision precision;
+    private final OperationMetrics metrics;
+    private final OperationStats[] stats;
+    private long lines;
+    private long errors;
+    private long workerCacheHits;
+    private long workerCacheMisses;
+    
+    public BatchProcessor() {
+        this(0);
+    }
+    
+    /**
+     * Creates a processor that memoizes the scientific functions of
+     * operation records, for input that repeats the same arguments.
+     * @param cacheCapacity Results kept by the cache, or 0 for no cache
+     */
+    public BatchProcessor(int cacheCapacity) {
+        this(cacheCapacity, Precision.STRICT);
+    }
+    
+    /**
+     * Creates a processor with a chosen precision for the scientific
+     * functions of operation records.
+     * @param cacheCapacity Results kept by the cache, or 0 for no cache
+     * @param precision Precision tier of exp, ln, pow, sin and cos
+     */
+    public BatchProcessor(int cacheCapacity, Precision precision) {
+        this(cacheCapacity, precision, null);
+    }
+    
+    /**
+     * Creates a processor that also records the calls, domain errors and
+     * latency of every operation record in a metrics registry, under the
+     * method names of {@link Calculator} and {@link ScientificOperations}.
+     * Expression lines are not recorded.
+     * @param cacheCapacity Results kept by the cache, or 0 for no cache
+     * @param precision Precision tier of exp, ln, pow, sin and cos
+     * @param metrics Registry to record into, or null to record nothing
+     */
+    public BatchProcessor(int cacheCapacity, Precision precision, OperationMetrics metrics) {
+        this.calculator = new Calculator();
+        this.scientific = cacheCapacity > 0
+            ? new MemoizingScientificOperations(cacheCapacity, precision) : new ScientificOperations(precision);
+        this.cacheCapacity = cacheCapacity;
+        this.precision = precision;
+        this.metrics = metrics;
+        if (metrics == null) {
+            this.stats = null;
+        } else {
+            this.stats = new OperationStats[METHOD_NAMES.length];
+            for (int op = 0; op < stats.length; op++) {
+                stats[op] = metrics.operation(METHOD_NAMES[op]);
+            }
+        }
+    }
+    
+    /**
+     * Runs batch mode from the command line.
+     * Arguments are optional flags followed by an optional input file and an
+     * optional output file; a missing path or "-" means standard input or
+     * standard output. "--parallel" spreads the lines over all cores and
+     * "--chunk N" (which implies it) sets the number of lines per task.
+     * "--cache N" memoizes up to N results of the scientific operations and
+     * reports the hit rate on standard error. "--fast" computes them with
+     * {@link Precision#FAST}. "--metrics FILE" records the operations and
+     * writes the counts and latencies to FILE at the end, as JSON if its
+     * name ends in ".json" and as Prometheus text otherwise.
+     * 
+     * @param args Flags, input and output paths
+     * @return Process exit status (0 on success, 1 on an I/O failure or bad arguments)
+     */
+    public static int run(String[] args) {
+        boolean parallel = false;
+        int chunkSize = Constants.DEFAULT_BATCH_CHUNK_SIZE;
+        int cacheCapacity = 0;
+        Precision precision = Precision.STRICT;
+        String metricsPath = null;
+        int next = 0;
+        for (; next < args.length && args[next].startsWith("--"); next++) {
+            if ("--parallel".equals(args[next])) {
+                parallel = true;
+            } else if ("--chunk".equals(args[next]) && next + 1 < args.length
+                    && args[next + 1].matches("[1-9][0-9]{0,8}")) {
+                chunkSize = Integer.parseInt(args[++next]);
+                parallel = true;
+            } else if ("--cache".equals(args[next]) && next + 1 < args.length
+                    && args[next + 1].matches("[1-9][0-9]{0,7}")) {
+                cacheCapacity = Integer.parseInt(args[++next]);
+            } else if ("--fast".equals(args[next])) {
+                precision = Precision.FAST;
+            } else if ("--metrics".equals(args[next]) && next + 1 < args.length) {
+                metricsPath = args[++next];
+            } else {
+                System.err.println("Error: Unknown or incomplete option " + args[next] + ".");
+                return 1;
+            }
+        }
+        ParallelBatch batch = parallel ? new ParallelBatch(ForkJoinPool.commonPool(), chunkSize) : null;
+        String inputPath = next < args.length ? args[next] : "-";
+        String outputPath = next + 1 < args.length ? args[next + 1] : "-";
+        OperationMetrics metrics = metricsPath == null ? null : new OperationMetrics();
+        BatchProcessor processor = new BatchProcessor(cacheCapacity, precision, metrics);
+        try (BufferedReader in = openInput(inputPath);
+             Writer out = openOutput(outputPath)) {
+            if (batch == null) {
+                processor.process(in, out);
+            } else {
+                processor.process(in, out, batch);
+            }
+            if (metrics != null) {
+                MetricsExporter.export(metrics, Paths.get(metricsPath));
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            return 1;
+        }
+        if (processor.errors > 0) {
+            System.err.println(processor.errors + " of " + processor.lines + " lines could not be calculated.");
+        }
+        if (cacheCapacity > 0) {
+            System.err.println("Cache: " + processor.cacheHits() + " hits, " + processor.cacheMisses() + " misses.");
+        }
+        return 0;
+    }
+    
+    private static BufferedReader openInput(String path) throws IOException {
+        if ("-".equals(path)) {
+            return new BufferedReader(Channels.newReader(Channels.newChannel(System.in),
+                    StandardCharsets.UTF_8.newDecoder(), -1), BUFFER_SIZE);
+        }
+        return Files.newBufferedReader(Paths.get(path), StandardCharsets.UTF_8);
+    }
+    
+    private static Writer openOutput(String path) throws IOException {
+        if ("-".equals(path)) {
+            // Bypasses System.out, whose PrintStream flushes on every line
+            return new BufferedWriter(Channels.newWriter(
+                    new FileOutputStream(FileDescriptor.out).getChannel(),
+                    StandardCharsets.UTF_8.newEncoder(), -1), BUFFER_SIZE);
+        }
+        return Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Calculates every line of the input and writes one result line per input line.
+     * The writer is flushed but not closed.
+     * 
+     * @param in Source of lines
+     * @param out Destination of results
+     * @return Number of lines processed
+     * @throws IOException if reading or writing fails
+     */
+    public long process(BufferedReader in, Writer out) throws IOException {
+        long count = 0;
+        char[] result = new char[NumberFormatter.MAX_LENGTH];
+        String line;
+        while ((line = in.readLine()) != null) {
+            count++;
+            try {
+                String trimmed = line.trim();
+                if (!trimmed.isEmpty()) {
+                    double value = evaluate(trimmed);
+                    DomainError error = DomainError.of(value);
+                    if (error == null) {
+                        out.write(result, 0, NumberFormatter.formatRoundTrip(value, result, 0));
+                    } else {
+                        errors++;
+                        out.write(error.getMessage());
+                    }
+                }
+            } catch (ArithmeticException | IllegalArgumentException e) {
+                errors++;
+                out.write(errorMessage(e));
+            }
+            out.write('\n');
+        }
+        out.flush();
+        lines += count;
+        return count;
+    }
+    
+    /**
+     * Like {@link #process(BufferedReader, Writer)}, but calculates blocks of
+     * lines in parallel. Lines are read and written in order, so the output
+     * is identical to a sequential run; only one block is held in memory.
+     * Every thread that runs chunks keeps one processor, with its own cache,
+     * for the whole input, so a cache of N results costs N per thread.
+     * 
+     * @param in Source of lines
+     * @param out Destination of results
+     * @param batch Splits each block into chunks of lines for the pool
+     * @return Number of lines processed
+     * @throws IOException if reading or writing fails
+     */
+    public long process(BufferedReader in, Writer out, ParallelBatch batch) throws IOException {
+        int blockSize = (int) Math.min(1 << 20, (long) batch.getChunkSize() * batch.getParallelism() * 4);
+        String[] block = new String[blockSize];
+        String[] results = new String[blockSize];
+        ErrorMask failed = new ErrorMask(blockSize);
+        // Calculator and the cache are not thread-safe, so each thread gets its own processor (this
+        // one for the calling thread), kept for the whole input so its cache stays warm across blocks.
+        // A map rather than a ThreadLocal: common pool threads drop their thread locals between tasks.
+        Thread caller = Thread.currentThread();
+        Map<Thread, BatchProcessor> workers = new ConcurrentHashMap<>();
+        long count = 0;
+        int size;
+        do {
+            size = 0;
+            String line;
+            while (size < blockSize && (line = in.readLine()) != null) {
+                block[size++] = line;
+            }
+            failed.clear();
+            batch.forEachChunk(0, size, (off, len) -> {
+                BatchProcessor processor = workers.computeIfAbsent(Thread.currentThread(),
+                    thread -> thread == caller ? this : new BatchProcessor(cacheCapacity, precision, metrics));
+                for (int i = off, end = off + len; i < end; i++) {
+                    results[i] = processor.format(block[i], failed, i);
+                }
+            });
+            for (int i = 0; i < size; i++) {
+                out.write(results[i]);
+                out.write('\n');
+            }
+            errors += failed.count();
+            count += size;
+        } while (size == blockSize);
+        out.flush();
+        lines += count;
+        for (BatchProcessor processor : workers.values()) {
+            if (processor != this) {
+                workerCacheHits += processor.cacheHits();
+                workerCacheMisses += processor.cacheMisses();
+            }
+        }
+        return count;
+    }
+    
+    // Lookups in this processor's cache and in those of its parallel workers
+    private long cacheHits() {
+        return scientific instanceof MemoizingScientificOperations
+            ? workerCacheHits + ((MemoizingScientificOperations) scientific).getHitCount() : workerCacheHits;
+    }
+    
+    private long cacheMisses() {
+        return scientific instanceof MemoizingScientificOperations
+            ? workerCacheMisses + ((MemoizingScientificOperations) scientific).getMissCount() : workerCacheMisses;
+    }
+    
+    /**
+     * Calculates one line and returns the output line batch mode writes
+     * for it: the result, its "Error: ..." message, or "" for a blank line.
+     * 
+     * @param line Operation record, expression or blank line
+     * @return Output line, without a line terminator
+     */
+    public String formatLine(String line) {
+        return format(line, null, 0);
+    }
+    
+    private String format(String line, ErrorMask failed, int index) {
+        try {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty()) {
+                return "";
+            }
+            double value = evaluate(trimmed);
+            DomainError error = DomainError.of(value);
+            if (error != null) {
+                if (failed != null) {
+                    failed.set(index);
+                }
+                return error.getMessage();
+            }
+            return NumberFormatter.formatRoundTrip(value);
+        } catch (ArithmeticException | IllegalArgumentException e) {
+            if (failed != null) {
+                failed.set(index);
+            }
+            return errorMessage(e);
+        }
+    }
+    
+    private static String errorMessage(RuntimeException e) {
+        String message = e.getMessage();
+        return message != null && message.startsWith("Error:") ? message : "Error: " + message;
+    }
+    
+    /**
+     * Calculates a single line.
+     * 
+     * @param line Operation record or expression (not blank)
+     * @return Result of the calculation
+     * @throws ArithmeticException if the operation is undefined for the operands
+     * @throws IllegalArgumentException if the line cannot be parsed
+     */
+    public double calculate(String line) {
+        return DomainError.check(evaluate(line));
+    }
+    
+    /**
+     * Calculates a single line, returning the NaN of a {@link DomainError}
+     * instead of throwing when an operation record is outside its domain.
+     * Domain errors are the common failure in bulk input, and an exception
+     * per bad line would cost more than the calculation.
+     */
+    private double evaluate(String line) {
+        int end = 0;
+        while (end < line.length() && Character.isLetterOrDigit(line.charAt(end))) {
+            end++;
+        }
+        if (end < line.length() && isSeparator(line.charAt(end))) {
+            Integer op = OPERATIONS.get(line.substring(0, end).toLowerCase());
+            if (op != null) {
+                return calculateRecord(op, line, end);
+            }
+        }
+        return ExpressionCompiler.compile(line).evaluate();
+    }
+    
+    private double calculateRecord(int op, String line, int pos) {
+        int start = skipSeparators(line, pos);
+        if (start == line.length()) {
+            throw new IllegalArgumentException("Error: Operation needs an operand.");
+        }
+        int end = nextSeparator(line, start);
+        double a = NumberParser.parseDouble(line, start, end);
+        if (op >= FIRST_UNARY) {
+            expectEnd(line, end);
+            return stats == null ? unary(op, a) : timed(op, a, 0, true);
+        }
+        start = skipSeparators(line, end);
+        if (start == line.length()) {
+            throw new IllegalArgumentException("Error: Operation needs two operands.");
+        }
+        end = nextSeparator(line, start);
+        double b = NumberParser.parseDouble(line, start, end);
+        expectEnd(line, end);
+        return stats == null ? binary(op, a, b) : timed(op, a, b, false);
+    }
+    
+    private double timed(int op, double a, double b, boolean unary) {
+        long start = System.nanoTime();
+        double result = unary ? unary(op, a) : binary(op, a, b);
+        stats[op].record(start, result);
+        return result;
+    }
+    
+    private double binary(int op, double a, double b) {
+        switch (op) {
+            case ADD:         return calculator.add(a, b);
+            case SUBTRACT:    return calculator.subtract(a, b);
+            case MULTIPLY:    return calculator.multiply(a, b);
+            case DIVIDE:      return calculator.divideOrNaN(a, b);
+            case MODULUS:     return calculator.modulusOrNaN(a, b);
+            case POWER:       return scientific.power(a, b);
+            case ROOT:        return scientific.nthRootOrNaN(a, b);
+            case LOG_BASE:    return scientific.logBaseOrNaN(a, b);
+            case PERMUTATION: return scientific.permutationOrNaN(toInt(a), toInt(b));
+            case COMBINATION: return scientific.combinationOrNaN(toInt(a), toInt(b));
+            default:
+                throw new IllegalStateException("Unknown operation " + op);
+        }
+    }
+    
+    private double unary(int op, double a) {
+        switch (op) {
+            case SQRT:       return scientific.squareRootOrNaN(a);
+            case CBRT:       return scientific.cubeRoot(a);
+            case SQUARE:     return scientific.square(a);
+            case CUBE:       return scientific.cube(a);
+            case ABS:        return calculator.absolute(a);
+            case NEGATE:     return calculator.negate(a);
+            case RECIPROCAL: return scientific.reciprocalOrNaN(a);
+            case LN:         return scientific.naturalLogOrNaN(a);
+            case LOG10:      return scientific.log10OrNaN(a);
+            case EXP:        return scientific.exp(a);
+            case EXP10:      return scientific.exp10(a);
+            case SIN:        return scientific.sin(a);
+            case COS:        return scientific.cos(a);
+            case TAN:        return scientific.tan(a);
+            case SIN_DEG:    return scientific.sinDeg(a);
+            case COS_DEG:    return scientific.cosDeg(a);
+            case TAN_DEG:    return scientific.tanDegOrNaN(a);
+            case ASIN:       return scientific.asinOrNaN(a);
+            case ACOS:       return scientific.acosOrNaN(a);
+            case ATAN:       return scientific.atan(a);
+            case SINH:       return scientific.sinh(a);
+            case COSH:       return scientific.cosh(a);
+            case TANH:       return scientific.tanh(a);
+            case FACTORIAL:  return scientific.factorialOrNaN(toInt(a));
+            default:
+                throw new IllegalStateException("Unknown operation " + op);
+        }
+    }
+    
+    private static int toInt(double value) {
+        if (value != Math.rint(value) || Math.abs(value) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Operand must be an integer.");
+        }
+        return (int) value;
+    }
+    
+    private static boolean isSeparator(char c) {
+        return c == ' ' || c == ',' || c == '\t';
+    }
+    
+    private static int skipSeparators(String line, int pos) {
+        while (pos < line.length() && isSeparator(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private static int nextSeparator(String line, int pos) {
+        while (pos < line.length() && !isSeparator(line.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+    
+    private static void expectEnd(String line, int pos) {
+        if (skipSeparators(line, pos) != line.length()) {
+            throw new IllegalArgumentException("Error: Too many operands.");
+        }
+    }
+    
+    // ==================== Getters ====================
+    
+    /**
+     * Gets the number of lines processed so far.
+     * @return Line count
+     */
+    public long getLineCount() {
+        return lines;
+    }
+    
+    /**
+     * Gets the number of lines that produced an error.
+     * @return Error count
+     */
+    public long getErrorCount() {
+        return errors;
+    }
+}
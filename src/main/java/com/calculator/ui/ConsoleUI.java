@@ -1,62 +1,149 @@
 package com.calculator.ui;
 
 import com.calculator.core.Calculator;
+import com.calculator.core.Constants;
 import com.calculator.core.ScientificOperations;
+import com.calculator.stats.HistoryStatistics;
+import com.calculator.stats.Summary;
 import com.calculator.util.InputHandler;
 import com.calculator.util.CalculationHistory;
 import com.calculator.util.CalculationHistory.HistoryEntry;
+import com.calculator.util.HistoryJournal;
+import com.calculator.util.NumberFormatter;
 
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * ConsoleUI class providing the user interface for the calculator.
  * Handles menu display, user interaction, and operation execution.
+ * 
+ * Each instance is one session: it owns its calculator, memory, history
+ * and streams, so several sessions (over the network, say) can run in one
+ * JVM, each on its own thread. Only the console session keeps a history
+ * journal.
  */
 public class ConsoleUI {
     
     private final Calculator calculator;
     private final ScientificOperations scientific;
     private final InputHandler input;
+    private final PrintStream out;
     private final CalculationHistory history;
+    private final boolean console;
+    private HistoryJournal journal;
+    private HistoryStatistics statistics;
     private boolean running;
     
+    /**
+     * Creates the session of the console: standard input and output.
+     */
     public ConsoleUI() {
+        this(new InputHandler(), System.out, true);
+    }
+    
+    /**
+     * Creates a session on other streams than the console.
+     * @param in Source of the user's input
+     * @param out Destination of menus and results; flushed whenever input is awaited
+     */
+    public ConsoleUI(Reader in, PrintStream out) {
+        this(new InputHandler(in, out), out, false);
+    }
+    
+    private ConsoleUI(InputHandler input, PrintStream out, boolean console) {
         this.calculator = new Calculator();
         this.scientific = new ScientificOperations();
-        this.input = new InputHandler();
+        this.input = input;
+        this.out = out;
         this.history = new CalculationHistory();
+        this.console = console;
         this.running = true;
     }
     
     /**
-     * Starts the calculator application.
+     * Starts the calculator application and returns when the user exits
+     * or the input ends.
      */
     public void start() {
-        while (running) {
-            displayMainMenu();
-            int choice = input.readMenuChoice("Enter your choice: ", 0, 7);
-            processMainMenuChoice(choice);
+        openJournal();
+        // After the journal, so restored entries are counted
+        statistics = HistoryStatistics.attach(history);
+        try {
+            try {
+                while (running) {
+                    displayMainMenu();
+                    int choice = input.readMenuChoice("Enter your choice: ", 0, 7);
+                    processMainMenuChoice(choice);
+                }
+            } catch (NoSuchElementException e) {
+                // End of input: leave as if the user chose Exit
+            }
+            closeJournal();
+            out.println("\nThank you for using Scientific Calculator. Goodbye!");
+            out.flush();
+        } finally {
+            // Also when the input fails, so the last checkpoint is written and the mapping released
+            closeJournal();
+            // Last: closing a socket's reader closes the socket
+            input.close();
+        }
+    }
+    
+    /**
+     * Restores and persists history if a journal file is configured.
+     */
+    private void openJournal() {
+        if (!console) {
+            return;
+        }
+        String path = System.getProperty(Constants.HISTORY_JOURNAL_PROPERTY);
+        if (path == null || path.isEmpty()) {
+            return;
+        }
+        try {
+            journal = HistoryJournal.open(Paths.get(path), Constants.DEFAULT_HISTORY_SIZE);
+            journal.attach(history);
+            journal.startCheckpoints(Constants.HISTORY_CHECKPOINT_SECONDS, TimeUnit.SECONDS);
+        } catch (IOException e) {
+            displayError("Cannot open history journal: " + e.getMessage());
+        }
+    }
+    
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            displayError("Cannot save history journal: " + e.getMessage());
+        } finally {
+            journal = null;
         }
-        input.close();
-        System.out.println("\nThank you for using Scientific Calculator. Goodbye!");
     }
     
     /**
      * Displays the main menu.
      */
     private void displayMainMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│           MAIN MENU                 │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Basic Arithmetic                │");
-        System.out.println("│  2. Scientific Functions            │");
-        System.out.println("│  3. Trigonometric Functions         │");
-        System.out.println("│  4. Logarithmic Functions           │");
-        System.out.println("│  5. Memory Operations               │");
-        System.out.println("│  6. Constants                       │");
-        System.out.println("│  7. Calculation History             │");
-        System.out.println("│  0. Exit                            │");
-        System.out.println("└─────────────────────────────────────┘");
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│           MAIN MENU                 │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Basic Arithmetic                │");
+        out.println("│  2. Scientific Functions            │");
+        out.println("│  3. Trigonometric Functions         │");
+        out.println("│  4. Logarithmic Functions           │");
+        out.println("│  5. Memory Operations               │");
+        out.println("│  6. Constants                       │");
+        out.println("│  7. Calculation History             │");
+        out.println("│  0. Exit                            │");
+        out.println("└─────────────────────────────────────┘");
     }
     
     /**
@@ -102,18 +189,18 @@ public class ConsoleUI {
     // ==================== Basic Arithmetic ====================
     
     private void basicArithmeticMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│       BASIC ARITHMETIC              │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Addition (+)                    │");
-        System.out.println("│  2. Subtraction (-)                 │");
-        System.out.println("│  3. Multiplication (×)              │");
-        System.out.println("│  4. Division (÷)                    │");
-        System.out.println("│  5. Modulus (%)                     │");
-        System.out.println("│  6. Absolute Value (|x|)            │");
-        System.out.println("│  7. Negate (±)                      │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│       BASIC ARITHMETIC              │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Addition (+)                    │");
+        out.println("│  2. Subtraction (-)                 │");
+        out.println("│  3. Multiplication (×)              │");
+        out.println("│  4. Division (÷)                    │");
+        out.println("│  5. Modulus (%)                     │");
+        out.println("│  6. Absolute Value (|x|)            │");
+        out.println("│  7. Negate (±)                      │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
         
         int choice = input.readMenuChoice("Enter your choice: ", 0, 7);
         
@@ -190,21 +277,21 @@ public class ConsoleUI {
     // ==================== Scientific Functions ====================
     
     private void scientificMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│       SCIENTIFIC FUNCTIONS          │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Power (x^y)                     │");
-        System.out.println("│  2. Square (x²)                     │");
-        System.out.println("│  3. Cube (x³)                       │");
-        System.out.println("│  4. Square Root (√x)                │");
-        System.out.println("│  5. Cube Root (∛x)                  │");
-        System.out.println("│  6. Nth Root (ⁿ√x)                  │");
-        System.out.println("│  7. Reciprocal (1/x)                │");
-        System.out.println("│  8. Factorial (n!)                  │");
-        System.out.println("│  9. Permutation P(n,r)              │");
-        System.out.println("│ 10. Combination C(n,r)              │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│       SCIENTIFIC FUNCTIONS          │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Power (x^y)                     │");
+        out.println("│  2. Square (x²)                     │");
+        out.println("│  3. Cube (x³)                       │");
+        out.println("│  4. Square Root (√x)                │");
+        out.println("│  5. Cube Root (∛x)                  │");
+        out.println("│  6. Nth Root (ⁿ√x)                  │");
+        out.println("│  7. Reciprocal (1/x)                │");
+        out.println("│  8. Factorial (n!)                  │");
+        out.println("│  9. Permutation P(n,r)              │");
+        out.println("│ 10. Combination C(n,r)              │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
         
         int choice = input.readMenuChoice("Enter your choice: ", 0, 10);
         
@@ -302,25 +389,25 @@ public class ConsoleUI {
     // ==================== Trigonometric Functions ====================
     
     private void trigonometricMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│      TRIGONOMETRIC FUNCTIONS        │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Sine (radians)                  │");
-        System.out.println("│  2. Cosine (radians)                │");
-        System.out.println("│  3. Tangent (radians)               │");
-        System.out.println("│  4. Sine (degrees)                  │");
-        System.out.println("│  5. Cosine (degrees)                │");
-        System.out.println("│  6. Tangent (degrees)               │");
-        System.out.println("│  7. Arc Sine (asin)                 │");
-        System.out.println("│  8. Arc Cosine (acos)               │");
-        System.out.println("│  9. Arc Tangent (atan)              │");
-        System.out.println("│ 10. Hyperbolic Sine (sinh)          │");
-        System.out.println("│ 11. Hyperbolic Cosine (cosh)        │");
-        System.out.println("│ 12. Hyperbolic Tangent (tanh)       │");
-        System.out.println("│ 13. Degrees to Radians              │");
-        System.out.println("│ 14. Radians to Degrees              │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│      TRIGONOMETRIC FUNCTIONS        │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Sine (radians)                  │");
+        out.println("│  2. Cosine (radians)                │");
+        out.println("│  3. Tangent (radians)               │");
+        out.println("│  4. Sine (degrees)                  │");
+        out.println("│  5. Cosine (degrees)                │");
+        out.println("│  6. Tangent (degrees)               │");
+        out.println("│  7. Arc Sine (asin)                 │");
+        out.println("│  8. Arc Cosine (acos)               │");
+        out.println("│  9. Arc Tangent (atan)              │");
+        out.println("│ 10. Hyperbolic Sine (sinh)          │");
+        out.println("│ 11. Hyperbolic Cosine (cosh)        │");
+        out.println("│ 12. Hyperbolic Tangent (tanh)       │");
+        out.println("│ 13. Degrees to Radians              │");
+        out.println("│ 14. Radians to Degrees              │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
         
         int choice = input.readMenuChoice("Enter your choice: ", 0, 14);
         
@@ -441,16 +528,16 @@ public class ConsoleUI {
     // ==================== Logarithmic Functions ====================
     
     private void logarithmicMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│       LOGARITHMIC FUNCTIONS         │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Natural Logarithm (ln)          │");
-        System.out.println("│  2. Common Logarithm (log₁₀)        │");
-        System.out.println("│  3. Logarithm (custom base)         │");
-        System.out.println("│  4. Exponential (e^x)               │");
-        System.out.println("│  5. Power of 10 (10^x)              │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│       LOGARITHMIC FUNCTIONS         │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Natural Logarithm (ln)          │");
+        out.println("│  2. Common Logarithm (log₁₀)        │");
+        out.println("│  3. Logarithm (custom base)         │");
+        out.println("│  4. Exponential (e^x)               │");
+        out.println("│  5. Power of 10 (10^x)              │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
         
         int choice = input.readMenuChoice("Enter your choice: ", 0, 5);
         
@@ -509,18 +596,18 @@ public class ConsoleUI {
     // ==================== Memory Operations ====================
     
     private void memoryMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│        MEMORY OPERATIONS            │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Memory Store (MS)               │");
-        System.out.println("│  2. Memory Recall (MR)              │");
-        System.out.println("│  3. Memory Add (M+)                 │");
-        System.out.println("│  4. Memory Subtract (M-)            │");
-        System.out.println("│  5. Memory Clear (MC)               │");
-        System.out.println("│  6. Show Last Result                │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
-        System.out.println("   Current Memory: " + calculator.getMemory());
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│        MEMORY OPERATIONS            │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Memory Store (MS)               │");
+        out.println("│  2. Memory Recall (MR)              │");
+        out.println("│  3. Memory Add (M+)                 │");
+        out.println("│  4. Memory Subtract (M-)            │");
+        out.println("│  5. Memory Clear (MC)               │");
+        out.println("│  6. Show Last Result                │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
+        out.println("   Current Memory: " + calculator.getMemory());
         
         int choice = input.readMenuChoice("Enter your choice: ", 0, 6);
         
@@ -563,13 +650,13 @@ public class ConsoleUI {
     // ==================== Constants ====================
     
     private void constantsMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│          CONSTANTS                  │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. Pi (π)                          │");
-        System.out.println("│  2. Euler's Number (e)              │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│          CONSTANTS                  │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. Pi (π)                          │");
+        out.println("│  2. Euler's Number (e)              │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
         
         int choice = input.readMenuChoice("Enter your choice: ", 0, 2);
         
@@ -592,19 +679,20 @@ public class ConsoleUI {
     // ==================== Calculation History ====================
     
     private void historyMenu() {
-        System.out.println("\n┌─────────────────────────────────────┐");
-        System.out.println("│       CALCULATION HISTORY           │");
-        System.out.println("├─────────────────────────────────────┤");
-        System.out.println("│  1. View All History                │");
-        System.out.println("│  2. View Last 10 Calculations       │");
-        System.out.println("│  3. View Last Calculation           │");
-        System.out.println("│  4. Use Result from History         │");
-        System.out.println("│  5. Clear History                   │");
-        System.out.println("│  0. Back to Main Menu               │");
-        System.out.println("└─────────────────────────────────────┘");
-        System.out.println("   Total entries: " + history.size());
+        out.println("\n┌─────────────────────────────────────┐");
+        out.println("│       CALCULATION HISTORY           │");
+        out.println("├─────────────────────────────────────┤");
+        out.println("│  1. View All History                │");
+        out.println("│  2. View Last 10 Calculations       │");
+        out.println("│  3. View Last Calculation           │");
+        out.println("│  4. Use Result from History         │");
+        out.println("│  5. Clear History                   │");
+        out.println("│  6. Result Statistics               │");
+        out.println("│  0. Back to Main Menu               │");
+        out.println("└─────────────────────────────────────┘");
+        out.println("   Total entries: " + history.size());
         
-        int choice = input.readMenuChoice("Enter your choice: ", 0, 5);
+        int choice = input.readMenuChoice("Enter your choice: ", 0, 6);
         
         switch (choice) {
             case 1:
@@ -622,6 +710,9 @@ public class ConsoleUI {
             case 5:
                 clearHistory();
                 break;
+            case 6:
+                displayStatistics();
+                break;
             case 0:
                 // Return to main menu
                 break;
@@ -636,20 +727,20 @@ public class ConsoleUI {
      */
     private void displayAllHistory() {
         if (history.isEmpty()) {
-            System.out.println("\n  📋 No calculations in history yet.");
+            out.println("\n  📋 No calculations in history yet.");
             return;
         }
         
-        System.out.println("\n┌─────────────────────────────────────────────────────┐");
-        System.out.println("│              FULL CALCULATION HISTORY               │");
-        System.out.println("├─────────────────────────────────────────────────────┤");
+        out.println("\n┌─────────────────────────────────────────────────────┐");
+        out.println("│              FULL CALCULATION HISTORY               │");
+        out.println("├─────────────────────────────────────────────────────┤");
         
         List<HistoryEntry> entries = history.getHistory();
         for (int i = 0; i < entries.size(); i++) {
-            System.out.printf("│  %3d. %-44s │%n", (i + 1), entries.get(i).toString());
+            out.printf("│  %3d. %-44s │%n", (i + 1), entries.get(i).toString());
         }
         
-        System.out.println("└─────────────────────────────────────────────────────┘");
+        out.println("└─────────────────────────────────────────────────────┘");
     }
     
     /**
@@ -658,22 +749,22 @@ public class ConsoleUI {
      */
     private void displayRecentHistory(int n) {
         if (history.isEmpty()) {
-            System.out.println("\n  📋 No calculations in history yet.");
+            out.println("\n  📋 No calculations in history yet.");
             return;
         }
         
         List<HistoryEntry> entries = history.getLastEntries(n);
         int startIndex = Math.max(0, history.size() - n);
         
-        System.out.println("\n┌─────────────────────────────────────────────────────┐");
-        System.out.printf("│           LAST %d CALCULATIONS                       │%n", entries.size());
-        System.out.println("├─────────────────────────────────────────────────────┤");
+        out.println("\n┌─────────────────────────────────────────────────────┐");
+        out.printf("│           LAST %d CALCULATIONS                       │%n", entries.size());
+        out.println("├─────────────────────────────────────────────────────┤");
         
         for (int i = 0; i < entries.size(); i++) {
-            System.out.printf("│  %3d. %-44s │%n", (startIndex + i + 1), entries.get(i).toString());
+            out.printf("│  %3d. %-44s │%n", (startIndex + i + 1), entries.get(i).toString());
         }
         
-        System.out.println("└─────────────────────────────────────────────────────┘");
+        out.println("└─────────────────────────────────────────────────────┘");
     }
     
     /**
@@ -682,11 +773,11 @@ public class ConsoleUI {
     private void displayLastCalculation() {
         HistoryEntry last = history.getLastEntry();
         if (last == null) {
-            System.out.println("\n  📋 No calculations in history yet.");
+            out.println("\n  📋 No calculations in history yet.");
             return;
         }
         
-        System.out.println("\n  📊 Last Calculation: " + last.toString());
+        out.println("\n  📊 Last Calculation: " + last.toString());
     }
     
     /**
@@ -694,7 +785,7 @@ public class ConsoleUI {
      */
     private void useHistoryResult() {
         if (history.isEmpty()) {
-            System.out.println("\n  📋 No calculations in history yet.");
+            out.println("\n  📋 No calculations in history yet.");
             return;
         }
         
@@ -719,7 +810,7 @@ public class ConsoleUI {
      */
     private void clearHistory() {
         if (history.isEmpty()) {
-            System.out.println("\n  📋 History is already empty.");
+            out.println("\n  📋 History is already empty.");
             return;
         }
         
@@ -727,17 +818,42 @@ public class ConsoleUI {
             history.clear();
             displayResult("History cleared successfully.");
         } else {
-            System.out.println("\n  Operation cancelled.");
+            out.println("\n  Operation cancelled.");
         }
     }
     
+    /**
+     * Displays statistics of every result since the session started or
+     * the history was last cleared, including entries no longer listed.
+     */
+    private void displayStatistics() {
+        Summary summary = statistics.getSummary();
+        if (summary.getCount() == 0) {
+            out.println("\n  📋 No calculations in history yet.");
+            return;
+        }
+        
+        out.println("\n┌─────────────────────────────────────────────────────┐");
+        out.println("│                 RESULT STATISTICS                   │");
+        out.println("├─────────────────────────────────────────────────────┤");
+        out.printf("│  %-16s %-34s │%n", "Count:", summary.getCount());
+        out.printf("│  %-16s %-34s │%n", "Mean:", NumberFormatter.format(summary.getMean()));
+        out.printf("│  %-16s %-34s │%n", "Std. deviation:", NumberFormatter.format(summary.getStandardDeviation()));
+        out.printf("│  %-16s %-34s │%n", "Minimum:", NumberFormatter.format(summary.getMin()));
+        out.printf("│  %-16s %-34s │%n", "Median:", "≈ " + NumberFormatter.format(summary.getMedian()));
+        out.printf("│  %-16s %-34s │%n", "90th percentile:",
+            "≈ " + NumberFormatter.format(summary.getValueAtPercentile(90)));
+        out.printf("│  %-16s %-34s │%n", "Maximum:", NumberFormatter.format(summary.getMax()));
+        out.println("└─────────────────────────────────────────────────────┘");
+    }
+    
     // ==================== Display Helpers ====================
     
     private void displayResult(String message) {
-        System.out.println("\n  ✓ RESULT: " + message);
+        out.println("\n  ✓ RESULT: " + message);
     }
     
     private void displayError(String message) {
-        System.out.println("\n  ✗ ERROR: " + message);
+        out.println("\n  ✗ ERROR: " + message);
     }
 }
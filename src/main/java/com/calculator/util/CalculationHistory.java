@@ -1,22 +1,82 @@
 package com.calculator.util;
 
-import java.util.ArrayList;
+import com.calculator.core.Constants;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * CalculationHistory class for storing and managing calculation history.
  * Maintains a list of past calculations with timestamps.
+ * 
+ * Entries live in a fixed-capacity ring buffer: adding is O(1) and, once
+ * the history is full, silently overwrites the oldest entry. Any number of
+ * threads may add entries concurrently without locking - each writer
+ * claims the next sequence number with a single atomic increment and owns
+ * that slot.
+ * 
+ * Storage is columnar: results, timestamps and expression operands are
+ * primitive arrays, and expressions are dictionary-encoded as a shared
+ * template plus up to two numbers (see {@link ExpressionDictionary}).
+ * {@link HistoryEntry} objects are only created when an entry is read,
+ * and adding an entry whose template is already known allocates nothing.
+ * Each slot carries the sequence number of the entry it holds, which
+ * readers check before and after reading the columns to detect a slot
+ * being overwritten under them.
+ * 
+ * An entry takes 48 bytes: the sequence, result, timestamp and two
+ * operands at 8 bytes each, the template id, and the reference for
+ * expressions that could not be encoded. That is less than half the cost
+ * of a HistoryEntry with its own expression String, but not a tenth: the
+ * result, timestamp and operands are kept exactly, and those 32 bytes
+ * alone are more than a tenth of the object layout.
+ * 
+ * Lists returned by {@link #getHistory()} and {@link #getLastEntries(int)}
+ * are read-only views over the ring, not copies. They cover the entries
+ * present when the view was created; reading an entry that has since been
+ * evicted throws {@link ConcurrentModificationException}.
  */
 public class CalculationHistory {
     
-    private final List<HistoryEntry> history;
+    // Slot sequence values are stored as sequence + 1, so 0 means "never written"
+    // and BUSY means a writer is filling the slot
+    private static final long BUSY = -1;
+    
+    // Upper bound on distinct expression templates kept in the dictionary
+    private static final int MAX_TEMPLATES = 4096;
+    
     private final int maxSize;
+    private final ExpressionDictionary dictionary;
+    
+    // Columns, indexed by slot
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray results;
+    private final AtomicLongArray timestamps;
+    private final AtomicIntegerArray templates;
+    private final AtomicLongArray firstOperands;
+    private final AtomicLongArray secondOperands;
+    // Only used for expressions the dictionary could not encode
+    private final AtomicReferenceArray<String> rawExpressions;
+    
+    // Sequence number of the next entry to be written (total entries ever added)
+    private final AtomicLong tail;
+    // Sequence number of the first entry still considered part of the history
+    private volatile long head;
+    
+    // Copy-on-write, so adding an entry iterates without locking or allocating
+    private volatile HistoryListener[] listeners = new HistoryListener[0];
     
     /**
      * Creates a history with default max size of 50 entries.
      */
     public CalculationHistory() {
-        this(50);
+        this(Constants.DEFAULT_HISTORY_SIZE);
     }
     
     /**
@@ -24,8 +84,20 @@ public class CalculationHistory {
      * @param maxSize Maximum number of entries to store
      */
     public CalculationHistory(int maxSize) {
-        this.history = new ArrayList<>();
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Error: History size must be positive.");
+        }
         this.maxSize = maxSize;
+        this.dictionary = new ExpressionDictionary(MAX_TEMPLATES);
+        this.sequences = new AtomicLongArray(maxSize);
+        this.results = new AtomicLongArray(maxSize);
+        this.timestamps = new AtomicLongArray(maxSize);
+        this.templates = new AtomicIntegerArray(maxSize);
+        this.firstOperands = new AtomicLongArray(maxSize);
+        this.secondOperands = new AtomicLongArray(maxSize);
+        this.rawExpressions = new AtomicReferenceArray<>(maxSize);
+        this.tail = new AtomicLong();
+        this.head = 0;
     }
     
     /**
@@ -34,29 +106,57 @@ public class CalculationHistory {
      * @param result The result of the calculation
      */
     public void addEntry(String expression, double result) {
-        if (history.size() >= maxSize) {
-            history.remove(0); // Remove oldest entry
+        long timestamp = System.currentTimeMillis();
+        store(expression, result, timestamp);
+        for (HistoryListener listener : listeners) {
+            listener.entryAdded(expression, result, timestamp);
+        }
+    }
+    
+    /**
+     * Adds an entry with a known timestamp without notifying listeners.
+     * Used when restoring a persisted history.
+     */
+    void restoreEntry(String expression, double result, long timestamp) {
+        store(expression, result, timestamp);
+    }
+    
+    private void store(String expression, double result, long timestamp) {
+        double[] operands = ExpressionDictionary.operandBuffer();
+        int template = dictionary.encode(expression, operands);
+        
+        long sequence = tail.getAndIncrement();
+        int slot = slotOf(sequence);
+        if (!claim(slot, sequence)) {
+            return; // A newer entry already owns the slot, so this one is evicted
         }
-        history.add(new HistoryEntry(expression, result));
+        results.lazySet(slot, Double.doubleToRawLongBits(result));
+        timestamps.lazySet(slot, timestamp);
+        templates.lazySet(slot, template);
+        firstOperands.lazySet(slot, Double.doubleToRawLongBits(operands[0]));
+        secondOperands.lazySet(slot, Double.doubleToRawLongBits(operands[1]));
+        rawExpressions.lazySet(slot, template == ExpressionDictionary.NONE ? expression : null);
+        sequences.lazySet(slot, sequence + 1); // Publish the entry
     }
     
     /**
      * Gets all history entries.
-     * @return List of history entries
+     * @return Read-only view of the history, oldest first
      */
     public List<HistoryEntry> getHistory() {
-        return new ArrayList<>(history);
+        long end = tail.get();
+        return new View(firstSequence(end), end);
     }
     
     /**
      * Gets the last N entries.
      * @param n Number of entries to retrieve
-     * @return List of last N entries
+     * @return Read-only view of the last N entries, oldest first
      */
     public List<HistoryEntry> getLastEntries(int n) {
-        int size = history.size();
-        int start = Math.max(0, size - n);
-        return new ArrayList<>(history.subList(start, size));
+        long end = tail.get();
+        long start = Math.max(firstSequence(end), end - Math.max(0, n));
+        return new View(start, end);
     }
     
     /**
@@ -64,10 +164,11 @@ public class CalculationHistory {
      * @return Most recent history entry, or null if empty
      */
     public HistoryEntry getLastEntry() {
-        if (history.isEmpty()) {
+        long end = tail.get();
+        if (end <= firstSequence(end)) {
             return null;
         }
-        return history.get(history.size() - 1);
+        return read(end - 1);
     }
     
     /**
@@ -76,17 +177,74 @@ public class CalculationHistory {
      * @return History entry at index
      */
     public HistoryEntry getEntry(int index) {
-        if (index < 0 || index >= history.size()) {
+        long end = tail.get();
+        long start = firstSequence(end);
+        if (index < 0 || index >= end - start) {
             return null;
         }
-        return history.get(index);
+        return read(start + index);
+    }
+    
+    /**
+     * Gets the results of all entries without materializing the entries.
+     * @return Results, oldest first
+     */
+    public double[] getResults() {
+        long end = tail.get();
+        long start = firstSequence(end);
+        double[] copy = new double[(int) (end - start)];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = readResult(start + i);
+        }
+        return copy;
     }
     
     /**
      * Clears all history.
+     * Entries added concurrently with the clear may or may not survive it.
      */
     public void clear() {
-        history.clear();
+        long end = tail.get();
+        head = end;
+        // Release unencoded expressions for garbage collection, leaving newer entries alone
+        for (int i = 0; i < maxSize; i++) {
+            String raw = rawExpressions.get(i);
+            long stored = sequences.get(i);
+            if (raw != null && stored != BUSY && stored <= end) {
+                rawExpressions.compareAndSet(i, raw, null);
+            }
+        }
+        for (HistoryListener listener : listeners) {
+            listener.historyCleared();
+        }
+    }
+    
+    /**
+     * Registers a listener to be notified of new entries and clears.
+     * @param listener Listener to add
+     */
+    public synchronized void addListener(HistoryListener listener) {
+        HistoryListener[] current = listeners;
+        HistoryListener[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = listener;
+        listeners = updated;
+    }
+    
+    /**
+     * Unregisters a listener.
+     * @param listener Listener to remove
+     */
+    public synchronized void removeListener(HistoryListener listener) {
+        HistoryListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == listener) {
+                HistoryListener[] updated = new HistoryListener[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                listeners = updated;
+                return;
+            }
+        }
     }
     
     /**
@@ -94,7 +252,8 @@ public class CalculationHistory {
      * @return Number of entries
      */
     public int size() {
-        return history.size();
+        long end = tail.get();
+        return (int) (end - firstSequence(end));
     }
     
     /**
@@ -102,7 +261,123 @@ public class CalculationHistory {
      * @return true if no entries
      */
     public boolean isEmpty() {
-        return history.isEmpty();
+        return size() == 0;
+    }
+    
+    /**
+     * Gets the maximum number of entries kept.
+     * @return History capacity
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+    
+    // ==================== Ring Buffer Helpers ====================
+    
+    private long firstSequence(long end) {
+        // A clear() after end was read can move head past it; that leaves nothing to read
+        return Math.min(end, Math.max(head, end - maxSize));
+    }
+    
+    private int slotOf(long sequence) {
+        return (int) (sequence % maxSize);
+    }
+    
+    /**
+     * Marks a slot as being written for a sequence number.
+     * @return false if the slot already holds a newer entry
+     */
+    private boolean claim(int slot, long sequence) {
+        while (true) {
+            long stored = sequences.get(slot);
+            if (stored == BUSY) {
+                Thread.yield(); // Another writer lapped onto this slot and is mid-write
+                continue;
+            }
+            if (stored > sequence + 1) {
+                return false;
+            }
+            if (sequences.compareAndSet(slot, stored, BUSY)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Waits until the slot for a sequence number holds that entry.
+     * @return The slot index
+     * @throws ConcurrentModificationException if the entry was evicted or cleared
+     */
+    private int awaitSlot(long sequence) {
+        int slot = slotOf(sequence);
+        while (true) {
+            long stored = sequences.get(slot);
+            if (stored == sequence + 1) {
+                return slot;
+            }
+            if (stored > sequence + 1 || sequence < head) {
+                throw new ConcurrentModificationException("History entry was evicted.");
+            }
+            Thread.yield(); // Writer of this sequence (or an older one) is still in progress
+        }
+    }
+    
+    private double readResult(long sequence) {
+        while (true) {
+            int slot = awaitSlot(sequence);
+            double result = Double.longBitsToDouble(results.get(slot));
+            if (sequences.get(slot) == sequence + 1) {
+                return result;
+            }
+        }
+    }
+    
+    /**
+     * Materializes the entry with the given sequence number.
+     */
+    private HistoryEntry read(long sequence) {
+        while (true) {
+            int slot = awaitSlot(sequence);
+            double result = Double.longBitsToDouble(results.get(slot));
+            long timestamp = timestamps.get(slot);
+            int template = templates.get(slot);
+            double first = Double.longBitsToDouble(firstOperands.get(slot));
+            double second = Double.longBitsToDouble(secondOperands.get(slot));
+            String raw = rawExpressions.get(slot);
+            if (sequences.get(slot) != sequence + 1) {
+                continue; // Overwritten while reading - awaitSlot will report the eviction
+            }
+            String expression = template == ExpressionDictionary.NONE
+                ? raw
+                : dictionary.decode(template, first, second);
+            return new HistoryEntry(expression, result, timestamp);
+        }
+    }
+    
+    /**
+     * Read-only list view over a fixed range of sequence numbers.
+     */
+    private final class View extends AbstractList<HistoryEntry> {
+        private final long start;
+        private final int size;
+        
+        View(long start, long end) {
+            this.start = start;
+            this.size = (int) Math.max(0, end - start);
+        }
+        
+        @Override
+        public HistoryEntry get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return read(start + index);
+        }
+        
+        @Override
+        public int size() {
+            return size;
+        }
     }
     
     /**
@@ -114,9 +389,13 @@ public class CalculationHistory {
         private final long timestamp;
         
         public HistoryEntry(String expression, double result) {
+            this(expression, result, System.currentTimeMillis());
+        }
+        
+        public HistoryEntry(String expression, double result, long timestamp) {
             this.expression = expression;
             this.result = result;
-            this.timestamp = System.currentTimeMillis();
+            this.timestamp = timestamp;
         }
         
         public String getExpression() {
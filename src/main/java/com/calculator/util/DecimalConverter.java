@@ -0,0 +1,625 @@
+package com.calculator.util;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * Converts a double to the shortest decimal that reads back as the same
+ * double, using Raffaello Giulietti's Schubfach algorithm ("The Schubfach
+ * way to render doubles", 2020) - the algorithm behind Double.toString
+ * since Java 19.
+ *
+ * Besides the digits, the conversion reports on which side of the decimal
+ * the exact binary value lies. That is enough to round the decimal to
+ * fewer digits exactly as if the full binary expansion had been rounded,
+ * which is how DecimalFormat rounds, without any big-number arithmetic.
+ *
+ * DecimalFormat does not start from the shortest decimal but from the
+ * digits of the Double.toString algorithm before Java 19 (FloatingDecimal),
+ * which are sometimes longer, so {@link #convertFloatingDecimal} reproduces
+ * those for formatting that must match it.
+ *
+ * An instance holds the result of its last conversion in plain fields, so
+ * each thread must use its own instance. Converting never allocates.
+ */
+final class DecimalConverter {
+
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << (P - 1);
+    private static final long T_MASK = C_MIN - 1;
+    private static final int BQ_MASK = 0x7ff;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    private static final int C_TINY = 3;
+    private static final long MASK_63 = (1L << 63) - 1;
+
+    /** Powers of ten that fit in a long. */
+    static final long[] POW10 = new long[19];
+
+    // Powers of five that fit in a long, and FloatingDecimal's bit-length estimates of them
+    private static final long[] POW5 = new long[27];
+    private static final int[] N_5_BITS = {
+        0, 3, 5, 7, 10, 12, 14, 17, 19, 21, 24, 26, 28, 31, 33, 35, 38, 40, 42, 45, 47, 49, 52, 54, 56, 59, 61
+    };
+
+    /*
+     * For each k in [K_MIN, K_MAX], g = floor(10^-k 2^-r) + 1 where r is
+     * chosen so that 2^125 <= 10^-k 2^-r < 2^126, stored as two 63-bit halves.
+     */
+    private static final long[] G1 = new long[K_MAX - K_MIN + 1];
+    private static final long[] G0 = new long[K_MAX - K_MIN + 1];
+
+    static {
+        POW10[0] = 1;
+        for (int i = 1; i < POW10.length; i++) {
+            POW10[i] = POW10[i - 1] * 10;
+        }
+        POW5[0] = 1;
+        for (int i = 1; i < POW5.length; i++) {
+            POW5[i] = POW5[i - 1] * 5;
+        }
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                int shift = 126 - pow.bitLength();
+                g = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else {
+                BigInteger pow = BigInteger.TEN.pow(k);
+                g = BigInteger.ONE.shiftLeft(125 + pow.bitLength()).divide(pow);
+            }
+            g = g.add(BigInteger.ONE);
+            G1[k - K_MIN] = g.shiftRight(63).longValue();
+            G0[k - K_MIN] = g.longValue() & MASK_63;
+        }
+    }
+
+    /** Decimal digits of the last conversion, without trailing zeros. */
+    long digits;
+
+    /** Power of ten of the last digit: the decimal is digits * 10^exponent. */
+    int exponent;
+
+    /** Number of decimal digits (1 for zero). */
+    int length;
+
+    /**
+     * Sign of |value| - digits * 10^exponent: 0 when the decimal is exact,
+     * otherwise tells which way the shortest decimal was rounded.
+     */
+    int error;
+
+    // Operands of the big FloatingDecimal digit loop
+    private final Big bigB = new Big();
+    private final Big bigS = new Big();
+    private final Big bigM = new Big();
+    private final Big bigTenS = new Big();
+    private final Big bigSum = new Big();
+
+    /**
+     * Converts the magnitude of a finite double (the sign is ignored).
+     * @param value Finite value to convert
+     */
+    void convert(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & T_MASK;
+        int bq = (int) (bits >>> (P - 1)) & BQ_MASK;
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            // Integers below 2^53 are their own shortest decimal
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    set(f, 0, 0);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0);
+        } else if (t != 0) {
+            if (t < C_TINY) {
+                toDecimal(Q_MIN, 10 * t, -1);
+            } else {
+                toDecimal(Q_MIN, t, 0);
+            }
+        } else {
+            set(0, 0, 0);
+        }
+    }
+
+    /**
+     * Sets the decimal to a whole number the way DecimalFormat digits it:
+     * exactly below 2^55, and above that with the low digits that the
+     * double cannot hold rounded away (half up), one per three bits.
+     * @param value Non-negative whole number
+     */
+    void convertWhole(long value) {
+        int insignificant = flog10pow2(Math.max(0, 63 - Long.numberOfLeadingZeros(value) - P - 1));
+        if (insignificant == 0) {
+            set(value, 0, 0);
+            return;
+        }
+        long unit = POW10[insignificant];
+        long q = value / unit;
+        long r = value - q * unit;
+        if (r >= unit >> 1) {
+            set(q + 1, insignificant, -1);
+        } else {
+            set(q, insignificant, r == 0 ? 0 : 1);
+        }
+    }
+
+    /**
+     * Converts the magnitude of a finite double to the digits DecimalFormat
+     * rounds, which come from the Double.toString algorithm of Java 8 to 18
+     * (FloatingDecimal) on every Java version. They are usually the shortest
+     * decimal as well, but not always: 1.0E23 gives 9.999999999999999E22,
+     * and whole numbers below 2^63 keep all their significant digits.
+     *
+     * The error is set from what FloatingDecimal reports to DecimalFormat:
+     * -1 when it rounded the last digit up, 0 when it found the digits exact
+     * and 1 otherwise, which is not always the true sign.
+     * @param value Finite value to convert
+     */
+    void convertFloatingDecimal(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long fractBits = bits & T_MASK;
+        int binExp = (int) (bits >>> (P - 1)) & BQ_MASK;
+        int nSignificantBits;
+        if (binExp == 0) {
+            if (fractBits == 0) {
+                set(0, 0, 0);
+                return;
+            }
+            // Normalize subnormals so the leading bit is where the hidden bit would be
+            int leadingZeros = Long.numberOfLeadingZeros(fractBits);
+            int shift = leadingZeros - (64 - P);
+            fractBits <<= shift;
+            binExp = 1 - shift;
+            nSignificantBits = 64 - leadingZeros;
+        } else {
+            fractBits |= C_MIN;
+            nSignificantBits = P;
+        }
+        binExp -= 1023;
+        int tailZeros = Long.numberOfTrailingZeros(fractBits);
+        int nFractBits = P - tailZeros;
+        int nTinyBits = Math.max(0, nFractBits - binExp - 1);
+        if (nTinyBits == 0 && binExp <= 62) {
+            // Whole numbers that fit in a long; FloatingDecimal never calls these exact
+            convertWhole(binExp >= P - 1 ? fractBits << (binExp - P + 1) : fractBits >>> (P - 1 - binExp));
+            error = 1;
+            return;
+        }
+        floatingDecimal(binExp, fractBits, nSignificantBits, nFractBits, tailZeros, nTinyBits);
+    }
+    
+    /**
+     * Finds the shortest decimal in the rounding interval of c 2^q, picking
+     * the closest one when there are two (section 9 of the paper).
+     */
+    private void toDecimal(int q, long c, int dk) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            // Regular spacing of neighbouring doubles
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            // At a power of two the gap below is half the gap above
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G1[k - K_MIN];
+        long g0 = G0[k - K_MIN];
+
+        // vb, vbl and vbr are v, its lower and its upper bound times 4 10^-k, rounded to odd
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // Try one digit less first: s' = floor(s / 10)
+            long sp10 = 10 * multiplyHigh(s, 115_292_150_460_684_698L << 4);
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                long d = upin ? sp10 : tp10;
+                set(d, k + dk, Long.signum(vb - (d << 2)));
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        long d;
+        if (uin != win) {
+            d = uin ? s : t;
+        } else {
+            long cmp = vb - ((s + t) << 1);
+            d = cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t;
+        }
+        // vb is exact when even and strictly between multiples of 4 when odd, so this sign is exact
+        set(d, k + dk, Long.signum(vb - (d << 2)));
+    }
+
+    private void set(long d, int e, int err) {
+        if (d == 0) {
+            digits = 0;
+            exponent = 0;
+            length = 1;
+            error = err;
+            return;
+        }
+        while (d % 10 == 0) {
+            d /= 10;
+            e++;
+        }
+        digits = d;
+        exponent = e;
+        length = digitCount(d);
+        error = err;
+    }
+
+    /**
+     * Rounds the decimal half-even to a multiple of 10^position, using the
+     * recorded error so ties are broken by the exact binary value.
+     * @param position Power of ten of the last digit to keep
+     */
+    void roundTo(int position) {
+        int drop = position - exponent;
+        if (drop <= 0) {
+            return;
+        }
+        if (drop > length) {
+            // Less than a tenth of the unit kept, so well below half of it
+            set(0, 0, 1);
+            exponent = position;
+            return;
+        }
+        long unit = POW10[drop];
+        long q = digits / unit;
+        long r = digits - q * unit;
+        long half = unit >> 1;
+        int err = r == 0 ? error : 1;
+        if (r > half || r == half && (error > 0 || error == 0 && (q & 1) != 0)) {
+            q++;
+            err = -1;
+        }
+        set(q, position, err);
+        exponent = q == 0 ? position : exponent;
+    }
+    
+    /**
+     * Gets the power of ten of the leading digit.
+     * @return Decimal exponent in scientific notation
+     */
+    int scientificExponent() {
+        return exponent + length - 1;
+    }
+
+    static int digitCount(long d) {
+        int n = flog10pow2(64 - Long.numberOfLeadingZeros(d));
+        return d >= POW10[n] ? n + 1 : n;
+    }
+
+    // ==================== FloatingDecimal Digits ====================
+
+    /**
+     * Generates digits as FloatingDecimal.dtoa does once the value is not a
+     * long: digit by digit from the estimated decimal exponent, stopping when
+     * the rest fits in half an ulp, but never after the first digit outside
+     * [10^-3, 10^8). B / S is the remaining value and M half its ulp; like
+     * dtoa this uses int, long or big arithmetic depending on their sizes,
+     * whose different overflow and boundary behaviour shows in the digits.
+     */
+    private void floatingDecimal(int binExp, long fractBits, int nSignificantBits, int nFractBits,
+                                 int tailZeros, int nTinyBits) {
+        int decExp = estimateDecExp(fractBits, binExp);
+        int b5 = Math.max(0, -decExp);
+        int b2 = b5 + nTinyBits + binExp;
+        int s5 = Math.max(0, decExp);
+        int s2 = s5 + nTinyBits;
+        int m5 = b5;
+        int m2 = b2 - nSignificantBits;
+        fractBits >>>= tailZeros;
+        b2 -= nFractBits - 1;
+        int common2 = Math.min(b2, s2);
+        b2 -= common2;
+        s2 -= common2;
+        m2 -= common2;
+        if (nFractBits == 1) {
+            m2 -= 1;
+        }
+        if (m2 < 0) {
+            b2 -= m2;
+            s2 -= m2;
+            m2 = 0;
+        }
+        int bBits = nFractBits + b2 + (b5 < N_5_BITS.length ? N_5_BITS[b5] : b5 * 3);
+        int tenSBits = s2 + 1 + (s5 + 1 < N_5_BITS.length ? N_5_BITS[s5 + 1] : (s5 + 1) * 3);
+        long d = 0;
+        int n = 0;
+        boolean low;
+        boolean high;
+        long lowDigitDifference;
+        boolean exact;
+        if (bBits < 32 && tenSBits < 32) {
+            int b = ((int) fractBits * (int) POW5[b5]) << b2;
+            int s = (int) POW5[s5] << s2;
+            int m = (int) POW5[m5] << m2;
+            int tens = s * 10;
+            int q = b / s;
+            b = 10 * (b % s);
+            m *= 10;
+            low = b < m;
+            high = b + m > tens;
+            if (q == 0 && !high) {
+                decExp--;
+            } else {
+                d = q;
+                n = 1;
+            }
+            if (decExp < -3 || decExp >= 8) {
+                high = low = false;
+            }
+            while (!low && !high) {
+                q = b / s;
+                b = 10 * (b % s);
+                m *= 10;
+                if (m > 0) {
+                    low = b < m;
+                    high = b + m > tens;
+                } else {
+                    low = high = true;
+                }
+                d = 10 * d + q;
+                n++;
+            }
+            lowDigitDifference = (b << 1) - tens;
+            exact = b == 0;
+        } else if (bBits < 64 && tenSBits < 64) {
+            long b = (fractBits * POW5[b5]) << b2;
+            long s = POW5[s5] << s2;
+            long m = POW5[m5] << m2;
+            long tens = s * 10;
+            int q = (int) (b / s);
+            b = 10 * (b % s);
+            m *= 10;
+            low = b < m;
+            high = b + m > tens;
+            if (q == 0 && !high) {
+                decExp--;
+            } else {
+                d = q;
+                n = 1;
+            }
+            if (decExp < -3 || decExp >= 8) {
+                high = low = false;
+            }
+            while (!low && !high) {
+                q = (int) (b / s);
+                b = 10 * (b % s);
+                m *= 10;
+                if (m > 0) {
+                    low = b < m;
+                    high = b + m > tens;
+                } else {
+                    low = high = true;
+                }
+                d = 10 * d + q;
+                n++;
+            }
+            lowDigitDifference = (b << 1) - tens;
+            exact = b == 0;
+        } else {
+            // Big arithmetic; here a tie with the upper end counts as high
+            bigS.setPow52(1, s5, s2);
+            bigB.setPow52(fractBits, b5, b2);
+            bigM.setPow52(1, m5 + 1, m2 + 1);
+            bigTenS.setPow52(1, s5 + 1, s2 + 1);
+            int q = bigB.quotientAndTimesTen(bigS);
+            low = bigB.compareTo(bigM) < 0;
+            high = bigTenS.compareTo(bigSum.sum(bigB, bigM)) <= 0;
+            if (q == 0 && !high) {
+                decExp--;
+            } else {
+                d = q;
+                n = 1;
+            }
+            if (decExp < -3 || decExp >= 8) {
+                high = low = false;
+            }
+            while (!low && !high) {
+                q = bigB.quotientAndTimesTen(bigS);
+                bigM.multiply(10);
+                low = bigB.compareTo(bigM) < 0;
+                high = bigTenS.compareTo(bigSum.sum(bigB, bigM)) <= 0;
+                d = 10 * d + q;
+                n++;
+            }
+            lowDigitDifference = high && low ? bigSum.sum(bigB, bigB).compareTo(bigTenS) : 0;
+            exact = bigB.isZero();
+        }
+        // Round the last digit by the stopping condition, half-even on a tie
+        boolean roundUp = high && (!low || lowDigitDifference > 0 || lowDigitDifference == 0 && (d & 1) != 0);
+        int e = decExp + 1 - n;
+        if (!roundUp) {
+            set(d, e, exact ? 0 : 1);
+        } else if (d + 1 == POW10[n]) {
+            // A carry out of the first digit is not reported as rounding up
+            set(d + 1, e, exact ? 0 : 1);
+        } else {
+            set(d + 1, e, -1);
+        }
+    }
+
+    /**
+     * FloatingDecimal's estimate of floor(log10(fractBits 2^(binExp - 52))),
+     * sometimes one too high.
+     */
+    private static int estimateDecExp(long fractBits, int binExp) {
+        double d2 = Double.longBitsToDouble(0x3ff0000000000000L | (fractBits & T_MASK));
+        double d = (d2 - 1.5) * 0.289529654 + 0.176091259 + binExp * 0.301029995663981;
+        return (int) Math.floor(d);
+    }
+
+    /**
+     * Non-negative integer of up to 1536 bits for the big digit loop, in
+     * little-endian 32-bit words; reused so converting does not allocate.
+     */
+    private static final class Big {
+
+        private final int[] words = new int[48];
+        private int length;
+
+        /** Sets this to factor 5^p5 2^p2. */
+        void setPow52(long factor, int p5, int p2) {
+            words[0] = (int) factor;
+            words[1] = (int) (factor >>> 32);
+            length = words[1] != 0 ? 2 : words[0] != 0 ? 1 : 0;
+            for (; p5 >= 13; p5 -= 13) {
+                multiply((int) POW5[13]);
+            }
+            multiply((int) POW5[p5]);
+            shiftLeft(p2);
+        }
+
+        void multiply(int factor) {
+            long carry = 0;
+            for (int i = 0; i < length; i++) {
+                long product = (words[i] & 0xffffffffL) * factor + carry;
+                words[i] = (int) product;
+                carry = product >>> 32;
+            }
+            if (carry != 0) {
+                words[length++] = (int) carry;
+            }
+        }
+
+        private void shiftLeft(int shift) {
+            if (length == 0 || shift == 0) {
+                return;
+            }
+            int wordShift = shift >>> 5;
+            int bitShift = shift & 31;
+            if (bitShift != 0) {
+                words[length] = 0;
+                for (int i = length; i > 0; i--) {
+                    words[i] = words[i] << bitShift | words[i - 1] >>> (32 - bitShift);
+                }
+                words[0] <<= bitShift;
+                if (words[length] != 0) {
+                    length++;
+                }
+            }
+            if (wordShift != 0) {
+                System.arraycopy(words, 0, words, wordShift, length);
+                Arrays.fill(words, 0, wordShift, 0);
+                length += wordShift;
+            }
+        }
+
+        /** Sets this to 10 (this mod divisor) and returns this / divisor, which must be below 10. */
+        int quotientAndTimesTen(Big divisor) {
+            int q = 0;
+            while (compareTo(divisor) >= 0) {
+                long borrow = 0;
+                for (int i = 0; i < length; i++) {
+                    long subtrahend = i < divisor.length ? divisor.words[i] & 0xffffffffL : 0;
+                    long difference = (words[i] & 0xffffffffL) - subtrahend - borrow;
+                    words[i] = (int) difference;
+                    borrow = difference >>> 63;
+                }
+                while (length > 0 && words[length - 1] == 0) {
+                    length--;
+                }
+                q++;
+            }
+            multiply(10);
+            return q;
+        }
+
+        /** Sets this to x + y and returns it. */
+        Big sum(Big x, Big y) {
+            Big longer = x.length >= y.length ? x : y;
+            Big shorter = longer == x ? y : x;
+            long carry = 0;
+            for (int i = 0; i < longer.length; i++) {
+                long addend = i < shorter.length ? shorter.words[i] & 0xffffffffL : 0;
+                long total = (longer.words[i] & 0xffffffffL) + addend + carry;
+                words[i] = (int) total;
+                carry = total >>> 32;
+            }
+            length = longer.length;
+            if (carry != 0) {
+                words[length++] = 1;
+            }
+            return this;
+        }
+
+        int compareTo(Big other) {
+            if (length != other.length) {
+                return length < other.length ? -1 : 1;
+            }
+            for (int i = length - 1; i >= 0; i--) {
+                if (words[i] != other.words[i]) {
+                    return Integer.compareUnsigned(words[i], other.words[i]);
+                }
+            }
+            return 0;
+        }
+
+        boolean isZero() {
+            return length == 0;
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    /** floor(e log10(2)) for |e| <= 5456721 */
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    /** floor(e log10(3/4) + e log10(2)) for |e| <= 5456721 */
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    /** floor(e log2(10)) for |e| <= 1838394 */
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+
+    /**
+     * Computes rop(cp g 2^-127), the product rounded to odd: floor when
+     * exact, otherwise floor with the lowest bit set.
+     */
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | (z & MASK_63) + MASK_63 >>> 63;
+    }
+
+    /** High 64 bits of the 128-bit product of two non-negative longs (Math.multiplyHigh needs Java 9). */
+    private static long multiplyHigh(long x, long y) {
+        long x1 = x >>> 32;
+        long x0 = x & 0xffffffffL;
+        long y1 = y >>> 32;
+        long y0 = y & 0xffffffffL;
+        long p01 = x0 * y1;
+        long middle = x1 * y0 + ((x0 * y0) >>> 32) + (p01 & 0xffffffffL);
+        return x1 * y1 + (middle >>> 32) + (p01 >>> 32);
+    }
+}
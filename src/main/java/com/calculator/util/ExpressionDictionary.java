@@ -0,0 +1,303 @@
+package com.calculator.util;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Dictionary that splits history expressions into a shared template and up
+ * to two numeric operands, so "5.0 + 3.0" and "7.5 + 2.0" both store the
+ * template "# + #" once and keep only their numbers per entry.
+ * 
+ * Encoding is exact: an operand is only extracted when re-formatting its
+ * value reproduces the original text, otherwise the text stays in the
+ * template. When the dictionary is full, encode returns {@link #NONE} and
+ * the caller must keep the expression itself.
+ * 
+ * Encoding an expression whose template is already known allocates
+ * nothing: the template is assembled in a per-thread buffer, operands are
+ * parsed and checked in place, and the template is found by probing a
+ * hash table of ids with the buffer's characters rather than a String key.
+ */
+final class ExpressionDictionary {
+    
+    /** Template id meaning "not encoded". */
+    static final int NONE = -1;
+    
+    /** Maximum number of operands extracted per expression. */
+    static final int MAX_OPERANDS = 2;
+    
+    // Placeholders marking where an operand is re-inserted, by formatting style
+    private static final char DOUBLE_SLOT = '\u0000';
+    private static final char LONG_SLOT = '\u0001';
+    
+    // Longest integer literal kept as an operand; longer ones may not be exact as a double
+    private static final int MAX_INTEGER_LENGTH = 15;
+    
+    // Buffers reused by every encode on a thread
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+    
+    private final int maxTemplates;
+    // Open-addressed hash table of template id + 1 (0 = empty), at most half full
+    private final AtomicIntegerArray table;
+    private final int mask;
+    private volatile String[] templates;
+    private volatile int templateCount; // Written only while holding this
+    
+    /**
+     * Creates a dictionary.
+     * @param maxTemplates Maximum number of distinct templates to keep
+     */
+    ExpressionDictionary(int maxTemplates) {
+        this.maxTemplates = maxTemplates;
+        int tableSize = Integer.highestOneBit(Math.max(1, maxTemplates)) << 2;
+        this.table = new AtomicIntegerArray(tableSize);
+        this.mask = tableSize - 1;
+        this.templates = new String[16];
+    }
+    
+    /**
+     * Gets the calling thread's array for receiving the operands of
+     * {@link #encode}. Its contents are overwritten by the next encode on
+     * the same thread.
+     * @return Array of length MAX_OPERANDS
+     */
+    static double[] operandBuffer() {
+        return SCRATCH.get().operands;
+    }
+    
+    /**
+     * Encodes an expression.
+     * @param expression Expression text
+     * @param operands Receives the extracted operands (length at least MAX_OPERANDS)
+     * @return Template id, or NONE if the expression could not be encoded
+     */
+    int encode(String expression, double[] operands) {
+        if (expression == null || expression.indexOf(DOUBLE_SLOT) >= 0 || expression.indexOf(LONG_SLOT) >= 0) {
+            return NONE;
+        }
+        Scratch scratch = SCRATCH.get();
+        StringBuilder template = scratch.template;
+        template.setLength(0);
+        int count = 0;
+        int i = 0;
+        int length = expression.length();
+        while (i < length) {
+            // Digits that continue a name or number (e.g. "log10") are not operands
+            boolean boundary = i == 0 || !Character.isLetterOrDigit(expression.charAt(i - 1));
+            int end = count < MAX_OPERANDS && boundary ? scanNumber(expression, i) : i;
+            if (end == i) {
+                template.append(expression.charAt(i++));
+                continue;
+            }
+            boolean integral = true;
+            for (int j = i; j < end; j++) {
+                char c = expression.charAt(j);
+                integral &= c != '.' && c != 'E';
+            }
+            double value = integral ? parseInteger(expression, i, end)
+                : parseDouble(expression, i, end, scratch.number);
+            if (!Double.isNaN(value)) {
+                operands[count++] = value;
+                template.append(integral ? LONG_SLOT : DOUBLE_SLOT);
+            } else {
+                template.append(expression, i, end); // Does not round-trip - keep it literal
+            }
+            i = end;
+        }
+        return idOf(template);
+    }
+    
+    /**
+     * Rebuilds an expression from its template and operands.
+     * @param id Template id returned by encode
+     * @param first First operand
+     * @param second Second operand
+     * @return Original expression text
+     */
+    String decode(int id, double first, double second) {
+        String template = templates[id];
+        StringBuilder expression = new StringBuilder(template.length() + 16);
+        int used = 0;
+        for (int i = 0; i < template.length(); i++) {
+            char c = template.charAt(i);
+            if (c == DOUBLE_SLOT || c == LONG_SLOT) {
+                double value = used++ == 0 ? first : second;
+                if (c == LONG_SLOT) {
+                    expression.append((long) value);
+                } else {
+                    expression.append(value);
+                }
+            } else {
+                expression.append(c);
+            }
+        }
+        return expression.toString();
+    }
+    
+    /**
+     * Gets the number of distinct templates stored.
+     * @return Template count
+     */
+    int size() {
+        return templateCount;
+    }
+    
+    /**
+     * Gets a template by id, in its encoded form.
+     * @param id Template id
+     * @return Template text with operand placeholders
+     */
+    String template(int id) {
+        return templates[id];
+    }
+    
+    /**
+     * Looks up or adds a template in its encoded form.
+     * Used to restore a dictionary so ids stay the same across restarts.
+     * @param template Template text with operand placeholders
+     * @return Template id, or NONE if the dictionary is full
+     */
+    int idOf(CharSequence template) {
+        int hash = hash(template);
+        int id = find(template, hash);
+        if (id != NONE) {
+            return id;
+        }
+        synchronized (this) {
+            id = find(template, hash);
+            if (id != NONE || templateCount >= maxTemplates) {
+                return id;
+            }
+            id = templateCount;
+            String[] current = templates;
+            if (id == current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[id] = template.toString();
+            templates = current; // Publish before the id becomes visible
+            int index = hash & mask;
+            while (table.get(index) != 0) {
+                index = (index + 1) & mask;
+            }
+            table.set(index, id + 1);
+            templateCount = id + 1;
+            return id;
+        }
+    }
+    
+    /**
+     * Probes the table for a template.
+     * @return Template id, or NONE if it is not in the dictionary
+     */
+    private int find(CharSequence template, int hash) {
+        for (int index = hash & mask; ; index = (index + 1) & mask) {
+            int entry = table.get(index);
+            if (entry == 0) {
+                return NONE;
+            }
+            if (templates[entry - 1].contentEquals(template)) {
+                return entry - 1;
+            }
+        }
+    }
+    
+    private static int hash(CharSequence text) {
+        int hash = 0;
+        for (int i = 0; i < text.length(); i++) {
+            hash = 31 * hash + text.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+    
+    /**
+     * Finds the end of a number literal (-?digits[.digits][E-?digits]) at a position.
+     * @return End index, or start if there is no number there
+     */
+    private static int scanNumber(String s, int start) {
+        int i = start;
+        if (i < s.length() && s.charAt(i) == '-') {
+            i++;
+        }
+        int digits = skipDigits(s, i);
+        if (digits == i) {
+            return start;
+        }
+        i = digits;
+        if (i + 1 < s.length() && s.charAt(i) == '.' && isDigit(s.charAt(i + 1))) {
+            i = skipDigits(s, i + 1);
+        }
+        if (i + 1 < s.length() && s.charAt(i) == 'E') {
+            int exponent = i + 1;
+            if (s.charAt(exponent) == '-' && exponent + 1 < s.length()) {
+                exponent++;
+            }
+            int end = skipDigits(s, exponent);
+            if (end > exponent) {
+                i = end;
+            }
+        }
+        return i;
+    }
+    
+    private static int skipDigits(String s, int i) {
+        while (i < s.length() && isDigit(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    /**
+     * Parses an integer operand, returning NaN unless Long.toString of the
+     * value gives back the same text: no leading zeros, no "-0", and short
+     * enough to be exact as a double.
+     */
+    private static double parseInteger(String s, int start, int end) {
+        int digits = s.charAt(start) == '-' ? start + 1 : start;
+        if (end - start > MAX_INTEGER_LENGTH || (s.charAt(digits) == '0' && (end - digits > 1 || digits > start))) {
+            return Double.NaN;
+        }
+        long value = 0;
+        for (int i = digits; i < end; i++) {
+            value = value * 10 + (s.charAt(i) - '0');
+        }
+        return digits > start ? -value : value;
+    }
+    
+    /**
+     * Parses a decimal operand, returning NaN unless Double.toString of the
+     * value gives back the same text. The value is formatted into a reused
+     * buffer and compared character by character.
+     */
+    private static double parseDouble(String s, int start, int end, StringBuilder number) {
+        double value;
+        try {
+            value = NumberParser.parseDouble(s, start, end);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+        number.setLength(0);
+        number.append(value);
+        if (number.length() != end - start) {
+            return Double.NaN;
+        }
+        for (int i = 0; i < number.length(); i++) {
+            if (number.charAt(i) != s.charAt(start + i)) {
+                return Double.NaN;
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Per-thread buffers for encoding.
+     */
+    private static final class Scratch {
+        final StringBuilder template = new StringBuilder(64);
+        final StringBuilder number = new StringBuilder(32);
+        final double[] operands = new double[MAX_OPERANDS];
+    }
+}
@@ -0,0 +1,419 @@
+package com.calculator.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Persistent, memory-mapped journal of calculation history.
+ * 
+ * The journal file is a header followed by a ring of fixed-size binary
+ * records, mapped into memory with {@link FileChannel#map}. Appending an
+ * entry is a handful of stores into the mapping - no system call - and the
+ * operating system writes the pages back in the background. A checkpoint
+ * records the current position in the header and forces the mapping to
+ * disk; {@link #startCheckpoints(long, TimeUnit)} runs them periodically.
+ * 
+ * Because the ring holds at most {@code capacity} records, restoring on
+ * startup reads only the retained records straight from the mapping,
+ * however many calculations were ever journaled. Records written after the
+ * last checkpoint are recovered too, as long as their pages reached disk.
+ * 
+ * Record layout (64 bytes, big-endian):
+ * <pre>
+ *   0  long   sequence + 1 (0 = empty), written last
+ *   8  double result
+ *  16  long   timestamp (ms since epoch)
+ *  24  int    expression template id, or -1 for an inline expression
+ *  28  short  inline expression length in bytes
+ *  32  double first operand   | or up to 32 bytes of UTF-8
+ *  40  double second operand  | inline expression text
+ * </pre>
+ * Templates (see {@link ExpressionDictionary}) are appended to a companion
+ * file named {@code <journal>.templates} the first time they are seen.
+ * Inline expressions are only used when an expression cannot be
+ * template-encoded - once the journal holds 4096 distinct templates, or
+ * for text containing the dictionary's placeholder characters - and are
+ * truncated to 32 bytes of UTF-8: such an expression comes back shortened
+ * when the journal is restored. Results and timestamps are always exact.
+ * 
+ * Like {@link CalculationHistory}, concurrent writers claim a record with
+ * a compare-and-set on an in-memory copy of its sequence stamp, so a
+ * writer lapped by one a full ring ahead drops its record instead of
+ * interleaving with it.
+ */
+public class HistoryJournal implements HistoryListener, Closeable {
+    
+    private static final long MAGIC = 0x43414C4348495354L; // "CALCHIST"
+    private static final int VERSION = 1;
+    
+    // Header layout
+    private static final int HEADER_SIZE = 64;
+    private static final int H_MAGIC = 0;
+    private static final int H_VERSION = 8;
+    private static final int H_RECORD_SIZE = 12;
+    private static final int H_CAPACITY = 16;
+    private static final int H_TAIL = 24;
+    private static final int H_HEAD = 32;
+    
+    // Record layout
+    private static final int RECORD_SIZE = 64;
+    private static final int R_STAMP = 0;
+    private static final int R_RESULT = 8;
+    private static final int R_TIMESTAMP = 16;
+    private static final int R_TEMPLATE = 24;
+    private static final int R_LENGTH = 28;
+    private static final int R_FIRST = 32;
+    private static final int R_SECOND = 40;
+    private static final int R_INLINE = 32;
+    private static final int INLINE_BYTES = 32;
+    
+    private static final int MAX_TEMPLATES = 4096;
+    
+    // Owner value of a record some writer is filling
+    private static final long BUSY = -1;
+    
+    private final FileChannel channel;
+    private final FileChannel templateChannel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final ExpressionDictionary dictionary;
+    private final AtomicLong tail;
+    // Sequence + 1 of the writer owning each record, or BUSY while it is written
+    private final AtomicLongArray owners;
+    private volatile long head;
+    private volatile int persistedTemplates; // Written under templateChannel
+    private ScheduledExecutorService checkpointer;
+    
+    private HistoryJournal(FileChannel channel, FileChannel templateChannel, MappedByteBuffer buffer,
+                           int capacity, ExpressionDictionary dictionary, long tail, long head) {
+        this.channel = channel;
+        this.templateChannel = templateChannel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.dictionary = dictionary;
+        this.tail = new AtomicLong(tail);
+        this.owners = new AtomicLongArray(capacity);
+        this.head = head;
+        this.persistedTemplates = dictionary.size();
+    }
+    
+    /**
+     * Opens a journal, creating it if it does not exist.
+     * An existing journal keeps the capacity it was created with.
+     * 
+     * @param file Journal file
+     * @param capacity Number of records kept when creating a new journal
+     * @return Open journal
+     * @throws IOException if the file cannot be opened or is not a journal
+     */
+    public static HistoryJournal open(Path file, int capacity) throws IOException {
+        if (capacity <= 0 || (long) HEADER_SIZE + (long) capacity * RECORD_SIZE > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Error: Journal capacity must be between 1 and "
+                + (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE + ".");
+        }
+        FileChannel channel = FileChannel.open(file,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel templateChannel = null;
+        try {
+            boolean created = channel.size() == 0;
+            if (!created) {
+                capacity = readCapacity(channel, file);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            if (created) {
+                buffer.putLong(H_MAGIC, MAGIC);
+                buffer.putInt(H_VERSION, VERSION);
+                buffer.putInt(H_RECORD_SIZE, RECORD_SIZE);
+                buffer.putInt(H_CAPACITY, capacity);
+                buffer.force();
+            }
+            
+            Path templateFile = Paths.get(file.toString() + ".templates");
+            templateChannel = FileChannel.open(templateFile,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ExpressionDictionary dictionary = new ExpressionDictionary(MAX_TEMPLATES);
+            loadTemplates(templateChannel, dictionary);
+            
+            long tail = buffer.getLong(H_TAIL);
+            long head = buffer.getLong(H_HEAD);
+            // Roll forward over records written after the last checkpoint
+            for (int i = 0; i < capacity; i++) {
+                int offset = offsetOf(tail, capacity);
+                if (buffer.getLong(offset + R_STAMP) != tail + 1) {
+                    break;
+                }
+                tail++;
+            }
+            return new HistoryJournal(channel, templateChannel, buffer, capacity, dictionary, tail, head);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            if (templateChannel != null) {
+                templateChannel.close();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Restores the journaled entries into a history and starts journaling
+     * every entry added to it from now on.
+     * @param history History to restore into and follow
+     */
+    public void attach(CalculationHistory history) {
+        restore(history);
+        history.addListener(this);
+    }
+    
+    /**
+     * Adds the journaled entries to a history, oldest first, keeping their
+     * original timestamps.
+     * @param history History to restore into
+     */
+    public void restore(CalculationHistory history) {
+        long end = tail.get();
+        long start = Math.max(head, end - capacity);
+        for (long sequence = start; sequence < end; sequence++) {
+            int offset = offsetOf(sequence, capacity);
+            if (buffer.getLong(offset + R_STAMP) != sequence + 1) {
+                continue; // Lost in a crash before reaching disk
+            }
+            history.restoreEntry(readExpression(offset),
+                buffer.getDouble(offset + R_RESULT),
+                buffer.getLong(offset + R_TIMESTAMP));
+        }
+    }
+    
+    @Override
+    public void entryAdded(String expression, double result, long timestamp) {
+        double[] operands = ExpressionDictionary.operandBuffer();
+        int template = dictionary.encode(expression, operands);
+        if (template >= persistedTemplates) {
+            persistTemplates(template);
+        }
+        
+        long sequence = tail.getAndIncrement();
+        int slot = (int) (sequence % capacity);
+        if (!claim(slot, sequence)) {
+            return; // A newer entry already owns the record, so this one is evicted
+        }
+        int offset = offsetOf(sequence, capacity);
+        buffer.putLong(offset + R_STAMP, 0); // Invalidate while the record is rewritten
+        buffer.putDouble(offset + R_RESULT, result);
+        buffer.putLong(offset + R_TIMESTAMP, timestamp);
+        buffer.putInt(offset + R_TEMPLATE, template);
+        if (template == ExpressionDictionary.NONE) {
+            writeInline(offset, expression);
+        } else {
+            buffer.putShort(offset + R_LENGTH, (short) 0);
+            buffer.putDouble(offset + R_FIRST, operands[0]);
+            buffer.putDouble(offset + R_SECOND, operands[1]);
+        }
+        buffer.putLong(offset + R_STAMP, sequence + 1);
+        owners.set(slot, sequence + 1);
+    }
+    
+    /**
+     * Marks a record as being written for a sequence number.
+     * @return false if the record already belongs to a newer entry
+     */
+    private boolean claim(int slot, long sequence) {
+        while (true) {
+            long owner = owners.get(slot);
+            if (owner == BUSY) {
+                Thread.yield(); // Another writer lapped onto this record and is mid-write
+                continue;
+            }
+            if (owner > sequence + 1) {
+                return false;
+            }
+            if (owners.compareAndSet(slot, owner, BUSY)) {
+                return true;
+            }
+        }
+    }
+    
+    @Override
+    public void historyCleared() {
+        head = tail.get();
+        buffer.putLong(H_HEAD, head);
+    }
+    
+    /**
+     * Records the current position in the header and forces the journal to disk.
+     * @throws IOException if the template file cannot be synced
+     */
+    public void checkpoint() throws IOException {
+        buffer.putLong(H_TAIL, tail.get());
+        buffer.putLong(H_HEAD, head);
+        buffer.force();
+        synchronized (templateChannel) {
+            templateChannel.force(false);
+        }
+    }
+    
+    /**
+     * Starts writing checkpoints periodically on a background thread.
+     * @param period Time between checkpoints
+     * @param unit Unit of the period
+     */
+    public synchronized void startCheckpoints(long period, TimeUnit unit) {
+        if (checkpointer != null) {
+            return;
+        }
+        checkpointer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "history-journal-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        checkpointer.scheduleAtFixedRate(() -> {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                System.err.println("Error: History checkpoint failed: " + e.getMessage());
+            }
+        }, period, period, unit);
+    }
+    
+    /**
+     * Gets the number of records the journal keeps.
+     * @return Journal capacity
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Writes a final checkpoint and closes the journal files, after any
+     * periodic checkpoint still running has finished.
+     * @throws IOException if the final checkpoint fails
+     */
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = checkpointer;
+            checkpointer = null;
+        }
+        if (running != null) {
+            running.shutdown();
+            try {
+                running.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt(); // Close anyway; a late checkpoint only fails
+            }
+        }
+        try {
+            checkpoint();
+        } finally {
+            channel.close();
+            templateChannel.close();
+        }
+    }
+    
+    // ==================== Record Helpers ====================
+    
+    private static int offsetOf(long sequence, int capacity) {
+        return HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+    }
+    
+    private String readExpression(int offset) {
+        int template = buffer.getInt(offset + R_TEMPLATE);
+        if (template != ExpressionDictionary.NONE && template < dictionary.size()) {
+            return dictionary.decode(template,
+                buffer.getDouble(offset + R_FIRST), buffer.getDouble(offset + R_SECOND));
+        }
+        byte[] bytes = new byte[Math.min(buffer.getShort(offset + R_LENGTH), INLINE_BYTES)];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = buffer.get(offset + R_INLINE + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private void writeInline(int offset, String expression) {
+        String text = expression == null ? "" : expression;
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        // Truncate on a character boundary so the text still decodes cleanly
+        while (bytes.length > INLINE_BYTES) {
+            text = text.substring(0, text.length() - 1);
+            bytes = text.getBytes(StandardCharsets.UTF_8);
+        }
+        buffer.putShort(offset + R_LENGTH, (short) bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            buffer.put(offset + R_INLINE + i, bytes[i]);
+        }
+    }
+    
+    // ==================== File Helpers ====================
+    
+    private static int readCapacity(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        while (header.hasRemaining() && channel.read(header, header.position()) > 0) {
+            // Keep reading until the header is complete
+        }
+        if (header.hasRemaining() || header.getLong(H_MAGIC) != MAGIC
+                || header.getInt(H_VERSION) != VERSION || header.getInt(H_RECORD_SIZE) != RECORD_SIZE) {
+            throw new IOException("Error: " + file + " is not a history journal.");
+        }
+        return header.getInt(H_CAPACITY);
+    }
+    
+    /**
+     * Reads length-prefixed UTF-8 templates, dropping a partial one left by a crash.
+     */
+    private static void loadTemplates(FileChannel templateChannel, ExpressionDictionary dictionary) throws IOException {
+        long size = templateChannel.size();
+        if (size == 0) {
+            return;
+        }
+        MappedByteBuffer templates = templateChannel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int valid = 0;
+        while (templates.remaining() >= Integer.BYTES) {
+            int length = templates.getInt();
+            if (length < 0 || length > templates.remaining()) {
+                break;
+            }
+            byte[] bytes = new byte[length];
+            templates.get(bytes);
+            dictionary.idOf(new String(bytes, StandardCharsets.UTF_8));
+            valid = templates.position();
+        }
+        if (valid < size) {
+            templateChannel.truncate(valid);
+        }
+    }
+    
+    /**
+     * Appends every template up to the given id to the template file.
+     */
+    private void persistTemplates(int upTo) {
+        synchronized (templateChannel) {
+            try {
+                for (int id = persistedTemplates; id <= upTo; id++) {
+                    byte[] bytes = dictionary.template(id).getBytes(StandardCharsets.UTF_8);
+                    ByteBuffer record = ByteBuffer.allocate(Integer.BYTES + bytes.length);
+                    record.putInt(bytes.length).put(bytes).flip();
+                    long position = templateChannel.size();
+                    while (record.hasRemaining()) {
+                        position += templateChannel.write(record, position);
+                    }
+                }
+                persistedTemplates = Math.max(persistedTemplates, upTo + 1);
+            } catch (IOException e) {
+                throw new IllegalStateException("Error: Cannot write history templates: " + e.getMessage(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.calculator.util;
+
+/**
+ * Callback notified when a {@link CalculationHistory} changes.
+ * Listeners are called on the thread that changed the history, so they
+ * must be thread-safe if several threads add entries.
+ */
+public interface HistoryListener {
+    
+    /**
+     * Called after an entry has been added.
+     * @param expression The calculation expression
+     * @param result The result of the calculation
+     * @param timestamp Time the entry was added, in milliseconds since the epoch
+     */
+    void entryAdded(String expression, double result, long timestamp);
+    
+    /**
+     * Called after the history has been cleared.
+     */
+    void historyCleared();
+}
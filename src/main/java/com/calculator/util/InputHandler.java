@@ -1,17 +1,66 @@
 package com.calculator.util;
 
-import java.util.Scanner;
+import com.calculator.core.Constants;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
 
 /**
  * InputHandler class for managing user input.
  * Provides methods for reading and validating different types of input.
+ * 
+ * Input is split into whitespace-separated tokens like a Scanner would, but
+ * numbers are parsed in place by {@link NumberParser} instead of through
+ * Scanner's locale-aware regular expressions, so piping large numeric
+ * files in is not bound by parsing. Numbers use the plain ASCII syntax
+ * (e.g. {@code -1.5e3}) whatever the default locale.
+ * 
+ * Prompts go to the output stream given at construction, which is
+ * flushed before every wait for input, so a buffered stream (a network
+ * session, say) always shows the prompt being answered.
+ * 
+ * Like the calculation server, input is refused rather than buffered
+ * without bound: a line or token longer than
+ * {@link Constants#MAX_REQUEST_LINE} characters ends the input.
  */
 public class InputHandler {
     
-    private final Scanner scanner;
+    private static final int BUFFER_SIZE = 8192;
+    
+    // Sessions are typed a line at a time; a small buffer keeps thousands of them cheap
+    private static final int SESSION_BUFFER_SIZE = 256;
+    
+    private final Reader reader;
+    private final PrintStream out;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+    
+    private char[] token = new char[64];
+    private CharBuffer tokenView = CharBuffer.wrap(token);
     
     public InputHandler() {
-        this.scanner = new Scanner(System.in);
+        this.reader = new InputStreamReader(System.in);
+        this.out = System.out;
+        this.buffer = new char[BUFFER_SIZE];
+    }
+    
+    /**
+     * Creates an input handler for an interactive session on other streams
+     * than the console.
+     * @param reader Source of the user's input
+     * @param out Destination of prompts and messages
+     */
+    public InputHandler(Reader reader, PrintStream out) {
+        this.reader = reader;
+        this.out = out;
+        this.buffer = new char[SESSION_BUFFER_SIZE];
     }
     
     /**
@@ -20,13 +69,16 @@ public class InputHandler {
      * @return The double value entered
      */
     public double readDouble(String prompt) {
-        System.out.print(prompt);
-        while (!scanner.hasNextDouble()) {
-            System.out.println("Invalid input. Please enter a valid number.");
-            scanner.next(); // Clear invalid input
-            System.out.print(prompt);
+        out.print(prompt);
+        while (true) {
+            int length = nextToken();
+            try {
+                return NumberParser.parseDouble(tokenView, 0, length);
+            } catch (NumberFormatException e) {
+                out.println("Invalid input. Please enter a valid number.");
+                out.print(prompt);
+            }
         }
-        return scanner.nextDouble();
     }
     
     /**
@@ -35,13 +87,16 @@ public class InputHandler {
      * @return The integer value entered
      */
     public int readInt(String prompt) {
-        System.out.print(prompt);
-        while (!scanner.hasNextInt()) {
-            System.out.println("Invalid input. Please enter a valid integer.");
-            scanner.next(); // Clear invalid input
-            System.out.print(prompt);
+        out.print(prompt);
+        while (true) {
+            int length = nextToken();
+            try {
+                return NumberParser.parseInt(tokenView, 0, length);
+            } catch (NumberFormatException e) {
+                out.println("Invalid input. Please enter a valid integer.");
+                out.print(prompt);
+            }
         }
-        return scanner.nextInt();
     }
     
     /**
@@ -50,8 +105,8 @@ public class InputHandler {
      * @return The string entered
      */
     public String readString(String prompt) {
-        System.out.print(prompt);
-        return scanner.next().trim();
+        out.print(prompt);
+        return new String(token, 0, nextToken());
     }
     
     /**
@@ -60,9 +115,9 @@ public class InputHandler {
      * @return The line entered
      */
     public String readLine(String prompt) {
-        System.out.print(prompt);
-        scanner.nextLine(); // Clear buffer
-        return scanner.nextLine().trim();
+        out.print(prompt);
+        nextLine(); // Clear buffer
+        return nextLine().trim();
     }
     
     /**
@@ -79,7 +134,7 @@ public class InputHandler {
             if (choice >= min && choice <= max) {
                 return choice;
             }
-            System.out.println("Invalid choice. Please enter a number between " + min + " and " + max + ".");
+            out.println("Invalid choice. Please enter a number between " + min + " and " + max + ".");
         }
     }
     
@@ -89,24 +144,116 @@ public class InputHandler {
      * @return true for yes, false for no
      */
     public boolean readYesNo(String prompt) {
-        System.out.print(prompt + " (y/n): ");
-        String input = scanner.next().trim().toLowerCase();
+        out.print(prompt + " (y/n): ");
+        String input = new String(token, 0, nextToken()).toLowerCase();
         return input.equals("y") || input.equals("yes");
     }
     
     /**
-     * Closes the scanner resource.
+     * Closes the input stream.
      */
     public void close() {
-        scanner.close();
+        try {
+            reader.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
     
     /**
      * Clears the input buffer.
      */
     public void clearBuffer() {
-        if (scanner.hasNextLine()) {
-            scanner.nextLine();
+        if (fill()) {
+            nextLine();
+        }
+    }
+    
+    // ==================== Tokenizer ====================
+    
+    /**
+     * Reads the next whitespace-separated token into the token buffer.
+     * @return Length of the token
+     * @throws NoSuchElementException if the input is exhausted or the token is too long
+     */
+    private int nextToken() {
+        while (fill() && Character.isWhitespace(buffer[position])) {
+            position++;
+        }
+        if (position == limit) {
+            throw new NoSuchElementException();
+        }
+        int length = 0;
+        while (fill() && !Character.isWhitespace(buffer[position])) {
+            if (length == Constants.MAX_REQUEST_LINE) {
+                throw tooLong();
+            }
+            if (length == token.length) {
+                token = Arrays.copyOf(token, length * 2);
+                tokenView = CharBuffer.wrap(token);
+            }
+            token[length++] = buffer[position++];
+        }
+        return length;
+    }
+    
+    /**
+     * Reads the rest of the current line, without its line separator.
+     * @return Line read
+     * @throws NoSuchElementException if the input is exhausted or the line is too long
+     */
+    private String nextLine() {
+        if (!fill()) {
+            throw new NoSuchElementException();
+        }
+        StringBuilder line = new StringBuilder();
+        while (fill()) {
+            char c = buffer[position++];
+            if (c == '\n') {
+                break;
+            }
+            if (line.length() == Constants.MAX_REQUEST_LINE) {
+                throw tooLong();
+            }
+            line.append(c);
+        }
+        int length = line.length();
+        if (length > 0 && line.charAt(length - 1) == '\r') {
+            line.setLength(length - 1);
+        }
+        return line.toString();
+    }
+    
+    /**
+     * Tells the user that the input was refused and ends it.
+     * @return Exception to throw
+     */
+    private NoSuchElementException tooLong() {
+        out.println("Error: Line longer than " + Constants.MAX_REQUEST_LINE + " characters.");
+        out.flush();
+        position = limit;
+        return new NoSuchElementException("Line longer than " + Constants.MAX_REQUEST_LINE + " characters");
+    }
+    
+    /**
+     * Makes sure at least one unread character is buffered, blocking for input if needed.
+     * @return false at the end of the input
+     */
+    private boolean fill() {
+        if (position < limit) {
+            return true;
+        }
+        try {
+            out.flush();
+            int read;
+            do {
+                read = reader.read(buffer, 0, buffer.length);
+            } while (read == 0);
+            position = 0;
+            limit = Math.max(read, 0);
+            return read > 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 }
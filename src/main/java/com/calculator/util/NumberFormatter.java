@@ -1,93 +1,423 @@
 package com.calculator.util;
 
-import java.text.DecimalFormat;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
 
 /**
  * NumberFormatter utility class for formatting numbers in a user-friendly way.
  * Removes unnecessary trailing zeros and handles special cases.
- * 
+ *
+ * Numbers are converted with {@link DecimalConverter} instead of
+ * DecimalFormat. The output is the same as the DecimalFormat patterns
+ * "#.##########" and "0.######E0" in the default locale, but formatting is
+ * thread-safe and the StringBuilder, char[] and ByteBuffer variants do not
+ * allocate. To stay identical the fixed and scientific formats round the
+ * digits DecimalFormat itself starts from, the old Double.toString digits,
+ * rather than the shortest decimal: 1.0E23 prints as 99999999999999990000000.
+ *
  * JAVA BEST PRACTICE: Utility classes should have private constructors
  * to prevent instantiation and all methods should be static.
  */
 public final class NumberFormatter {
-    
+
     // Private constructor prevents instantiation (Java Best Practice)
     private NumberFormatter() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
     }
-    
-    // Decimal format for standard numbers (up to 10 decimal places)
-    private static final DecimalFormat STANDARD_FORMAT = new DecimalFormat("#.##########");
-    
-    // Decimal format for scientific notation (very large/small numbers)
-    private static final DecimalFormat SCIENTIFIC_FORMAT = new DecimalFormat("0.######E0");
-    
+
+    /**
+     * Longest output of {@link #format(double)}; a char[] of this size always
+     * fits the result of {@link #format(double, char[], int)}.
+     */
+    public static final int MAX_LENGTH = 32;
+
+    // Decimal places shown by the standard format (up to 10 decimal places)
+    private static final int STANDARD_DECIMAL_PLACES = 10;
+
+    // Significant digits shown by the scientific format (0.######E0)
+    private static final int SCIENTIFIC_FRACTION_DIGITS = 6;
+
+    // DecimalFormat never shows more decimal places than this for a double
+    private static final int MAX_DECIMAL_PLACES = 340;
+
+    // Longest fixed-point output: sign, 309 integer digits, separator, 340 decimals
+    private static final int MAX_FIXED_LENGTH = 1 + 309 + 1 + MAX_DECIMAL_PLACES;
+
     // Threshold for switching to scientific notation
     private static final double SCIENTIFIC_THRESHOLD_HIGH = 1e10;
     private static final double SCIENTIFIC_THRESHOLD_LOW = 1e-6;
-    
+
+    private static final String NAN_TEXT = "NaN (Not a Number)";
+
+    // Symbols of the default locale, as DecimalFormat would use them
+    private static final char ZERO_DIGIT;
+    private static final char DECIMAL_SEPARATOR;
+    private static final char MINUS_SIGN;
+    private static final String EXPONENT_SEPARATOR;
+
+    static {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        ZERO_DIGIT = symbols.getZeroDigit();
+        DECIMAL_SEPARATOR = symbols.getDecimalSeparator();
+        MINUS_SIGN = symbols.getMinusSign();
+        EXPONENT_SEPARATOR = symbols.getExponentSeparator();
+    }
+
+    // Per-thread conversion state and output buffer
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        final DecimalConverter decimal = new DecimalConverter();
+        final char[] chars = new char[MAX_FIXED_LENGTH];
+    }
+
     /**
      * Formats a double value for display.
      * - Removes unnecessary trailing zeros
      * - Uses scientific notation for very large/small numbers
      * - Handles special values (NaN, Infinity)
-     * 
+     *
      * @param value The number to format
      * @return Formatted string representation
      */
     public static String format(double value) {
+        Scratch scratch = SCRATCH.get();
+        int length = format(value, scratch.chars, 0, scratch.decimal);
+        return new String(scratch.chars, 0, length);
+    }
+
+    /**
+     * Formats a double value for display into a caller-provided array.
+     *
+     * @param value The number to format
+     * @param dest Destination array
+     * @param offset Index of the first character to write
+     * @return Number of characters written (at most {@link #MAX_LENGTH})
+     * @throws IndexOutOfBoundsException if the result does not fit
+     */
+    public static int format(double value, char[] dest, int offset) {
+        Scratch scratch = SCRATCH.get();
+        int length = format(value, scratch.chars, 0, scratch.decimal);
+        System.arraycopy(scratch.chars, 0, dest, offset, length);
+        return length;
+    }
+
+    /**
+     * Appends a double value formatted for display.
+     *
+     * @param value The number to format
+     * @param dest Builder to append to
+     * @return dest
+     */
+    public static StringBuilder format(double value, StringBuilder dest) {
+        Scratch scratch = SCRATCH.get();
+        return dest.append(scratch.chars, 0, format(value, scratch.chars, 0, scratch.decimal));
+    }
+
+    /**
+     * Writes a double value formatted for display as UTF-8 at the buffer's position.
+     *
+     * @param value The number to format
+     * @param dest Buffer to write to; its position is advanced past the text
+     * @throws BufferOverflowException if the text does not fit (nothing is written)
+     */
+    public static void format(double value, ByteBuffer dest) {
+        Scratch scratch = SCRATCH.get();
+        putUtf8(scratch.chars, format(value, scratch.chars, 0, scratch.decimal), dest);
+    }
+
+    /**
+     * Formats a number with a specific number of decimal places.
+     *
+     * @param value The number to format
+     * @param decimalPlaces Number of decimal places
+     * @return Formatted string representation
+     */
+    public static String format(double value, int decimalPlaces) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return format(value);
+        }
+        Scratch scratch = SCRATCH.get();
+        int length = formatPlaces(value, decimalPlaces, scratch.chars, scratch.decimal);
+        return new String(scratch.chars, 0, length);
+    }
+
+    /**
+     * Appends a number with a specific number of decimal places.
+     *
+     * @param value The number to format
+     * @param decimalPlaces Number of decimal places
+     * @param dest Builder to append to
+     * @return dest
+     */
+    public static StringBuilder format(double value, int decimalPlaces, StringBuilder dest) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return format(value, dest);
+        }
+        Scratch scratch = SCRATCH.get();
+        return dest.append(scratch.chars, 0, formatPlaces(value, decimalPlaces, scratch.chars, scratch.decimal));
+    }
+
+    /**
+     * Formats a number as the shortest text that parses back to exactly
+     * the same double, in the layout of {@link Double#toString(double)}
+     * (for example "0.1", "100.0" or "1.0E-7"). Unlike the display
+     * formats this never loses precision, which suits machine-readable output.
+     *
+     * @param value The number to format
+     * @param dest Destination array
+     * @param offset Index of the first character to write
+     * @return Number of characters written (at most {@link #MAX_LENGTH})
+     * @throws IndexOutOfBoundsException if the result does not fit
+     */
+    public static int formatRoundTrip(double value, char[] dest, int offset) {
+        Scratch scratch = SCRATCH.get();
+        int length = formatRoundTrip(value, scratch.chars, scratch.decimal);
+        System.arraycopy(scratch.chars, 0, dest, offset, length);
+        return length;
+    }
+
+    /**
+     * Formats a number as the shortest text that parses back to exactly the same double.
+     *
+     * @param value The number to format
+     * @return Round-trip string representation
+     * @see #formatRoundTrip(double, char[], int)
+     */
+    public static String formatRoundTrip(double value) {
+        Scratch scratch = SCRATCH.get();
+        return new String(scratch.chars, 0, formatRoundTrip(value, scratch.chars, scratch.decimal));
+    }
+
+    /**
+     * Checks if a double value represents a whole number.
+     *
+     * @param value The number to check
+     * @return true if the value is a whole number
+     */
+    public static boolean isWholeNumber(double value) {
+        return value == Math.floor(value) && !Double.isInfinite(value);
+    }
+
+    // ==================== Formatting ====================
+
+    private static int format(double value, char[] buf, int pos, DecimalConverter decimal) {
         // Handle special cases
         if (Double.isNaN(value)) {
-            return "NaN (Not a Number)";
+            return putString(NAN_TEXT, buf, pos) - pos;
         }
         if (Double.isInfinite(value)) {
-            return value > 0 ? "Infinity" : "-Infinity";
+            return putString(value > 0 ? "Infinity" : "-Infinity", buf, pos) - pos;
         }
-        
+
         // Check if the value is a whole number
         if (value == Math.floor(value) && Math.abs(value) < Long.MAX_VALUE) {
-            return String.valueOf((long) value);
+            return putLong((long) value, buf, pos) - pos;
         }
-        
+
         // Use scientific notation for very large or very small numbers
         double absValue = Math.abs(value);
+        decimal.convertFloatingDecimal(value);
+        int start = pos;
+        if (value < 0) {
+            buf[pos++] = MINUS_SIGN;
+        }
         if (absValue != 0 && (absValue >= SCIENTIFIC_THRESHOLD_HIGH || absValue < SCIENTIFIC_THRESHOLD_LOW)) {
-            return SCIENTIFIC_FORMAT.format(value);
+            decimal.roundTo(decimal.scientificExponent() - SCIENTIFIC_FRACTION_DIGITS);
+            return putScientific(decimal, buf, pos) - start;
         }
-        
+
         // Standard formatting
-        return STANDARD_FORMAT.format(value);
+        decimal.roundTo(-STANDARD_DECIMAL_PLACES);
+        return putFixed(decimal, false, buf, pos) - start;
     }
-    
+
     /**
-     * Formats a number with a specific number of decimal places.
-     * 
-     * @param value The number to format
-     * @param decimalPlaces Number of decimal places
-     * @return Formatted string representation
+     * Same output as new DecimalFormat("#." + decimalPlaces times "#").
      */
-    public static String format(double value, int decimalPlaces) {
-        if (Double.isNaN(value) || Double.isInfinite(value)) {
-            return format(value);
+    private static int formatPlaces(double value, int decimalPlaces, char[] buf, DecimalConverter decimal) {
+        int places = Math.min(Math.max(decimalPlaces, 0), MAX_DECIMAL_PLACES);
+        if (value == Math.floor(value) && Math.abs(value) < Long.MAX_VALUE) {
+            // DecimalFormat digits whole numbers that fit in a long differently
+            decimal.convertWhole(Math.abs((long) value));
+        } else {
+            decimal.convertFloatingDecimal(value);
+            int leading = decimal.scientificExponent();
+            if (decimal.digits == 5 && leading == -places - 1 && leading < -3) {
+                // A lone 5 just below the last place, in the digits "5.0E-n": DecimalFormat
+                // rounds those as written, ignoring the binary value, so the tie goes to 0
+                decimal.error = 0;
+            }
+            decimal.roundTo(-places);
+        }
+        int pos = 0;
+        // DecimalFormat keeps the sign of negative values that round to zero, and of -0.0
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buf[pos++] = MINUS_SIGN;
+        }
+        return putFixed(decimal, places == 0, buf, pos);
+    }
+
+    private static int formatRoundTrip(double value, char[] buf, DecimalConverter decimal) {
+        if (Double.isNaN(value)) {
+            return putString("NaN", buf, 0);
+        }
+        int pos = 0;
+        if (Double.doubleToRawLongBits(value) < 0) {
+            buf[pos++] = '-';
+        }
+        if (Double.isInfinite(value)) {
+            return putString("Infinity", buf, pos);
         }
-        
-        StringBuilder pattern = new StringBuilder("#.");
-        for (int i = 0; i < decimalPlaces; i++) {
-            pattern.append("#");
+        decimal.convert(value);
+        long digits = decimal.digits;
+        int length = decimal.length;
+        int exponent = decimal.scientificExponent();
+        if (digits == 0) {
+            return putString("0.0", buf, pos);
         }
-        
-        DecimalFormat df = new DecimalFormat(pattern.toString());
-        return df.format(value);
+        if (exponent >= -3 && exponent < 7) {
+            // Plain notation between 10^-3 and 10^7, as Double.toString
+            if (exponent < 0) {
+                buf[pos++] = '0';
+                buf[pos++] = '.';
+                for (int i = exponent + 1; i < 0; i++) {
+                    buf[pos++] = '0';
+                }
+                return putDigits(digits, length, '0', buf, pos);
+            }
+            int integerDigits = exponent + 1;
+            if (length <= integerDigits) {
+                pos = putDigits(digits, length, '0', buf, pos);
+                for (int i = length; i < integerDigits; i++) {
+                    buf[pos++] = '0';
+                }
+                return putString(".0", buf, pos);
+            }
+            long unit = DecimalConverter.POW10[length - integerDigits];
+            pos = putDigits(digits / unit, integerDigits, '0', buf, pos);
+            buf[pos++] = '.';
+            return putDigits(digits % unit, length - integerDigits, '0', buf, pos);
+        }
+        // Computerized scientific notation: d.dddE[-]n
+        long unit = DecimalConverter.POW10[length - 1];
+        buf[pos++] = (char) ('0' + digits / unit);
+        buf[pos++] = '.';
+        pos = length > 1 ? putDigits(digits % unit, length - 1, '0', buf, pos) : putString("0", buf, pos);
+        buf[pos++] = 'E';
+        if (exponent < 0) {
+            buf[pos++] = '-';
+        }
+        int magnitude = Math.abs(exponent);
+        return putDigits(magnitude, DecimalConverter.digitCount(magnitude), '0', buf, pos);
     }
-    
+
+    // ==================== Output Helpers ====================
+
     /**
-     * Checks if a double value represents a whole number.
-     * 
-     * @param value The number to check
-     * @return true if the value is a whole number
+     * Writes digits * 10^exponent in fixed-point notation, with no sign.
      */
-    public static boolean isWholeNumber(double value) {
-        return value == Math.floor(value) && !Double.isInfinite(value);
+    private static int putFixed(DecimalConverter decimal, boolean alwaysShowSeparator, char[] buf, int pos) {
+        long digits = decimal.digits;
+        int length = decimal.length;
+        int exponent = decimal.exponent;
+        if (digits == 0 || exponent >= 0) {
+            pos = putDigits(digits, length, ZERO_DIGIT, buf, pos);
+            for (int i = 0; digits != 0 && i < exponent; i++) {
+                buf[pos++] = ZERO_DIGIT;
+            }
+            if (alwaysShowSeparator) {
+                buf[pos++] = DECIMAL_SEPARATOR;
+            }
+            return pos;
+        }
+        int fractionDigits = -exponent;
+        if (length > fractionDigits) {
+            long unit = DecimalConverter.POW10[fractionDigits];
+            pos = putDigits(digits / unit, length - fractionDigits, ZERO_DIGIT, buf, pos);
+            buf[pos++] = DECIMAL_SEPARATOR;
+            return putDigits(digits % unit, fractionDigits, ZERO_DIGIT, buf, pos);
+        }
+        buf[pos++] = ZERO_DIGIT;
+        buf[pos++] = DECIMAL_SEPARATOR;
+        for (int i = length; i < fractionDigits; i++) {
+            buf[pos++] = ZERO_DIGIT;
+        }
+        return putDigits(digits, length, ZERO_DIGIT, buf, pos);
+    }
+
+    /**
+     * Writes the digits as d.ddddddE[-]n, with no sign.
+     */
+    private static int putScientific(DecimalConverter decimal, char[] buf, int pos) {
+        long digits = decimal.digits;
+        int length = decimal.length;
+        int exponent = decimal.scientificExponent();
+        long unit = DecimalConverter.POW10[length - 1];
+        buf[pos++] = (char) (ZERO_DIGIT + digits / unit);
+        if (length > 1) {
+            buf[pos++] = DECIMAL_SEPARATOR;
+            pos = putDigits(digits % unit, length - 1, ZERO_DIGIT, buf, pos);
+        }
+        pos = putString(EXPONENT_SEPARATOR, buf, pos);
+        if (exponent < 0) {
+            buf[pos++] = MINUS_SIGN;
+        }
+        int magnitude = Math.abs(exponent);
+        return putDigits(magnitude, DecimalConverter.digitCount(magnitude), ZERO_DIGIT, buf, pos);
+    }
+
+    /**
+     * Writes exactly count digits of a non-negative number, with leading zeros.
+     */
+    private static int putDigits(long value, int count, char zero, char[] buf, int pos) {
+        int end = pos + count;
+        for (int i = end - 1; i >= pos; i--) {
+            buf[i] = (char) (zero + value % 10);
+            value /= 10;
+        }
+        return end;
+    }
+
+    /**
+     * Writes a long as String.valueOf would.
+     */
+    private static int putLong(long value, char[] buf, int pos) {
+        if (value < 0) {
+            buf[pos++] = '-';
+            value = -value;
+        }
+        return value == 0 ? putDigits(0, 1, '0', buf, pos)
+            : putDigits(value, DecimalConverter.digitCount(value), '0', buf, pos);
+    }
+
+    private static int putString(String text, char[] buf, int pos) {
+        text.getChars(0, text.length(), buf, pos);
+        return pos + text.length();
     }
-}
 
+    private static void putUtf8(char[] chars, int length, ByteBuffer dest) {
+        int bytes = 0;
+        for (int i = 0; i < length; i++) {
+            bytes += chars[i] < 0x80 ? 1 : chars[i] < 0x800 ? 2 : 3;
+        }
+        if (dest.remaining() < bytes) {
+            throw new BufferOverflowException();
+        }
+        for (int i = 0; i < length; i++) {
+            char c = chars[i];
+            if (c < 0x80) {
+                dest.put((byte) c);
+            } else if (c < 0x800) {
+                dest.put((byte) (0xc0 | c >> 6));
+                dest.put((byte) (0x80 | c & 0x3f));
+            } else {
+                dest.put((byte) (0xe0 | c >> 12));
+                dest.put((byte) (0x80 | c >> 6 & 0x3f));
+                dest.put((byte) (0x80 | c & 0x3f));
+            }
+        }
+    }
+}
@@ -0,0 +1,489 @@
+package com.calculator.util;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses decimal numbers straight from character or byte input, without
+ * building intermediate Strings.
+ * 
+ * Doubles are converted with the Eisel-Lemire algorithm (Daniel Lemire,
+ * "Number Parsing at a Gigabyte per Second", 2021): the first 19
+ * significant digits are multiplied by a 128-bit approximation of the
+ * power of ten, which settles the correctly rounded result for all but a
+ * vanishing fraction of inputs. Those few - exact halfway cases,
+ * subnormals and some numbers with more than 19 digits - are handed to
+ * {@link Double#parseDouble}, so every result is the one the JDK gives.
+ * 
+ * The accepted syntax is plain ASCII decimal, independent of the locale:
+ * <pre>
+ *   [+|-] (digits [. [digits]] | . digits) [(e|E) [+|-] digits]
+ *   [+|-] Infinity
+ *   NaN
+ * </pre>
+ * No surrounding whitespace, grouping separators or type suffixes.
+ */
+public final class NumberParser {
+    
+    /** Smallest and largest decimal exponents covered by the power table. */
+    private static final int MIN_EXPONENT = -342;
+    private static final int MAX_EXPONENT = 308;
+    
+    /** Significant digits that always fit in an unsigned long. */
+    private static final int MAX_DIGITS = 19;
+    
+    /** Exponents beyond this are infinite or zero whatever the digits; clamping stops overflow. */
+    private static final int EXPONENT_LIMIT = 100_000;
+    
+    /** Returned by {@link #toBits} when the fast path cannot decide. */
+    private static final long UNDECIDED = -1L;
+    
+    /** Powers of ten that doubles hold exactly. */
+    private static final double[] EXACT_POW10 = new double[23];
+    
+    /*
+     * For each q in [MIN_EXPONENT, MAX_EXPONENT], 10^q scaled into [2^127, 2^128)
+     * and truncated, as its high and low 64 bits.
+     */
+    private static final long[] POW10_HIGH = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    private static final long[] POW10_LOW = new long[MAX_EXPONENT - MIN_EXPONENT + 1];
+    
+    static {
+        EXACT_POW10[0] = 1;
+        for (int i = 1; i < EXACT_POW10.length; i++) {
+            EXACT_POW10[i] = EXACT_POW10[i - 1] * 10;
+        }
+        for (int q = MIN_EXPONENT; q <= MAX_EXPONENT; q++) {
+            BigInteger m;
+            if (q >= 0) {
+                BigInteger pow = BigInteger.TEN.pow(q);
+                int shift = 128 - pow.bitLength();
+                m = shift >= 0 ? pow.shiftLeft(shift) : pow.shiftRight(-shift);
+            } else {
+                BigInteger pow = BigInteger.TEN.pow(-q);
+                m = BigInteger.ONE.shiftLeft(127 + pow.bitLength()).divide(pow);
+            }
+            POW10_HIGH[q - MIN_EXPONENT] = m.shiftRight(64).longValue();
+            POW10_LOW[q - MIN_EXPONENT] = m.longValue();
+        }
+    }
+    
+    private NumberParser() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+    
+    // ==================== Doubles ====================
+    
+    /**
+     * Parses a whole character sequence as a double.
+     * @param text Number to parse
+     * @return Correctly rounded value
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static double parseDouble(CharSequence text) {
+        return parseDouble(text, 0, text.length());
+    }
+    
+    /**
+     * Parses part of a character sequence, such as a String or CharBuffer,
+     * as a double.
+     * @param text Characters holding the number
+     * @param start Index of the first character
+     * @param end Index after the last character
+     * @return Correctly rounded value
+     * @throws NumberFormatException if the characters are not a number
+     */
+    public static double parseDouble(CharSequence text, int start, int end) {
+        checkRange(start, end, text.length());
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+            negative = text.charAt(pos++) == '-';
+        }
+        if (matches(text, pos, end, "Infinity")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        if (matches(text, pos, end, "NaN")) {
+            return Double.NaN;
+        }
+    
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; pos < end; pos++) {
+            char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (digits < MAX_DIGITS) {
+                    if (mantissa != 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                    }
+                    if (seenPoint) {
+                        exponent--;
+                    }
+                } else {
+                    truncated |= c != '0';
+                    if (!seenPoint) {
+                        exponent++;
+                    }
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            throw invalid(text, start, end);
+        }
+        if (pos < end && (text.charAt(pos) == 'e' || text.charAt(pos) == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < end && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+                negativeExponent = text.charAt(pos++) == '-';
+            }
+            if (pos == end) {
+                throw invalid(text, start, end);
+            }
+            int explicit = 0;
+            for (; pos < end; pos++) {
+                char c = text.charAt(pos);
+                if (c < '0' || c > '9') {
+                    throw invalid(text, start, end);
+                }
+                if (explicit < EXPONENT_LIMIT) {
+                    explicit = explicit * 10 + (c - '0');
+                }
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        } else if (pos < end) {
+            throw invalid(text, start, end);
+        }
+    
+        long bits = toBits(mantissa, exponent, truncated);
+        if (bits == UNDECIDED) {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        }
+        return negative ? -Double.longBitsToDouble(bits) : Double.longBitsToDouble(bits);
+    }
+    
+    /**
+     * Parses part of a byte array holding ASCII (or UTF-8) text as a double.
+     * @param text Bytes holding the number
+     * @param start Index of the first byte
+     * @param end Index after the last byte
+     * @return Correctly rounded value
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    public static double parseDouble(byte[] text, int start, int end) {
+        checkRange(start, end, text.length);
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (text[pos] == '-' || text[pos] == '+')) {
+            negative = text[pos++] == '-';
+        }
+        if (matches(text, pos, end, "Infinity")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        if (matches(text, pos, end, "NaN")) {
+            return Double.NaN;
+        }
+    
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean truncated = false;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; pos < end; pos++) {
+            byte c = text[pos];
+            if (c >= '0' && c <= '9') {
+                seenDigit = true;
+                if (digits < MAX_DIGITS) {
+                    if (mantissa != 0 || c != '0') {
+                        mantissa = mantissa * 10 + (c - '0');
+                        digits++;
+                    }
+                    if (seenPoint) {
+                        exponent--;
+                    }
+                } else {
+                    truncated |= c != '0';
+                    if (!seenPoint) {
+                        exponent++;
+                    }
+                }
+            } else if (c == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                break;
+            }
+        }
+        if (!seenDigit) {
+            throw invalid(text, start, end);
+        }
+        if (pos < end && (text[pos] == 'e' || text[pos] == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < end && (text[pos] == '-' || text[pos] == '+')) {
+                negativeExponent = text[pos++] == '-';
+            }
+            if (pos == end) {
+                throw invalid(text, start, end);
+            }
+            int explicit = 0;
+            for (; pos < end; pos++) {
+                byte c = text[pos];
+                if (c < '0' || c > '9') {
+                    throw invalid(text, start, end);
+                }
+                if (explicit < EXPONENT_LIMIT) {
+                    explicit = explicit * 10 + (c - '0');
+                }
+            }
+            exponent += negativeExponent ? -explicit : explicit;
+        } else if (pos < end) {
+            throw invalid(text, start, end);
+        }
+    
+        long bits = toBits(mantissa, exponent, truncated);
+        if (bits == UNDECIDED) {
+            return Double.parseDouble(new String(text, start, end - start, StandardCharsets.ISO_8859_1));
+        }
+        return negative ? -Double.longBitsToDouble(bits) : Double.longBitsToDouble(bits);
+    }
+    
+    private static boolean matches(CharSequence text, int pos, int end, String word) {
+        if (end - pos != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (text.charAt(pos + i) != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static boolean matches(byte[] text, int pos, int end, String word) {
+        if (end - pos != word.length()) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (text[pos + i] != word.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    // ==================== Integers ====================
+    
+    /**
+     * Parses part of a character sequence as a decimal long.
+     * @param text Characters holding the number
+     * @param start Index of the first character
+     * @param end Index after the last character
+     * @return Parsed value
+     * @throws NumberFormatException if the characters are not an integer or it overflows
+     */
+    public static long parseLong(CharSequence text, int start, int end) {
+        checkRange(start, end, text.length());
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (text.charAt(pos) == '-' || text.charAt(pos) == '+')) {
+            negative = text.charAt(pos++) == '-';
+        }
+        if (pos == end) {
+            throw invalid(text, start, end);
+        }
+        // Accumulate negatively so that Long.MIN_VALUE fits
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; pos < end; pos++) {
+            int digit = text.charAt(pos) - '0';
+            if (digit < 0 || digit > 9 || result < (limit + digit) / 10) {
+                throw invalid(text, start, end);
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    /**
+     * Parses part of a byte array holding ASCII text as a decimal long.
+     * @param text Bytes holding the number
+     * @param start Index of the first byte
+     * @param end Index after the last byte
+     * @return Parsed value
+     * @throws NumberFormatException if the bytes are not an integer or it overflows
+     */
+    public static long parseLong(byte[] text, int start, int end) {
+        checkRange(start, end, text.length);
+        int pos = start;
+        boolean negative = false;
+        if (pos < end && (text[pos] == '-' || text[pos] == '+')) {
+            negative = text[pos++] == '-';
+        }
+        if (pos == end) {
+            throw invalid(text, start, end);
+        }
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; pos < end; pos++) {
+            int digit = text[pos] - '0';
+            if (digit < 0 || digit > 9 || result < (limit + digit) / 10) {
+                throw invalid(text, start, end);
+            }
+            result = result * 10 - digit;
+        }
+        return negative ? result : -result;
+    }
+    
+    /**
+     * Parses part of a character sequence as a decimal int.
+     * @param text Characters holding the number
+     * @param start Index of the first character
+     * @param end Index after the last character
+     * @return Parsed value
+     * @throws NumberFormatException if the characters are not an integer or it overflows
+     */
+    public static int parseInt(CharSequence text, int start, int end) {
+        long value = parseLong(text, start, end);
+        if ((int) value != value) {
+            throw invalid(text, start, end);
+        }
+        return (int) value;
+    }
+    
+    /**
+     * Parses part of a byte array holding ASCII text as a decimal int.
+     * @param text Bytes holding the number
+     * @param start Index of the first byte
+     * @param end Index after the last byte
+     * @return Parsed value
+     * @throws NumberFormatException if the bytes are not an integer or it overflows
+     */
+    public static int parseInt(byte[] text, int start, int end) {
+        long value = parseLong(text, start, end);
+        if ((int) value != value) {
+            throw invalid(text, start, end);
+        }
+        return (int) value;
+    }
+    
+    // ==================== Conversion ====================
+    
+    /**
+     * Converts mantissa * 10^exponent to the bits of the nearest double.
+     * @param mantissa Up to 19 significant digits, as an unsigned long
+     * @param exponent Power of ten
+     * @param truncated Whether non-zero digits were dropped after the mantissa
+     * @return Bits of the magnitude, or UNDECIDED
+     */
+    private static long toBits(long mantissa, int exponent, boolean truncated) {
+        if (mantissa == 0) {
+            return 0;
+        }
+        if (!truncated) {
+            // Clinger's fast path: both factors and the single rounding are exact
+            if (Long.compareUnsigned(mantissa, 1L << 53) <= 0 && exponent >= -22 && exponent <= 22) {
+                double value = (double) mantissa;
+                value = exponent < 0 ? value / EXACT_POW10[-exponent] : value * EXACT_POW10[exponent];
+                return Double.doubleToRawLongBits(value);
+            }
+            return eiselLemire(mantissa, exponent);
+        }
+        // The true value lies between mantissa and mantissa + 1 digits
+        long bits = eiselLemire(mantissa, exponent);
+        if (bits == UNDECIDED || bits != eiselLemire(mantissa + 1, exponent)) {
+            return UNDECIDED;
+        }
+        return bits;
+    }
+    
+    /**
+     * Eisel-Lemire conversion of a non-zero mantissa, following the Go
+     * standard library's eiselLemire64.
+     */
+    private static long eiselLemire(long mantissa, int exponent) {
+        if (exponent < MIN_EXPONENT) {
+            return 0;
+        }
+        if (exponent > MAX_EXPONENT) {
+            return Double.doubleToRawLongBits(Double.POSITIVE_INFINITY);
+        }
+        int index = exponent - MIN_EXPONENT;
+        int clz = Long.numberOfLeadingZeros(mantissa);
+        long man = mantissa << clz;
+        // floor(exponent log2(10)) + 64 + bias
+        long exp2 = (217_706L * exponent >> 16) + 64 + 1023 - clz;
+    
+        long high = unsignedMultiplyHigh(man, POW10_HIGH[index]);
+        long low = man * POW10_HIGH[index];
+        if ((high & 0x1ff) == 0x1ff && Long.compareUnsigned(low + man, man) < 0) {
+            // The truncated power may be too small to settle the low bits: add the next 64 bits
+            long lowerHigh = unsignedMultiplyHigh(man, POW10_LOW[index]);
+            long lowerLow = man * POW10_LOW[index];
+            long mergedLow = low + lowerHigh;
+            long mergedHigh = Long.compareUnsigned(mergedLow, low) < 0 ? high + 1 : high;
+            if ((mergedHigh & 0x1ff) == 0x1ff && mergedLow == -1L
+                    && Long.compareUnsigned(lowerLow + man, man) < 0) {
+                return UNDECIDED;
+            }
+            high = mergedHigh;
+            low = mergedLow;
+        }
+    
+        int msb = (int) (high >>> 63);
+        long bits = high >>> (msb + 9);
+        exp2 -= 1 ^ msb;
+        if (low == 0 && (high & 0x1ff) == 0 && (bits & 3) == 1) {
+            // Exactly halfway between two doubles
+            return UNDECIDED;
+        }
+        bits = (bits + (bits & 1)) >>> 1;
+        if (bits >>> 53 != 0) {
+            bits >>>= 1;
+            exp2++;
+        }
+        if (exp2 <= 0 || exp2 >= 0x7ff) {
+            // Subnormal or overflowing
+            return UNDECIDED;
+        }
+        return exp2 << 52 | bits & ((1L << 52) - 1);
+    }
+    
+    /** High 64 bits of the unsigned 128-bit product (Math.unsignedMultiplyHigh needs Java 18). */
+    private static long unsignedMultiplyHigh(long x, long y) {
+        long x1 = x >>> 32;
+        long x0 = x & 0xffffffffL;
+        long y1 = y >>> 32;
+        long y0 = y & 0xffffffffL;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long middle = ((x0 * y0) >>> 32) + (p01 & 0xffffffffL) + (p10 & 0xffffffffL);
+        return x1 * y1 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+    
+    // ==================== Helpers ====================
+    
+    private static void checkRange(int start, int end, int length) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("Error: Range [" + start + ", " + end
+                + ") is out of bounds for length " + length + ".");
+        }
+    }
+    
+    private static NumberFormatException invalid(CharSequence text, int start, int end) {
+        return new NumberFormatException("Error: '" + text.subSequence(start, end) + "' is not a valid number.");
+    }
+    
+    private static NumberFormatException invalid(byte[] text, int start, int end) {
+        return invalid(new String(text, start, end - start, StandardCharsets.ISO_8859_1), 0, end - start);
+    }
+}